@@ -0,0 +1,15 @@
+package com.movento.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Complete upstream response as held by {@link ResponseCache}. Headers are a private copy with
+ * hop-by-hop and per-exchange headers already removed.
+ */
+public record CachedResponse(HttpStatusCode status,
+                             HttpHeaders headers,
+                             byte[] body,
+                             String etag,
+                             long ttlNanos) {
+}
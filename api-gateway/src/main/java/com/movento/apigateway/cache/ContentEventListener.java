@@ -0,0 +1,31 @@
+package com.movento.apigateway.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached catalog responses when content-service reports a catalog change. Listings embed
+ * content and genres in many combinations, and changes are rare, so the whole cache is cleared.
+ */
+@Component
+public class ContentEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentEventListener.class);
+
+    private final ResponseCache responseCache;
+
+    public ContentEventListener(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @RabbitListener(queues = "#{contentEventsQueue.name}")
+    public void onContentChanged(ContentChangeEvent event) {
+        logger.debug("Catalog change {} {}, invalidating cached responses", event.type(), event.id());
+        responseCache.invalidateAll();
+    }
+
+    public record ContentChangeEvent(String type, Long id) {
+    }
+}
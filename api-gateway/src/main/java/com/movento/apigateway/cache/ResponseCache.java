@@ -0,0 +1,118 @@
+package com.movento.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory store of whole GET responses shared by every route using
+ * {@link com.movento.apigateway.filter.ResponseCacheFilter}. Entries are weighed by body size
+ * and expire individually. Invalidation bumps a generation counter so that responses which
+ * were already in flight when the catalog changed are not stored afterwards.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    private final Cache<String, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter notModified;
+    private final Counter misses;
+    private final Counter bytesSaved;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${app.response-cache.max-size-bytes:67108864}") long maxSizeBytes) {
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxSizeBytes)
+            .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+            .expireAfter(new ResponseExpiry())
+            .build();
+
+        this.hits = requests(meterRegistry, "hit");
+        this.notModified = requests(meterRegistry, "not_modified");
+        this.misses = requests(meterRegistry, "miss");
+        this.bytesSaved = Counter.builder("gateway.response.cache.bytes.saved")
+            .description("Response body bytes served from the gateway cache instead of upstream")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.hit.ratio", this, ResponseCache::hitRatio)
+            .description("Share of cacheable requests answered from the gateway cache")
+            .register(meterRegistry);
+        Gauge.builder("gateway.response.cache.entries", cache, c -> c.estimatedSize())
+            .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+            .description("Cacheable GET requests by lookup result")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response == null) {
+            misses.increment();
+        }
+        return response;
+    }
+
+    public void recordHit(CachedResponse response, boolean revalidated) {
+        (revalidated ? notModified : hits).increment();
+        bytesSaved.increment(response.body().length);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores the response unless the cache was invalidated since {@code observedGeneration}.
+     */
+    public void put(String key, CachedResponse response, long observedGeneration) {
+        if (generation.get() == observedGeneration) {
+            cache.put(key, response);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        logger.debug("Gateway response cache invalidated");
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + notModified.count();
+        double total = served + misses.count();
+        return total == 0 ? 0.0 : served / total;
+    }
+
+    private static final class ResponseExpiry implements Expiry<String, CachedResponse> {
+        @Override
+        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return response.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
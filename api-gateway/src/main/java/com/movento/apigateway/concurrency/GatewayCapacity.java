@@ -0,0 +1,40 @@
+package com.movento.apigateway.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gateway-wide in-flight request budget shared by all routes, partitioned by {@link RequestPriority}.
+ */
+@Component
+public class GatewayCapacity {
+
+    private final int capacity;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public GatewayCapacity(MeterRegistry meterRegistry,
+                           @Value("${app.concurrency.gateway-capacity:2000}") int capacity) {
+        this.capacity = capacity;
+        Gauge.builder("gateway.concurrency.inflight", inFlight, AtomicInteger::get)
+            .description("Requests in flight across all adaptively limited routes")
+            .tag("route", "all")
+            .register(meterRegistry);
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = (int) (capacity * priority.getCapacityShare());
+        if (inFlight.incrementAndGet() > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,67 @@
+package com.movento.apigateway.concurrency;
+
+/**
+ * Concurrency limit that follows observed latency. A fast-moving average of response times is
+ * compared with a slow-moving baseline: while they agree the limit grows by a small queue
+ * allowance, and when latency rises above the baseline the limit shrinks in proportion. Failed
+ * or timed-out calls cut the limit multiplicatively.
+ */
+public class GradientLimit {
+
+    private static final double SHORT_RTT_ALPHA = 0.2;
+    private static final double LONG_RTT_ALPHA = 0.01;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+    // Tolerate this much latency growth before treating it as queueing
+    private static final double TOLERANCE = 1.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_RTT_ALPHA;
+        longRttNanos += (rttNanos - longRttNanos) * LONG_RTT_ALPHA;
+
+        // Don't grow a limit the traffic isn't using; it would not have been tested
+        if (inFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double queueAllowance = Math.sqrt(limit);
+        double target = limit * gradient + queueAllowance;
+        update(limit * (1 - SMOOTHING) + target * SMOOTHING);
+
+        // Let the baseline follow a lasting improvement instead of anchoring on old slowness
+        if (longRttNanos > shortRttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+    }
+
+    public synchronized void onDrop() {
+        update(limit * DROP_BACKOFF);
+    }
+
+    private void update(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
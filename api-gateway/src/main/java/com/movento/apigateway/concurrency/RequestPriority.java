@@ -0,0 +1,21 @@
+package com.movento.apigateway.concurrency;
+
+/**
+ * Share of the gateway-wide in-flight capacity a route may use. Under overload, lower-priority
+ * routes are shed first so that e.g. payments and sign-in keep working while browsing degrades.
+ */
+public enum RequestPriority {
+    HIGH(1.0),
+    NORMAL(0.85),
+    LOW(0.6);
+
+    private final double capacityShare;
+
+    RequestPriority(double capacityShare) {
+        this.capacityShare = capacityShare;
+    }
+
+    public double getCapacityShare() {
+        return capacityShare;
+    }
+}
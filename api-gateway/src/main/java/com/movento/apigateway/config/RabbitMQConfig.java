@@ -0,0 +1,43 @@
+package com.movento.apigateway.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Value("${app.messaging.content-exchange}")
+    private String contentExchange;
+
+    @Bean
+    public TopicExchange contentEventsExchange() {
+        return new TopicExchange(contentExchange);
+    }
+
+    @Bean
+    public Queue contentEventsQueue() {
+        // Exclusive, auto-delete queue per instance so each gateway drops its own cache
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding contentEventsBinding() {
+        return BindingBuilder
+                .bind(contentEventsQueue())
+                .to(contentEventsExchange())
+                .with("#");
+    }
+
+    @Bean
+    public MessageConverter jsonMessageConverter() {
+        return new Jackson2JsonMessageConverter();
+    }
+}
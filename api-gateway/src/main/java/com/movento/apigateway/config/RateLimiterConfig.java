@@ -1,22 +1,39 @@
 package com.movento.apigateway.config;
 
+import com.movento.apigateway.ratelimit.GlobalTokenBudget;
+import com.movento.apigateway.ratelimit.HybridRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
-import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Configuration
 public class RateLimiterConfig {
 
-    @Bean
-    public RedisRateLimiter redisRateLimiter() {
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public HybridRateLimiter hybridRateLimiter(GlobalTokenBudget budget,
+                                               ConfigurationService configurationService,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${app.rate-limiter.lease-fraction:0.1}") double leaseFraction,
+                                               @Value("${app.rate-limiter.idle-timeout:2s}") Duration idleTimeout) {
         // Default rate limiter: 10 requests per second, burst of 20
-        return new RedisRateLimiter(10, 20, 1);
+        HybridRateLimiter.Config defaults = new HybridRateLimiter.Config()
+                .setReplenishRate(10)
+                .setBurstCapacity(20)
+                .setRequestedTokens(1);
+        return new HybridRateLimiter(budget, configurationService, meterRegistry, defaults, leaseFraction, idleTimeout);
     }
 
     @Bean
     public KeyResolver userKeyResolver() {
+        // X-User-Id is set by AuthenticationFilter from a verified token, so it can be trusted here
         return exchange -> {
             String userId = exchange.getRequest()
                     .getHeaders()
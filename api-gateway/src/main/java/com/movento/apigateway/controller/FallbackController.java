@@ -43,14 +43,20 @@ public class FallbackController {
     }
 
     private Mono<ResponseEntity<Map<String, Object>>> createFallbackResponse(String message) {
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(fallbackBody(message)));
+    }
+
+    /**
+     * Body of a fallback response; also used for the unavailable sections of aggregated responses.
+     */
+    public static Map<String, Object> fallbackBody(String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
         response.put("error", "Service Unavailable");
         response.put("message", message);
         response.put("path", "/fallback");
-        
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response));
+        return response;
     }
 }
@@ -0,0 +1,44 @@
+package com.movento.apigateway.controller;
+
+import com.movento.apigateway.security.JwtVerifier;
+import com.movento.apigateway.security.JwtVerifier.VerifiedIdentity;
+import com.movento.apigateway.service.HomeAggregationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Backend-for-frontend endpoint returning everything the client home screen needs in one call.
+ */
+@RestController
+public class HomeController {
+
+    private final HomeAggregationService homeAggregationService;
+    private final JwtVerifier jwtVerifier;
+
+    public HomeController(HomeAggregationService homeAggregationService, JwtVerifier jwtVerifier) {
+        this.homeAggregationService = homeAggregationService;
+        this.jwtVerifier = jwtVerifier;
+    }
+
+    @GetMapping("/api/home")
+    public Mono<ResponseEntity<Map<String, Object>>> getHome(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        // Served by the gateway itself, so route filters such as AuthenticationFilter do not apply
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        VerifiedIdentity identity = jwtVerifier.verify(authorization.substring(7));
+        if (identity == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+        return homeAggregationService.getHome(identity.userId(), authorization)
+            .map(ResponseEntity::ok);
+    }
+}
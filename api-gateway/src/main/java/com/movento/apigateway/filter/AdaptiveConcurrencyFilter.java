@@ -0,0 +1,220 @@
+package com.movento.apigateway.filter;
+
+import com.movento.apigateway.concurrency.GatewayCapacity;
+import com.movento.apigateway.concurrency.GradientLimit;
+import com.movento.apigateway.concurrency.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Per-route adaptive concurrency limit. Requests over the route's current limit, or over the
+ * gateway-wide share for the route's priority, are rejected at once with 503 and Retry-After
+ * instead of queueing until they time out. The limit follows upstream latency (see
+ * {@link GradientLimit}); 5xx responses and errors count as drops.
+ * <p>
+ * A route refresh applies the filter again with a fresh limit. The route's gauges are registered
+ * once and read the route's current state, and the meters of routes that a refresh removed are
+ * removed with them.
+ */
+@Component
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config>
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    private static final List<String> METERS = List.of(
+        "gateway.concurrency.limit", "gateway.concurrency.inflight", "gateway.concurrency.requests");
+
+    private final GatewayCapacity gatewayCapacity;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteState> routes = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyFilter(GatewayCapacity gatewayCapacity, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.gatewayCapacity = gatewayCapacity;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String route = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        GradientLimit limit = new GradientLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+        AtomicInteger inFlight = new AtomicInteger();
+        RequestPriority priority = config.getPriority();
+
+        if (routes.put(route, new RouteState(limit, inFlight)) == null) {
+            registerGauges(route);
+        }
+        Counter accepted = requests(route, "accepted");
+        Counter rejected = requests(route, "rejected");
+
+        return (exchange, chain) -> {
+            int current = inFlight.incrementAndGet();
+            if (current > limit.getLimit()) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return reject(exchange.getResponse(), config);
+            }
+            if (!gatewayCapacity.tryAcquire(priority)) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return reject(exchange.getResponse(), config);
+            }
+            accepted.increment();
+
+            long start = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                int observedInFlight = inFlight.getAndDecrement();
+                gatewayCapacity.release();
+                if (signal == SignalType.CANCEL) {
+                    // The client went away; the call tells nothing about upstream capacity
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                    limit.onDrop();
+                } else {
+                    limit.onSample(System.nanoTime() - start, observedInFlight);
+                }
+            });
+        };
+    }
+
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (event.isSuccess() && event.getSource() instanceof RouteLocator locator) {
+            // The refreshed routes are cached by now; collecting them does not block
+            locator.getRoutes()
+                .map(Route::getId)
+                .collect(Collectors.toSet())
+                .subscribe(this::retainRoutes);
+        }
+    }
+
+    void retainRoutes(Set<String> current) {
+        for (String route : Set.copyOf(routes.keySet())) {
+            if (!current.contains(route) && routes.remove(route) != null) {
+                for (String name : METERS) {
+                    for (Meter meter : meterRegistry.find(name).tag("route", route).meters()) {
+                        meterRegistry.remove(meter);
+                    }
+                }
+            }
+        }
+    }
+
+    // Backed by the map rather than one route state, so a re-applied route reports its new limit
+    private void registerGauges(String route) {
+        Gauge.builder("gateway.concurrency.limit", routes, m -> read(m, route, s -> s.limit().getLimit()))
+            .description("Current adaptive concurrency limit")
+            .tag("route", route)
+            .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", routes, m -> read(m, route, s -> s.inFlight().get()))
+            .tag("route", route)
+            .register(meterRegistry);
+    }
+
+    private static double read(Map<String, RouteState> routes, String route,
+                               ToDoubleFunction<RouteState> value) {
+        RouteState state = routes.get(route);
+        return state != null ? value.applyAsDouble(state) : Double.NaN;
+    }
+
+    private Counter requests(String route, String outcome) {
+        return Counter.builder("gateway.concurrency.requests")
+            .description("Requests admitted or shed by the adaptive concurrency limit")
+            .tag("route", route)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, Config config) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+        return response.setComplete();
+    }
+
+    private record RouteState(GradientLimit limit, AtomicInteger inFlight) {
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private RequestPriority priority = RequestPriority.NORMAL;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 500;
+        private int retryAfterSeconds = 1;
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public RequestPriority getPriority() {
+            return priority;
+        }
+
+        public void setPriority(RequestPriority priority) {
+            this.priority = priority;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public int getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        public void setRetryAfterSeconds(int retryAfterSeconds) {
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
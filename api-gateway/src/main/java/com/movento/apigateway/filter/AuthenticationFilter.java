@@ -1,5 +1,7 @@
 package com.movento.apigateway.filter;
 
+import com.movento.apigateway.security.JwtVerifier;
+import com.movento.apigateway.security.JwtVerifier.VerifiedIdentity;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpStatus;
@@ -21,18 +23,32 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
             "/actuator/health"
     );
 
-    public AuthenticationFilter() {
+    // Identity headers trusted by downstream services; never accepted from clients
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLES_HEADER = "X-User-Roles";
+
+    private final JwtVerifier jwtVerifier;
+
+    public AuthenticationFilter(JwtVerifier jwtVerifier) {
         super(Config.class);
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            ServerHttpRequest request = exchange.getRequest();
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> {
+                        headers.remove(USER_ID_HEADER);
+                        headers.remove(USER_EMAIL_HEADER);
+                        headers.remove(USER_ROLES_HEADER);
+                    })
+                    .build();
             
             // Skip authentication for open endpoints
             if (isOpenEndpoint(request)) {
-                return chain.filter(exchange);
+                return chain.filter(exchange.mutate().request(request).build());
             }
 
             // Check for Authorization header
@@ -45,9 +61,17 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 return handleUnAuthorized(exchange);
             }
 
-            // TODO: Validate JWT token with User Service
-            // For now, just pass the request through
-            return chain.filter(exchange);
+            VerifiedIdentity identity = jwtVerifier.verify(authHeader.substring(7));
+            if (identity == null) {
+                return handleUnAuthorized(exchange);
+            }
+
+            ServerHttpRequest authenticated = request.mutate()
+                    .header(USER_ID_HEADER, String.valueOf(identity.userId()))
+                    .header(USER_EMAIL_HEADER, identity.email())
+                    .header(USER_ROLES_HEADER, String.join(",", identity.roles()))
+                    .build();
+            return chain.filter(exchange.mutate().request(authenticated).build());
         };
     }
 
@@ -64,21 +88,4 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     public static class Config {
         // Configuration properties if needed
     }
-
-    // DTO for user info response from user service
-//    private static class UserInfoResponse {
-//        private String id;
-//        private String email;
-//        private List<String> roles;
-//
-//        // Getters and setters
-//        public String getId() { return id; }
-//        public void setId(String id) { this.id = id; }
-//
-//        public String getEmail() { return email; }
-//        public void setEmail(String email) { this.email = email; }
-//
-//        public List<String> getRoles() { return roles; }
-//        public void setRoles(List<String> roles) { this.roles = roles; }
-//    }
 }
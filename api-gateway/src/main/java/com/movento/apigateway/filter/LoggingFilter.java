@@ -1,69 +1,109 @@
 package com.movento.apigateway.filter;
 
+import com.movento.apigateway.logging.AccessLogEncoder;
+import com.movento.apigateway.logging.AccessLogSampler;
+import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
-import java.util.Collections;
-import java.util.Set;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Writes one structured access-log line per exchange, after the response completes. Lines are
+ * sampled by status class (see {@link AccessLogSampler}) and go to the {@code access-log} logger,
+ * which logback-spring.xml routes through an asynchronous appender.
+ */
 @Component
 public class LoggingFilter implements GlobalFilter, Ordered {
 
-    private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
-    private static final Set<String> SENSITIVE_HEADERS = Set.of("authorization", "proxy-authorization");
-    private static final String REQUEST_LOG_FORMAT = "Incoming request: {} {} - Headers: {}";
-    private static final String RESPONSE_LOG_FORMAT = "Response for {} {} - Status: {}";
+    private static final Logger accessLog = LoggerFactory.getLogger("access-log");
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private final AccessLogSampler sampler;
+
+    public LoggingFilter(AccessLogSampler sampler) {
+        this.sampler = sampler;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-        ServerHttpRequest request = exchange.getRequest();
-        URI uri = request.getURI();
-        String method = request.getMethod().name();
-        
-        // Log request
-        logger.info(REQUEST_LOG_FORMAT, 
-            method, 
-            uri.getPath(),
-            getFilteredHeaders(request)
-        );
-        
-        // Log response
-        return chain.filter(exchange).doFinally(signalType -> {
-            logger.info(RESPONSE_LOG_FORMAT, 
-                method, 
-                uri.getPath(),
-                exchange.getResponse().getStatusCode()
-            );
-        });
+        if (!accessLog.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long startNanos = System.nanoTime();
+        CountingResponse response = new CountingResponse(exchange.getResponse());
+        ServerWebExchange counted = exchange.mutate().response(response).build();
+
+        return chain.filter(counted)
+            .doFinally(signalType -> log(counted, response, startNanos));
     }
 
-    private String getFilteredHeaders(ServerHttpRequest request) {
-        StringBuilder headers = new StringBuilder("{");
-        request.getHeaders().forEach((name, values) -> {
-            if (!SENSITIVE_HEADERS.contains(name.toLowerCase())) {
-                headers.append("\"").append(name).append("\":");
-                headers.append(values.size() == 1 ? 
-                    "\"" + values.get(0) + "\"" : 
-                    values.toString());
-                headers.append(", ");
-            }
-        });
-        if (headers.length() > 1) {
-            headers.setLength(headers.length() - 2); // Remove trailing ", "
+    private void log(ServerWebExchange exchange, CountingResponse response, long startNanos) {
+        HttpStatusCode statusCode = response.getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        if (!sampler.sample(status)) {
+            return;
         }
-        return headers.append("}").toString();
+
+        ServerHttpRequest request = exchange.getRequest();
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        URI upstream = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        accessLog.info(AccessLogEncoder.encode(
+            request.getMethod().name(),
+            request.getPath().value(),
+            status,
+            (System.nanoTime() - startNanos) / 1000,
+            route != null ? route.getId() : null,
+            upstream != null ? upstream.toString() : null,
+            response.bytesWritten,
+            request.getHeaders().getFirst(REQUEST_ID_HEADER)));
     }
 
     @Override
     public int getOrder() {
         return -1; // High precedence
     }
+
+    /**
+     * Counts body bytes as they are handed to the server, before any transport compression.
+     */
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+        private long bytesWritten;
+
+        private CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body)
+                .map(chunk -> Flux.from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            bytesWritten += buffer.readableByteCount();
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package com.movento.apigateway.filter;
+
+import com.movento.apigateway.cache.CachedResponse;
+import com.movento.apigateway.cache.ResponseCache;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves identical GET responses for catalog reads from the shared {@link ResponseCache}.
+ * Responses are stored only for 200s that upstream allows to be shared; {@code max-age} from
+ * upstream wins over the route TTL. Every cached response carries an ETag (the upstream one, or
+ * a digest of the body) so clients can revalidate with {@code If-None-Match} and get a 304.
+ * Responses that vary on request headers other than {@code Accept-Encoding} are not stored, and a
+ * response to a request with credentials only if upstream marks it {@code public} or gives it an
+ * {@code s-maxage} (RFC 9111, section 3.5).
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+
+    private final ResponseCache responseCache;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !matches(config, request.getPath().value())) {
+                return chain.filter(exchange);
+            }
+
+            String key = ResponseReplay.requestKey(request);
+            CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+
+            // Ask upstream for an uncompressed body; the gateway compresses for each client itself
+            ServerHttpRequest upstreamRequest = request.mutate()
+                    .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                    .build();
+            boolean authorized = request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+            CachingResponse response = new CachingResponse(exchange.getResponse(), key, config.getTtl(),
+                    authorized, responseCache.generation());
+            return chain.filter(exchange.mutate().request(upstreamRequest).response(response).build());
+        };
+    }
+
+    private boolean matches(Config config, String path) {
+        for (String pattern : config.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        List<String> ifNoneMatch = exchange.getRequest().getHeaders().getIfNoneMatch();
+        boolean revalidated = ifNoneMatch.contains(cached.etag()) || ifNoneMatch.contains("*");
+        responseCache.recordHit(cached, revalidated);
+
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        if (revalidated) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * @return how long the response may be shared, or {@code null} if upstream forbids it
+     */
+    private static Duration sharedTtl(HttpHeaders headers, Duration routeTtl, boolean authorized) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || variesOnRequestHeaders(headers)) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return authorized ? null : routeTtl;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-store") || directives.contains("private") || directives.contains("no-cache")) {
+            return null;
+        }
+        if (authorized && !directives.contains("public") && !directives.contains("s-maxage")) {
+            return null;
+        }
+        Matcher maxAge = MAX_AGE.matcher(directives);
+        if (maxAge.find()) {
+            long seconds = Long.parseLong(maxAge.group(1));
+            return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        }
+        return routeTtl;
+    }
+
+    // The key holds only path and query, and Accept-Encoding is removed before the upstream call
+    private static boolean variesOnRequestHeaders(HttpHeaders headers) {
+        for (String vary : headers.getVary()) {
+            if (!HttpHeaders.ACCEPT_ENCODING.equalsIgnoreCase(vary.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buffers a cacheable 200 body so it can be stored, then passes it on unchanged.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+        private final String key;
+        private final Duration routeTtl;
+        private final boolean authorized;
+        private final long generation;
+
+        private CachingResponse(ServerHttpResponse delegate, String key, Duration routeTtl, boolean authorized,
+                                long generation) {
+            super(delegate);
+            this.key = key;
+            this.routeTtl = routeTtl;
+            this.authorized = authorized;
+            this.generation = generation;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            Duration ttl = HttpStatus.OK.equals(getStatusCode()) ? sharedTtl(headers, routeTtl, authorized) : null;
+            if (ttl == null || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                String etag = headers.getETag();
+                if (etag == null) {
+                    etag = "W/\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                    headers.setETag(etag);
+                }
+                if (headers.getCacheControl() == null) {
+                    headers.setCacheControl(CacheControl.maxAge(ttl).cachePublic());
+                }
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+
+                responseCache.put(key, new CachedResponse(getStatusCode(),
+                        ResponseReplay.replayableHeaders(headers, CACHE_STATUS_HEADER),
+                        bytes, etag, ttl.toNanos()), generation);
+
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(30);
+        private List<String> paths = new ArrayList<>();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+    }
+}
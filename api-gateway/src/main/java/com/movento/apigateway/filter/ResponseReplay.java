@@ -0,0 +1,65 @@
+package com.movento.apigateway.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Helpers for responses that are buffered once and written again to other exchanges.
+ */
+final class ResponseReplay {
+
+    // Per-exchange or connection-level headers that must not be replayed
+    private static final Set<String> EXCHANGE_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.DATE.toLowerCase(Locale.ROOT),
+            HttpHeaders.SET_COOKIE.toLowerCase(Locale.ROOT));
+
+    private ResponseReplay() {
+    }
+
+    /**
+     * Path plus query parameters in a canonical order, so that {@code ?size=20&page=0} and
+     * {@code ?page=0&size=20} map to the same key.
+     */
+    static String requestKey(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        MultiValueMap<String, String> params = request.getQueryParams();
+        if (!params.isEmpty()) {
+            char separator = '?';
+            for (Map.Entry<String, List<String>> param : new TreeMap<>(params).entrySet()) {
+                List<String> values = new ArrayList<>(param.getValue());
+                values.sort(Comparator.nullsFirst(Comparator.naturalOrder()));
+                for (String value : values) {
+                    key.append(separator).append(param.getKey()).append('=').append(value == null ? "" : value);
+                    separator = '&';
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * @return a read-only copy of {@code headers} without per-exchange headers or {@code excluded}
+     */
+    static HttpHeaders replayableHeaders(HttpHeaders headers, String excluded) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (!EXCHANGE_HEADERS.contains(lowerName) && !lowerName.equalsIgnoreCase(excluded)) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+}
@@ -0,0 +1,230 @@
+package com.movento.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Collapses concurrent identical GETs into one upstream call. The first request for a key (the
+ * leader) goes upstream while later ones wait for its response, which is buffered and written to
+ * every waiter. Only successful (2xx) responses are shared: if the leader gets any other status,
+ * fails or is cancelled, waiters fall back to their own upstream call.
+ */
+@Component
+public class SingleFlightFilter extends AbstractGatewayFilterFactory<SingleFlightFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public SingleFlightFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<String, Mono<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+        Map<String, Counter> leaders = new ConcurrentHashMap<>();
+        Map<String, Counter> merged = new ConcurrentHashMap<>();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!isCoalescable(config, request)) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = routeId(exchange);
+            String key = requestKey(config, request);
+            Sinks.One<SharedResponse> sink = Sinks.one();
+            Mono<SharedResponse> shared = sink.asMono();
+            Mono<SharedResponse> existing = inFlight.putIfAbsent(key, shared);
+
+            if (existing != null) {
+                counter(merged, routeId, "merged").increment();
+                return existing
+                    .timeout(config.getMaxWait())
+                    .flatMap(response -> write(exchange, response))
+                    .onErrorResume(e -> chain.filter(exchange));
+            }
+
+            counter(leaders, routeId, "leader").increment();
+            // Followers may not accept the leader's encoding, so fetch an uncompressed body
+            ServerHttpRequest upstreamRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+            SharingResponse response = new SharingResponse(exchange.getResponse(), () -> inFlight.remove(key, shared), sink);
+            return chain.filter(exchange.mutate().request(upstreamRequest).response(response).build())
+                .doFinally(signal -> response.abandon());
+        };
+    }
+
+    private boolean isCoalescable(Config config, ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        // Conditional requests may legitimately get a 304 that other waiters must not see
+        HttpHeaders headers = request.getHeaders();
+        if (headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return false;
+        }
+        String path = request.getPath().value();
+        for (String pattern : config.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String requestKey(Config config, ServerHttpRequest request) {
+        String key = ResponseReplay.requestKey(request);
+        if (config.isPerUser()) {
+            key = request.getHeaders().getFirst(AuthenticationFilter.USER_ID_HEADER) + ' ' + key;
+        }
+        return key;
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Counter counter(Map<String, Counter> counters, String routeId, String role) {
+        return counters.computeIfAbsent(routeId, id -> Counter.builder("gateway.singleflight.requests")
+            .description("Coalescable requests by whether they went upstream (leader) or were merged into one that did")
+            .tag("route", id)
+            .tag("role", role)
+            .register(meterRegistry));
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        if (shared.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * Buffers the leader's response and publishes it to waiters before writing it to the leader.
+     */
+    private static class SharingResponse extends ServerHttpResponseDecorator {
+        private final Runnable release;
+        private final Sinks.One<SharedResponse> sink;
+
+        private SharingResponse(ServerHttpResponse delegate, Runnable release, Sinks.One<SharedResponse> sink) {
+            super(delegate);
+            this.release = release;
+            this.sink = sink;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(Flux.from(body))
+                .map(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    return bytes;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> {
+                    publish(bytes);
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            publish(new byte[0]);
+            return super.setComplete();
+        }
+
+        private void publish(byte[] body) {
+            release.run();
+            HttpStatusCode status = getStatusCode();
+            if (status == null) {
+                sink.tryEmitError(new IllegalStateException("Upstream response has no status"));
+            } else if (!status.is2xxSuccessful()) {
+                // An error or redirect may be specific to the leader, or transient; let waiters try themselves
+                sink.tryEmitError(new IllegalStateException("Coalesced upstream call answered " + status.value()));
+            } else {
+                sink.tryEmitValue(new SharedResponse(status, ResponseReplay.replayableHeaders(getHeaders(), null), body));
+            }
+        }
+
+        /**
+         * Releases waiters if the leader ended without producing a response (error or cancellation).
+         */
+        void abandon() {
+            release.run();
+            sink.tryEmitError(new IllegalStateException("Coalesced upstream call did not complete"));
+        }
+    }
+
+    public static class Config {
+        private List<String> paths = new ArrayList<>();
+        private boolean perUser = false;
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        public List<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(List<String> paths) {
+            this.paths = paths;
+        }
+
+        /**
+         * Whether responses differ per caller, in which case only requests of the same user are merged.
+         */
+        public boolean isPerUser() {
+            return perUser;
+        }
+
+        public void setPerUser(boolean perUser) {
+            this.perUser = perUser;
+        }
+
+        /**
+         * How long a waiter waits for the leader before making its own upstream call.
+         */
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
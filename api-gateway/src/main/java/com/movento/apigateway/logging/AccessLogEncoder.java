@@ -0,0 +1,69 @@
+package com.movento.apigateway.logging;
+
+/**
+ * Renders one access-log line per exchange as a flat JSON object. The builder is reused per
+ * thread and fields are appended directly, so the only allocation per line is the result string.
+ */
+public final class AccessLogEncoder {
+
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private AccessLogEncoder() {
+    }
+
+    public static String encode(String method, String path, int status, long latencyMicros,
+                                String routeId, String upstream, long bytes, String requestId) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        out.append("{\"method\":\"").append(method).append('"');
+        appendString(out, "path", path);
+        out.append(",\"status\":").append(status);
+        out.append(",\"latency_ms\":").append(latencyMicros / 1000).append('.');
+        long fraction = latencyMicros % 1000;
+        if (fraction < 100) {
+            out.append(fraction < 10 ? "00" : "0");
+        }
+        out.append(fraction);
+        appendString(out, "route", routeId);
+        appendString(out, "upstream", upstream);
+        if (bytes >= 0) {
+            out.append(",\"bytes\":").append(bytes);
+        }
+        appendString(out, "request_id", requestId);
+        out.append('}');
+
+        String line = out.toString();
+        if (out.capacity() > MAX_RETAINED_CAPACITY) {
+            // Don't pin an oversized buffer to the event-loop thread after a pathological URL
+            BUFFER.remove();
+        }
+        return line;
+    }
+
+    private static void appendString(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,44 @@
+package com.movento.apigateway.logging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per exchange whether its access-log line is written, with a separate rate for each
+ * status class so that failures stay fully visible while routine traffic is thinned out.
+ */
+@Component
+public class AccessLogSampler {
+
+    private final double successRate;
+    private final double redirectRate;
+    private final double clientErrorRate;
+    private final double serverErrorRate;
+
+    public AccessLogSampler(@Value("${app.access-log.sample-rate.success:0.01}") double successRate,
+                            @Value("${app.access-log.sample-rate.redirect:0.01}") double redirectRate,
+                            @Value("${app.access-log.sample-rate.client-error:0.1}") double clientErrorRate,
+                            @Value("${app.access-log.sample-rate.server-error:1.0}") double serverErrorRate) {
+        this.successRate = successRate;
+        this.redirectRate = redirectRate;
+        this.clientErrorRate = clientErrorRate;
+        this.serverErrorRate = serverErrorRate;
+    }
+
+    public boolean sample(int status) {
+        double rate;
+        if (status >= 500 || status <= 0) {
+            // No status means the exchange failed or was cancelled before a response was committed
+            rate = serverErrorRate;
+        } else if (status >= 400) {
+            rate = clientErrorRate;
+        } else if (status >= 300) {
+            rate = redirectRate;
+        } else {
+            rate = successRate;
+        }
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,24 @@
+package com.movento.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket shared by all gateway instances, from which {@link HybridRateLimiter} borrows
+ * tokens in batches.
+ */
+public interface GlobalTokenBudget {
+
+    /**
+     * Takes up to {@code requested} tokens from the bucket, or none if fewer than {@code minimum}
+     * are available.
+     */
+    Mono<Grant> borrow(String key, int replenishRate, int burstCapacity, long requested, long minimum);
+
+    /**
+     * Puts unused borrowed tokens back, without exceeding the bucket capacity.
+     */
+    Mono<Void> giveBack(String key, int replenishRate, int burstCapacity, long tokens);
+
+    record Grant(long granted, long remaining) {
+    }
+}
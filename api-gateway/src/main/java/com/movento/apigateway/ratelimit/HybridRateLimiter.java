@@ -0,0 +1,214 @@
+package com.movento.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token-bucket rate limiter with a local tier in front of the shared Redis bucket. Each instance
+ * borrows a slice of a key's budget (a lease) and serves requests from it in memory, so Redis is
+ * only consulted when the lease runs out. Keys whose shared bucket is nearly empty borrow one
+ * request at a time, which keeps the global limit exact where it matters. Leases of idle keys are
+ * periodically given back to the shared bucket.
+ *
+ * <p>Configured per route with {@code hybrid-rate-limiter.*} arguments on {@code RequestRateLimiter},
+ * using the same replenish rate, burst capacity and requested tokens as the Redis rate limiter.
+ */
+public class HybridRateLimiter extends AbstractRateLimiter<HybridRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+    private static final Logger logger = LoggerFactory.getLogger(HybridRateLimiter.class);
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(2);
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    private static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final GlobalTokenBudget budget;
+    private final Config defaultConfig;
+    private final double leaseFraction;
+    private final long idleNanos;
+
+    private final Map<String, TokenLease> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-limit-reconciler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter localDecisions;
+    private final Counter budgetCalls;
+    private final Counter denied;
+
+    public HybridRateLimiter(GlobalTokenBudget budget,
+                             ConfigurationService configurationService,
+                             MeterRegistry meterRegistry,
+                             Config defaultConfig,
+                             double leaseFraction,
+                             Duration idleTimeout) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.budget = budget;
+        this.defaultConfig = defaultConfig;
+        this.leaseFraction = leaseFraction;
+        this.idleNanos = idleTimeout.toNanos();
+
+        this.localDecisions = Counter.builder("gateway.ratelimiter.requests")
+                .description("Rate-limited requests by where the decision was made")
+                .tag("tier", "local")
+                .register(meterRegistry);
+        this.budgetCalls = Counter.builder("gateway.ratelimiter.requests")
+                .description("Rate-limited requests by where the decision was made")
+                .tag("tier", "redis")
+                .register(meterRegistry);
+        this.denied = Counter.builder("gateway.ratelimiter.denied")
+                .register(meterRegistry);
+
+        long intervalMs = Math.max(100, idleTimeout.toMillis() / 2);
+        reconciler.scheduleWithFixedDelay(this::reconcile, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        String key = routeId + "." + id;
+        long requested = config.getRequestedTokens();
+
+        TokenLease lease = leases.computeIfAbsent(key, k -> new TokenLease(routeId));
+        if (lease.tryAcquire(requested)) {
+            localDecisions.increment();
+            return Mono.just(new Response(true, headers(config, lease.available())));
+        }
+
+        long leaseSize = lease.isNearLimit()
+                ? requested
+                : Math.max(requested, (long) (config.getBurstCapacity() * leaseFraction));
+        budgetCalls.increment();
+        return budget.borrow(key, config.getReplenishRate(), config.getBurstCapacity(), leaseSize, requested)
+                .map(grant -> {
+                    lease.setNearLimit(grant.remaining() < leaseSize);
+                    if (grant.granted() < requested) {
+                        denied.increment();
+                        return new Response(false, headers(config, 0));
+                    }
+                    if (!lease.add(grant.granted() - requested)) {
+                        // Evicted while borrowing: the next request gets a new lease, so return this one's tokens
+                        giveBack(key, lease.routeId(), lease.drain()).subscribe(null,
+                                e -> logger.debug("Could not return leased tokens for {}: {}", key, e.getMessage()));
+                    }
+                    return new Response(true, headers(config, lease.available() + grant.remaining()));
+                })
+                .onErrorResume(e -> {
+                    // Same as the Redis rate limiter: an unavailable budget store must not take the edge down
+                    logger.warn("Rate limit budget unavailable for {}, allowing request: {}", key, e.getMessage());
+                    return Mono.just(new Response(true, headers(config, -1)));
+                });
+    }
+
+    /**
+     * Gives the leases of keys idle for longer than the idle timeout back to the shared bucket.
+     */
+    void reconcile() {
+        long idleSince = System.nanoTime() - idleNanos;
+        leases.forEach((key, lease) -> {
+            if (lease.isIdleSince(idleSince) && evictIfIdle(key, lease, idleSince)) {
+                giveBack(key, lease.routeId(), lease.retire()).subscribe(null,
+                        e -> logger.debug("Could not return leased tokens for {}: {}", key, e.getMessage()));
+            }
+        });
+    }
+
+    // The idle check is repeated under the map's lock, so a lease used again since the scan stays
+    private boolean evictIfIdle(String key, TokenLease lease, long idleSince) {
+        boolean[] evicted = new boolean[1];
+        leases.computeIfPresent(key, (k, current) -> {
+            evicted[0] = current == lease && current.isIdleSince(idleSince);
+            return evicted[0] ? null : current;
+        });
+        return evicted[0];
+    }
+
+    /**
+     * Stops reconciling and returns every outstanding lease so other instances can use it. The
+     * returns run concurrently and are abandoned together after a single deadline; tokens that do
+     * not make it back simply refill in the shared bucket.
+     */
+    public void shutdown() {
+        reconciler.shutdownNow();
+        List<Mono<Void>> returns = new ArrayList<>(leases.size());
+        leases.forEach((key, lease) -> {
+            if (leases.remove(key, lease)) {
+                returns.add(giveBack(key, lease.routeId(), lease.retire()).onErrorResume(e -> Mono.empty()));
+            }
+        });
+        try {
+            Mono.when(returns).block(SHUTDOWN_TIMEOUT);
+        } catch (RuntimeException e) {
+            logger.warn("Gave up returning {} leases after {}: {}", returns.size(), SHUTDOWN_TIMEOUT, e.getMessage());
+        }
+    }
+
+    private Mono<Void> giveBack(String key, String routeId, long unused) {
+        if (unused <= 0) {
+            return Mono.empty();
+        }
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        return budget.giveBack(key, config.getReplenishRate(), config.getBurstCapacity(), unused);
+    }
+
+    private static Map<String, String> headers(Config config, long remaining) {
+        Map<String, String> headers = new HashMap<>(4);
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        return headers;
+    }
+
+    public static class Config {
+        private int replenishRate;
+        private int burstCapacity;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public Config setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+            return this;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public Config setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+            return this;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public Config setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.movento.apigateway.ratelimit;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Component
+public class RedisTokenBudget implements GlobalTokenBudget {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> BORROW_SCRIPT =
+            RedisScript.of(new ClassPathResource("META-INF/scripts/hybrid_rate_limiter_borrow.lua"), List.class);
+    private static final RedisScript<Long> RETURN_SCRIPT =
+            RedisScript.of(new ClassPathResource("META-INF/scripts/hybrid_rate_limiter_return.lua"), Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisTokenBudget(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Grant> borrow(String key, int replenishRate, int burstCapacity, long requested, long minimum) {
+        return redisTemplate.execute(BORROW_SCRIPT, keys(key), List.of(
+                        String.valueOf(replenishRate),
+                        String.valueOf(burstCapacity),
+                        String.valueOf(requested),
+                        String.valueOf(minimum)))
+                .next()
+                .map(result -> new Grant(((Number) result.get(0)).longValue(), ((Number) result.get(1)).longValue()));
+    }
+
+    @Override
+    public Mono<Void> giveBack(String key, int replenishRate, int burstCapacity, long tokens) {
+        return redisTemplate.execute(RETURN_SCRIPT, keys(key), List.of(
+                        String.valueOf(replenishRate),
+                        String.valueOf(burstCapacity),
+                        String.valueOf(tokens)))
+                .then();
+    }
+
+    // Hash tag keeps both keys of a bucket in the same cluster slot
+    private static List<String> keys(String key) {
+        String prefix = "hybrid_rate_limiter.{" + key + "}.";
+        return List.of(prefix + "tokens", prefix + "timestamp");
+    }
+}
@@ -0,0 +1,77 @@
+package com.movento.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens one gateway instance has borrowed from the shared bucket of a single key. Requests take
+ * from the lease with a CAS loop; only an empty lease makes them go to the shared bucket.
+ */
+final class TokenLease {
+
+    private final String routeId;
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long lastUsedNanos = System.nanoTime();
+    // Set when the shared bucket had less than a full lease left; the key then borrows per request
+    private volatile boolean nearLimit;
+    private volatile boolean retired;
+
+    TokenLease(String routeId) {
+        this.routeId = routeId;
+    }
+
+    String routeId() {
+        return routeId;
+    }
+
+    boolean tryAcquire(long requested) {
+        lastUsedNanos = System.nanoTime();
+        long current;
+        do {
+            current = tokens.get();
+            if (current < requested) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - requested));
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the lease was retired meanwhile; the caller then drains it again and
+     * gives the tokens back, since no later request will find this lease
+     */
+    boolean add(long granted) {
+        if (granted > 0) {
+            tokens.addAndGet(granted);
+        }
+        return !retired;
+    }
+
+    long available() {
+        return tokens.get();
+    }
+
+    long drain() {
+        return tokens.getAndSet(0);
+    }
+
+    /**
+     * Marks the lease as no longer in the map and takes its tokens. Requests that picked it up
+     * before it was removed may still add to it; {@link #add} tells them to give those back.
+     */
+    long retire() {
+        retired = true;
+        return drain();
+    }
+
+    boolean isIdleSince(long nanos) {
+        return lastUsedNanos - nanos < 0;
+    }
+
+    boolean isNearLimit() {
+        return nearLimit;
+    }
+
+    void setNearLimit(boolean nearLimit) {
+        this.nearLimit = nearLimit;
+    }
+}
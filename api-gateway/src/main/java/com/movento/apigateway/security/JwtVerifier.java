@@ -0,0 +1,125 @@
+package com.movento.apigateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Verifies user-service tokens locally with the shared HMAC key: signature, expiry, issuer and
+ * audience.
+ * Verification is pure CPU work, so it is safe to run on the event loop; verified identities are
+ * cached by token hash until the token expires or the TTL runs out, whichever comes first.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+
+    private final JwtParser parser;
+    private final Cache<String, VerifiedIdentity> cache;
+
+    public JwtVerifier(@Value("${spring.security.jwt.secret}") String secret,
+                       @Value("${spring.security.jwt.issuer}") String issuer,
+                       @Value("${spring.security.jwt.audience}") String audience,
+                       @Value("${spring.security.jwt.cache.max-size:50000}") long maxSize,
+                       @Value("${spring.security.jwt.cache.ttl:5m}") Duration ttl) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .requireIssuer(issuer)
+                .requireAudience(audience)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new IdentityExpiry(ttl.toNanos()))
+                .build();
+    }
+
+    /**
+     * @return the identity the token was issued to, or {@code null} if the token is not valid
+     */
+    public VerifiedIdentity verify(String token) {
+        String key = hash(token);
+        VerifiedIdentity identity = cache.getIfPresent(key);
+        if (identity != null && identity.expiresAtMillis() > System.currentTimeMillis()) {
+            return identity;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (userId == null) {
+            logger.debug("Rejected JWT for {}: no user id claim", claims.getSubject());
+            return null;
+        }
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        identity = new VerifiedIdentity(
+                userId,
+                claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).toList(),
+                claims.getExpiration().getTime());
+        cache.put(key, identity);
+        return identity;
+    }
+
+    // Keys the cache by digest so it does not retain bearer tokens themselves
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record VerifiedIdentity(Long userId, String email, List<String> roles, long expiresAtMillis) {
+    }
+
+    private static final class IdentityExpiry implements Expiry<String, VerifiedIdentity> {
+        private final long ttlNanos;
+
+        private IdentityExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedIdentity identity, long currentTime) {
+            long untilExpiry = Duration.ofMillis(identity.expiresAtMillis() - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedIdentity identity, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, identity, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedIdentity identity, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
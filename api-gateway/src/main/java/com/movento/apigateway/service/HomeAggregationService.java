@@ -0,0 +1,105 @@
+package com.movento.apigateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.movento.apigateway.controller.FallbackController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds the home screen in one response by calling content, recommendation and streaming
+ * services in parallel. Each leg has its own timeout and degrades to a fallback section, so the
+ * response takes as long as the slowest leg (capped by its timeout) rather than the sum of all legs.
+ */
+@Service
+public class HomeAggregationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeAggregationService.class);
+
+    private final WebClient webClient;
+    private final Duration legTimeout;
+    private final int sectionSize;
+
+    public HomeAggregationService(WebClient.Builder loadBalancedWebClientBuilder,
+                                  @Value("${app.home.leg-timeout:800ms}") Duration legTimeout,
+                                  @Value("${app.home.section-size:10}") int sectionSize) {
+        this.webClient = loadBalancedWebClientBuilder.build();
+        this.legTimeout = legTimeout;
+        this.sectionSize = sectionSize;
+    }
+
+    public Mono<Map<String, Object>> getHome(Long userId, String authorization) {
+        Mono<Object> recentlyWatched = leg("recentlyWatched", "Content Service",
+            "http://content-service/api/content/api/v1/view-history/users/{userId}/recent?limit={size}",
+            authorization, userId, sectionSize);
+        Mono<Object> recommendations = leg("recommendations", "Recommendation Service",
+            "http://recommendation-service/api/recommendations/items/user/{userId}",
+            authorization, userId);
+        Mono<Object> topRated = leg("topRated", "Content Service",
+            "http://content-service/api/content/api/v1/contents/top-rated?size={size}",
+            authorization, sectionSize);
+        Mono<Object> recentlyAdded = leg("recentlyAdded", "Content Service",
+            "http://content-service/api/content/api/v1/contents/recent?size={size}",
+            authorization, sectionSize);
+        Mono<Object> activeSessions = leg("activeSessions", "Streaming Service",
+            "http://streaming-service/api/stream/sessions/user/{userId}",
+            authorization, userId)
+            .map(HomeAggregationService::activeOnly);
+
+        return Mono.zip(recentlyWatched, recommendations, topRated, recentlyAdded, activeSessions)
+            .map(legs -> {
+                Map<String, Object> home = new LinkedHashMap<>();
+                home.put("recentlyWatched", legs.getT1());
+                home.put("recommendations", legs.getT2());
+                home.put("topRated", legs.getT3());
+                home.put("recentlyAdded", legs.getT4());
+                home.put("activeSessions", legs.getT5());
+                home.put("partial", home.values().stream().anyMatch(Map.class::isInstance));
+                return home;
+            });
+    }
+
+    private Mono<Object> leg(String section, String serviceName, String uri, String authorization, Object... uriVariables) {
+        return webClient.get()
+            .uri(uri, uriVariables)
+            .header(HttpHeaders.AUTHORIZATION, authorization)
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            // Content endpoints wrap their payload in an ApiResponse envelope
+            .map(body -> body.has("data") ? body.get("data") : body)
+            .cast(Object.class)
+            .timeout(legTimeout)
+            .onErrorResume(e -> {
+                logger.warn("Home section {} unavailable: {}", section, e.toString());
+                return Mono.just(unavailable(serviceName));
+            })
+            .defaultIfEmpty(JsonNodeFactory.instance.nullNode());
+    }
+
+    private static Object activeOnly(Object sessions) {
+        if (!(sessions instanceof ArrayNode all)) {
+            return sessions;
+        }
+        ArrayNode active = JsonNodeFactory.instance.arrayNode();
+        all.forEach(session -> {
+            if ("ACTIVE".equals(session.path("status").asText())) {
+                active.add(session);
+            }
+        });
+        return active;
+    }
+
+    private static Map<String, Object> unavailable(String serviceName) {
+        return FallbackController.fallbackBody(serviceName + " is currently unavailable. Please try again later.");
+    }
+}
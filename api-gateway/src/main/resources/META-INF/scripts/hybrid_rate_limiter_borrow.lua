@@ -0,0 +1,30 @@
+-- Token bucket shared by all gateway instances. Grants up to ARGV[3] tokens at once so an
+-- instance can serve a lease locally; grants nothing if fewer than ARGV[4] are available.
+-- Returns { granted, tokens left in the bucket }.
+local tokens_key = KEYS[1]
+local timestamp_key = KEYS[2]
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local minimum = tonumber(ARGV[4])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) + tonumber(time[2]) / 1000000
+
+local ttl = math.max(1, math.floor(capacity / rate * 2))
+
+local last_tokens = tonumber(redis.call('get', tokens_key)) or capacity
+local last_refreshed = tonumber(redis.call('get', timestamp_key)) or 0
+local filled = math.min(capacity, last_tokens + math.max(0, now - last_refreshed) * rate)
+
+local granted = math.min(requested, math.floor(filled))
+if granted < minimum then
+  granted = 0
+end
+local new_tokens = filled - granted
+
+redis.call('setex', tokens_key, ttl, new_tokens)
+redis.call('setex', timestamp_key, ttl, now)
+
+return { granted, math.floor(new_tokens) }
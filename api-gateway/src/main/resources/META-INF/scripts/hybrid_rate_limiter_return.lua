@@ -0,0 +1,22 @@
+-- Gives unused leased tokens back to the shared bucket, never exceeding its capacity.
+local tokens_key = KEYS[1]
+local timestamp_key = KEYS[2]
+
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local returned = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) + tonumber(time[2]) / 1000000
+
+local ttl = math.max(1, math.floor(capacity / rate * 2))
+
+local last_tokens = tonumber(redis.call('get', tokens_key)) or capacity
+local last_refreshed = tonumber(redis.call('get', timestamp_key)) or 0
+local filled = math.min(capacity, last_tokens + math.max(0, now - last_refreshed) * rate)
+local new_tokens = math.min(capacity, filled + returned)
+
+redis.call('setex', tokens_key, ttl, new_tokens)
+redis.call('setex', timestamp_key, ttl, now)
+
+return math.floor(new_tokens)
@@ -0,0 +1,41 @@
+package com.movento.apigateway.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayCapacityTest {
+
+    @Test
+    void lowerPrioritiesAreShedFirst() {
+        GatewayCapacity capacity = new GatewayCapacity(new SimpleMeterRegistry(), 100);
+
+        int low = acquireAll(capacity, RequestPriority.LOW);
+        int normal = acquireAll(capacity, RequestPriority.NORMAL);
+        int high = acquireAll(capacity, RequestPriority.HIGH);
+
+        assertThat(low).isEqualTo(60);
+        assertThat(normal).isEqualTo(25);
+        assertThat(high).isEqualTo(15);
+    }
+
+    @Test
+    void releasedCapacityIsAvailableAgain() {
+        GatewayCapacity capacity = new GatewayCapacity(new SimpleMeterRegistry(), 10);
+        acquireAll(capacity, RequestPriority.HIGH);
+
+        capacity.release();
+
+        assertThat(capacity.tryAcquire(RequestPriority.HIGH)).isTrue();
+        assertThat(capacity.tryAcquire(RequestPriority.HIGH)).isFalse();
+    }
+
+    private static int acquireAll(GatewayCapacity capacity, RequestPriority priority) {
+        int acquired = 0;
+        while (capacity.tryAcquire(priority)) {
+            acquired++;
+        }
+        return acquired;
+    }
+}
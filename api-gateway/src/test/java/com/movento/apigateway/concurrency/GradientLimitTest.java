@@ -0,0 +1,74 @@
+package com.movento.apigateway.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void limitGrowsWhileLatencyHoldsAndTrafficUsesIt() {
+        GradientLimit limit = new GradientLimit(20, 5, 200);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void limitDoesNotGrowWhenTrafficLeavesItUnused() {
+        GradientLimit limit = new GradientLimit(20, 5, 200);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, 2);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void risingLatencyShrinksTheLimit() {
+        GradientLimit limit = new GradientLimit(100, 5, 200);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(FAST, 100);
+        }
+        int beforeSlowdown = limit.getLimit();
+
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(SLOW, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isLessThan(beforeSlowdown);
+    }
+
+    @Test
+    void dropsBackOffMultiplicativelyDownToTheMinimum() {
+        GradientLimit limit = new GradientLimit(100, 5, 200);
+
+        limit.onDrop();
+        assertThat(limit.getLimit()).isEqualTo(90);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onDrop();
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void limitNeverExceedsTheMaximum() {
+        GradientLimit limit = new GradientLimit(190, 5, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(200);
+    }
+}
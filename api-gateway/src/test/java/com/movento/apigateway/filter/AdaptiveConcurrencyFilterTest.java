@@ -0,0 +1,76 @@
+package com.movento.apigateway.filter;
+
+import com.movento.apigateway.concurrency.GatewayCapacity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyFilter factory =
+        new AdaptiveConcurrencyFilter(new GatewayCapacity(meterRegistry, 100), meterRegistry);
+
+    @Test
+    void reappliedRouteReportsItsNewLimitThroughOneGauge() {
+        factory.apply(config("content", 20));
+        factory.apply(config("content", 40));
+
+        assertThat(meterRegistry.find("gateway.concurrency.limit").tag("route", "content").gauges()).hasSize(1);
+        assertThat(meterRegistry.get("gateway.concurrency.limit").tag("route", "content").gauge().value())
+            .isEqualTo(40);
+    }
+
+    @Test
+    void refreshRemovesTheMetersOfRoutesThatDisappeared() {
+        factory.apply(config("content", 20));
+        factory.apply(config("users", 20));
+
+        RouteLocator locator = () -> Flux.just(route("users"));
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(locator));
+
+        assertThat(meterRegistry.find("gateway.concurrency.limit").tag("route", "content").meters()).isEmpty();
+        assertThat(meterRegistry.find("gateway.concurrency.inflight").tag("route", "content").meters()).isEmpty();
+        assertThat(meterRegistry.find("gateway.concurrency.requests").tag("route", "content").meters()).isEmpty();
+        assertThat(meterRegistry.find("gateway.concurrency.limit").tag("route", "users").meters()).hasSize(1);
+        assertThat(meterRegistry.find("gateway.concurrency.inflight").tag("route", "all").meters()).hasSize(1);
+    }
+
+    @Test
+    void failedRefreshKeepsTheMeters() {
+        factory.apply(config("content", 20));
+
+        RouteLocator locator = Flux::empty;
+        factory.onApplicationEvent(new RefreshRoutesResultEvent(locator, new IllegalStateException("boom")));
+
+        assertThat(meterRegistry.find("gateway.concurrency.limit").tag("route", "content").meters()).hasSize(1);
+    }
+
+    @Test
+    void routeAddedBackAfterRemovalIsMeasuredAgain() {
+        factory.apply(config("content", 20));
+        factory.retainRoutes(Set.of());
+        factory.apply(config("content", 30));
+
+        assertThat(meterRegistry.get("gateway.concurrency.limit").tag("route", "content").gauge().value())
+            .isEqualTo(30);
+    }
+
+    private static AdaptiveConcurrencyFilter.Config config(String route, int initialLimit) {
+        AdaptiveConcurrencyFilter.Config config = new AdaptiveConcurrencyFilter.Config();
+        config.setRouteId(route);
+        config.setInitialLimit(initialLimit);
+        return config;
+    }
+
+    private static Route route(String id) {
+        return Route.async().id(id).uri("http://localhost").predicate(exchange -> true).build();
+    }
+}
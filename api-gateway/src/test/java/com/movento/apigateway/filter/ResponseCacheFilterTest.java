@@ -0,0 +1,120 @@
+package com.movento.apigateway.filter;
+
+import com.movento.apigateway.cache.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheFilterTest {
+
+    private static final String PATH = "/api/content/api/v1/genres";
+
+    private final ResponseCache responseCache = new ResponseCache(new SimpleMeterRegistry(), 1_000_000);
+    private final GatewayFilter filter = new ResponseCacheFilter(responseCache).apply(config());
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void firstRequestMissesAndTheSecondIsServedFromCache() {
+        MockServerWebExchange first = get(MockServerHttpRequest.get(PATH), headers -> { });
+        MockServerWebExchange second = get(MockServerHttpRequest.get(PATH), headers -> { });
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("genres");
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo(first.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void matchingIfNoneMatchOnAHitIsNotModified() {
+        String etag = get(MockServerHttpRequest.get(PATH), headers -> { }).getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated =
+                get(MockServerHttpRequest.get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag), headers -> { });
+
+        assertThat(revalidated.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void otherPathsAndMethodsBypassTheCache() {
+        get(MockServerHttpRequest.get("/api/content/api/v1/contents/1"), headers -> { });
+        get(MockServerHttpRequest.get("/api/content/api/v1/contents/1"), headers -> { });
+        get(MockServerHttpRequest.post(PATH), headers -> { });
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void responseVaryingOnARequestHeaderIsNotStored() {
+        get(MockServerHttpRequest.get(PATH), headers -> headers.setVary(List.of("Accept-Language")));
+        get(MockServerHttpRequest.get(PATH), headers -> headers.setVary(List.of("Accept-Language")));
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void responseVaryingOnlyOnAcceptEncodingIsStored() {
+        get(MockServerHttpRequest.get(PATH), headers -> headers.setVary(List.of("Accept-Encoding")));
+        get(MockServerHttpRequest.get(PATH), headers -> headers.setVary(List.of("Accept-Encoding")));
+
+        assertThat(upstreamCalls).hasValue(1);
+    }
+
+    @Test
+    void responseToAnAuthorizedRequestIsOnlyStoredWhenUpstreamMarksItPublic() {
+        get(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer a"), headers -> { });
+        get(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer b"), headers -> { });
+        assertThat(upstreamCalls).hasValue(2);
+
+        get(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer a"),
+                headers -> headers.setCacheControl("public, max-age=60"));
+        get(MockServerHttpRequest.get(PATH).header(HttpHeaders.AUTHORIZATION, "Bearer b"), headers -> { });
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    @Test
+    void privateOrCookieSettingResponsesAreNotStored() {
+        get(MockServerHttpRequest.get(PATH), headers -> headers.setCacheControl("private, max-age=60"));
+        get(MockServerHttpRequest.get(PATH), headers -> headers.add(HttpHeaders.SET_COOKIE, "session=1"));
+        get(MockServerHttpRequest.get(PATH), headers -> { });
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    private MockServerWebExchange get(MockServerHttpRequest.BaseBuilder<?> request, Consumer<HttpHeaders> upstreamHeaders) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request.build());
+        GatewayFilterChain upstream = forwarded -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = forwarded.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            upstreamHeaders.accept(response.getHeaders());
+            return response.writeWith(Mono.just(response.bufferFactory().wrap("genres".getBytes(StandardCharsets.UTF_8))));
+        };
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private static ResponseCacheFilter.Config config() {
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        config.setPaths(List.of(PATH));
+        return config;
+    }
+}
@@ -0,0 +1,139 @@
+package com.movento.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightFilterTest {
+
+    private static final String PATH = "/api/content/api/v1/contents/1";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> leaderReleased = Sinks.empty();
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        GatewayFilter filter = filter(false);
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(PATH));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(PATH));
+
+        runConcurrently(filter, upstream(HttpStatus.OK), leader, follower);
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("response 1");
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo("response 1");
+    }
+
+    @Test
+    void followersRetryThemselvesWhenTheLeaderGetsAnError() {
+        GatewayFilter filter = filter(false);
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(PATH));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(PATH));
+
+        runConcurrently(filter, upstream(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.OK), leader, follower);
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(leader.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo("response 2");
+    }
+
+    @Test
+    void followersRetryThemselvesWhenTheLeaderFails() {
+        GatewayFilter filter = filter(false);
+        MockServerWebExchange leader = exchange(MockServerHttpRequest.get(PATH));
+        MockServerWebExchange follower = exchange(MockServerHttpRequest.get(PATH));
+        GatewayFilterChain upstream = exchange -> upstreamCalls.incrementAndGet() == 1
+                ? leaderReleased.asMono().then(Mono.error(new IllegalStateException("connection reset")))
+                : respond(exchange, HttpStatus.OK, upstreamCalls.get());
+
+        Mono.when(filter.filter(leader, upstream).onErrorResume(e -> Mono.empty()),
+                        filter.filter(follower, upstream), release())
+                .block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void perUserRoutesOnlyMergeRequestsOfTheSameUser() {
+        GatewayFilter filter = filter(true);
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PATH).header("X-User-Id", "1"));
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get(PATH).header("X-User-Id", "2"));
+
+        runConcurrently(filter, upstream(HttpStatus.OK, HttpStatus.OK), first, second);
+
+        assertThat(upstreamCalls).hasValue(2);
+    }
+
+    @Test
+    void conditionalRequestsAndOtherMethodsAreNotCoalesced() {
+        GatewayFilter filter = filter(false);
+        GatewayFilterChain upstream = upstream(HttpStatus.OK, HttpStatus.OK, HttpStatus.OK);
+        leaderReleased.tryEmitEmpty();
+
+        filter.filter(exchange(MockServerHttpRequest.post(PATH)), upstream).block(Duration.ofSeconds(5));
+        filter.filter(exchange(MockServerHttpRequest.get(PATH).header("If-None-Match", "\"v1\"")), upstream)
+                .block(Duration.ofSeconds(5));
+        filter.filter(exchange(MockServerHttpRequest.get("/api/payments/1")), upstream).block(Duration.ofSeconds(5));
+
+        assertThat(upstreamCalls).hasValue(3);
+    }
+
+    // Both requests are in flight before the leader's upstream call answers
+    private void runConcurrently(GatewayFilter filter, GatewayFilterChain upstream,
+                                 MockServerWebExchange leader, MockServerWebExchange follower) {
+        Mono.when(filter.filter(leader, upstream), filter.filter(follower, upstream), release())
+                .block(Duration.ofSeconds(5));
+    }
+
+    private Mono<Void> release() {
+        return Mono.fromRunnable(leaderReleased::tryEmitEmpty);
+    }
+
+    // The n-th upstream call answers with the n-th status; the first waits until released
+    private GatewayFilterChain upstream(HttpStatus... statuses) {
+        return exchange -> {
+            int call = upstreamCalls.incrementAndGet();
+            Mono<Void> response = respond(exchange, statuses[call - 1], call);
+            return call == 1 ? leaderReleased.asMono().then(response) : response;
+        };
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, HttpStatus status, int call) {
+        return Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(status);
+            return response.writeWith(Mono.just(response.bufferFactory()
+                    .wrap(("response " + call).getBytes(StandardCharsets.UTF_8))));
+        });
+    }
+
+    private static GatewayFilter filter(boolean perUser) {
+        SingleFlightFilter.Config config = new SingleFlightFilter.Config();
+        config.setPaths(List.of("/api/content/api/v1/contents/**"));
+        config.setPerUser(perUser);
+        config.setMaxWait(Duration.ofSeconds(2));
+        return new SingleFlightFilter(new SimpleMeterRegistry()).apply(config);
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request.build());
+    }
+}
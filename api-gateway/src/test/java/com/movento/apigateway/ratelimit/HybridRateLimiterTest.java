@@ -0,0 +1,192 @@
+package com.movento.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter.Response;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridRateLimiterTest {
+
+    private static final int BURST = 100;
+
+    private final InMemoryBudget budget = new InMemoryBudget(BURST);
+    private final HybridRateLimiter limiter = new HybridRateLimiter(budget, null, new SimpleMeterRegistry(),
+            new HybridRateLimiter.Config().setReplenishRate(10).setBurstCapacity(BURST).setRequestedTokens(1),
+            0.1, Duration.ofMinutes(10));
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void requestsAreServedFromTheLeaseUntilItRunsOut() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(allowed("user")).isTrue();
+        }
+        assertThat(budget.borrows).isEqualTo(1);
+
+        assertThat(allowed("user")).isTrue();
+        assertThat(budget.borrows).isEqualTo(2);
+    }
+
+    @Test
+    void nearlyEmptyBucketIsBorrowedFromOneRequestAtATime() {
+        budget.tokens = 5;
+        for (int i = 0; i < 5; i++) {
+            assertThat(allowed("user")).isTrue();
+        }
+        assertThat(budget.borrows).isEqualTo(1);
+        assertThat(budget.lastRequested).isEqualTo(10);
+
+        // Refill after the bucket ran dry: only the request at hand is taken from it
+        budget.tokens = 50;
+        assertThat(allowed("user")).isTrue();
+
+        assertThat(budget.borrows).isEqualTo(2);
+        assertThat(budget.lastRequested).isEqualTo(1);
+        assertThat(budget.tokens).isEqualTo(49);
+    }
+
+    @Test
+    void exhaustedBucketDeniesWithNoRemainingTokens() {
+        budget.tokens = 0;
+
+        Response response = limiter.isAllowed("route", "user").block();
+
+        assertThat(response.isAllowed()).isFalse();
+        assertThat(response.getHeaders()).containsEntry("X-RateLimit-Remaining", "0");
+    }
+
+    @Test
+    void unavailableBudgetStoreAllowsTheRequest() {
+        budget.failing = true;
+
+        assertThat(allowed("user")).isTrue();
+    }
+
+    @Test
+    void shutdownReturnsUnusedLeasedTokens() {
+        allowed("user");
+        assertThat(budget.tokens).isEqualTo(BURST - 10);
+
+        limiter.shutdown();
+
+        assertThat(budget.tokens).isEqualTo(BURST - 1);
+    }
+
+    @Test
+    void shutdownReturnsLeasesConcurrentlyWithinOneDeadline() {
+        budget.giveBackDelay = Duration.ofMillis(500);
+        for (int user = 0; user < 10; user++) {
+            allowed("user" + user);
+        }
+        assertThat(budget.tokens).isZero();
+
+        long started = System.nanoTime();
+        limiter.shutdown();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(1500));
+        assertThat(budget.tokens).isEqualTo(BURST - 10);
+    }
+
+    @Test
+    void shutdownGivesUpOnUnansweredReturnsAtTheDeadline() {
+        budget.hangingGiveBack = true;
+        for (int user = 0; user < 10; user++) {
+            allowed("user" + user);
+        }
+
+        long started = System.nanoTime();
+        limiter.shutdown();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(4));
+    }
+
+    @Test
+    void idleLeasesAreGivenBack() throws InterruptedException {
+        HybridRateLimiter idleLimiter = new HybridRateLimiter(budget, null, new SimpleMeterRegistry(),
+                new HybridRateLimiter.Config().setReplenishRate(10).setBurstCapacity(BURST).setRequestedTokens(1),
+                0.1, Duration.ofMillis(20));
+        try {
+            idleLimiter.isAllowed("route", "user").block();
+            Thread.sleep(50);
+
+            idleLimiter.reconcile();
+
+            assertThat(budget.tokens).isEqualTo(BURST - 1);
+            // The next request starts a fresh lease
+            idleLimiter.isAllowed("route", "user").block();
+            assertThat(budget.borrows).isEqualTo(2);
+        } finally {
+            idleLimiter.shutdown();
+        }
+    }
+
+    @Test
+    void tokensAddedToARetiredLeaseAreReportedForReturn() {
+        TokenLease lease = new TokenLease("route");
+        assertThat(lease.add(5)).isTrue();
+
+        assertThat(lease.retire()).isEqualTo(5);
+
+        assertThat(lease.add(3)).isFalse();
+        assertThat(lease.drain()).isEqualTo(3);
+    }
+
+    private boolean allowed(String id) {
+        return limiter.isAllowed("route", id).block().isAllowed();
+    }
+
+    /**
+     * Single-bucket budget without refill, enough to observe what the limiter asks for.
+     */
+    private static final class InMemoryBudget implements GlobalTokenBudget {
+
+        private final long capacity;
+        private long tokens;
+        private int borrows;
+        private long lastRequested;
+        private boolean failing;
+        private Duration giveBackDelay;
+        private boolean hangingGiveBack;
+
+        InMemoryBudget(long capacity) {
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        @Override
+        public synchronized Mono<Grant> borrow(String key, int replenishRate, int burstCapacity, long requested, long minimum) {
+            if (failing) {
+                return Mono.error(new IllegalStateException("redis down"));
+            }
+            borrows++;
+            lastRequested = requested;
+            long granted = Math.min(requested, tokens);
+            if (granted < minimum) {
+                granted = 0;
+            }
+            tokens -= granted;
+            return Mono.just(new Grant(granted, tokens));
+        }
+
+        @Override
+        public Mono<Void> giveBack(String key, int replenishRate, int burstCapacity, long returned) {
+            if (hangingGiveBack) {
+                return Mono.never();
+            }
+            Mono<Void> giveBack = Mono.fromRunnable(() -> {
+                synchronized (this) {
+                    tokens = Math.min(capacity, tokens + returned);
+                }
+            });
+            return giveBackDelay == null ? giveBack : Mono.delay(giveBackDelay).then(giveBack);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.movento.apigateway.ratelimit;
+
+import com.movento.apigateway.ratelimit.GlobalTokenBudget.Grant;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the borrow and give-back scripts against a real Redis. A replenish rate of one token per
+ * second keeps refill between calls below a whole token, so the counts below are exact.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisTokenBudgetTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final int RATE = 1;
+    private static final int CAPACITY = 100;
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static ReactiveStringRedisTemplate redisTemplate;
+
+    private RedisTokenBudget budget;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> connection.serverCommands().flushAll()).blockLast(TIMEOUT);
+        budget = new RedisTokenBudget(redisTemplate);
+    }
+
+    @Test
+    void freshBucketGrantsTheWholeLease() {
+        Grant grant = borrow("user", 10, 1);
+
+        assertThat(grant.granted()).isEqualTo(10);
+        assertThat(grant.remaining()).isEqualTo(90);
+    }
+
+    @Test
+    void grantIsCappedByWhatIsLeftInTheBucket() {
+        borrow("user", 95, 1);
+
+        Grant grant = borrow("user", 10, 1);
+
+        assertThat(grant.granted()).isEqualTo(5);
+        assertThat(grant.remaining()).isZero();
+    }
+
+    @Test
+    void nothingIsGrantedBelowTheMinimum() {
+        borrow("user", 97, 1);
+
+        Grant grant = borrow("user", 10, 5);
+
+        assertThat(grant.granted()).isZero();
+        assertThat(grant.remaining()).isEqualTo(3);
+    }
+
+    @Test
+    void returnedTokensAreUsableAgainButNeverExceedCapacity() {
+        borrow("user", 50, 1);
+
+        budget.giveBack("user", RATE, CAPACITY, 20).block(TIMEOUT);
+        assertThat(borrow("user", 0, 0).remaining()).isEqualTo(70);
+
+        budget.giveBack("user", RATE, CAPACITY, 500).block(TIMEOUT);
+        assertThat(storedTokens("user")).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void bucketsAreIndependentPerKeyAndExpire() {
+        borrow("alice", 100, 1);
+
+        assertThat(borrow("bob", 10, 1).granted()).isEqualTo(10);
+        Duration ttl = redisTemplate.getExpire("hybrid_rate_limiter.{alice}.tokens").block(TIMEOUT);
+        assertThat(ttl).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(CAPACITY / RATE * 2));
+    }
+
+    private double storedTokens(String key) {
+        return Double.parseDouble(redisTemplate.opsForValue().get("hybrid_rate_limiter.{" + key + "}.tokens").block(TIMEOUT));
+    }
+
+    private Grant borrow(String key, long requested, long minimum) {
+        return budget.borrow(key, RATE, CAPACITY, requested, minimum).block(TIMEOUT);
+    }
+}
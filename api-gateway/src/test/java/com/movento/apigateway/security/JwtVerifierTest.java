@@ -0,0 +1,87 @@
+package com.movento.apigateway.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtVerifierTest {
+
+    private static final String SECRET = "gateway-test-secret-key-that-is-at-least-256-bits";
+    private static final String ISSUER = "movento-user-service";
+    private static final String AUDIENCE = "movento-api";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, ISSUER, AUDIENCE, 100, Duration.ofMinutes(5));
+
+    @Test
+    void validTokenYieldsTheIdentity() {
+        JwtVerifier.VerifiedIdentity identity = verifier.verify(token().compact());
+
+        assertThat(identity).isNotNull();
+        assertThat(identity.userId()).isEqualTo(42L);
+        assertThat(identity.email()).isEqualTo("viewer@movento.example");
+        assertThat(identity.roles()).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String expired = token()
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .compact();
+
+        assertThat(verifier.verify(expired)).isNull();
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String[] parts = token().compact().split("\\.");
+        String forgedClaims = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("{\"sub\":\"admin@movento.example\",\"uid\":1,\"roles\":[\"ROLE_ADMIN\"],\"iss\":\"" + ISSUER
+                        + "\",\"aud\":\"" + AUDIENCE + "\",\"exp\":" + (System.currentTimeMillis() / 1000 + 3600) + "}")
+                        .getBytes(StandardCharsets.UTF_8));
+
+        assertThat(verifier.verify(parts[0] + "." + forgedClaims + "." + parts[2])).isNull();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        Key otherKey = Keys.hmacShaKeyFor("another-secret-key-that-is-also-at-least-256-bits".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(verifier.verify(token().signWith(otherKey, SignatureAlgorithm.HS256).compact())).isNull();
+    }
+
+    @Test
+    void tokenForAnotherIssuerOrAudienceIsRejected() {
+        assertThat(verifier.verify(token().setIssuer("someone-else").compact())).isNull();
+        assertThat(verifier.verify(token().setAudience("another-api").compact())).isNull();
+    }
+
+    @Test
+    void tokenWithoutAUserIdIsRejected() {
+        assertThat(verifier.verify(token().claim("uid", null).compact())).isNull();
+    }
+
+    private static JwtBuilder token() {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject("viewer@movento.example")
+                .claim("uid", 42L)
+                .claim("roles", List.of("ROLE_USER"))
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256);
+    }
+}
@@ -0,0 +1,77 @@
+package com.movento.apigateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HomeAggregationServiceTest {
+
+    @Test
+    void allLegsAnsweringGiveACompleteHome() {
+        Map<String, Object> home = home(request -> ok(body(request.url().getHost())));
+
+        assertThat(home).containsEntry("partial", false);
+        assertThat(home.get("topRated")).isInstanceOf(JsonNode.class);
+        assertThat(((JsonNode) home.get("topRated")).get(0).asText()).isEqualTo("content-service");
+        assertThat((JsonNode) home.get("activeSessions")).hasSize(1);
+    }
+
+    @Test
+    void legThatTimesOutDegradesToItsFallbackSection() {
+        Map<String, Object> home = home(request -> request.url().getHost().equals("recommendation-service")
+                ? Mono.never()
+                : ok(body(request.url().getHost())));
+
+        assertThat(home).containsEntry("partial", true);
+        assertThat(home.get("recommendations")).isInstanceOf(Map.class);
+        Map<?, ?> fallback = (Map<?, ?>) home.get("recommendations");
+        assertThat(fallback.get("status")).isEqualTo(503);
+        assertThat(fallback.get("message")).isEqualTo("Recommendation Service is currently unavailable. Please try again later.");
+        assertThat(home.get("topRated")).isInstanceOf(JsonNode.class);
+        assertThat(home.get("recentlyWatched")).isInstanceOf(JsonNode.class);
+    }
+
+    @Test
+    void failingLegAlsoDegradesToItsFallbackSection() {
+        Map<String, Object> home = home(request -> request.url().getHost().equals("streaming-service")
+                ? Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build())
+                : ok(body(request.url().getHost())));
+
+        assertThat(home).containsEntry("partial", true);
+        assertThat(((Map<?, ?>) home.get("activeSessions")).get("message"))
+                .isEqualTo("Streaming Service is currently unavailable. Please try again later.");
+    }
+
+    private static Map<String, Object> home(ExchangeFunction upstream) {
+        HomeAggregationService service = new HomeAggregationService(
+                WebClient.builder().exchangeFunction(upstream), Duration.ofMillis(200), 10);
+        return service.getHome(1L, "Bearer token").block(Duration.ofSeconds(5));
+    }
+
+    // Content wraps its payload in an envelope; sessions come with their status
+    private static String body(String host) {
+        return switch (host) {
+            case "content-service" -> "{\"data\":[\"content-service\"]}";
+            case "streaming-service" -> "[{\"id\":1,\"status\":\"ACTIVE\"},{\"id\":2,\"status\":\"ENDED\"}]";
+            default -> "[\"" + host + "\"]";
+        };
+    }
+
+    private static Mono<ClientResponse> ok(String json) {
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(json)
+                .build());
+    }
+}
@@ -0,0 +1,131 @@
+package com.movento.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared-budget calls made per rate-limited request. A lease fraction of 0 borrows one token per
+ * request, i.e. one Redis round-trip per request as with the plain Redis rate limiter; the
+ * {@code budgetCalls} counter against {@code requests} shows the round-trips the local tier saves.
+ * The budget is an in-memory token bucket so the numbers do not depend on a Redis instance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class HybridRateLimiterBenchmark {
+
+    @Param({"0.0", "0.05", "0.1", "0.25"})
+    public double leaseFraction;
+
+    @Param({"1000"})
+    public int users;
+
+    private CountingBudget budget;
+    private HybridRateLimiter limiter;
+    private String[] userIds;
+
+    @Setup
+    public void setUp() {
+        budget = new CountingBudget();
+        HybridRateLimiter.Config config = new HybridRateLimiter.Config()
+            .setReplenishRate(1_000)
+            .setBurstCapacity(2_000)
+            .setRequestedTokens(1);
+        limiter = new HybridRateLimiter(budget, null, new SimpleMeterRegistry(), config, leaseFraction, Duration.ofSeconds(2));
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = String.valueOf(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        limiter.shutdown();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Calls {
+        public long requests;
+        public long budgetCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            budgetCalls = 0;
+        }
+    }
+
+    @Benchmark
+    public boolean isAllowed(Calls calls) {
+        long[] budgetCalls = budget.calls.get();
+        long before = budgetCalls[0];
+        String userId = userIds[ThreadLocalRandom.current().nextInt(userIds.length)];
+        RateLimiter.Response response = limiter.isAllowed("user-service", userId).block();
+        calls.requests++;
+        calls.budgetCalls += budgetCalls[0] - before;
+        return response.isAllowed();
+    }
+
+    /**
+     * Same semantics as the Redis script, kept in memory.
+     */
+    static final class CountingBudget implements GlobalTokenBudget {
+        // Borrowing happens on the calling thread, so calls can be attributed per benchmark thread
+        final ThreadLocal<long[]> calls = ThreadLocal.withInitial(() -> new long[1]);
+        private final ConcurrentHashMap<String, double[]> buckets = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Grant> borrow(String key, int replenishRate, int burstCapacity, long requested, long minimum) {
+            calls.get()[0]++;
+            double[] bucket = buckets.computeIfAbsent(key, k -> new double[] {burstCapacity, System.nanoTime()});
+            synchronized (bucket) {
+                long now = System.nanoTime();
+                double filled = Math.min(burstCapacity, bucket[0] + (now - bucket[1]) / 1e9 * replenishRate);
+                long granted = Math.min(requested, (long) filled);
+                if (granted < minimum) {
+                    granted = 0;
+                }
+                bucket[0] = filled - granted;
+                bucket[1] = now;
+                return Mono.just(new Grant(granted, (long) bucket[0]));
+            }
+        }
+
+        @Override
+        public Mono<Void> giveBack(String key, int replenishRate, int burstCapacity, long tokens) {
+            double[] bucket = buckets.get(key);
+            if (bucket != null) {
+                synchronized (bucket) {
+                    bucket[0] = Math.min(burstCapacity, bucket[0] + tokens);
+                }
+            }
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.movento.contentservice.dto.mapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.movento.contentservice.dto.ContentDto;
+import com.movento.contentservice.dto.GenreDto;
+import com.movento.contentservice.dto.MovieDto;
+import com.movento.contentservice.dto.response.ApiResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of a listing response as returned by the content endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<Page<ContentDto>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<ContentDto> contents = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            MovieDto movie = new MovieDto();
+            movie.setId((long) i);
+            movie.setTitle("Title " + i);
+            movie.setDescription("Description of title " + i + " with a couple of sentences of synopsis.");
+            movie.setReleaseYear(2000 + i % 24);
+            movie.setDurationMinutes(90 + i % 60);
+            movie.setThumbnailUrl("https://cdn.movento.example/thumbs/" + i + ".jpg");
+            movie.setContentRating("PG-13");
+            movie.setActive(true);
+            movie.setAverageRating(7.5);
+            movie.setRatingCount(1200L);
+            movie.setCreatedAt(LocalDateTime.now());
+            for (int g = 0; g < 3; g++) {
+                GenreDto genre = new GenreDto();
+                genre.setId((long) g);
+                genre.setName("Genre " + g);
+                movie.getGenres().add(genre);
+            }
+            contents.add(movie);
+        }
+        response = ApiResponse.success(new PageImpl<>(contents, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,73 @@
+package com.movento.contentservice.dto.mapper;
+
+import com.movento.contentservice.dto.ContentDto;
+import com.movento.contentservice.model.Genre;
+import com.movento.contentservice.model.Movie;
+import com.movento.contentservice.model.TvShow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentMapperBenchmark {
+
+    private final ContentMapper mapper = ContentMapper.INSTANCE;
+
+    private Movie movie;
+    private TvShow tvShow;
+
+    @Setup
+    public void setUp() {
+        movie = new Movie();
+        populate(movie, 1L, "The Long Night");
+        tvShow = new TvShow();
+        populate(tvShow, 2L, "Northern Lines");
+        tvShow.setNumberOfSeasons(4);
+        tvShow.setNumberOfEpisodes(40);
+        tvShow.setIsOngoing(true);
+    }
+
+    private static void populate(com.movento.contentservice.model.Content content, Long id, String title) {
+        content.setId(id);
+        content.setTitle(title);
+        content.setDescription("A slow-burning drama about the people who keep the city running after dark.");
+        content.setReleaseYear(2023);
+        content.setDurationMinutes(118);
+        content.setThumbnailUrl("https://cdn.movento.example/thumbs/" + id + ".jpg");
+        content.setBackdropUrl("https://cdn.movento.example/backdrops/" + id + ".jpg");
+        content.setContentRating("PG-13");
+        content.setCreatedAt(LocalDateTime.now());
+        content.setUpdatedAt(LocalDateTime.now());
+        for (int i = 0; i < 3; i++) {
+            Genre genre = new Genre();
+            genre.setId((long) i);
+            genre.setName("Genre " + i);
+            content.getGenres().add(genre);
+        }
+    }
+
+    @Benchmark
+    public ContentDto movieToDto() {
+        return mapper.toDto(movie, 42L);
+    }
+
+    @Benchmark
+    public ContentDto tvShowToDto() {
+        return mapper.toDto(tvShow, 42L);
+    }
+}
@@ -0,0 +1,47 @@
+package com.movento.paymentservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StripeServiceBenchmark {
+
+    @Param({"usd", "JPY"})
+    public String currency;
+
+    private StripeService stripeService;
+    private BigDecimal amount;
+
+    @Setup
+    public void setUp() {
+        stripeService = new StripeService();
+        amount = new BigDecimal("19.99");
+    }
+
+    @Benchmark
+    public boolean isZeroDecimalCurrency() {
+        return stripeService.isZeroDecimalCurrency(currency);
+    }
+
+    @Benchmark
+    public long convertToStripeAmount() {
+        return stripeService.convertToStripeAmount(amount, currency);
+    }
+}
@@ -0,0 +1,132 @@
+package com.movento.recommendationservice.als;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Training and serving costs of the ALS model on synthetic implicit feedback. {@code train}
+ * times one full iteration (both half-steps); divide the interaction count by it for training
+ * throughput. The serving benchmarks run against a model written to disk and memory-mapped the
+ * way {@code FactorModelService} serves it: re-ranking a candidate set, and a full catalogue scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AlsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Training {
+
+        @Param({"100000"})
+        public int users;
+
+        @Param({"20000"})
+        public int items;
+
+        @Param({"40"})
+        public int perUser;
+
+        @Param({"64"})
+        public int factors;
+
+        InteractionMatrix matrix;
+
+        @Setup
+        public void setUp() {
+            InteractionMatrix.Builder builder = new InteractionMatrix.Builder();
+            SplittableRandom random = new SplittableRandom(42);
+            for (int user = 0; user < users; user++) {
+                for (int i = 0; i < perUser; i++) {
+                    double u = random.nextDouble();
+                    builder.add(user, (long) (u * u * items), 0.5f + random.nextInt(6));
+                }
+            }
+            matrix = builder.build();
+        }
+
+        AlsTrainer.Settings settings(int iterations) {
+            return new AlsTrainer.Settings(factors, iterations, 0.05f, 5f,
+                    Runtime.getRuntime().availableProcessors(), 7);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Serving {
+
+        @Param({"200"})
+        public int candidates;
+
+        Path directory;
+        MappedFactorModel model;
+        int users;
+        int items;
+
+        @Setup
+        public void setUp(Training training) throws IOException {
+            directory = Files.createTempDirectory("als-model");
+            FactorModel trained = AlsTrainer.train(training.matrix, training.settings(1), 1);
+            model = MappedFactorModel.open(ModelFile.write(trained, directory));
+            users = model.userCount();
+            items = model.itemCount();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            model = null;
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public FactorModel train(Training training) {
+        return AlsTrainer.train(training.matrix, training.settings(1), 1);
+    }
+
+    @Benchmark
+    public float[] scoreCandidates(Serving serving) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        float[] user = serving.model.userVector(random.nextInt(serving.users));
+        long[] ids = new long[serving.candidates];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextInt(serving.items);
+        }
+        float[] scores = new float[ids.length];
+        serving.model.score(user, ids, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public RecommendationEngine.Ranking fullScan(Serving serving) {
+        float[] user = serving.model.userVector(ThreadLocalRandom.current().nextInt(serving.users));
+        return serving.model.recommend(user, 20, contentId -> false);
+    }
+}
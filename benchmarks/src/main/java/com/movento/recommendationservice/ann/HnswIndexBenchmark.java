@@ -0,0 +1,162 @@
+package com.movento.recommendationservice.ann;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HNSW search against an exact scan on a synthetic catalogue of unit vectors, the shape of
+ * normalised title embeddings. Setup prints recall@k of the index over a fixed query set, so
+ * the latency numbers can be read against it; raise {@code ef} to trade one for the other.
+ * {@code concurrent} runs searches while another thread keeps inserting new titles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HnswIndexBenchmark {
+
+    @Param({"50000"})
+    public int items;
+
+    @Param({"64"})
+    public int dimension;
+
+    @Param({"10"})
+    public int k;
+
+    @Param({"100"})
+    public int ef;
+
+    private float[][] vectors;
+    private float[][] queries;
+    private Path directory;
+    private HnswIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        vectors = new float[items][];
+        for (int i = 0; i < items; i++) {
+            vectors[i] = unitVector(random);
+        }
+        queries = new float[256][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = unitVector(random);
+        }
+
+        directory = Files.createTempDirectory("hnsw");
+        long started = System.nanoTime();
+        index = HnswIndex.create(directory.resolve("catalog.hnsw"), dimension, 16, 200, items, 1);
+        for (int i = 0; i < items; i++) {
+            index.add(i, vectors[i]);
+        }
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        double recall = 0;
+        for (float[] query : queries) {
+            Set<Long> truth = new HashSet<>();
+            for (long id : exact(query).contentIds()) {
+                truth.add(id);
+            }
+            int hits = 0;
+            for (long id : index.search(query, k, ef).contentIds()) {
+                hits += truth.contains(id) ? 1 : 0;
+            }
+            recall += (double) hits / k;
+        }
+        System.out.printf("%nBuilt %d titles in %d ms; recall@%d at ef=%d: %.3f%n",
+                items, buildMillis, k, ef, recall / queries.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index = null;
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public RecommendationEngine.Ranking hnsw() {
+        return index.search(queries[ThreadLocalRandom.current().nextInt(queries.length)], k, ef);
+    }
+
+    @Benchmark
+    public RecommendationEngine.Ranking exact() {
+        return exact(queries[ThreadLocalRandom.current().nextInt(queries.length)]);
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(3)
+    public RecommendationEngine.Ranking searchDuringInserts() {
+        return hnsw();
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(1)
+    public void insert() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        index.add(items + random.nextLong(Long.MAX_VALUE - items), vectors[random.nextInt(items)]);
+    }
+
+    private RecommendationEngine.Ranking exact(float[] query) {
+        TopK top = new TopK(k);
+        for (int i = 0; i < vectors.length; i++) {
+            float[] vector = vectors[i];
+            float dot = 0f;
+            for (int d = 0; d < dimension; d++) {
+                dot += query[d] * vector[d];
+            }
+            top.offer(i, dot);
+        }
+        long[] ids = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(ids, scores);
+        return new RecommendationEngine.Ranking(ids, scores);
+    }
+
+    private float[] unitVector(SplittableRandom random) {
+        float[] vector = new float[dimension];
+        double norm = 0;
+        for (int d = 0; d < dimension; d++) {
+            vector[d] = (float) random.nextDouble(-1, 1);
+            norm += vector[d] * vector[d];
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int d = 0; d < dimension; d++) {
+            vector[d] *= scale;
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,88 @@
+package com.movento.recommendationservice.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "More like this" lookups against a {@link SimilarityIndex} built from synthetic interactions
+ * with a Zipf-like title popularity, and the cost of building that index. The index footprint
+ * is printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimilarityIndexBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Interactions {
+
+        @Param({"100000"})
+        public int items;
+
+        @Param({"200000"})
+        public int users;
+
+        @Param({"40"})
+        public int perUser;
+
+        @Param({"100"})
+        public int neighbours;
+
+        SimilarityIndexBuilder builder() {
+            SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+            SplittableRandom random = new SplittableRandom(42);
+            for (int user = 0; user < users; user++) {
+                for (int i = 0; i < perUser; i++) {
+                    // Squaring a uniform draw skews towards low ids, i.e. popular titles
+                    double u = random.nextDouble();
+                    builder.add(user, (long) (u * u * items));
+                }
+            }
+            return builder;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Index {
+
+        SimilarityIndex index;
+        int items;
+
+        @Setup
+        public void setUp(Interactions interactions) {
+            index = interactions.builder().build(interactions.neighbours, Runtime.getRuntime().availableProcessors());
+            items = interactions.items;
+            System.out.printf("%n%d items, %d neighbours, %d MiB%n",
+                    index.itemCount(), index.neighbourCount(), index.sizeInBytes() >> 20);
+        }
+    }
+
+    @Benchmark
+    public RecommendationEngine.Ranking similarTo(Index state) {
+        return state.index.similarTo(ThreadLocalRandom.current().nextInt(state.items), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public SimilarityIndex build(Interactions interactions) {
+        return interactions.builder().build(interactions.neighbours, Runtime.getRuntime().availableProcessors());
+    }
+}
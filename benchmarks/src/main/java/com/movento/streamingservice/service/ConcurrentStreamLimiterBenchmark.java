@@ -0,0 +1,145 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.dto.ServiceResponse;
+import com.movento.streamingservice.dto.UserPlanDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of admitting a session (plan lookup plus lease acquisition) and releasing it again, with
+ * plans already cached. By default leases are kept in memory with the script's semantics, which
+ * measures the service-side overhead; pass {@code -p redisHost=<host>} to measure against a real
+ * Redis, where the script round-trip dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ConcurrentStreamLimiterBenchmark {
+
+    @Param({""})
+    public String redisHost;
+
+    @Param({"6379"})
+    public int redisPort;
+
+    @Param({"10000"})
+    public int users;
+
+    private final AtomicLong sessionIds = new AtomicLong();
+    private LettuceConnectionFactory connectionFactory;
+    private ConcurrentStreamLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        StreamLeaseStore store;
+        if (redisHost.isEmpty()) {
+            store = new InMemoryLeaseStore();
+        } else {
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(redisHost, redisPort));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+            store = new RedisStreamLeaseStore(new StringRedisTemplate(connectionFactory));
+        }
+        PlanLimitService plans = new PlanLimitService(userId -> {
+            UserPlanDto plan = new UserPlanDto();
+            plan.setUserId(userId);
+            plan.setMaxStreams(4);
+            ServiceResponse<UserPlanDto> response = new ServiceResponse<>();
+            response.setData(plan);
+            return response;
+        }, Duration.ofHours(1), Duration.ofSeconds(30), users, 2);
+        limiter = new ConcurrentStreamLimiter(store, plans, new SimpleMeterRegistry(), Duration.ofMinutes(2));
+        for (long userId = 0; userId < users; userId++) {
+            plans.maxStreams(userId);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Benchmark
+    public long admitAndRelease() {
+        long userId = ThreadLocalRandom.current().nextInt(users);
+        long sessionId = sessionIds.incrementAndGet();
+        limiter.admit(userId, sessionId);
+        limiter.release(userId, sessionId);
+        return sessionId;
+    }
+
+    /**
+     * Same semantics as the acquire script, kept in memory.
+     */
+    static final class InMemoryLeaseStore implements StreamLeaseStore {
+        private final ConcurrentHashMap<Long, TreeMap<Long, Long>> leasesByUser = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean acquire(Lease lease, int maxStreams, Duration ttl) {
+            TreeMap<Long, Long> leases = leasesByUser.computeIfAbsent(lease.userId(), id -> new TreeMap<>());
+            synchronized (leases) {
+                long now = System.currentTimeMillis();
+                leases.values().removeIf(expiresAt -> expiresAt <= now);
+                if (!leases.containsKey(lease.sessionId()) && leases.size() >= maxStreams) {
+                    return false;
+                }
+                leases.put(lease.sessionId(), now + ttl.toMillis());
+                return true;
+            }
+        }
+
+        @Override
+        public void renew(List<Lease> leases, Duration ttl) {
+            long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+            for (Lease lease : leases) {
+                TreeMap<Long, Long> held = leasesByUser.get(lease.userId());
+                if (held != null) {
+                    synchronized (held) {
+                        held.computeIfPresent(lease.sessionId(), (id, old) -> expiresAt);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void release(List<Lease> leases) {
+            for (Lease lease : leases) {
+                TreeMap<Long, Long> held = leasesByUser.get(lease.userId());
+                if (held != null) {
+                    synchronized (held) {
+                        held.remove(lease.sessionId());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.movento.streamingservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segment bytes written to a loopback socket by {@link MediaSegmentService#copyRange} against a
+ * plain {@code InputStream} to {@code OutputStream} copy, as a servlet would do without sendfile.
+ * A background thread drains the socket. Scores are segments per second on one sending thread;
+ * multiply by {@code segmentBytes} for bytes per second per core.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentTransferBenchmark {
+
+    @Param({"2097152"})
+    public int segmentBytes;
+
+    private Path segment;
+    private FileChannel channel;
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private OutputStream clientStream;
+    private Thread drain;
+
+    @Setup
+    public void setUp() throws IOException {
+        segment = Files.createTempFile("segment", ".ts");
+        byte[] data = new byte[segmentBytes];
+        ThreadLocalRandom.current().nextBytes(data);
+        Files.write(segment, data);
+        channel = FileChannel.open(segment, StandardOpenOption.READ);
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        clientStream = client.socket().getOutputStream();
+        SocketChannel accepted = server.accept();
+        drain = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            try (accepted) {
+                while (accepted.read(buffer.clear()) >= 0) {
+                    // discard
+                }
+            } catch (IOException ignored) {
+                // socket closed at teardown
+            }
+        }, "segment-drain");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        client.close();
+        drain.join(1000);
+        server.close();
+        channel.close();
+        Files.deleteIfExists(segment);
+    }
+
+    @Benchmark
+    public long transferTo() throws IOException {
+        MediaSegmentService.copyRange(channel, 0, segmentBytes, client);
+        return segmentBytes;
+    }
+
+    @Benchmark
+    public long inputStreamCopy() throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(segment)) {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                clientStream.write(buffer, 0, read);
+                copied += read;
+            }
+        }
+        return copied;
+    }
+}
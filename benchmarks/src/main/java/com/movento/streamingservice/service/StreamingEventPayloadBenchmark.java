@@ -0,0 +1,42 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload built for every session lifecycle event published by {@link StreamingSessionService}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamingEventPayloadBenchmark {
+
+    private StreamingSession session;
+
+    @Setup
+    public void setUp() {
+        session = new StreamingSession();
+        session.setId(123_456L);
+        session.setUserId(42L);
+        session.setContentId(7L);
+    }
+
+    @Benchmark
+    public String eventPayload() {
+        return StreamingSessionService.eventPayload("STREAMING_SESSION_CREATED", session);
+    }
+}
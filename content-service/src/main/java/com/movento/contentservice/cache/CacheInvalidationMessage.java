@@ -0,0 +1,22 @@
+package com.movento.contentservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Broadcast over the Redisson invalidation topic so that other instances drop their local copy.
+ * A {@code null} key means the whole cache was cleared.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String originId;
+    private String cacheName;
+    private Object key;
+}
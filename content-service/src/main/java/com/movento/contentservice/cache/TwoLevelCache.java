@@ -0,0 +1,170 @@
+package com.movento.contentservice.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache that keeps an in-process Caffeine copy (L1) in front of a shared Redisson map (L2).
+ * Reads fall through L1 to L2 and populate L1 on the way back; evictions are applied to both
+ * tiers and broadcast so that the L1 of every other instance is dropped as well.
+ * <p>
+ * Every invalidation bumps a generation counter for its key's stripe. A value read from L2 is only
+ * copied into L1 if no invalidation of that stripe happened since the read started, so an
+ * invalidation that lands between the L2 read and the L1 put cannot be overwritten by the stale
+ * value.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache;
+    private final Cache remoteCache;
+    private final BiConsumer<String, Object> invalidationPublisher;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+    private final LongAdder remotePuts = new LongAdder();
+    private final LongAdder remoteEvictions = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<Object, Object> localCache,
+                         Cache remoteCache,
+                         BiConsumer<String, Object> invalidationPublisher) {
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = localCache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        Object storeValue = toStoreValue(wrapper.get());
+        // Invalidations bump the generation before touching L1, and compute excludes a concurrent
+        // invalidate of the same key, so either this sees the bump or the invalidation follows it
+        localCache.asMap().compute(key,
+            (k, current) -> generations.get(stripe) == generation ? storeValue : current);
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        remotePuts.increment();
+        localCache.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        remoteEvictions.increment();
+        generations.incrementAndGet(stripe(key));
+        localCache.invalidate(key);
+        invalidationPublisher.accept(name, key);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        bumpAllGenerations();
+        localCache.invalidateAll();
+        invalidationPublisher.accept(name, null);
+    }
+
+    /**
+     * Applies an invalidation published by another instance. Only the local tier is touched,
+     * the shared tier has already been updated by the publisher.
+     */
+    void invalidateLocal(Object key) {
+        invalidationsReceived.increment();
+        if (key == null) {
+            bumpAllGenerations();
+            localCache.invalidateAll();
+        } else {
+            generations.incrementAndGet(stripe(key));
+            localCache.invalidate(key);
+        }
+    }
+
+    private void bumpAllGenerations() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return key.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return localCache;
+    }
+
+    long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    long getRemotePuts() {
+        return remotePuts.sum();
+    }
+
+    long getRemoteEvictions() {
+        return remoteEvictions.sum();
+    }
+
+    long getInvalidationsReceived() {
+        return invalidationsReceived.sum();
+    }
+}
@@ -0,0 +1,109 @@
+package com.movento.contentservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps the Redisson cache manager so that every cache it hands out gets a Caffeine near-cache.
+ * Local copies are kept coherent across instances through a Redisson pub/sub topic.
+ * <p>
+ * Caches are handed out behind a {@link TransactionAwareCacheDecorator}: puts, evictions and
+ * clears issued inside a transaction are applied after it commits, so a concurrent reader
+ * cannot re-cache the pre-commit row once the eviction has run.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, InitializingBean, DisposableBean {
+
+    private final CacheManager remoteCacheManager;
+    private final RTopic invalidationTopic;
+    private final String localCacheSpec;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> transactionAwareCaches = new ConcurrentHashMap<>();
+
+    private int listenerId = -1;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, RTopic invalidationTopic, String localCacheSpec) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationTopic = invalidationTopic;
+        this.localCacheSpec = localCacheSpec;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        listenerId = invalidationTopic.addListener(CacheInvalidationMessage.class,
+            (channel, message) -> onInvalidation(message));
+    }
+
+    @Override
+    public void destroy() {
+        if (listenerId != -1) {
+            invalidationTopic.removeListener(listenerId);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = transactionAwareCaches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        TwoLevelCache twoLevelCache = getTwoLevelCache(name);
+        if (twoLevelCache == null) {
+            return null;
+        }
+        return transactionAwareCaches.computeIfAbsent(name, key -> new TransactionAwareCacheDecorator(twoLevelCache));
+    }
+
+    /** The undecorated cache, for metrics; writes should go through {@link #getCache(String)}. */
+    public TwoLevelCache getTwoLevelCache(String name) {
+        TwoLevelCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new TwoLevelCache(
+            key,
+            Caffeine.from(localCacheSpec).recordStats().build(),
+            remoteCache,
+            this::publishInvalidation));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        try {
+            invalidationTopic.publish(new CacheInvalidationMessage(instanceId, cacheName, key));
+        } catch (Exception e) {
+            // Other instances fall back to their local TTL if the broadcast is lost
+            log.warn("Failed to publish invalidation for cache {} key {}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    private void onInvalidation(CacheInvalidationMessage message) {
+        if (instanceId.equals(message.getOriginId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache != null) {
+            cache.invalidateLocal(message.getKey());
+        }
+    }
+}
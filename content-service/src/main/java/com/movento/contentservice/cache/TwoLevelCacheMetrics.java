@@ -0,0 +1,59 @@
+package com.movento.contentservice.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Exposes the shared (Redisson) tier of a {@link TwoLevelCache} under the standard cache meters.
+ * The local tier is bound separately through Caffeine's own statistics.
+ */
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, String cacheName, Iterable<Tag> tags) {
+        super(cache, cacheName, tags);
+    }
+
+    @Override
+    protected Long size() {
+        // Counting the Redis map would cost a round-trip per scrape
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getRemoteHits() : 0L;
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getRemoteMisses() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getRemoteEvictions() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache != null ? cache.getRemotePuts() : 0L;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.invalidations.received", cache, TwoLevelCache::getInvalidationsReceived)
+            .tags(getTagsWithCacheName())
+            .description("Local entries dropped because another instance evicted them")
+            .register(registry);
+    }
+}
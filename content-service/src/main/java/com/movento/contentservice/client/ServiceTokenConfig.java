@@ -0,0 +1,21 @@
+package com.movento.contentservice.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.Assert;
+
+/**
+ * Feign configuration for calls to other services on the service's own behalf rather than a user's.
+ * Deliberately not a {@code @Configuration}, so it only applies to the clients that reference it.
+ */
+public class ServiceTokenConfig {
+
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(@Value("${app.security.service-token}") String serviceToken) {
+        Assert.hasText(serviceToken, "app.security.service-token must be set");
+        return template -> template.header(SERVICE_TOKEN_HEADER, serviceToken);
+    }
+}
@@ -4,8 +4,11 @@ import com.movento.contentservice.dto.UserDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "user-service", url = "${user-service.url}")
+import java.util.List;
+
+@FeignClient(name = "user-service", url = "${user-service.url}", configuration = ServiceTokenConfig.class)
 public interface UserServiceClient {
     
     @GetMapping("/api/users/{id}")
@@ -13,4 +16,7 @@ public interface UserServiceClient {
     
     @GetMapping("/api/users/email/{email}")
     UserDto getUserByEmail(@PathVariable("email") String email);
+    
+    @GetMapping("/api/users/ids")
+    List<Long> getUserIds(@RequestParam("afterId") Long afterId, @RequestParam("limit") int limit);
 }
@@ -1,5 +1,8 @@
 package com.movento.contentservice.config;
 
+import com.movento.contentservice.cache.TwoLevelCache;
+import com.movento.contentservice.cache.TwoLevelCacheManager;
+import com.movento.contentservice.cache.TwoLevelCacheMetrics;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.binder.MeterBinder;
@@ -124,7 +127,7 @@ public class MetricsConfig {
     }
 
     /**
-     * Configures cache metrics for Caffeine caches.
+     * Configures cache metrics for Caffeine caches and both tiers of two-level caches.
      * @param cacheManager The cache manager containing caches to monitor
      * @return MeterBinder for cache metrics
      */
@@ -133,8 +136,20 @@ public class MetricsConfig {
         return registry -> {
             for (String cacheName : cacheManager.getCacheNames()) {
                 try {
-                    Cache cache = cacheManager.getCache(cacheName);
-                    if (cache != null && cache instanceof CaffeineCache) {
+                    Cache cache = cacheManager instanceof TwoLevelCacheManager twoLevelCacheManager
+                        ? twoLevelCacheManager.getTwoLevelCache(cacheName)
+                        : cacheManager.getCache(cacheName);
+                    if (cache instanceof TwoLevelCache twoLevelCache) {
+                        CaffeineCacheMetrics.monitor(
+                            registry,
+                            twoLevelCache.getLocalCache(),
+                            cacheName,
+                            Tags.of("tier", "local")
+                        );
+                        new TwoLevelCacheMetrics(twoLevelCache, cacheName, Tags.of("tier", "remote"))
+                            .bindTo(registry);
+                        log.debug("Enabled two-level metrics for cache: {}", cacheName);
+                    } else if (cache != null && cache instanceof CaffeineCache) {
                         CaffeineCache caffeineCache = (CaffeineCache) cache;
                         if (caffeineCache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache) {
                             CaffeineCacheMetrics.monitor(
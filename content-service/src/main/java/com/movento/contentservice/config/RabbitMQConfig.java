@@ -25,6 +25,16 @@ public class RabbitMQConfig {
     public static final String PAYMENT_EXCHANGE = "payment.exchange";
     public static final String PAYMENT_ROUTING_KEY = "payment.processed";
 
+    // Catalog change events, consumed by downstream caches
+    public static final String CONTENT_EVENTS_EXCHANGE = "content.events";
+
+    // User activity (views, ratings), consumed by the recommendation engine
+    public static final String ACTIVITY_EXCHANGE = "activity.events";
+
+    // User service events, consumed by every instance to keep its local user cache current
+    public static final String USER_EXCHANGE = "user.events";
+    public static final String USER_ROUTING_PATTERN = "user.*";
+
     @Value("${spring.rabbitmq.host:localhost}")
     private String host;
 
@@ -75,6 +85,38 @@ public class RabbitMQConfig {
                 .with(PAYMENT_ROUTING_KEY);
     }
 
+    // Content events beans
+    @Bean
+    public TopicExchange contentEventsExchange() {
+        return new TopicExchange(CONTENT_EVENTS_EXCHANGE);
+    }
+
+    // Activity events beans
+    @Bean
+    public TopicExchange activityExchange() {
+        return new TopicExchange(ACTIVITY_EXCHANGE);
+    }
+
+    // User events beans
+    @Bean
+    public TopicExchange userEventsExchange() {
+        return new TopicExchange(USER_EXCHANGE);
+    }
+
+    @Bean
+    public Queue userEventsQueue() {
+        // Exclusive, auto-delete queue per instance so each one sees every event
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userEventsBinding() {
+        return BindingBuilder
+                .bind(userEventsQueue())
+                .to(userEventsExchange())
+                .with(USER_ROUTING_PATTERN);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
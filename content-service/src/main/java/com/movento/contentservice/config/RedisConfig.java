@@ -1,5 +1,6 @@
 package com.movento.contentservice.config;
 
+import com.movento.contentservice.cache.TwoLevelCacheManager;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -35,6 +36,12 @@ public class RedisConfig {
         return Redisson.create(config);
     }
 
+    @Value("${spring.cache.caffeine.spec:maximumSize=500,expireAfterWrite=300s}")
+    private String localCacheSpec;
+
+    @Value("${spring.application.name}:cache-invalidation")
+    private String invalidationTopic;
+
     @Bean
     public CacheManager cacheManager(RedissonClient redissonClient) {
         Map<String, CacheConfig> config = new HashMap<>();
@@ -43,6 +50,10 @@ public class RedisConfig {
         // 24 hours cache for genres
         config.put("genreCache", new CacheConfig(24 * 60 * 60 * 1000, 12 * 60 * 60 * 1000));
         
-        return new RedissonSpringCacheManager(redissonClient, config);
+        // Caffeine near-cache in front of Redis; evictions are fanned out over a topic
+        return new TwoLevelCacheManager(
+            new RedissonSpringCacheManager(redissonClient, config),
+            redissonClient.getTopic(invalidationTopic),
+            localCacheSpec);
     }
 }
@@ -5,12 +5,17 @@ import com.movento.contentservice.dto.request.ContentRequest;
 import com.movento.contentservice.dto.request.MovieRequest;
 import com.movento.contentservice.dto.request.TvShowRequest;
 import com.movento.contentservice.dto.response.ApiResponse;
+import com.movento.contentservice.dto.response.ContentSearchResponse;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.model.Content;
 import com.movento.contentservice.service.ContentService;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
+import com.movento.contentservice.service.elasticsearch.ContentSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -25,6 +30,8 @@ import java.util.List;
 public class ContentController {
 
     private final ContentService contentService;
+    private final ContentSearchService contentSearchService;
+    private final ContentIndexingQueue contentIndexingQueue;
 
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ContentDto>>> getAllContents(
@@ -32,19 +39,38 @@ public class ContentController {
             @RequestParam(required = false) Long genreId,
             @PageableDefault(size = 20) Pageable pageable) {
         
-        Page<ContentDto> contents;
         if (title != null) {
-            contents = contentService.searchByTitle(title, pageable)
-                .map(content -> contentService.getContentDetails(content.getId(), null));
-        } else if (genreId != null) {
-            contents = contentService.findByGenreId(genreId, pageable)
-                .map(content -> contentService.getContentDetails(content.getId(), null));
+            return ResponseEntity.ok(ApiResponse.success(contentSearchService.searchByTitle(title, pageable)));
+        }
+        
+        Page<Content> page;
+        if (genreId != null) {
+            page = contentService.findByGenreId(genreId, pageable);
         } else {
-            contents = contentService.findAll(pageable)
-                .map(content -> contentService.getContentDetails(content.getId(), null));
+            page = contentService.findAll(pageable);
         }
         
-        return ResponseEntity.ok(ApiResponse.success(contents));
+        return ResponseEntity.ok(ApiResponse.success(contentService.getContentDetails(page)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<ContentSearchResponse>> searchContents(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) String type,
+            @PageableDefault(size = 20) Pageable pageable) {
+        
+        return ResponseEntity.ok(ApiResponse.success(contentSearchService.search(q, genre, year, type, pageable)));
+    }
+
+    @PostMapping("/search/reindex")
+    public ResponseEntity<ApiResponse<Void>> reindexContents() {
+        contentIndexingQueue.requestReindex();
+        return ResponseEntity.accepted().body(ApiResponse.<Void>builder()
+                .status(HttpStatus.ACCEPTED.value())
+                .message("Reindex started")
+                .build());
     }
 
     @GetMapping("/{id}")
@@ -117,8 +143,7 @@ public class ContentController {
     public ResponseEntity<ApiResponse<Page<ContentDto>>> getTopRated(
             @PageableDefault(size = 10) Pageable pageable) {
         
-        Page<ContentDto> contents = contentService.findTopRated(pageable)
-            .map(content -> contentService.getContentDetails(content.getId(), null));
+        Page<ContentDto> contents = contentService.getContentDetails(contentService.findTopRated(pageable));
             
         return ResponseEntity.ok(ApiResponse.success(contents));
     }
@@ -127,9 +152,16 @@ public class ContentController {
     public ResponseEntity<ApiResponse<Page<ContentDto>>> getRecentlyAdded(
             @PageableDefault(size = 10) Pageable pageable) {
         
-        Page<ContentDto> contents = contentService.findRecentlyAdded(pageable)
-            .map(content -> contentService.getContentDetails(content.getId(), null));
+        Page<ContentDto> contents = contentService.getContentDetails(contentService.findRecentlyAdded(pageable));
             
         return ResponseEntity.ok(ApiResponse.success(contents));
     }
+
+    @GetMapping("/recent/feed")
+    public ResponseEntity<ApiResponse<CursorPage<ContentDto>>> getRecentlyAddedFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        return ResponseEntity.ok(ApiResponse.success(contentService.getRecentlyAddedFeed(cursor, size)));
+    }
 }
@@ -3,6 +3,7 @@ package com.movento.contentservice.controller;
 import com.movento.contentservice.dto.ContentRatingDto;
 import com.movento.contentservice.dto.request.ContentRatingRequest;
 import com.movento.contentservice.dto.response.ApiResponse;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.service.ContentRatingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -46,6 +47,16 @@ public class ContentRatingController {
             contentRatingService.getAllRatings(contentId, userId, pageable)));
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<ApiResponse<CursorPage<ContentRatingDto>>> getRatingFeed(
+            @RequestParam(required = false) Long contentId,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(
+            contentRatingService.getRatingFeed(contentId, userId, cursor, size)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ContentRatingDto>> updateRating(
             @PathVariable Long id,
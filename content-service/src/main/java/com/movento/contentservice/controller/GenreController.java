@@ -35,9 +35,7 @@ public class GenreController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<GenreDto>> getGenreById(@PathVariable Long id) {
-        GenreDto genre = genreService.findById(id)
-            .map(genreMapper::toDto)
-            .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
+        GenreDto genre = genreService.getGenre(id);
         return ResponseEntity.ok(ApiResponse.success(genre));
     }
 
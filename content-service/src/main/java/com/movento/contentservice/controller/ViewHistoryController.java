@@ -3,6 +3,7 @@ package com.movento.contentservice.controller;
 import com.movento.contentservice.dto.ViewHistoryDto;
 import com.movento.contentservice.dto.request.ViewHistoryRequest;
 import com.movento.contentservice.dto.response.ApiResponse;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.service.ViewHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -39,6 +40,17 @@ public class ViewHistoryController {
         );
     }
 
+    @PostMapping("/progress")
+    public ResponseEntity<ApiResponse<Void>> recordProgress(@Valid @RequestBody ViewHistoryRequest request) {
+        viewHistoryService.recordProgress(request);
+        return ResponseEntity.accepted().body(
+                ApiResponse.<Void>builder()
+                        .status(HttpStatus.ACCEPTED.value())
+                        .message("Progress accepted")
+                        .build()
+        );
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ViewHistoryDto>> getHistoryById(@PathVariable Long id) {
         return ResponseEntity.ok(
@@ -77,6 +89,20 @@ public class ViewHistoryController {
         );
     }
 
+    @GetMapping("/users/{userId}/feed")
+    public ResponseEntity<ApiResponse<CursorPage<ViewHistoryDto>>> getHistoryFeed(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(
+            ApiResponse.<CursorPage<ViewHistoryDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("View history retrieved successfully")
+                .data(viewHistoryService.getHistoryFeed(userId, cursor, size))
+                .build()
+        );
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<Void>> removeFromHistory(@PathVariable Long id) {
         viewHistoryService.removeFromHistory(id);
@@ -4,12 +4,15 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @JsonInclude(JsonInclude.Include.NON_NULL)
-public abstract class BaseDto {
+public abstract class BaseDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private Long id;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
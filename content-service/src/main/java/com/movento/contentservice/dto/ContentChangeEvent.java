@@ -0,0 +1,23 @@
+package com.movento.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Catalog change published on the content events exchange once the change has committed,
+ * so that downstream caches (e.g. the gateway response cache) can drop stale entries.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentChangeEvent {
+    public static final String CONTENT = "CONTENT";
+    public static final String GENRE = "GENRE";
+
+    private String type;
+    private Long id;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,27 @@
+package com.movento.contentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's interaction with a title, published on the activity exchange once it has committed
+ * for consumers such as the recommendation engine. {@code rating} is {@code null} for views and
+ * for deleted ratings.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserActivityEvent {
+    public static final String VIEW = "VIEW";
+    public static final String RATING = "RATING";
+
+    private String type;
+    private Long userId;
+    private Long contentId;
+    private Integer rating;
+    private boolean completed;
+    private LocalDateTime timestamp;
+}
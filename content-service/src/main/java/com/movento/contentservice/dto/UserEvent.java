@@ -0,0 +1,18 @@
+package com.movento.contentservice.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * User lifecycle event published by user-service on the user events exchange.
+ */
+@Data
+public class UserEvent {
+    public static final String CREATED = "CREATED";
+    public static final String DELETED = "DELETED";
+
+    private String type;
+    private Long userId;
+    private LocalDateTime timestamp;
+}
@@ -25,7 +25,32 @@ public interface ContentMapper {
         throw new IllegalArgumentException("Unknown content type: " + content.getClass());
     }
     
+    /**
+     * Maps only the columns loaded with the content row itself, including the denormalized
+     * rating aggregates. Lazy associations are left unset so listing pages can attach them in batch.
+     */
+    @Mapping(target = "genres", ignore = true)
+    @Mapping(target = "viewHistory", ignore = true)
+    MovieDto toMovieSummaryDto(com.movento.contentservice.model.Movie content);
+    
+    @Mapping(target = "genres", ignore = true)
+    @Mapping(target = "viewHistory", ignore = true)
+    @Mapping(target = "seasons", ignore = true)
+    TvShowDto toTvShowSummaryDto(com.movento.contentservice.model.TvShow content);
+    
+    default ContentDto toSummaryDto(Content content) {
+        if (content instanceof com.movento.contentservice.model.Movie movie) {
+            return toMovieSummaryDto(movie);
+        } else if (content instanceof com.movento.contentservice.model.TvShow tvShow) {
+            return toTvShowSummaryDto(tvShow);
+        }
+        throw new IllegalArgumentException("Unknown content type: " + content.getClass());
+    }
+    
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "genres", ignore = true) // Will be handled in service
+    @Mapping(target = "ratingSum", ignore = true)
+    @Mapping(target = "ratingCount", ignore = true)
+    @Mapping(target = "averageRating", ignore = true)
     Content toEntity(ContentDto dto);
 }
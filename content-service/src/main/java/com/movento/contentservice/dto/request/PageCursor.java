@@ -0,0 +1,49 @@
+package com.movento.contentservice.dto.request;
+
+import com.movento.contentservice.exception.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a feed ordered by (timestamp DESC, id DESC). Clients only ever see the opaque
+ * encoded form and hand it back unchanged to fetch the next page.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime sortKey;
+    private final Long id;
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for a blank cursor, meaning the first page
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new PageCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.movento.contentservice.dto.response;
+
+import com.movento.contentservice.dto.ContentDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentSearchResponse {
+    private Page<ContentDto> results;
+    // Facet name (genre, year, type) -> bucket value -> matching document count
+    private Map<String, Map<String, Long>> facets;
+}
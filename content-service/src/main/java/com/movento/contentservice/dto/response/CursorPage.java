@@ -0,0 +1,43 @@
+package com.movento.contentservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated slice of a feed. There is deliberately no total count: computing one
+ * costs as much as the deep offset scan this replaces.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+
+    /**
+     * Clamps a requested page size to [1, {@link #MAX_SIZE}].
+     */
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only
+     * signals that another page exists.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                         Function<List<E>, List<T>> mapper,
+                                         Function<E, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(mapper.apply(page), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,53 @@
+package com.movento.contentservice.messaging;
+
+import com.movento.contentservice.config.RabbitMQConfig;
+import com.movento.contentservice.dto.UserActivityEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ActivityEventPublisher {
+
+    private final AmqpTemplate rabbitTemplate;
+
+    public void publishViewed(Long userId, Long contentId, boolean completed) {
+        publishAfterCommit("activity.view",
+            new UserActivityEvent(UserActivityEvent.VIEW, userId, contentId, null, completed, LocalDateTime.now()));
+    }
+
+    public void publishRated(Long userId, Long contentId, Integer rating) {
+        publishAfterCommit("activity.rating",
+            new UserActivityEvent(UserActivityEvent.RATING, userId, contentId, rating, false, LocalDateTime.now()));
+    }
+
+    private void publishAfterCommit(String routingKey, UserActivityEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(routingKey, event);
+                }
+            });
+        } else {
+            publish(routingKey, event);
+        }
+    }
+
+    // Activity feeds recommendations only; a lost event must not fail the user's request
+    private void publish(String routingKey, UserActivityEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.ACTIVITY_EXCHANGE, routingKey, event);
+        } catch (Exception e) {
+            log.warn("Failed to publish {} activity of user {} on {}: {}",
+                event.getType(), event.getUserId(), event.getContentId(), e.getMessage());
+        }
+    }
+}
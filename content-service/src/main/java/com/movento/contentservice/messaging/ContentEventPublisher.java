@@ -0,0 +1,50 @@
+package com.movento.contentservice.messaging;
+
+import com.movento.contentservice.config.RabbitMQConfig;
+import com.movento.contentservice.dto.ContentChangeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContentEventPublisher {
+
+    private final AmqpTemplate rabbitTemplate;
+
+    public void publishContentChanged(Long contentId) {
+        publishAfterCommit("content.changed", new ContentChangeEvent(ContentChangeEvent.CONTENT, contentId, LocalDateTime.now()));
+    }
+
+    public void publishGenreChanged(Long genreId) {
+        publishAfterCommit("genre.changed", new ContentChangeEvent(ContentChangeEvent.GENRE, genreId, LocalDateTime.now()));
+    }
+
+    private void publishAfterCommit(String routingKey, ContentChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(routingKey, event);
+                }
+            });
+        } else {
+            publish(routingKey, event);
+        }
+    }
+
+    // Subscribers also expire their entries on a TTL, so a lost event only delays freshness
+    private void publish(String routingKey, ContentChangeEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CONTENT_EVENTS_EXCHANGE, routingKey, event);
+        } catch (Exception e) {
+            log.warn("Failed to publish {} change event for {}: {}", event.getType(), event.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.movento.contentservice.messaging;
+
+import com.movento.contentservice.dto.UserEvent;
+import com.movento.contentservice.service.UserExistenceVerifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserEventListener {
+
+    private final UserExistenceVerifier userExistenceVerifier;
+
+    @RabbitListener(queues = "#{userEventsQueue.name}")
+    public void onUserEvent(UserEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        if (UserEvent.CREATED.equals(event.getType())) {
+            userExistenceVerifier.onUserCreated(event.getUserId());
+        } else if (UserEvent.DELETED.equals(event.getType())) {
+            userExistenceVerifier.onUserDeleted(event.getUserId());
+        } else {
+            log.debug("Ignoring user event of type {}", event.getType());
+        }
+    }
+}
@@ -3,11 +3,12 @@ package com.movento.contentservice.model;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
-import javax.persistence.DiscriminatorColumn;
+import jakarta.persistence.DiscriminatorColumn;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
@@ -45,6 +46,19 @@ public class Content extends BaseEntity {
     @Column(name = "is_active")
     private boolean active = true;
     
+    // Rating aggregates are maintained by atomic delta updates in ContentRepository,
+    // never through entity writes, so a stale copy cannot overwrite a concurrent change
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private Long ratingSum = 0L;
+    
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private Long ratingCount = 0L;
+    
+    @Column(name = "average_rating", insertable = false, updatable = false)
+    private Double averageRating;
+    
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "content_genres",
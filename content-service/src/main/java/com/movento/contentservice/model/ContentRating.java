@@ -2,7 +2,7 @@ package com.movento.contentservice.model;
 
 import lombok.Getter;
 import lombok.Setter;
-import javax.persistence.*;
+import jakarta.persistence.*;
 
 @Getter
 @Setter
@@ -3,7 +3,7 @@ package com.movento.contentservice.model;
 import lombok.Getter;
 import lombok.Setter;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 
 @Getter
 @Setter
@@ -15,9 +15,9 @@ public class Movie extends Content {
     @Column(length = 100)
     private String director;
     
-    @Column(name = "imdb_rating", precision = 3, scale = 1)
+    @Column(name = "imdb_rating")
     private Double imdbRating;
     
-    @Column(name = "box_office_revenue", precision = 15, scale = 2)
+    @Column(name = "box_office_revenue")
     private Double boxOfficeRevenue;
 }
@@ -3,13 +3,15 @@ package com.movento.contentservice.model;
 import lombok.Getter;
 import lombok.Setter;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "view_history")
+// Mirrors the unique index from V1_2, the conflict target of the batched progress upserts
+@Table(name = "view_history",
+       uniqueConstraints = @UniqueConstraint(name = "uk_view_history_user_content", columnNames = {"user_id", "content_id"}))
 public class ViewHistory extends BaseEntity {
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,58 @@
+package com.movento.contentservice.model.elasticsearch;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.annotations.InnerField;
+import org.springframework.data.elasticsearch.annotations.MultiField;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denormalized search view of a {@link com.movento.contentservice.model.Content} row.
+ * The document id is the content id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "contents")
+public class ContentSearchDocument {
+
+    @Id
+    private String id;
+
+    @MultiField(
+        mainField = @Field(type = FieldType.Text, analyzer = "standard"),
+        otherFields = @InnerField(suffix = "keyword", type = FieldType.Keyword)
+    )
+    private String title;
+
+    @Field(type = FieldType.Text, analyzer = "standard")
+    private String description;
+
+    @Builder.Default
+    @Field(type = FieldType.Keyword)
+    private List<String> genres = new ArrayList<>();
+
+    @Field(type = FieldType.Keyword)
+    private String type;
+
+    @Field(type = FieldType.Integer)
+    private Integer releaseYear;
+
+    @Field(type = FieldType.Double)
+    private Double averageRating;
+
+    @Field(type = FieldType.Long)
+    private Long ratingCount;
+
+    @Field(type = FieldType.Boolean)
+    private boolean active;
+}
@@ -0,0 +1,37 @@
+package com.movento.contentservice.progress;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest known playback position of one user on one title, as held in the ingestion buffer.
+ */
+@Getter
+@AllArgsConstructor
+public class WatchProgress {
+    private final Long userId;
+    private final Long contentId;
+    private final Integer progressSeconds;
+    private final boolean completed;
+    private final LocalDateTime observedAt;
+    // Arrival time of the oldest event folded into this entry, used for flush lag
+    private final long firstReceivedNanos;
+
+    /**
+     * Folds another event for the same user and title into this one. The most recently observed
+     * position wins; completion is sticky.
+     */
+    public WatchProgress merge(WatchProgress other) {
+        WatchProgress latest = other.observedAt.isBefore(observedAt) ? this : other;
+        WatchProgress earlier = latest == this ? other : this;
+        return new WatchProgress(
+            userId,
+            contentId,
+            latest.progressSeconds != null ? latest.progressSeconds : earlier.progressSeconds,
+            completed || other.completed,
+            latest.observedAt,
+            Math.min(firstReceivedNanos, other.firstReceivedNanos));
+    }
+}
@@ -0,0 +1,213 @@
+package com.movento.contentservice.progress;
+
+import com.movento.contentservice.repository.ViewHistoryBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Last-write-wins buffer for playback progress events. Heartbeats for the same user and title
+ * collapse into a single entry, and the buffer is written out as batched upserts every
+ * flush interval or as soon as it holds {@code max-pending} entries, whichever comes first.
+ * Entries of failed flushes are retried, but only while the buffer holds fewer than
+ * {@code max-buffered} entries; beyond that they are dropped, so a long database outage cannot
+ * exhaust the heap.
+ */
+@Slf4j
+@Component
+public class WatchProgressBuffer {
+
+    private final ViewHistoryBatchRepository batchRepository;
+    private final long flushIntervalMs;
+    private final int maxPending;
+    private final int maxBuffered;
+    private final int batchSize;
+
+    private final ConcurrentMap<Key, WatchProgress> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean sizeFlushQueued = new AtomicBoolean();
+    private final LongAdder eventsSinceFlush = new LongAdder();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "watch-progress-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter eventsAccepted;
+    private final Counter rowsWritten;
+    private final Counter flushFailures;
+    private final Counter entriesDropped;
+    private final Timer flushLag;
+    private final Timer flushDuration;
+    private final DistributionSummary coalescingRatio;
+
+    public WatchProgressBuffer(ViewHistoryBatchRepository batchRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.content.progress.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${app.content.progress.max-pending:5000}") int maxPending,
+                               @Value("${app.content.progress.max-buffered:50000}") int maxBuffered,
+                               @Value("${app.content.progress.batch-size:500}") int batchSize) {
+        this.batchRepository = batchRepository;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPending = maxPending;
+        this.maxBuffered = maxBuffered;
+        this.batchSize = batchSize;
+
+        this.eventsAccepted = Counter.builder("content.progress.events")
+            .description("Progress events accepted into the buffer")
+            .register(meterRegistry);
+        this.rowsWritten = Counter.builder("content.progress.rows.written")
+            .description("View history rows upserted by buffer flushes")
+            .register(meterRegistry);
+        this.flushFailures = Counter.builder("content.progress.flush.failures")
+            .description("Buffer flushes that failed and were requeued")
+            .register(meterRegistry);
+        this.entriesDropped = Counter.builder("content.progress.dropped")
+            .description("Entries of failed flushes dropped because the buffer was full")
+            .register(meterRegistry);
+        this.flushLag = Timer.builder("content.progress.flush.lag")
+            .description("Age of the oldest event written by a flush when it completed")
+            .register(meterRegistry);
+        this.flushDuration = Timer.builder("content.progress.flush.duration")
+            .description("Time spent writing one buffer flush")
+            .register(meterRegistry);
+        this.coalescingRatio = DistributionSummary.builder("content.progress.coalescing.ratio")
+            .description("Progress events absorbed per row written")
+            .register(meterRegistry);
+        Gauge.builder("content.progress.buffer.size", pending, ConcurrentMap::size)
+            .description("Entries waiting for the next flush")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drains what is left after the scheduler stops so accepted progress is not lost on a
+     * rolling restart.
+     */
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS)) {
+                log.warn("Watch progress flusher did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public void record(Long userId, Long contentId, Integer progressSeconds, boolean completed) {
+        WatchProgress progress = new WatchProgress(
+            userId, contentId, progressSeconds, completed, LocalDateTime.now(), System.nanoTime());
+        pending.merge(new Key(userId, contentId), progress, WatchProgress::merge);
+        eventsAccepted.increment();
+        eventsSinceFlush.increment();
+
+        if (flusher.isShutdown()) {
+            // Late events during shutdown have no flusher left to write them
+            flushQuietly();
+        } else if (pending.size() >= maxPending && sizeFlushQueued.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    sizeFlushQueued.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                sizeFlushQueued.set(false);
+                flushQuietly();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Unexpected error flushing watch progress: {}", e.getMessage(), e);
+        }
+    }
+
+    synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Remove entries one by one so events arriving mid-flush stay for the next round
+        List<WatchProgress> batch = new ArrayList<>(pending.size());
+        for (Key key : pending.keySet()) {
+            WatchProgress progress = pending.remove(key);
+            if (progress != null) {
+                batch.add(progress);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        long events = eventsSinceFlush.sumThenReset();
+        long oldestWrittenNanos = Long.MAX_VALUE;
+
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<WatchProgress> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                flushDuration.record(() -> batchRepository.upsertProgress(chunk));
+                rowsWritten.increment(chunk.size());
+                for (WatchProgress progress : chunk) {
+                    oldestWrittenNanos = Math.min(oldestWrittenNanos, progress.getFirstReceivedNanos());
+                }
+            } catch (Exception e) {
+                flushFailures.increment();
+                log.warn("Failed to flush {} watch progress entries, requeueing: {}", chunk.size(), e.getMessage());
+                requeue(chunk);
+            }
+        }
+
+        // Requeued entries are measured when they are finally written
+        if (oldestWrittenNanos != Long.MAX_VALUE) {
+            flushLag.record(System.nanoTime() - oldestWrittenNanos, TimeUnit.NANOSECONDS);
+        }
+        coalescingRatio.record((double) events / batch.size());
+    }
+
+    private void requeue(List<WatchProgress> chunk) {
+        int dropped = 0;
+        for (WatchProgress progress : chunk) {
+            Key key = new Key(progress.getUserId(), progress.getContentId());
+            if (pending.size() >= maxBuffered && !pending.containsKey(key)) {
+                dropped++;
+                continue;
+            }
+            // Newer events that arrived in the meantime still win the merge
+            pending.merge(key, progress, WatchProgress::merge);
+        }
+        if (dropped > 0) {
+            entriesDropped.increment(dropped);
+            log.warn("Watch progress buffer is full, dropped {} entries of a failed flush", dropped);
+        }
+    }
+
+    private record Key(Long userId, Long contentId) {
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -29,6 +31,23 @@ public interface ContentRatingRepository extends BaseRepository<ContentRating, L
     
     boolean existsByContentIdAndUserId(Long contentId, Long userId);
     
+    // Keyset feeds over (created_at, id) for one title or one user
+    @Query("SELECT cr FROM ContentRating cr WHERE cr.content.id = :contentId ORDER BY cr.createdAt DESC, cr.id DESC")
+    List<ContentRating> findContentFeed(@Param("contentId") Long contentId, Pageable limit);
+    
+    @Query("SELECT cr FROM ContentRating cr WHERE cr.content.id = :contentId " +
+           "AND (cr.createdAt, cr.id) < (:createdAt, :id) ORDER BY cr.createdAt DESC, cr.id DESC")
+    List<ContentRating> findContentFeedAfter(@Param("contentId") Long contentId, @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id, Pageable limit);
+    
+    @Query("SELECT cr FROM ContentRating cr WHERE cr.userId = :userId ORDER BY cr.createdAt DESC, cr.id DESC")
+    List<ContentRating> findUserFeed(@Param("userId") Long userId, Pageable limit);
+    
+    @Query("SELECT cr FROM ContentRating cr WHERE cr.userId = :userId " +
+           "AND (cr.createdAt, cr.id) < (:createdAt, :id) ORDER BY cr.createdAt DESC, cr.id DESC")
+    List<ContentRating> findUserFeedAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable limit);
+    
     @Query("SELECT cr FROM ContentRating cr WHERE cr.content.id = :contentId ORDER BY cr.updatedAt DESC")
     Page<ContentRating> findLatestRatingsByContentId(@Param("contentId") Long contentId, Pageable pageable);
 }
@@ -3,9 +3,12 @@ package com.movento.contentservice.repository;
 import com.movento.contentservice.model.Content;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,14 +19,83 @@ public interface ContentRepository extends BaseRepository<Content, Long> {
     
     @Query("SELECT c FROM Content c JOIN c.genres g WHERE g.id = :genreId")
     Page<Content> findByGenreId(@Param("genreId") Long genreId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Content c JOIN c.genres g WHERE g.id = :genreId")
+    List<Long> findIdsByGenreId(@Param("genreId") Long genreId);
     
     Page<Content> findByTitleContainingIgnoreCase(String query, Pageable pageable);
     
     Page<Content> findAllByOrderByCreatedAtDesc(Pageable pageable);
     
+    // Keyset feed over (created_at, id); pass Pageable.ofSize(n) to bound the rows without a count query
+    @Query("SELECT c FROM Content c ORDER BY c.createdAt DESC, c.id DESC")
+    List<Content> findRecentFeed(Pageable limit);
+    
+    @Query("SELECT c FROM Content c WHERE (c.createdAt, c.id) < (:createdAt, :id) ORDER BY c.createdAt DESC, c.id DESC")
+    List<Content> findRecentFeedAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+    
     @Query("SELECT c FROM Content c ORDER BY c.averageRating DESC NULLS LAST")
     Page<Content> findAllOrderByAverageRatingDesc(Pageable pageable);
     
+    /**
+     * Applies a rating change to the denormalized aggregates in a single statement so that
+     * concurrent raters never lose each other's updates. Native SQL keeps the update on the
+     * content table alone instead of going through the joined-inheritance bulk update path.
+     */
+    @Modifying
+    @Query(value = "UPDATE content SET " +
+                   "rating_sum = rating_sum + :sumDelta, " +
+                   "rating_count = rating_count + :countDelta, " +
+                   "average_rating = CASE WHEN rating_count + :countDelta > 0 " +
+                   "THEN CAST(rating_sum + :sumDelta AS DOUBLE PRECISION) / (rating_count + :countDelta) " +
+                   "ELSE NULL END " +
+                   "WHERE id = :contentId", nativeQuery = true)
+    int applyRatingDelta(@Param("contentId") Long contentId,
+                         @Param("sumDelta") long sumDelta,
+                         @Param("countDelta") long countDelta);
+    
+    /**
+     * Ids of content rows whose rating aggregates disagree with content_ratings. Read without
+     * locks, so a row may be reported while a delta for it is still in flight.
+     */
+    @Query(value = "SELECT c.id FROM content c " +
+                   "LEFT JOIN (SELECT content_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count " +
+                   "FROM content_ratings GROUP BY content_id) a ON a.content_id = c.id " +
+                   "WHERE c.rating_sum <> COALESCE(a.rating_sum, 0) " +
+                   "OR c.rating_count <> COALESCE(a.rating_count, 0) " +
+                   "ORDER BY c.id", nativeQuery = true)
+    List<Long> findDriftedRatingAggregates();
+    
+    /**
+     * Row-locks the given content rows, in id order, until the transaction ends. A rating
+     * write holds the same lock from its delta update to its commit, so once this returns every
+     * delta applied to these rows is committed and visible to the next statement, and any
+     * later one waits for the caller to commit.
+     */
+    @Query(value = "SELECT id FROM content WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForRatingReconcile(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Recomputes the rating aggregates of the given rows from content_ratings. Call it only
+     * after {@link #lockForRatingReconcile}: in READ COMMITTED the aggregate is read from this
+     * statement's snapshot, which would otherwise miss a delta committed while the update waits
+     * for the row lock and overwrite it.
+     * @return the number of content rows that were repaired
+     */
+    @Modifying
+    @Query(value = "UPDATE content c SET " +
+                   "rating_sum = a.rating_sum, " +
+                   "rating_count = a.rating_count, " +
+                   "average_rating = CASE WHEN a.rating_count > 0 " +
+                   "THEN CAST(a.rating_sum AS DOUBLE PRECISION) / a.rating_count ELSE NULL END " +
+                   "FROM (SELECT ct.id AS content_id, " +
+                   "COALESCE(SUM(cr.rating), 0) AS rating_sum, COUNT(cr.id) AS rating_count " +
+                   "FROM content ct LEFT JOIN content_ratings cr ON cr.content_id = ct.id " +
+                   "WHERE ct.id IN :ids GROUP BY ct.id) a " +
+                   "WHERE c.id = a.content_id " +
+                   "AND (c.rating_sum <> a.rating_sum OR c.rating_count <> a.rating_count)", nativeQuery = true)
+    int reconcileRatingAggregates(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT c FROM Content c WHERE c.id IN :ids")
     List<Content> findByIds(@Param("ids") List<Long> ids);
     
@@ -1,6 +1,7 @@
 package com.movento.contentservice.repository;
 
 import com.movento.contentservice.model.Genre;
+import com.movento.contentservice.repository.projection.ContentGenre;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +24,9 @@ public interface GenreRepository extends BaseRepository<Genre, Long> {
     @Query("SELECT g FROM Genre g JOIN g.contents c WHERE c.id = :contentId")
     List<Genre> findByContentId(@Param("contentId") Long contentId);
     
+    @Query("SELECT c.id AS contentId, g AS genre FROM Content c JOIN c.genres g WHERE c.id IN :contentIds")
+    List<ContentGenre> findByContentIds(@Param("contentIds") Collection<Long> contentIds);
+    
     boolean existsByName(String name);
 
     Page<Genre> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,15 @@ public interface ViewHistoryRepository extends BaseRepository<ViewHistory, Long>
     @Query("SELECT vh FROM ViewHistory vh WHERE vh.userId = :userId AND vh.content.id IN :contentIds")
     List<ViewHistory> findByUserIdAndContentIdIn(@Param("userId") Long userId, @Param("contentIds") List<Long> contentIds);
     
+    // Keyset feed of a user's history over (viewed_at, id)
+    @Query("SELECT vh FROM ViewHistory vh WHERE vh.userId = :userId ORDER BY vh.viewedAt DESC, vh.id DESC")
+    List<ViewHistory> findUserFeed(@Param("userId") String userId, Pageable limit);
+    
+    @Query("SELECT vh FROM ViewHistory vh WHERE vh.userId = :userId " +
+           "AND (vh.viewedAt, vh.id) < (:viewedAt, :id) ORDER BY vh.viewedAt DESC, vh.id DESC")
+    List<ViewHistory> findUserFeedAfter(@Param("userId") String userId, @Param("viewedAt") LocalDateTime viewedAt,
+                                        @Param("id") Long id, Pageable limit);
+    
     @Modifying
     @Query("DELETE FROM ViewHistory vh WHERE vh.userId = :userId AND vh.content.id = :contentId")
     void deleteByUserIdAndContentId(@Param("userId") Long userId, @Param("contentId") Long contentId);
@@ -0,0 +1,11 @@
+package com.movento.contentservice.repository.projection;
+
+import com.movento.contentservice.model.Genre;
+
+/**
+ * A single row of the content_genres join, used to attach genres to a batch of contents.
+ */
+public interface ContentGenre {
+    Long getContentId();
+    Genre getGenre();
+}
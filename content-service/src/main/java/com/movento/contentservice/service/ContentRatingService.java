@@ -2,6 +2,7 @@ package com.movento.contentservice.service;
 
 import com.movento.contentservice.dto.ContentRatingDto;
 import com.movento.contentservice.dto.request.ContentRatingRequest;
+import com.movento.contentservice.dto.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,6 +10,7 @@ public interface ContentRatingService {
     ContentRatingDto createRating(ContentRatingRequest request);
     ContentRatingDto getRatingById(Long id);
     Page<ContentRatingDto> getAllRatings(Long contentId, Long userId, Pageable pageable);
+    CursorPage<ContentRatingDto> getRatingFeed(Long contentId, Long userId, String cursor, int size);
     ContentRatingDto updateRating(Long id, ContentRatingRequest request);
     void deleteRating(Long id);
 }
\ No newline at end of file
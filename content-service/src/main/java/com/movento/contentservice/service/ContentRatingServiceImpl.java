@@ -1,29 +1,39 @@
 package com.movento.contentservice.service;
 
-import com.movento.contentservice.client.UserServiceClient;
 import com.movento.contentservice.dto.ContentRatingDto;
-import com.movento.contentservice.dto.UserDto;
 import com.movento.contentservice.dto.mapper.ContentRatingMapper;
 import com.movento.contentservice.dto.request.ContentRatingRequest;
+import com.movento.contentservice.dto.request.PageCursor;
+import com.movento.contentservice.dto.response.CursorPage;
+import com.movento.contentservice.exception.BadRequestException;
 import com.movento.contentservice.exception.ResourceNotFoundException;
+import com.movento.contentservice.messaging.ActivityEventPublisher;
 import com.movento.contentservice.model.Content;
 import com.movento.contentservice.model.ContentRating;
 import com.movento.contentservice.repository.ContentRatingRepository;
 import com.movento.contentservice.repository.ContentRepository;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class ContentRatingServiceImpl implements ContentRatingService {
 
     private final ContentRatingRepository contentRatingRepository;
     private final ContentRepository contentRepository;
-    private final UserServiceClient userServiceClient;
+    private final UserExistenceVerifier userExistenceVerifier;
     private final ContentRatingMapper contentRatingMapper;
+    private final CacheManager cacheManager;
+    private final ContentIndexingQueue contentIndexingQueue;
+    private final ActivityEventPublisher activityEventPublisher;
 
     @Override
     @Transactional
@@ -32,14 +42,8 @@ public class ContentRatingServiceImpl implements ContentRatingService {
         Content content = contentRepository.findById(request.getContentId())
                 .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + request.getContentId()));
 
-        // Verify user exists by calling user-service
-        try {
-            UserDto user = userServiceClient.getUserById(request.getUserId());
-            if (user == null) {
-                throw new ResourceNotFoundException("User not found with id: " + request.getUserId());
-            }
-        } catch (Exception e) {
-            throw new ResourceNotFoundException("Error verifying user: " + e.getMessage());
+        if (!userExistenceVerifier.exists(request.getUserId())) {
+            throw new ResourceNotFoundException("User not found with id: " + request.getUserId());
         }
 
         // Create and save the rating
@@ -48,6 +52,9 @@ public class ContentRatingServiceImpl implements ContentRatingService {
         // No need to set user as it's just an ID in the entity
 
         ContentRating savedRating = contentRatingRepository.save(rating);
+        contentRepository.applyRatingDelta(content.getId(), savedRating.getRating(), 1);
+        evictContentDetails(content.getId());
+        activityEventPublisher.publishRated(savedRating.getUserId(), content.getId(), savedRating.getRating());
         return contentRatingMapper.toDto(savedRating);
     }
 
@@ -76,23 +83,66 @@ public class ContentRatingServiceImpl implements ContentRatingService {
                 .map(contentRatingMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ContentRatingDto> getRatingFeed(Long contentId, Long userId, String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        Pageable rowsToFetch = Pageable.ofSize(limit + 1);
+
+        List<ContentRating> rows;
+        if (contentId != null) {
+            rows = after == null
+                    ? contentRatingRepository.findContentFeed(contentId, rowsToFetch)
+                    : contentRatingRepository.findContentFeedAfter(contentId, after.getSortKey(), after.getId(), rowsToFetch);
+        } else if (userId != null) {
+            rows = after == null
+                    ? contentRatingRepository.findUserFeed(userId, rowsToFetch)
+                    : contentRatingRepository.findUserFeedAfter(userId, after.getSortKey(), after.getId(), rowsToFetch);
+        } else {
+            throw new BadRequestException("Either contentId or userId is required");
+        }
+
+        return CursorPage.of(rows, limit,
+                page -> page.stream().map(contentRatingMapper::toDto).toList(),
+                rating -> new PageCursor(rating.getCreatedAt(), rating.getId()).encode());
+    }
+
     @Override
     @Transactional
     public ContentRatingDto updateRating(Long id, ContentRatingRequest request) {
         ContentRating rating = contentRatingRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rating not found with id: " + id));
 
+        int previousRating = rating.getRating();
         contentRatingMapper.updateEntityFromRequest(request, rating);
         ContentRating updatedRating = contentRatingRepository.save(rating);
+        Long contentId = rating.getContent().getId();
+        contentRepository.applyRatingDelta(contentId, updatedRating.getRating() - previousRating, 0);
+        evictContentDetails(contentId);
+        activityEventPublisher.publishRated(updatedRating.getUserId(), contentId, updatedRating.getRating());
         return contentRatingMapper.toDto(updatedRating);
     }
 
     @Override
     @Transactional
     public void deleteRating(Long id) {
-        if (!contentRatingRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Rating not found with id: " + id);
+        ContentRating rating = contentRatingRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Rating not found with id: " + id));
+
+        Long contentId = rating.getContent().getId();
+        contentRatingRepository.delete(rating);
+        contentRepository.applyRatingDelta(contentId, -rating.getRating(), -1);
+        evictContentDetails(contentId);
+        activityEventPublisher.publishRated(rating.getUserId(), contentId, null);
+    }
+
+    // Cached content details and the search document both carry the rating aggregates
+    private void evictContentDetails(Long contentId) {
+        Cache cache = cacheManager.getCache("contentCache");
+        if (cache != null) {
+            cache.evict(contentId);
         }
-        contentRatingRepository.deleteById(id);
+        contentIndexingQueue.enqueue(contentId);
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.movento.contentservice.service;
 import com.movento.contentservice.dto.ContentDto;
 import com.movento.contentservice.dto.request.MovieRequest;
 import com.movento.contentservice.dto.request.TvShowRequest;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.model.Content;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,8 +14,11 @@ public interface ContentService extends BaseService<Content, Long> {
     Page<Content> findByGenreId(Long genreId, Pageable pageable);
     Page<Content> searchByTitle(String query, Pageable pageable);
     ContentDto getContentDetails(Long id, Long userId);
+    List<ContentDto> getContentDetails(List<Long> ids);
+    Page<ContentDto> getContentDetails(Page<Content> contents);
     Page<Content> findTopRated(Pageable pageable);
     Page<Content> findRecentlyAdded(Pageable pageable);
+    CursorPage<ContentDto> getRecentlyAddedFeed(String cursor, int size);
     Content createContent(Content content, List<Long> genreIds);
     Content updateContent(Long id, Content content, List<Long> genreIds);
     
@@ -1,25 +1,41 @@
 package com.movento.contentservice.service;
 
 import com.movento.contentservice.dto.ContentDto;
+import com.movento.contentservice.dto.GenreDto;
 import com.movento.contentservice.dto.mapper.ContentMapper;
+import com.movento.contentservice.dto.mapper.GenreMapper;
 import com.movento.contentservice.dto.request.MovieRequest;
+import com.movento.contentservice.dto.request.PageCursor;
 import com.movento.contentservice.dto.request.TvShowRequest;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.exceptions.ResourceNotFoundException;
+import com.movento.contentservice.messaging.ContentEventPublisher;
 import com.movento.contentservice.model.Content;
 import com.movento.contentservice.model.Genre;
 import com.movento.contentservice.model.Movie;
 import com.movento.contentservice.model.TvShow;
 import com.movento.contentservice.repository.ContentRepository;
 import com.movento.contentservice.repository.GenreRepository;
+import com.movento.contentservice.repository.projection.ContentGenre;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implements ContentService {
@@ -27,14 +43,23 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
     private final ContentRepository contentRepository;
     private final GenreRepository genreRepository;
     private final ContentMapper contentMapper;
+    private final GenreMapper genreMapper;
+    private final ContentIndexingQueue contentIndexingQueue;
+    private final ContentEventPublisher contentEventPublisher;
     
     public ContentServiceImpl(ContentRepository contentRepository, 
                             GenreRepository genreRepository,
-                            ContentMapper contentMapper) {
+                            ContentMapper contentMapper,
+                            GenreMapper genreMapper,
+                            ContentIndexingQueue contentIndexingQueue,
+                            ContentEventPublisher contentEventPublisher) {
         super(contentRepository);
         this.contentRepository = contentRepository;
         this.genreRepository = genreRepository;
         this.contentMapper = contentMapper;
+        this.genreMapper = genreMapper;
+        this.contentIndexingQueue = contentIndexingQueue;
+        this.contentEventPublisher = contentEventPublisher;
     }
 
     @Override
@@ -49,12 +74,65 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
 
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(value = "contentCache", key = "#id", condition = "#userId == null")
     public ContentDto getContentDetails(Long id, Long userId) {
         return contentRepository.findById(id)
             .map(content -> contentMapper.toDto(content, userId))
             .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ContentDto> getContentDetails(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Content> contentsById = contentRepository.findByIds(ids).stream()
+            .collect(Collectors.toMap(Content::getId, Function.identity()));
+        
+        // Keep the caller's ordering (e.g. search relevance); ids that no longer exist are dropped
+        List<Content> contents = new ArrayList<>(contentsById.size());
+        for (Long id : ids) {
+            Content content = contentsById.get(id);
+            if (content != null) {
+                contents.add(content);
+            }
+        }
+        return hydrate(contents);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ContentDto> getContentDetails(Page<Content> contents) {
+        List<ContentDto> dtos = hydrate(contents.getContent());
+        return new PageImpl<>(dtos, contents.getPageable(), contents.getTotalElements());
+    }
+
+    /**
+     * Maps already-loaded contents to DTOs, attaching genres with one query for the whole
+     * batch instead of lazy-loading them row by row.
+     */
+    private List<ContentDto> hydrate(List<Content> contents) {
+        if (contents.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = contents.stream().map(Content::getId).toList();
+        
+        Map<Long, List<GenreDto>> genresByContentId = new HashMap<>();
+        for (ContentGenre row : genreRepository.findByContentIds(ids)) {
+            genresByContentId.computeIfAbsent(row.getContentId(), key -> new ArrayList<>())
+                .add(genreMapper.toDto(row.getGenre()));
+        }
+        
+        List<ContentDto> dtos = new ArrayList<>(contents.size());
+        for (Content content : contents) {
+            ContentDto dto = contentMapper.toSummaryDto(content);
+            dto.setGenres(genresByContentId.getOrDefault(content.getId(), new ArrayList<>()));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<Content> findTopRated(Pageable pageable) {
@@ -67,6 +145,18 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
         return contentRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ContentDto> getRecentlyAddedFeed(String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Content> rows = after == null
+            ? contentRepository.findRecentFeed(Pageable.ofSize(limit + 1))
+            : contentRepository.findRecentFeedAfter(after.getSortKey(), after.getId(), Pageable.ofSize(limit + 1));
+        return CursorPage.of(rows, limit, this::hydrate,
+            content -> new PageCursor(content.getCreatedAt(), content.getId()).encode());
+    }
+
     @Override
     @Transactional
     public Content createContent(Content content, List<Long> genreIds) {
@@ -74,11 +164,12 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
             Set<Genre> genres = new HashSet<>(genreRepository.findAllById(genreIds));
             content.setGenres(genres);
         }
-        return contentRepository.save(content);
+        return saveAndIndex(content);
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = "contentCache", key = "#id")
     public Content updateContent(Long id, Content content, List<Long> genreIds) {
         return contentRepository.findById(id).map(existingContent -> {
             content.setId(id);
@@ -95,7 +186,7 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
             existingContent.setBackdropUrl(content.getBackdropUrl());
             existingContent.setContentRating(content.getContentRating());
             
-            return contentRepository.save(existingContent);
+            return saveAndIndex(existingContent);
         }).orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
     }
 
@@ -114,11 +205,12 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
             movie.setGenres(genres);
         }
         
-        return contentRepository.save(movie);
+        return saveAndIndex(movie);
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = "contentCache", key = "#id")
     public Content updateMovie(Long id, MovieRequest movieRequest, List<Long> genreIds) {
         return contentRepository.findById(id).map(existingContent -> {
             if (!(existingContent instanceof Movie movie)) {
@@ -136,7 +228,7 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
                 movie.setGenres(genres);
             }
             
-            return contentRepository.save(movie);
+            return saveAndIndex(movie);
         }).orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
     }
 
@@ -154,11 +246,12 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
             tvShow.setGenres(genres);
         }
         
-        return contentRepository.save(tvShow);
+        return saveAndIndex(tvShow);
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = "contentCache", key = "#id")
     public Content updateTvShow(Long id, TvShowRequest tvShowRequest, List<Long> genreIds) {
         return contentRepository.findById(id).map(existingContent -> {
             if (!(existingContent instanceof TvShow tvShow)) {
@@ -175,10 +268,26 @@ public class ContentServiceImpl extends BaseServiceImpl<Content, Long> implement
                 tvShow.setGenres(genres);
             }
             
-            return contentRepository.save(tvShow);
+            return saveAndIndex(tvShow);
         }).orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + id));
     }
 
+    @Override
+    @Transactional
+    @CacheEvict(value = "contentCache", key = "#id")
+    public void deleteById(Long id) {
+        super.deleteById(id);
+        contentIndexingQueue.enqueue(id);
+        contentEventPublisher.publishContentChanged(id);
+    }
+
+    private Content saveAndIndex(Content content) {
+        Content saved = contentRepository.save(content);
+        contentIndexingQueue.enqueue(saved.getId());
+        contentEventPublisher.publishContentChanged(saved.getId());
+        return saved;
+    }
+
     private void mapContentRequestToContent(com.movento.contentservice.dto.request.ContentRequest request, Content content) {
         content.setTitle(request.getTitle());
         content.setDescription(request.getDescription());
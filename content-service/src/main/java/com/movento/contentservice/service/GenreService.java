@@ -1,5 +1,6 @@
 package com.movento.contentservice.service;
 
+import com.movento.contentservice.dto.GenreDto;
 import com.movento.contentservice.model.Genre;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,4 +9,5 @@ import java.util.List;
 
 public interface GenreService extends BaseService<Genre, Long> {
     Page<Genre> findByNameContaining(String name, Pageable pageable);
+    GenreDto getGenre(Long id);
 }
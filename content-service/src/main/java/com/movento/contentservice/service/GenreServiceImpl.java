@@ -1,9 +1,17 @@
 package com.movento.contentservice.service;
 
+import com.movento.contentservice.dto.GenreDto;
+import com.movento.contentservice.dto.mapper.GenreMapper;
 import com.movento.contentservice.exceptions.ResourceNotFoundException;
+import com.movento.contentservice.messaging.ContentEventPublisher;
 import com.movento.contentservice.model.Genre;
+import com.movento.contentservice.repository.ContentRepository;
 import com.movento.contentservice.repository.GenreRepository;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -15,10 +23,21 @@ import java.util.List;
 public class GenreServiceImpl extends BaseServiceImpl<Genre, Long> implements GenreService {
 
     private final GenreRepository genreRepository;
+    private final GenreMapper genreMapper;
+    private final ContentEventPublisher contentEventPublisher;
+    private final ContentRepository contentRepository;
+    private final ContentIndexingQueue contentIndexingQueue;
 
-    public GenreServiceImpl(GenreRepository genreRepository) {
+    public GenreServiceImpl(GenreRepository genreRepository, GenreMapper genreMapper,
+                            ContentEventPublisher contentEventPublisher,
+                            ContentRepository contentRepository,
+                            ContentIndexingQueue contentIndexingQueue) {
         super(genreRepository);
         this.genreRepository = genreRepository;
+        this.genreMapper = genreMapper;
+        this.contentEventPublisher = contentEventPublisher;
+        this.contentRepository = contentRepository;
+        this.contentIndexingQueue = contentIndexingQueue;
     }
 
     @Override
@@ -27,13 +46,60 @@ public class GenreServiceImpl extends BaseServiceImpl<Genre, Long> implements Ge
         return genreRepository.findByNameContainingIgnoreCase(name, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "genreCache", key = "#id")
+    public GenreDto getGenre(Long id) {
+        return genreRepository.findById(id)
+            .map(genreMapper::toDto)
+            .orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
+    }
+
+    // Content details and search documents embed their genres, so any genre change also drops
+    // cached content and reindexes the titles carrying the genre
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "genreCache", key = "#genre.id", condition = "#genre.id != null"),
+        @CacheEvict(value = "contentCache", allEntries = true, condition = "#genre.id != null")
+    })
+    public Genre save(Genre genre) {
+        if (genre.getId() != null) {
+            contentIndexingQueue.enqueueAll(contentRepository.findIdsByGenreId(genre.getId()));
+        }
+        Genre saved = super.save(genre);
+        contentEventPublisher.publishGenreChanged(saved.getId());
+        return saved;
+    }
+
     @Override
     @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "genreCache", key = "#id"),
+        @CacheEvict(value = "contentCache", allEntries = true)
+    })
     public Genre update(Long id, Genre genre) {
         return genreRepository.findById(id).map(existingGenre -> {
             existingGenre.setName(genre.getName());
             existingGenre.setDescription(genre.getDescription());
-            return genreRepository.save(existingGenre);
+            Genre saved = genreRepository.save(existingGenre);
+            contentIndexingQueue.enqueueAll(contentRepository.findIdsByGenreId(id));
+            contentEventPublisher.publishGenreChanged(id);
+            return saved;
         }).orElseThrow(() -> new ResourceNotFoundException("Genre not found with id: " + id));
     }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "genreCache", key = "#id"),
+        @CacheEvict(value = "contentCache", allEntries = true)
+    })
+    public void deleteById(Long id) {
+        // Collected before the delete drops the genre's links
+        List<Long> contentIds = contentRepository.findIdsByGenreId(id);
+        super.deleteById(id);
+        contentIndexingQueue.enqueueAll(contentIds);
+        contentEventPublisher.publishGenreChanged(id);
+    }
 }
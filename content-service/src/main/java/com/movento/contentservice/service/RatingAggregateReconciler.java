@@ -0,0 +1,64 @@
+package com.movento.contentservice.service;
+
+import com.movento.contentservice.repository.ContentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Periodically recomputes the denormalized rating aggregates on content from the ratings table.
+ * Delta updates keep them current on the hot path; this repairs drift left by failed or racing writes.
+ * Drifted rows are locked before they are recomputed, so a delta committed concurrently is
+ * either included in the recomputed value or applied on top of it, never overwritten.
+ */
+@Slf4j
+@Component
+public class RatingAggregateReconciler {
+
+    private final ContentRepository contentRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.content.ratings.reconcile-batch-size:500}")
+    private int batchSize = 500;
+
+    public RatingAggregateReconciler(ContentRepository contentRepository,
+                                     CacheManager cacheManager,
+                                     PlatformTransactionManager transactionManager) {
+        this.contentRepository = contentRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.content.ratings.reconcile-initial-delay-ms:60000}",
+               fixedDelayString = "${app.content.ratings.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        List<Long> drifted = contentRepository.findDriftedRatingAggregates();
+        int repaired = 0;
+        // One short transaction per batch keeps rating writes to those rows waiting only briefly
+        for (int from = 0; from < drifted.size(); from += batchSize) {
+            List<Long> batch = drifted.subList(from, Math.min(drifted.size(), from + batchSize));
+            Integer count = transactionTemplate.execute(status -> {
+                contentRepository.lockForRatingReconcile(batch);
+                int updated = contentRepository.reconcileRatingAggregates(batch);
+                // The cache is transaction-aware, so these evictions land after the commit
+                Cache cache = cacheManager.getCache("contentCache");
+                if (cache != null && updated > 0) {
+                    batch.forEach(cache::evict);
+                }
+                return updated;
+            });
+            repaired += count != null ? count : 0;
+        }
+        if (repaired > 0) {
+            log.warn("Repaired rating aggregates on {} content rows", repaired);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.movento.contentservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.movento.contentservice.client.UserServiceClient;
+import com.movento.contentservice.dto.UserDto;
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Answers "does this user exist" for write paths without a user-service round-trip per request.
+ * <p>
+ * Lookups go through a local positive/negative cache first, then a Redis bloom filter of all user
+ * ids shared by every instance. Only ids the filter has never seen fall through to user-service,
+ * so a brownout there only affects users created since the last sync whose event was missed.
+ * The filter is kept current by user-created events and an incremental sync against user-service;
+ * it expires periodically so ids of deleted users eventually drop out of it. Until then, deleted
+ * users are shadowed locally for a full filter TTL.
+ */
+@Slf4j
+@Service
+public class UserExistenceVerifier {
+
+    private final UserServiceClient userServiceClient;
+    private final RBloomFilter<Long> userIdFilter;
+    private final RAtomicLong syncWatermark;
+    private final RLock syncLock;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Duration filterTtl;
+    private final int syncPageSize;
+
+    private final Cache<Long, Boolean> knownUsers;
+    private final Cache<Long, Boolean> unknownUsers;
+    private final Cache<Long, Boolean> deletedUsers;
+
+    private final Counter localHits;
+    private final Counter filterHits;
+    private final Counter remoteLookups;
+    private final Counter remoteFailures;
+
+    private volatile boolean filterReady;
+
+    public UserExistenceVerifier(UserServiceClient userServiceClient,
+                                 RedissonClient redissonClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.application.name}") String applicationName,
+                                 @Value("${app.users.filter.expected-users:1000000}") long expectedUsers,
+                                 @Value("${app.users.filter.false-positive-rate:0.001}") double falsePositiveRate,
+                                 @Value("${app.users.filter.ttl:PT24H}") Duration filterTtl,
+                                 @Value("${app.users.filter.sync-page-size:1000}") int syncPageSize,
+                                 @Value("${app.users.cache.known-ttl:PT1H}") Duration knownTtl,
+                                 @Value("${app.users.cache.unknown-ttl:PT10M}") Duration unknownTtl,
+                                 @Value("${app.users.cache.maximum-size:100000}") long maximumSize) {
+        this.userServiceClient = userServiceClient;
+        this.userIdFilter = redissonClient.getBloomFilter(applicationName + ":user-ids");
+        this.syncWatermark = redissonClient.getAtomicLong(applicationName + ":user-ids:watermark");
+        this.syncLock = redissonClient.getLock(applicationName + ":user-ids:sync");
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filterTtl = filterTtl;
+        this.syncPageSize = syncPageSize;
+
+        this.knownUsers = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(knownTtl)
+            .build();
+        this.unknownUsers = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(unknownTtl)
+            .build();
+        // Any filter that saw a deleted id expires within one TTL of the deletion
+        this.deletedUsers = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(filterTtl)
+            .build();
+
+        this.localHits = counter(meterRegistry, "local");
+        this.filterHits = counter(meterRegistry, "filter");
+        this.remoteLookups = counter(meterRegistry, "remote");
+        this.remoteFailures = counter(meterRegistry, "remote-failure");
+    }
+
+    private static Counter counter(MeterRegistry registry, String source) {
+        return Counter.builder("content.user.verifications")
+            .description("User existence checks by the tier that answered them")
+            .tag("source", source)
+            .register(registry);
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (knownUsers.getIfPresent(userId) != null) {
+            localHits.increment();
+            return true;
+        }
+        if (unknownUsers.getIfPresent(userId) != null || deletedUsers.getIfPresent(userId) != null) {
+            localHits.increment();
+            return false;
+        }
+        if (filterMightContain(userId)) {
+            filterHits.increment();
+            knownUsers.put(userId, Boolean.TRUE);
+            return true;
+        }
+        return lookupRemote(userId);
+    }
+
+    public void onUserCreated(Long userId) {
+        unknownUsers.invalidate(userId);
+        deletedUsers.invalidate(userId);
+        knownUsers.put(userId, Boolean.TRUE);
+        try {
+            userIdFilter.add(userId);
+        } catch (Exception e) {
+            log.debug("Could not add user {} to the id filter: {}", userId, e.getMessage());
+        }
+    }
+
+    public void onUserDeleted(Long userId) {
+        // The filter cannot forget ids, so the entry shadows it until the filter expires
+        knownUsers.invalidate(userId);
+        deletedUsers.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * Adds users created since the last sync to the shared filter. Only one instance syncs at a time;
+     * the watermark in Redis lets each run pick up where the previous one stopped.
+     */
+    @Scheduled(initialDelayString = "${app.users.filter.sync-initial-delay-ms:10000}",
+               fixedDelayString = "${app.users.filter.sync-interval-ms:300000}")
+    public void syncFilter() {
+        if (!syncLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!userIdFilter.isExists()) {
+                userIdFilter.tryInit(expectedUsers, falsePositiveRate);
+                userIdFilter.expire(filterTtl);
+                syncWatermark.set(0L);
+            }
+
+            long afterId = syncWatermark.get();
+            int added = 0;
+            List<Long> ids;
+            do {
+                ids = userServiceClient.getUserIds(afterId, syncPageSize);
+                for (Long id : ids) {
+                    userIdFilter.add(id);
+                }
+                if (!ids.isEmpty()) {
+                    afterId = ids.get(ids.size() - 1);
+                    syncWatermark.set(afterId);
+                    added += ids.size();
+                }
+            } while (ids.size() == syncPageSize);
+
+            filterReady = true;
+            if (added > 0) {
+                log.info("Added {} user ids to the existence filter, watermark now {}", added, afterId);
+            }
+        } catch (Exception e) {
+            log.warn("User id filter sync failed: {}", e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private boolean filterMightContain(Long userId) {
+        try {
+            if (!filterReady) {
+                // Another instance may have completed the initial sync already
+                filterReady = syncWatermark.get() > 0 && userIdFilter.isExists();
+            }
+            return filterReady && userIdFilter.contains(userId);
+        } catch (Exception e) {
+            log.debug("User id filter unavailable: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean lookupRemote(Long userId) {
+        remoteLookups.increment();
+        try {
+            UserDto user = userServiceClient.getUserById(userId);
+            boolean exists = user != null;
+            if (exists) {
+                onUserCreated(userId);
+            } else {
+                unknownUsers.put(userId, Boolean.TRUE);
+            }
+            return exists;
+        } catch (FeignException.NotFound e) {
+            unknownUsers.put(userId, Boolean.TRUE);
+            return false;
+        } catch (Exception e) {
+            // Not cached: the answer is unknown, not negative
+            remoteFailures.increment();
+            log.warn("Could not verify user {} with user-service: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.movento.contentservice.service;
 
 import com.movento.contentservice.dto.ViewHistoryDto;
 import com.movento.contentservice.dto.request.ViewHistoryRequest;
+import com.movento.contentservice.dto.response.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,8 +10,10 @@ import java.util.List;
 
 public interface ViewHistoryService {
     ViewHistoryDto addToHistory(ViewHistoryRequest request);
+    void recordProgress(ViewHistoryRequest request);
     ViewHistoryDto getHistoryById(Long id);
     Page<ViewHistoryDto> getViewHistory(Long userId, Long contentId, Pageable pageable);
     Page<ViewHistoryDto> getRecentWatched(Long userId, int limit);
+    CursorPage<ViewHistoryDto> getHistoryFeed(Long userId, String cursor, int size);
     void removeFromHistory(Long id);
 }
\ No newline at end of file
@@ -1,13 +1,15 @@
 package com.movento.contentservice.service;
 
-import com.movento.contentservice.client.UserServiceClient;
-import com.movento.contentservice.dto.UserDto;
 import com.movento.contentservice.dto.ViewHistoryDto;
 import com.movento.contentservice.dto.mapper.ViewHistoryMapper;
+import com.movento.contentservice.dto.request.PageCursor;
 import com.movento.contentservice.dto.request.ViewHistoryRequest;
+import com.movento.contentservice.dto.response.CursorPage;
 import com.movento.contentservice.exception.ResourceNotFoundException;
+import com.movento.contentservice.messaging.ActivityEventPublisher;
 import com.movento.contentservice.model.Content;
 import com.movento.contentservice.model.ViewHistory;
+import com.movento.contentservice.progress.WatchProgressBuffer;
 import com.movento.contentservice.repository.ContentRepository;
 import com.movento.contentservice.repository.ViewHistoryRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -29,8 +32,10 @@ public class ViewHistoryServiceImpl implements ViewHistoryService {
 
     private final ViewHistoryRepository viewHistoryRepository;
     private final ContentRepository contentRepository;
-    private final UserServiceClient userServiceClient;
+    private final UserExistenceVerifier userExistenceVerifier;
     private final ViewHistoryMapper viewHistoryMapper;
+    private final WatchProgressBuffer watchProgressBuffer;
+    private final ActivityEventPublisher activityEventPublisher;
 
     @Override
     @Transactional
@@ -40,9 +45,7 @@ public class ViewHistoryServiceImpl implements ViewHistoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Content not found with id: " + request.getContentId()));
 
         try {
-            // Verify user exists using the user-service
-            UserDto userDto = userServiceClient.getUserById(request.getUserId());
-            if (userDto == null) {
+            if (!userExistenceVerifier.exists(request.getUserId())) {
                 throw new ResourceNotFoundException("User not found with id: " + request.getUserId());
             }
 
@@ -68,6 +71,7 @@ public class ViewHistoryServiceImpl implements ViewHistoryService {
             }
 
             ViewHistory savedHistory = viewHistoryRepository.save(viewHistory);
+            activityEventPublisher.publishViewed(request.getUserId(), content.getId(), savedHistory.isCompleted());
             return viewHistoryMapper.toDto(savedHistory);
             
         } catch (Exception e) {
@@ -77,6 +81,20 @@ public class ViewHistoryServiceImpl implements ViewHistoryService {
         }
     }
 
+    @Override
+    public void recordProgress(ViewHistoryRequest request) {
+        // Heartbeat path: no lookups, the buffer writes the row on its next flush
+        watchProgressBuffer.record(
+                request.getUserId(),
+                request.getContentId(),
+                request.getProgressSeconds(),
+                Boolean.TRUE.equals(request.getCompleted()));
+        // Progress ticks are too frequent to publish; finishing a title is the signal that matters
+        if (Boolean.TRUE.equals(request.getCompleted())) {
+            activityEventPublisher.publishViewed(request.getUserId(), request.getContentId(), true);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ViewHistoryDto getHistoryById(Long id) {
@@ -110,6 +128,20 @@ public class ViewHistoryServiceImpl implements ViewHistoryService {
                 .map(viewHistoryMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ViewHistoryDto> getHistoryFeed(Long userId, String cursor, int size) {
+        int limit = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        String user = String.valueOf(userId);
+        List<ViewHistory> rows = after == null
+                ? viewHistoryRepository.findUserFeed(user, Pageable.ofSize(limit + 1))
+                : viewHistoryRepository.findUserFeedAfter(user, after.getSortKey(), after.getId(), Pageable.ofSize(limit + 1));
+        return CursorPage.of(rows, limit,
+                page -> page.stream().map(viewHistoryMapper::toDto).toList(),
+                history -> new PageCursor(history.getViewedAt(), history.getId()).encode());
+    }
+
     @Override
     @Transactional
     public void removeFromHistory(Long id) {
@@ -0,0 +1,249 @@
+package com.movento.contentservice.service.elasticsearch;
+
+import com.movento.contentservice.model.Content;
+import com.movento.contentservice.model.TvShow;
+import com.movento.contentservice.model.elasticsearch.ContentSearchDocument;
+import com.movento.contentservice.repository.ContentRepository;
+import com.movento.contentservice.repository.GenreRepository;
+import com.movento.contentservice.repository.projection.ContentGenre;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the search index in step with Postgres. Writers enqueue content ids once their transaction
+ * commits; a background worker coalesces them, reloads the rows and bulk-writes the documents.
+ * Ids that no longer exist are removed from the index.
+ */
+@Slf4j
+@Service
+public class ContentIndexingQueue {
+
+    private final ContentRepository contentRepository;
+    private final GenreRepository genreRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long flushIntervalMs;
+    private final int batchSize;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "content-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ContentIndexingQueue(ContentRepository contentRepository,
+                                GenreRepository genreRepository,
+                                ElasticsearchOperations elasticsearchOperations,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.search.indexing.flush-interval-ms:500}") long flushIntervalMs,
+                                @Value("${app.search.indexing.batch-size:200}") int batchSize) {
+        this.contentRepository = contentRepository;
+        this.genreRepository = genreRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.flushIntervalMs = flushIntervalMs;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdown();
+        try {
+            worker.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * Creates the index with its mapping if missing and seeds it when empty, e.g. after the index
+     * was dropped or on a fresh environment.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedEmptyIndex() {
+        worker.execute(() -> {
+            try {
+                IndexOperations indexOps = elasticsearchOperations.indexOps(ContentSearchDocument.class);
+                if (!indexOps.exists()) {
+                    indexOps.create();
+                    indexOps.putMapping(indexOps.createMapping());
+                }
+                if (elasticsearchOperations.count(Query.findAll(), ContentSearchDocument.class) == 0) {
+                    reindexAll();
+                }
+            } catch (Exception e) {
+                log.warn("Skipping initial content index seed: {}", e.getMessage());
+            }
+        });
+    }
+
+    public void enqueue(Long contentId) {
+        if (contentId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Index what was committed, not what might still roll back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.add(contentId);
+                }
+            });
+        } else {
+            pending.add(contentId);
+        }
+    }
+
+    public void enqueueAll(Collection<Long> contentIds) {
+        if (contentIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(contentIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.addAll(ids);
+                }
+            });
+        } else {
+            pending.addAll(contentIds);
+        }
+    }
+
+    /**
+     * Runs a full rebuild on the indexing worker so it does not interleave with queued updates.
+     */
+    public void requestReindex() {
+        worker.execute(() -> {
+            try {
+                reindexAll();
+            } catch (Exception e) {
+                log.error("Content reindex failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void reindexAll() {
+        long indexed = 0;
+        int page = 0;
+        boolean hasNext = true;
+        while (hasNext) {
+            int pageNumber = page++;
+            Page<Content> contents = readOnlyTransaction.execute(status ->
+                contentRepository.findAll(PageRequest.of(pageNumber, batchSize, Sort.by("id"))));
+            List<Long> ids = contents.getContent().stream().map(Content::getId).toList();
+            if (!ids.isEmpty()) {
+                elasticsearchOperations.save(loadDocuments(ids).values());
+                indexed += ids.size();
+            }
+            hasNext = contents.hasNext();
+        }
+        log.info("Reindexed {} contents into the search index", indexed);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Unexpected error flushing content index queue: {}", e.getMessage(), e);
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending.size());
+        for (Long id : pending) {
+            if (pending.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                Map<Long, ContentSearchDocument> documents = loadDocuments(chunk);
+                if (!documents.isEmpty()) {
+                    elasticsearchOperations.save(documents.values());
+                }
+                List<String> removed = chunk.stream()
+                    .filter(id -> !documents.containsKey(id))
+                    .map(String::valueOf)
+                    .toList();
+                if (!removed.isEmpty()) {
+                    Query byIds = new NativeSearchQueryBuilder()
+                        .withQuery(QueryBuilders.idsQuery().addIds(removed.toArray(new String[0])))
+                        .build();
+                    elasticsearchOperations.delete(byIds, ContentSearchDocument.class);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to index {} contents, will retry: {}", chunk.size(), e.getMessage());
+                pending.addAll(chunk);
+            }
+        }
+    }
+
+    private Map<Long, ContentSearchDocument> loadDocuments(List<Long> ids) {
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, List<String>> genresByContentId = new HashMap<>();
+            for (ContentGenre row : genreRepository.findByContentIds(ids)) {
+                genresByContentId.computeIfAbsent(row.getContentId(), key -> new ArrayList<>())
+                    .add(row.getGenre().getName());
+            }
+
+            Map<Long, ContentSearchDocument> documents = new HashMap<>();
+            for (Content content : contentRepository.findByIds(ids)) {
+                documents.put(content.getId(), ContentSearchDocument.builder()
+                    .id(String.valueOf(content.getId()))
+                    .title(content.getTitle())
+                    .description(content.getDescription())
+                    .genres(genresByContentId.getOrDefault(content.getId(), new ArrayList<>()))
+                    .type(content instanceof TvShow ? "TV_SHOW" : "MOVIE")
+                    .releaseYear(content.getReleaseYear())
+                    .averageRating(content.getAverageRating())
+                    .ratingCount(content.getRatingCount())
+                    .active(content.isActive())
+                    .build());
+            }
+            return documents;
+        });
+    }
+}
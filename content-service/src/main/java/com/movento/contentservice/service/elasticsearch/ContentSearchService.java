@@ -0,0 +1,146 @@
+package com.movento.contentservice.service.elasticsearch;
+
+import com.movento.contentservice.dto.ContentDto;
+import com.movento.contentservice.dto.response.ContentSearchResponse;
+import com.movento.contentservice.model.elasticsearch.ContentSearchDocument;
+import com.movento.contentservice.service.ContentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.common.unit.Fuzziness;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.filter.Filter;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentSearchService {
+
+    private static final String GENRE_FACET = "genre";
+    private static final String YEAR_FACET = "year";
+    private static final String TYPE_FACET = "type";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ContentService contentService;
+
+    /**
+     * Relevance-ranked, typo-tolerant search over the content index. Matching rows are hydrated
+     * from Postgres in rank order so responses carry the same shape as the listing endpoints.
+     */
+    public ContentSearchResponse search(String text, String genre, Integer year, String type, Pageable pageable) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+            .filter(QueryBuilders.termQuery("active", true));
+
+        if (StringUtils.hasText(text)) {
+            query.must(QueryBuilders.multiMatchQuery(text, "title^3", "description")
+                    .type(MultiMatchQueryBuilder.Type.BEST_FIELDS)
+                    .fuzziness(Fuzziness.AUTO)
+                    .prefixLength(1))
+                // Exact phrase hits on the title outrank fuzzy ones
+                .should(QueryBuilders.matchPhraseQuery("title", text).boost(5));
+        }
+
+        // Facet selections narrow the hits through post_filter, so each facet can still count the
+        // alternatives to its own selection while honouring the others
+        Map<String, QueryBuilder> selections = new LinkedHashMap<>();
+        if (StringUtils.hasText(genre)) {
+            selections.put(GENRE_FACET, QueryBuilders.termQuery("genres", genre));
+        }
+        if (year != null) {
+            selections.put(YEAR_FACET, QueryBuilders.termQuery("releaseYear", year));
+        }
+        if (StringUtils.hasText(type)) {
+            selections.put(TYPE_FACET, QueryBuilders.termQuery("type", type));
+        }
+
+        NativeSearchQuery searchQuery = new NativeSearchQueryBuilder()
+            .withQuery(query)
+            .withFilter(allOf(selections, null))
+            .withPageable(pageable)
+            .withAggregations(
+                facet(GENRE_FACET, "genres", 50, selections),
+                facet(YEAR_FACET, "releaseYear", 50, selections),
+                facet(TYPE_FACET, "type", 10, selections))
+            .build();
+
+        SearchHits<ContentSearchDocument> hits = elasticsearchOperations.search(searchQuery, ContentSearchDocument.class);
+        List<Long> ids = hits.getSearchHits().stream()
+            .map(SearchHit::getContent)
+            .map(document -> Long.valueOf(document.getId()))
+            .toList();
+
+        List<ContentDto> contents = contentService.getContentDetails(ids);
+        Page<ContentDto> page = new PageImpl<>(contents, pageable, hits.getTotalHits());
+        return new ContentSearchResponse(page, facets(hits.getAggregations()));
+    }
+
+    /**
+     * Title search for the listing endpoint. Falls back to the database scan if the index is
+     * unreachable so search degrades in quality rather than failing.
+     */
+    public Page<ContentDto> searchByTitle(String title, Pageable pageable) {
+        try {
+            return search(title, null, null, null, pageable).getResults();
+        } catch (Exception e) {
+            log.warn("Content search index unavailable, falling back to database: {}", e.getMessage());
+            return contentService.getContentDetails(contentService.searchByTitle(title, pageable));
+        }
+    }
+
+    private static AbstractAggregationBuilder<?> facet(String name, String field, int size,
+                                                       Map<String, QueryBuilder> selections) {
+        return AggregationBuilders.filter(name, allOf(selections, name))
+            .subAggregation(AggregationBuilders.terms(name).field(field).size(size));
+    }
+
+    private static BoolQueryBuilder allOf(Map<String, QueryBuilder> selections, String excludedFacet) {
+        BoolQueryBuilder filter = QueryBuilders.boolQuery();
+        selections.forEach((facet, selection) -> {
+            if (!facet.equals(excludedFacet)) {
+                filter.filter(selection);
+            }
+        });
+        return filter;
+    }
+
+    private Map<String, Map<String, Long>> facets(AggregationsContainer<?> container) {
+        if (container == null || !(container.aggregations() instanceof Aggregations aggregations)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (String name : List.of(GENRE_FACET, YEAR_FACET, TYPE_FACET)) {
+            Filter scope = aggregations.get(name);
+            Terms terms = scope != null ? scope.getAggregations().get(name) : null;
+            Map<String, Long> buckets = new LinkedHashMap<>();
+            if (terms != null) {
+                for (Terms.Bucket bucket : terms.getBuckets()) {
+                    buckets.put(bucket.getKeyAsString(), bucket.getDocCount());
+                }
+            }
+            facets.put(name, buckets);
+        }
+        return facets;
+    }
+}
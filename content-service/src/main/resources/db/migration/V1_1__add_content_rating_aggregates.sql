@@ -0,0 +1,18 @@
+-- Denormalized rating aggregates, maintained by delta updates on every rating write
+ALTER TABLE content ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE content ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE content ADD COLUMN IF NOT EXISTS average_rating DOUBLE PRECISION;
+
+UPDATE content c SET
+    rating_sum = a.rating_sum,
+    rating_count = a.rating_count,
+    average_rating = CAST(a.rating_sum AS DOUBLE PRECISION) / a.rating_count
+FROM (
+    SELECT content_id, SUM(rating) AS rating_sum, COUNT(*) AS rating_count
+    FROM content_ratings
+    GROUP BY content_id
+) a
+WHERE c.id = a.content_id;
+
+-- Serves the top-rated listing as an index scan
+CREATE INDEX IF NOT EXISTS idx_content_average_rating ON content (average_rating DESC NULLS LAST);
@@ -0,0 +1,9 @@
+-- Keep only the most recent row per (user, content) before enforcing uniqueness
+DELETE FROM view_history vh
+USING view_history newer
+WHERE vh.user_id = newer.user_id
+  AND vh.content_id = newer.content_id
+  AND (vh.viewed_at < newer.viewed_at OR (vh.viewed_at = newer.viewed_at AND vh.id < newer.id));
+
+-- Conflict target for the batched progress upserts
+CREATE UNIQUE INDEX IF NOT EXISTS uk_view_history_user_content ON view_history (user_id, content_id);
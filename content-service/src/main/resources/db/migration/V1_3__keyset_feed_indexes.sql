@@ -0,0 +1,6 @@
+-- Composite indexes matching the (sort key DESC, id DESC) order of the cursor feeds,
+-- so every page is a bounded index range scan regardless of depth
+CREATE INDEX IF NOT EXISTS idx_content_created_at_id ON content (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_view_history_user_viewed_at_id ON view_history (user_id, viewed_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_content_ratings_content_created_at_id ON content_ratings (content_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_content_ratings_user_created_at_id ON content_ratings (user_id, created_at DESC, id DESC);
@@ -0,0 +1,104 @@
+package com.movento.contentservice.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheManagerTest {
+
+    private final ConcurrentMapCacheManager remote = new ConcurrentMapCacheManager("contentCache");
+    private final RTopic topic = mock(RTopic.class);
+    private TwoLevelCacheManager cacheManager;
+    private MessageListener<CacheInvalidationMessage> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ArgumentCaptor<MessageListener<CacheInvalidationMessage>> captor = ArgumentCaptor.forClass(MessageListener.class);
+        when(topic.addListener(eq(CacheInvalidationMessage.class), captor.capture())).thenReturn(1);
+        cacheManager = new TwoLevelCacheManager(remote, topic, "maximumSize=100");
+        cacheManager.afterPropertiesSet();
+        listener = captor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsFallThroughToTheSharedTierAndFillTheLocalOne() {
+        remote.getCache("contentCache").put(1L, "shared");
+
+        assertThat(cacheManager.getCache("contentCache").get(1L).get()).isEqualTo("shared");
+        assertThat(cacheManager.getTwoLevelCache("contentCache").getLocalCache().getIfPresent(1L)).isEqualTo("shared");
+    }
+
+    @Test
+    void evictionOutsideATransactionIsImmediateAndBroadcast() {
+        Cache cache = cacheManager.getCache("contentCache");
+        cache.put(1L, "value");
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(remote.getCache("contentCache").get(1L)).isNull();
+        verify(topic).publish(any(CacheInvalidationMessage.class));
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForCommit() {
+        Cache cache = cacheManager.getCache("contentCache");
+        cache.put(1L, "before");
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L).get()).isEqualTo("before");
+        verify(topic, never()).publish(any());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        assertThat(cache.get(1L)).isNull();
+        verify(topic).publish(any(CacheInvalidationMessage.class));
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceDropsOnlyTheLocalCopy() {
+        Cache cache = cacheManager.getCache("contentCache");
+        cache.put(1L, "value");
+
+        listener.onMessage("topic", new CacheInvalidationMessage("other-instance", "contentCache", 1L));
+
+        assertThat(cacheManager.getTwoLevelCache("contentCache").getLocalCache().getIfPresent(1L)).isNull();
+        assertThat(remote.getCache("contentCache").get(1L).get()).isEqualTo("value");
+    }
+
+    @Test
+    void clearFromAnotherInstanceDropsTheWholeLocalTier() {
+        Cache cache = cacheManager.getCache("contentCache");
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+
+        listener.onMessage("topic", new CacheInvalidationMessage("other-instance", "contentCache", null));
+
+        assertThat(cacheManager.getTwoLevelCache("contentCache").getLocalCache().estimatedSize()).isZero();
+    }
+}
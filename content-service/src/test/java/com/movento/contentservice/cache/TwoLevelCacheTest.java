@@ -0,0 +1,75 @@
+package com.movento.contentservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoLevelCacheTest {
+
+    private final InterleavingRemoteCache remote = new InterleavingRemoteCache();
+    private final TwoLevelCache cache =
+            new TwoLevelCache("contentCache", Caffeine.newBuilder().build(), remote, (name, key) -> { });
+
+    @Test
+    void remoteHitFillsTheLocalTier() {
+        remote.put(1L, "shared");
+
+        assertThat(cache.get(1L).get()).isEqualTo("shared");
+        assertThat(cache.getLocalCache().getIfPresent(1L)).isEqualTo("shared");
+    }
+
+    @Test
+    void invalidationArrivingDuringTheRemoteReadIsNotOverwritten() {
+        remote.put(1L, "stale");
+        // Another instance updates the entry after this read saw the old value
+        remote.duringNextGet = () -> cache.invalidateLocal(1L);
+
+        assertThat(cache.get(1L).get()).isEqualTo("stale");
+
+        assertThat(cache.getLocalCache().getIfPresent(1L)).isNull();
+        remote.put(1L, "fresh");
+        assertThat(cache.get(1L).get()).isEqualTo("fresh");
+    }
+
+    @Test
+    void clearArrivingDuringTheRemoteReadIsNotOverwritten() {
+        remote.put(1L, "stale");
+        remote.duringNextGet = () -> cache.invalidateLocal(null);
+
+        cache.get(1L);
+
+        assertThat(cache.getLocalCache().getIfPresent(1L)).isNull();
+    }
+
+    @Test
+    void invalidationOfAnotherStripeDoesNotBlockTheFill() {
+        remote.put(1L, "shared");
+        remote.duringNextGet = () -> cache.invalidateLocal(2L);
+
+        cache.get(1L);
+
+        assertThat(cache.getLocalCache().getIfPresent(1L)).isEqualTo("shared");
+    }
+
+    private static final class InterleavingRemoteCache extends ConcurrentMapCache {
+
+        private Runnable duringNextGet;
+
+        InterleavingRemoteCache() {
+            super("contentCache");
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper value = super.get(key);
+            Runnable hook = duringNextGet;
+            duringNextGet = null;
+            if (hook != null) {
+                hook.run();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.movento.contentservice.dto.request;
+
+import com.movento.contentservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripsSortKeyAndId() {
+        LocalDateTime sortKey = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+
+        PageCursor decoded = PageCursor.decode(new PageCursor(sortKey, 42L).encode());
+
+        assertThat(decoded.getSortKey()).isEqualTo(sortKey);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodedFormIsUrlSafeWithoutPadding() {
+        String encoded = new PageCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 1L).encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void blankCursorMeansTheFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode("  ")).isNull();
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> PageCursor.decode("not base64!")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("no-separator"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("yesterday|1"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("2024-01-01T00:00|abc"))).isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
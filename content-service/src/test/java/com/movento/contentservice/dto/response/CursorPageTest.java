@@ -0,0 +1,36 @@
+package com.movento.contentservice.dto.response;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPageTest {
+
+    @Test
+    void extraRowSignalsANextPageAndIsNotReturned() {
+        CursorPage<Integer> page = CursorPage.of(List.of(5, 4, 3), 2, Function.identity(), String::valueOf);
+
+        assertThat(page.getItems()).containsExactly(5, 4);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo("4");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Integer> page = CursorPage.of(List.of(2, 1), 2, Function.identity(), String::valueOf);
+
+        assertThat(page.getItems()).containsExactly(2, 1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void sizeIsClampedToTheSupportedRange() {
+        assertThat(CursorPage.clampSize(0)).isEqualTo(1);
+        assertThat(CursorPage.clampSize(20)).isEqualTo(20);
+        assertThat(CursorPage.clampSize(10_000)).isEqualTo(CursorPage.MAX_SIZE);
+    }
+}
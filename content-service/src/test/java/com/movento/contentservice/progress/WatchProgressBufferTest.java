@@ -0,0 +1,220 @@
+package com.movento.contentservice.progress;
+
+import com.movento.contentservice.repository.ViewHistoryBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WatchProgressBufferTest {
+
+    private final RecordingRepository repository = new RecordingRepository();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WatchProgressBuffer buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+
+    @Test
+    void heartbeatsForTheSameTitleCollapseIntoOneRow() {
+        buffer = buffer(100, 10);
+        buffer.record(1L, 10L, 60, false);
+        buffer.record(1L, 10L, 120, false);
+        buffer.record(1L, 10L, 180, false);
+        buffer.record(2L, 10L, 30, false);
+
+        buffer.flush();
+
+        assertThat(repository.rows()).hasSize(2);
+        assertThat(repository.row(1L, 10L).getProgressSeconds()).isEqualTo(180);
+        assertThat(repository.row(2L, 10L).getProgressSeconds()).isEqualTo(30);
+    }
+
+    @Test
+    void completionIsStickyAcrossLaterHeartbeats() {
+        buffer = buffer(100, 10);
+        buffer.record(1L, 10L, 3000, true);
+        buffer.record(1L, 10L, 20, false);
+
+        buffer.flush();
+
+        WatchProgress row = repository.row(1L, 10L);
+        assertThat(row.isCompleted()).isTrue();
+        assertThat(row.getProgressSeconds()).isEqualTo(20);
+    }
+
+    @Test
+    void flushIsSplitIntoBatches() {
+        buffer = buffer(100, 3);
+        for (long user = 0; user < 7; user++) {
+            buffer.record(user, 10L, 1, false);
+        }
+
+        buffer.flush();
+
+        assertThat(repository.batchSizes).containsExactlyInAnyOrder(3, 3, 1);
+    }
+
+    @Test
+    void failedBatchIsRequeuedAndNewerEventsStillWin() {
+        buffer = buffer(100, 10);
+        buffer.record(1L, 10L, 60, false);
+        repository.failNext = true;
+
+        buffer.flush();
+        assertThat(repository.rows()).isEmpty();
+
+        buffer.record(1L, 10L, 90, false);
+        buffer.flush();
+
+        assertThat(repository.rows()).hasSize(1);
+        assertThat(repository.row(1L, 10L).getProgressSeconds()).isEqualTo(90);
+    }
+
+    @Test
+    void failedEntriesBeyondMaxBufferedAreDroppedAndCounted() {
+        buffer = buffer(100, 2, 10);
+        buffer.record(1L, 10L, 60, false);
+        buffer.record(2L, 10L, 60, false);
+        buffer.record(3L, 10L, 60, false);
+        repository.failNext = true;
+
+        buffer.flush();
+        buffer.flush();
+
+        assertThat(meterRegistry.get("content.progress.dropped").counter().count()).isEqualTo(1);
+        assertThat(repository.rows()).hasSize(2);
+    }
+
+    @Test
+    void flushLagIsOnlyRecordedForWrittenEntries() {
+        buffer = buffer(100, 10);
+        buffer.record(1L, 10L, 60, false);
+        repository.failNext = true;
+
+        buffer.flush();
+        assertThat(meterRegistry.get("content.progress.flush.lag").timer().count()).isZero();
+
+        buffer.flush();
+        assertThat(meterRegistry.get("content.progress.flush.lag").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsRecordedAfterStopAreWrittenInline() {
+        buffer = buffer(1, 10);
+        buffer.stop();
+
+        buffer.record(1L, 10L, 60, false);
+        buffer = null;
+
+        assertThat(repository.rows()).hasSize(1);
+    }
+
+    @Test
+    void reachingMaxPendingFlushesWithoutWaitingForTheInterval() throws InterruptedException {
+        buffer = buffer(3, 10);
+        buffer.record(1L, 10L, 1, false);
+        buffer.record(2L, 10L, 1, false);
+        buffer.record(3L, 10L, 1, false);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.rows().size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(repository.rows()).hasSize(3);
+    }
+
+    @Test
+    void stopDrainsWhatIsStillBuffered() {
+        buffer = buffer(100, 10);
+        buffer.record(1L, 10L, 1, false);
+
+        buffer.stop();
+        buffer = null;
+
+        assertThat(repository.rows()).hasSize(1);
+    }
+
+    @Test
+    void mergeKeepsTheMostRecentlyObservedPosition() {
+        LocalDateTime now = LocalDateTime.now();
+        WatchProgress newer = new WatchProgress(1L, 10L, 200, false, now, 5);
+        WatchProgress older = new WatchProgress(1L, 10L, 100, true, now.minusSeconds(30), 2);
+
+        WatchProgress merged = newer.merge(older);
+
+        assertThat(merged.getProgressSeconds()).isEqualTo(200);
+        assertThat(merged.getObservedAt()).isEqualTo(now);
+        assertThat(merged.isCompleted()).isTrue();
+        assertThat(merged.getFirstReceivedNanos()).isEqualTo(2);
+    }
+
+    @Test
+    void mergeKeepsTheKnownPositionWhenTheLatestEventHasNone() {
+        LocalDateTime now = LocalDateTime.now();
+        WatchProgress positioned = new WatchProgress(1L, 10L, 200, false, now.minusSeconds(5), 1);
+        WatchProgress completedOnly = new WatchProgress(1L, 10L, null, true, now, 2);
+
+        WatchProgress merged = positioned.merge(completedOnly);
+
+        assertThat(merged.getProgressSeconds()).isEqualTo(200);
+        assertThat(merged.isCompleted()).isTrue();
+    }
+
+    // The interval flush is pushed far out so tests control when flushes happen
+    private WatchProgressBuffer buffer(int maxPending, int batchSize) {
+        return buffer(maxPending, 10_000, batchSize);
+    }
+
+    private WatchProgressBuffer buffer(int maxPending, int maxBuffered, int batchSize) {
+        meterRegistry.clear();
+        WatchProgressBuffer created =
+                new WatchProgressBuffer(repository, meterRegistry, 60_000, maxPending, maxBuffered, batchSize);
+        created.start();
+        return created;
+    }
+
+    private static final class RecordingRepository extends ViewHistoryBatchRepository {
+
+        private final List<WatchProgress> written = new CopyOnWriteArrayList<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private volatile boolean failNext;
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        @Override
+        public int[] upsertProgress(List<WatchProgress> batch) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("database unavailable");
+            }
+            batchSizes.add(batch.size());
+            written.addAll(new ArrayList<>(batch));
+            return new int[batch.size()];
+        }
+
+        List<WatchProgress> rows() {
+            return written;
+        }
+
+        WatchProgress row(Long userId, Long contentId) {
+            return written.stream()
+                    .filter(progress -> progress.getUserId().equals(userId) && progress.getContentId().equals(contentId))
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.movento.contentservice.repository;
+
+import com.movento.contentservice.model.Content;
+import com.movento.contentservice.model.Movie;
+import com.movento.contentservice.progress.WatchProgress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ViewHistoryBatchRepository.class)
+class ViewHistoryBatchRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    // The upsert is plain JDBC; the entities are only needed for the generated schema
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Content.class)
+    @EnableJpaRepositories(basePackageClasses = ContentRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = ContentRepository.class))
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ViewHistoryBatchRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long contentId;
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        Movie movie = new Movie();
+        movie.setTitle("Title");
+        movie.setDurationMinutes(100);
+        contentId = entityManager.persistAndFlush(movie).getId();
+    }
+
+    @Test
+    void firstEventInsertsTheRowWithItsMinute() {
+        repository.upsertProgress(List.of(progress(1L, 150, false, now)));
+
+        assertThat(row(1L)).containsEntry("stopped_at_minute", 2)
+                .containsEntry("is_completed", false);
+    }
+
+    @Test
+    void laterEventsMoveTheRowForwardButCompletionIsSticky() {
+        repository.upsertProgress(List.of(progress(1L, 6000, true, now)));
+        repository.upsertProgress(List.of(progress(1L, 600, false, now.minusMinutes(5))));
+
+        Map<String, Object> row = row(1L);
+        assertThat(row).containsEntry("stopped_at_minute", 10)
+                .containsEntry("is_completed", true);
+        assertThat(((Timestamp) row.get("viewed_at")).toLocalDateTime()).isEqualTo(now);
+    }
+
+    @Test
+    void completionWithoutAPositionStopsAtTheFullDuration() {
+        repository.upsertProgress(List.of(progress(1L, null, true, now)));
+
+        assertThat(row(1L)).containsEntry("stopped_at_minute", 100)
+                .containsEntry("is_completed", true);
+    }
+
+    @Test
+    void reachingTheDurationMarksTheTitleCompleted() {
+        repository.upsertProgress(List.of(progress(1L, 100 * 60, false, now)));
+
+        assertThat(row(1L)).containsEntry("is_completed", true);
+    }
+
+    @Test
+    void eventsForMissingTitlesAreDroppedWithoutFailingTheBatch() {
+        WatchProgress missing = new WatchProgress(2L, contentId + 1000, 60, false, now, System.nanoTime());
+
+        repository.upsertProgress(List.of(missing, progress(1L, 60, false, now)));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM view_history", Integer.class)).isEqualTo(1);
+    }
+
+    private WatchProgress progress(Long userId, Integer seconds, boolean completed, LocalDateTime observedAt) {
+        return new WatchProgress(userId, contentId, seconds, completed, observedAt, System.nanoTime());
+    }
+
+    private Map<String, Object> row(Long userId) {
+        return jdbcTemplate.queryForMap(
+                "SELECT viewed_at, stopped_at_minute, is_completed FROM view_history WHERE user_id = ? AND content_id = ?",
+                String.valueOf(userId), contentId);
+    }
+}
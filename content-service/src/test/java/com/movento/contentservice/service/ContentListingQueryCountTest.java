@@ -0,0 +1,149 @@
+package com.movento.contentservice.service;
+
+import com.movento.contentservice.dto.ContentDto;
+import com.movento.contentservice.dto.mapper.ContentMapperImpl;
+import com.movento.contentservice.dto.mapper.GenreMapperImpl;
+import com.movento.contentservice.messaging.ContentEventPublisher;
+import com.movento.contentservice.model.Content;
+import com.movento.contentservice.model.Genre;
+import com.movento.contentservice.model.Movie;
+import com.movento.contentservice.model.TvShow;
+import com.movento.contentservice.repository.ContentRepository;
+import com.movento.contentservice.repository.GenreRepository;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the listing endpoints against N+1 regressions: hydrating a page must cost a fixed
+ * number of SQL statements however many rows and genres it holds.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ContentServiceImpl.class, ContentMapperImpl.class, GenreMapperImpl.class})
+class ContentListingQueryCountTest {
+
+    private static final int CONTENTS = 12;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    // Keeps the slice away from the application class and its Feign and discovery setup, and
+    // limits it to the repositories the listing path uses
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Content.class)
+    @EnableJpaRepositories(basePackageClasses = ContentRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = {ContentRepository.class, GenreRepository.class}))
+    static class JpaConfig {
+    }
+
+    @MockBean
+    private ContentIndexingQueue contentIndexingQueue;
+
+    @MockBean
+    private ContentEventPublisher contentEventPublisher;
+
+    @Autowired
+    private ContentService contentService;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Genre> genres = new ArrayList<>();
+        for (String name : List.of("Drama", "Comedy", "Thriller")) {
+            Genre genre = new Genre();
+            genre.setName(name);
+            genres.add(entityManager.persist(genre));
+        }
+        for (int i = 0; i < CONTENTS; i++) {
+            Content content = i % 2 == 0 ? new Movie() : new TvShow();
+            content.setTitle("Title " + i);
+            content.addGenre(genres.get(i % genres.size()));
+            content.addGenre(genres.get((i + 1) % genres.size()));
+            ids.add(entityManager.persist(content).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listingPageIsHydratedWithOneStatement() {
+        Page<Content> page = contentRepository.findAll(PageRequest.of(0, CONTENTS, Sort.by("id")));
+        Statistics statistics = statistics();
+
+        Page<ContentDto> dtos = contentService.getContentDetails(page);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(dtos.getContent()).hasSize(CONTENTS)
+                .allSatisfy(dto -> assertThat(dto.getGenres()).hasSize(2));
+    }
+
+    @Test
+    void idListIsHydratedWithTwoStatementsInCallerOrder() {
+        List<Long> requested = new ArrayList<>(ids);
+        Collections.reverse(requested);
+        Statistics statistics = statistics();
+
+        List<ContentDto> dtos = contentService.getContentDetails(requested);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(dtos).extracting(ContentDto::getId).containsExactlyElementsOf(requested);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getGenres()).hasSize(2));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,56 @@
+package com.movento.contentservice.service;
+
+import com.movento.contentservice.dto.mapper.GenreMapper;
+import com.movento.contentservice.messaging.ContentEventPublisher;
+import com.movento.contentservice.model.Genre;
+import com.movento.contentservice.repository.ContentRepository;
+import com.movento.contentservice.repository.GenreRepository;
+import com.movento.contentservice.service.elasticsearch.ContentIndexingQueue;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GenreServiceImplTest {
+
+    private final GenreRepository genreRepository = mock(GenreRepository.class);
+    private final ContentRepository contentRepository = mock(ContentRepository.class);
+    private final ContentIndexingQueue indexingQueue = mock(ContentIndexingQueue.class);
+    private final GenreServiceImpl genreService = new GenreServiceImpl(genreRepository, mock(GenreMapper.class),
+            mock(ContentEventPublisher.class), contentRepository, indexingQueue);
+
+    @Test
+    void renameReindexesTheTitlesCarryingTheGenre() {
+        Genre existing = new Genre();
+        existing.setId(3L);
+        when(genreRepository.findById(3L)).thenReturn(Optional.of(existing));
+        when(genreRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(contentRepository.findIdsByGenreId(3L)).thenReturn(List.of(10L, 11L));
+
+        Genre renamed = new Genre();
+        renamed.setName("Sci-Fi");
+        genreService.update(3L, renamed);
+
+        verify(indexingQueue).enqueueAll(List.of(10L, 11L));
+    }
+
+    @Test
+    void deleteCollectsTheTitlesBeforeTheLinksAreGone() {
+        when(genreRepository.existsById(3L)).thenReturn(true);
+        when(contentRepository.findIdsByGenreId(3L)).thenReturn(List.of(10L));
+
+        genreService.deleteById(3L);
+
+        InOrder order = inOrder(contentRepository, genreRepository, indexingQueue);
+        order.verify(contentRepository).findIdsByGenreId(3L);
+        order.verify(genreRepository).deleteById(3L);
+        order.verify(indexingQueue).enqueueAll(List.of(10L));
+    }
+}
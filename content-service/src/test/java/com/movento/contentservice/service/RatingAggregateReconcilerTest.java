@@ -0,0 +1,181 @@
+package com.movento.contentservice.service;
+
+import com.movento.contentservice.model.Content;
+import com.movento.contentservice.model.Movie;
+import com.movento.contentservice.repository.ContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(RatingAggregateReconciler.class)
+// Rating writes and the reconciler must commit for real to race each other
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RatingAggregateReconcilerTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Content.class)
+    @EnableJpaRepositories(basePackageClasses = ContentRepository.class, includeFilters = @ComponentScan.Filter(
+            type = FilterType.ASSIGNABLE_TYPE, classes = ContentRepository.class))
+    static class JpaConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("contentCache");
+        }
+    }
+
+    @Autowired
+    private RatingAggregateReconciler reconciler;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private Long contentId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM content_ratings");
+        Movie movie = new Movie();
+        movie.setTitle("Title");
+        contentId = contentRepository.save(movie).getId();
+    }
+
+    @Test
+    void deltasMaintainSumCountAndAverage() {
+        rate(8);
+        rate(5);
+        transaction.executeWithoutResult(status -> contentRepository.applyRatingDelta(contentId, -5, -1));
+
+        assertThat(aggregates()).containsEntry("rating_sum", 8L)
+                .containsEntry("rating_count", 1L)
+                .containsEntry("average_rating", 8.0);
+    }
+
+    @Test
+    void reconcileRepairsDriftedRows() {
+        rate(6);
+        rate(9);
+        jdbcTemplate.update("UPDATE content SET rating_sum = 1, rating_count = 7 WHERE id = ?", contentId);
+
+        reconciler.reconcile();
+
+        assertThat(aggregates()).containsEntry("rating_sum", 15L)
+                .containsEntry("rating_count", 2L)
+                .containsEntry("average_rating", 7.5);
+    }
+
+    @Test
+    void reconcileKeepsADeltaCommittedWhileItWaitsForTheRowLock() throws Exception {
+        rate(4);
+        jdbcTemplate.update("UPDATE content SET rating_sum = 100 WHERE id = ?", contentId);
+
+        CountDownLatch deltaApplied = new CountDownLatch(1);
+        CountDownLatch releaseDelta = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            insertRating(10);
+            contentRepository.applyRatingDelta(contentId, 10, 1);
+            deltaApplied.countDown();
+            await(releaseDelta);
+        }));
+        assertThat(deltaApplied.await(10, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(reconciler::reconcile);
+        awaitLockWait();
+        releaseDelta.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        reconcile.get(10, TimeUnit.SECONDS);
+
+        assertThat(aggregates()).containsEntry("rating_sum", 14L)
+                .containsEntry("rating_count", 2L);
+    }
+
+    private void rate(int rating) {
+        transaction.executeWithoutResult(status -> {
+            insertRating(rating);
+            contentRepository.applyRatingDelta(contentId, rating, 1);
+        });
+    }
+
+    private void insertRating(int rating) {
+        jdbcTemplate.update("INSERT INTO content_ratings (content_id, user_id, rating, created_at) VALUES (?, ?, ?, now())",
+                contentId, 1L, rating);
+    }
+
+    private Map<String, Object> aggregates() {
+        return jdbcTemplate.queryForMap(
+                "SELECT rating_sum, rating_count, average_rating FROM content WHERE id = ?", contentId);
+    }
+
+    private void awaitLockWait() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Reconciler never waited for the row lock");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.movento.contentservice.service;
+
+import com.movento.contentservice.client.UserServiceClient;
+import com.movento.contentservice.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserExistenceVerifierTest {
+
+    private static final Duration FILTER_TTL = Duration.ofHours(24);
+
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final RBloomFilter<Long> filter = mockFilter();
+    private final RAtomicLong watermark = mock(RAtomicLong.class);
+    private final RLock lock = mock(RLock.class);
+    private UserExistenceVerifier verifier;
+
+    @SuppressWarnings("unchecked")
+    private static RBloomFilter<Long> mockFilter() {
+        return mock(RBloomFilter.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedissonClient redisson = mock(RedissonClient.class);
+        when(redisson.<Long>getBloomFilter(anyString())).thenReturn(filter);
+        when(redisson.getAtomicLong(anyString())).thenReturn(watermark);
+        when(redisson.getLock(anyString())).thenReturn(lock);
+        when(lock.tryLock()).thenReturn(true);
+        verifier = new UserExistenceVerifier(userServiceClient, redisson, new SimpleMeterRegistry(), "content-service",
+                1000, 0.01, FILTER_TTL, 2, Duration.ofHours(1), Duration.ofMinutes(10), 1000);
+    }
+
+    @Test
+    void syncSeedsANewFilterWithItsTtlAndPagesFromTheWatermark() {
+        when(filter.isExists()).thenReturn(false);
+        when(watermark.get()).thenReturn(0L);
+        when(userServiceClient.getUserIds(0L, 2)).thenReturn(List.of(1L, 2L));
+        when(userServiceClient.getUserIds(2L, 2)).thenReturn(List.of(3L));
+
+        verifier.syncFilter();
+
+        verify(filter).expire(FILTER_TTL);
+        verify(filter).add(1L);
+        verify(filter).add(3L);
+        verify(watermark).set(3L);
+        verify(lock).unlock();
+    }
+
+    @Test
+    void filterHitAnswersWithoutCallingUserService() {
+        filterReadyWith(7L);
+
+        assertThat(verifier.exists(7L)).isTrue();
+        assertThat(verifier.exists(7L)).isTrue();
+
+        verify(filter, times(1)).contains(7L);
+        verify(userServiceClient, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void deletedUserStaysHiddenWhileTheFilterStillHoldsTheId() {
+        filterReadyWith(7L);
+        assertThat(verifier.exists(7L)).isTrue();
+
+        verifier.onUserDeleted(7L);
+
+        assertThat(verifier.exists(7L)).isFalse();
+        verify(userServiceClient, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void unknownIdFallsThroughToUserServiceOnce() {
+        filterReadyWith();
+        when(userServiceClient.getUserById(9L)).thenReturn(new UserDto());
+
+        assertThat(verifier.exists(9L)).isTrue();
+        assertThat(verifier.exists(9L)).isTrue();
+
+        verify(userServiceClient, times(1)).getUserById(9L);
+        verify(filter).add(9L);
+    }
+
+    @Test
+    void userServiceFailureIsNotCached() {
+        filterReadyWith();
+        when(userServiceClient.getUserById(9L)).thenThrow(new IllegalStateException("down"));
+
+        assertThat(verifier.exists(9L)).isFalse();
+        assertThat(verifier.exists(9L)).isFalse();
+
+        verify(userServiceClient, times(2)).getUserById(9L);
+    }
+
+    private void filterReadyWith(Long... ids) {
+        when(filter.isExists()).thenReturn(true);
+        when(watermark.get()).thenReturn(100L);
+        for (Long id : ids) {
+            when(filter.contains(id)).thenReturn(true);
+        }
+        when(userServiceClient.getUserIds(anyLong(), anyInt())).thenReturn(List.of());
+    }
+}
@@ -0,0 +1,88 @@
+package com.movento.contentservice.service.elasticsearch;
+
+import com.movento.contentservice.model.elasticsearch.ContentSearchDocument;
+import com.movento.contentservice.service.ContentService;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContentSearchServiceTest {
+
+    private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+    private final ContentService contentService = mock(ContentService.class);
+    private final ContentSearchService searchService = new ContentSearchService(operations, contentService);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        SearchHits<ContentSearchDocument> hits = mock(SearchHits.class);
+        when(hits.getSearchHits()).thenReturn(List.of());
+        when(operations.search(any(Query.class), eq(ContentSearchDocument.class))).thenReturn(hits);
+    }
+
+    @Test
+    void facetSelectionsNarrowHitsOnlyThroughThePostFilter() {
+        NativeSearchQuery query = search("matrix", "Drama", 1999, null);
+
+        assertThat(termFields(((BoolQueryBuilder) query.getQuery()).filter())).containsExactly("active");
+        assertThat(termFields(((BoolQueryBuilder) query.getFilter()).filter())).containsExactly("genres", "releaseYear");
+    }
+
+    @Test
+    void eachFacetCountsUnderEveryOtherSelectionButNotItsOwn() {
+        NativeSearchQuery query = search(null, "Drama", 1999, "MOVIE");
+
+        Map<String, List<String>> scopes = query.getAggregations().stream()
+            .collect(Collectors.toMap(AbstractAggregationBuilder::getName, ContentSearchServiceTest::scopeFields));
+
+        assertThat(scopes).containsOnly(
+            Map.entry("genre", List.of("releaseYear", "type")),
+            Map.entry("year", List.of("genres", "type")),
+            Map.entry("type", List.of("genres", "releaseYear")));
+    }
+
+    @Test
+    void unfilteredSearchCountsFacetsOverAllHits() {
+        NativeSearchQuery query = search("matrix", null, null, null);
+
+        assertThat(((BoolQueryBuilder) query.getFilter()).filter()).isEmpty();
+        assertThat(query.getAggregations()).allSatisfy(aggregation -> assertThat(scopeFields(aggregation)).isEmpty());
+    }
+
+    private NativeSearchQuery search(String text, String genre, Integer year, String type) {
+        searchService.search(text, genre, year, type, PageRequest.of(0, 20));
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(operations).search(captor.capture(), eq(ContentSearchDocument.class));
+        return (NativeSearchQuery) captor.getValue();
+    }
+
+    private static List<String> scopeFields(AbstractAggregationBuilder<?> aggregation) {
+        QueryBuilder scope = ((FilterAggregationBuilder) aggregation).getFilter();
+        return termFields(((BoolQueryBuilder) scope).filter());
+    }
+
+    private static List<String> termFields(List<QueryBuilder> filters) {
+        return filters.stream().map(filter -> ((TermQueryBuilder) filter).fieldName()).toList();
+    }
+}
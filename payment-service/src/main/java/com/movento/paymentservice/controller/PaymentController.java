@@ -3,9 +3,11 @@ package com.movento.paymentservice.controller;
 import com.movento.paymentservice.dto.ApiResponse;
 import com.movento.paymentservice.dto.PaymentRequest;
 import com.movento.paymentservice.dto.PaymentResponse;
+import com.movento.paymentservice.dto.UserPlanResponse;
 import com.movento.paymentservice.model.Payment;
 import com.movento.paymentservice.model.elasticsearch.PaymentDocument;
 import com.movento.paymentservice.service.PaymentService;
+import com.movento.paymentservice.service.PlanService;
 import com.movento.paymentservice.service.elasticsearch.PaymentSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +29,7 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final PaymentSearchService paymentSearchService;
+    private final PlanService planService;
 
     @PostMapping
     public ResponseEntity<ApiResponse<PaymentResponse>> processPayment(
@@ -64,6 +67,15 @@ public class PaymentController {
                 .build());
     }
     
+    @GetMapping("/user/{userId}/plan")
+    public ResponseEntity<ApiResponse<UserPlanResponse>> getUserPlan(@PathVariable Long userId) {
+        return ResponseEntity.ok(ApiResponse.<UserPlanResponse>builder()
+                .status(200)
+                .message("User plan retrieved successfully")
+                .data(planService.getUserPlan(userId))
+                .build());
+    }
+    
     // Search endpoints
     
     @GetMapping("/search")
@@ -0,0 +1,16 @@
+package com.movento.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPlanResponse {
+    private Long userId;
+    private String planId;
+    private int maxStreams;
+}
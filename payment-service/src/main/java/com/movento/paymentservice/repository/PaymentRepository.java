@@ -12,4 +12,5 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByPaymentIntentId(String paymentIntentId);
     List<Payment> findByUserId(Long userId);
     boolean existsByPaymentIntentId(String paymentIntentId);
+    Optional<Payment> findFirstByUserIdAndStatusOrderByCreatedAtDesc(Long userId, Payment.PaymentStatus status);
 }
@@ -0,0 +1,47 @@
+package com.movento.paymentservice.service;
+
+import com.movento.paymentservice.dto.UserPlanResponse;
+import com.movento.paymentservice.model.Payment;
+import com.movento.paymentservice.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resolves a user's current plan from their most recent successful payment, and the plan's
+ * entitlements from configuration.
+ */
+@Service
+public class PlanService {
+
+    private final PaymentRepository paymentRepository;
+    private final Map<String, Integer> maxStreamsByPlan;
+    private final String defaultPlan;
+    private final int defaultMaxStreams;
+
+    public PlanService(PaymentRepository paymentRepository,
+                       @Value("#{${app.plans.max-streams:{:}}}") Map<String, Integer> maxStreamsByPlan,
+                       @Value("${app.plans.default-plan:free}") String defaultPlan,
+                       @Value("${app.plans.default-max-streams:1}") int defaultMaxStreams) {
+        this.paymentRepository = paymentRepository;
+        this.maxStreamsByPlan = maxStreamsByPlan;
+        this.defaultPlan = defaultPlan;
+        this.defaultMaxStreams = defaultMaxStreams;
+    }
+
+    @Transactional(readOnly = true)
+    public UserPlanResponse getUserPlan(Long userId) {
+        String planId = paymentRepository
+                .findFirstByUserIdAndStatusOrderByCreatedAtDesc(userId, Payment.PaymentStatus.SUCCEEDED)
+                .map(Payment::getPlanId)
+                .orElse(defaultPlan);
+        return UserPlanResponse.builder()
+                .userId(userId)
+                .planId(planId)
+                .maxStreams(maxStreamsByPlan.getOrDefault(planId.toLowerCase(Locale.ROOT), defaultMaxStreams))
+                .build();
+    }
+}
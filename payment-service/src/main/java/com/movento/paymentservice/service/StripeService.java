@@ -246,7 +246,7 @@ public class StripeService {
         }
     }
     
-    private long convertToStripeAmount(BigDecimal amount, String currency) {
+    long convertToStripeAmount(BigDecimal amount, String currency) {
         // Stripe uses smallest currency unit (e.g., cents for USD)
         boolean isZeroDecimalCurrency = isZeroDecimalCurrency(currency);
         
@@ -262,7 +262,7 @@ public class StripeService {
         }
     }
     
-    private boolean isZeroDecimalCurrency(String currency) {
+    boolean isZeroDecimalCurrency(String currency) {
         // List of zero-decimal currencies according to Stripe
         return Set.of("bif", "clp", "djf", "gnf", "jpy", "kmf", "krw",
                      "mga", "pyg", "rwf", "ugx", "vnd", "vuv", "xaf",
@@ -0,0 +1,229 @@
+package com.movento.recommendationservice.als;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Alternating least squares for implicit feedback (Hu, Koren and Volinsky). A positive weight
+ * {@code w} is a preference of 1 with confidence {@code 1 + alpha * w}; a negative one is a
+ * preference of 0 with confidence {@code 1 + alpha * |w|}; everything unobserved is a
+ * preference of 0 with confidence 1. Each half-step fixes one side and solves every row of
+ * the other independently, so rows are split across a fork-join pool. The shared Gram matrix
+ * {@code Y^T Y} makes the unobserved entries free; per row only its observed entries are
+ * visited, followed by a {@code k x k} Cholesky solve in double precision.
+ */
+public final class AlsTrainer {
+
+    private static final int ROWS_PER_TASK = 512;
+
+    public record Settings(int factors, int iterations, float lambda, float alpha, int parallelism, long seed) {
+    }
+
+    private AlsTrainer() {
+    }
+
+    public static FactorModel train(InteractionMatrix matrix, Settings settings, long version) {
+        int k = settings.factors();
+        float[] users = new float[matrix.userCount() * k];
+        float[] items = new float[matrix.itemCount() * k];
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        float scale = (float) (0.1 / Math.sqrt(k));
+        for (int i = 0; i < items.length; i++) {
+            items[i] = (float) random.nextGaussian() * scale;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, settings.parallelism()));
+        try {
+            for (int iteration = 0; iteration < settings.iterations(); iteration++) {
+                solve(pool, users, items, matrix.userOffsets, matrix.userItems, matrix.userWeights, settings);
+                solve(pool, items, users, matrix.itemOffsets, matrix.itemUsers, matrix.itemWeights, settings);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return new FactorModel(version, k, matrix.userIds, matrix.itemIds, users, items);
+    }
+
+    // Recomputes every row of x against the fixed factors y
+    private static void solve(ForkJoinPool pool, float[] x, float[] y, int[] offsets, int[] columns,
+                              float[] weights, Settings settings) {
+        int k = settings.factors();
+        int fixedRows = y.length / k;
+        double[] gram = pool.invoke(new Gram(y, k, 0, fixedRows));
+        pool.invoke(new Rows(x, y, offsets, columns, weights, gram, settings, 0, offsets.length - 1));
+    }
+
+    /** Sum of y_j y_j^T over a range of rows, upper triangle, split and added pairwise. */
+    private static final class Gram extends RecursiveTask<double[]> {
+
+        private final float[] y;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        Gram(float[] y, int k, int from, int to) {
+            this.y = y;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from > ROWS_PER_TASK * 8) {
+                int mid = (from + to) >>> 1;
+                Gram right = new Gram(y, k, mid, to);
+                right.fork();
+                double[] sum = new Gram(y, k, from, mid).compute();
+                double[] other = right.join();
+                for (int i = 0; i < sum.length; i++) {
+                    sum[i] += other[i];
+                }
+                return sum;
+            }
+            double[] sum = new double[k * k];
+            for (int row = from; row < to; row++) {
+                int base = row * k;
+                for (int a = 0; a < k; a++) {
+                    double ya = y[base + a];
+                    int out = a * k;
+                    for (int b = a; b < k; b++) {
+                        sum[out + b] += ya * y[base + b];
+                    }
+                }
+            }
+            return sum;
+        }
+    }
+
+    private static final class Rows extends RecursiveAction {
+
+        // Per worker scratch; the pool and its threads are discarded after training
+        private static final ThreadLocal<double[][]> SCRATCH = new ThreadLocal<>();
+
+        private final float[] x;
+        private final float[] y;
+        private final int[] offsets;
+        private final int[] columns;
+        private final float[] weights;
+        private final double[] gram;
+        private final Settings settings;
+        private final int from;
+        private final int to;
+
+        Rows(float[] x, float[] y, int[] offsets, int[] columns, float[] weights, double[] gram,
+             Settings settings, int from, int to) {
+            this.x = x;
+            this.y = y;
+            this.offsets = offsets;
+            this.columns = columns;
+            this.weights = weights;
+            this.gram = gram;
+            this.settings = settings;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Rows(x, y, offsets, columns, weights, gram, settings, from, mid),
+                        new Rows(x, y, offsets, columns, weights, gram, settings, mid, to));
+                return;
+            }
+            int k = settings.factors();
+            double[][] scratch = SCRATCH.get();
+            if (scratch == null || scratch[0].length != k * k) {
+                scratch = new double[][]{new double[k * k], new double[k], new double[k]};
+                SCRATCH.set(scratch);
+            }
+            for (int row = from; row < to; row++) {
+                solveRow(row, k, scratch[0], scratch[1], scratch[2]);
+            }
+        }
+
+        private void solveRow(int row, int k, double[] a, double[] b, double[] yRow) {
+            System.arraycopy(gram, 0, a, 0, k * k);
+            Arrays.fill(b, 0);
+            float alpha = settings.alpha();
+            for (int e = offsets[row]; e < offsets[row + 1]; e++) {
+                float w = weights[e];
+                double confidence = 1 + alpha * Math.abs(w);
+                int base = columns[e] * k;
+                // Widen the row once so the rank-one update below is a plain double axpy per row of A
+                for (int i = 0; i < k; i++) {
+                    yRow[i] = y[base + i];
+                }
+                // A += (c - 1) y y^T
+                double extra = confidence - 1;
+                for (int i = 0; i < k; i++) {
+                    double yi = yRow[i] * extra;
+                    int out = i * k;
+                    for (int j = i; j < k; j++) {
+                        a[out + j] += yi * yRow[j];
+                    }
+                }
+                if (w > 0) {
+                    for (int i = 0; i < k; i++) {
+                        b[i] += confidence * yRow[i];
+                    }
+                }
+            }
+            double lambda = settings.lambda() * Math.max(1, offsets[row + 1] - offsets[row]);
+            for (int i = 0; i < k; i++) {
+                a[i * k + i] += lambda;
+            }
+            choleskySolve(a, b, k);
+            int out = row * k;
+            for (int i = 0; i < k; i++) {
+                x[out + i] = (float) b[i];
+            }
+        }
+    }
+
+    /**
+     * Solves {@code A x = b} in place for symmetric positive definite {@code A} given by its
+     * upper triangle (row-major); {@code b} receives {@code x}.
+     */
+    static void choleskySolve(double[] a, double[] b, int k) {
+        // Factor A = U^T U, U upper triangular, overwriting the upper triangle
+        for (int i = 0; i < k; i++) {
+            int rowI = i * k;
+            double diagonal = a[rowI + i];
+            for (int p = 0; p < i; p++) {
+                double u = a[p * k + i];
+                diagonal -= u * u;
+            }
+            diagonal = Math.sqrt(Math.max(diagonal, 1e-12));
+            a[rowI + i] = diagonal;
+            for (int j = i + 1; j < k; j++) {
+                double sum = a[rowI + j];
+                for (int p = 0; p < i; p++) {
+                    sum -= a[p * k + i] * a[p * k + j];
+                }
+                a[rowI + j] = sum / diagonal;
+            }
+        }
+        // U^T z = b
+        for (int i = 0; i < k; i++) {
+            double sum = b[i];
+            for (int p = 0; p < i; p++) {
+                sum -= a[p * k + i] * b[p];
+            }
+            b[i] = sum / a[i * k + i];
+        }
+        // U x = z
+        for (int i = k - 1; i >= 0; i--) {
+            double sum = b[i];
+            int rowI = i * k;
+            for (int j = i + 1; j < k; j++) {
+                sum -= a[rowI + j] * b[j];
+            }
+            b[i] = sum / a[rowI + i];
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.movento.recommendationservice.als;
+
+/**
+ * A trained model on the heap: sorted user and title ids with their latent vectors, stored
+ * row-major in flat float arrays ({@code factors} floats per row).
+ */
+public record FactorModel(long version, int factors, long[] userIds, long[] itemIds,
+                          float[] userFactors, float[] itemFactors) {
+}
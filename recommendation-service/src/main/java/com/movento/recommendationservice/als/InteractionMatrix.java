@@ -0,0 +1,158 @@
+package com.movento.recommendationservice.als;
+
+import java.util.Arrays;
+
+/**
+ * Sparse user x title matrix of interaction weights, held in both row orders (user-major and
+ * title-major) as compressed sparse rows so each half-step of ALS reads its rows contiguously.
+ * Built with {@link Builder}; ids are sorted so they can be binary searched.
+ */
+public final class InteractionMatrix {
+
+    final long[] userIds;
+    final long[] itemIds;
+    final int[] userOffsets;
+    final int[] userItems;
+    final float[] userWeights;
+    final int[] itemOffsets;
+    final int[] itemUsers;
+    final float[] itemWeights;
+
+    private InteractionMatrix(long[] userIds, long[] itemIds, int[] userOffsets, int[] userItems,
+                              float[] userWeights, int[] itemOffsets, int[] itemUsers, float[] itemWeights) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.userOffsets = userOffsets;
+        this.userItems = userItems;
+        this.userWeights = userWeights;
+        this.itemOffsets = itemOffsets;
+        this.itemUsers = itemUsers;
+        this.itemWeights = itemWeights;
+    }
+
+    public int userCount() {
+        return userIds.length;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public int nonZeros() {
+        return userItems.length;
+    }
+
+    /** Accumulates (user, title, weight) triples; a repeated pair keeps the last weight. */
+    public static final class Builder {
+
+        private long[] users = new long[1024];
+        private long[] items = new long[1024];
+        private float[] weights = new float[1024];
+        private int size;
+
+        public void add(long userId, long contentId, float weight) {
+            if (size == users.length) {
+                users = Arrays.copyOf(users, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            users[size] = userId;
+            items[size] = contentId;
+            weights[size] = weight;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public InteractionMatrix build() {
+            long[] userIds = distinct(users, size);
+            long[] itemIds = distinct(items, size);
+            int[] userOf = new int[size];
+            int[] itemOf = new int[size];
+            for (int i = 0; i < size; i++) {
+                userOf[i] = Arrays.binarySearch(userIds, users[i]);
+                itemOf[i] = Arrays.binarySearch(itemIds, items[i]);
+            }
+
+            // User-major by counting sort, preserving arrival order so the last duplicate wins
+            int[] userOffsets = new int[userIds.length + 1];
+            int[] order = bucket(userOf, userOffsets);
+            int[] userItems = new int[size];
+            float[] userWeights = new float[size];
+            int write = 0;
+            int[] lastSeen = new int[itemIds.length];
+            Arrays.fill(lastSeen, -1);
+            int rowStart = 0;
+            for (int u = 0; u < userIds.length; u++) {
+                int rowEnd = userOffsets[u + 1];
+                userOffsets[u] = write;
+                for (int i = rowStart; i < rowEnd; i++) {
+                    int entry = order[i];
+                    int item = itemOf[entry];
+                    if (lastSeen[item] >= userOffsets[u]) {
+                        userWeights[lastSeen[item]] = weights[entry];
+                    } else {
+                        lastSeen[item] = write;
+                        userItems[write] = item;
+                        userWeights[write++] = weights[entry];
+                    }
+                }
+                rowStart = rowEnd;
+            }
+            userOffsets[userIds.length] = write;
+            userItems = Arrays.copyOf(userItems, write);
+            userWeights = Arrays.copyOf(userWeights, write);
+
+            // Title-major transpose
+            int[] itemOffsets = new int[itemIds.length + 1];
+            for (int item : userItems) {
+                itemOffsets[item + 1]++;
+            }
+            for (int i = 0; i < itemIds.length; i++) {
+                itemOffsets[i + 1] += itemOffsets[i];
+            }
+            int[] cursor = Arrays.copyOf(itemOffsets, itemIds.length);
+            int[] itemUsers = new int[write];
+            float[] itemWeights = new float[write];
+            for (int u = 0; u < userIds.length; u++) {
+                for (int i = userOffsets[u]; i < userOffsets[u + 1]; i++) {
+                    int slot = cursor[userItems[i]]++;
+                    itemUsers[slot] = u;
+                    itemWeights[slot] = userWeights[i];
+                }
+            }
+            return new InteractionMatrix(userIds, itemIds, userOffsets, userItems, userWeights,
+                    itemOffsets, itemUsers, itemWeights);
+        }
+
+        private static long[] distinct(long[] values, int length) {
+            long[] sorted = Arrays.copyOf(values, length);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+
+        // Stable counting sort of entry indexes by key; offsets receives the row boundaries
+        private static int[] bucket(int[] keys, int[] offsets) {
+            for (int key : keys) {
+                offsets[key + 1]++;
+            }
+            for (int i = 0; i + 1 < offsets.length; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+            int[] order = new int[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                order[cursor[keys[i]]++] = i;
+            }
+            return order;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.movento.recommendationservice.als;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongPredicate;
+
+/**
+ * Read-only view of a {@link ModelFile} mapped into memory. Nothing is copied onto the heap:
+ * ids are binary searched in place and factor rows are read straight from the page cache, so
+ * opening a model is cheap and several versions can coexist while a swap is in flight. Factor
+ * sections larger than a single mapping are split into chunks holding whole rows. Instances are
+ * immutable and safe to share between threads; the mapping is released once unreachable.
+ */
+public final class MappedFactorModel {
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final long version;
+    private final int factors;
+    private final LongBuffer userIds;
+    private final LongBuffer itemIds;
+    private final FloatBuffer[] userFactors;
+    private final FloatBuffer[] itemFactors;
+    private final int rowsPerChunk;
+
+    private MappedFactorModel(long version, int factors, LongBuffer userIds, LongBuffer itemIds,
+                              FloatBuffer[] userFactors, FloatBuffer[] itemFactors, int rowsPerChunk) {
+        this.version = version;
+        this.factors = factors;
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    public static MappedFactorModel open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(ModelFile.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < ModelFile.HEADER_BYTES || header.getInt() != ModelFile.MAGIC) {
+                throw new IOException("Not a model file: " + file);
+            }
+            int format = header.getInt();
+            if (format != ModelFile.FORMAT_VERSION) {
+                throw new IOException("Unsupported model format " + format + ": " + file);
+            }
+            long version = header.getLong();
+            int factors = header.getInt();
+            int users = header.getInt();
+            int items = header.getInt();
+
+            long userIdsAt = ModelFile.HEADER_BYTES;
+            long itemIdsAt = userIdsAt + (long) users * Long.BYTES;
+            long userFactorsAt = itemIdsAt + (long) items * Long.BYTES;
+            long itemFactorsAt = userFactorsAt + (long) users * factors * Float.BYTES;
+            long end = itemFactorsAt + (long) items * factors * Float.BYTES;
+            if (factors <= 0 || channel.size() != end) {
+                throw new IOException("Truncated or corrupt model file: " + file);
+            }
+            int rowsPerChunk = (int) Math.max(1, MAX_CHUNK_BYTES / ((long) factors * Float.BYTES));
+            return new MappedFactorModel(version, factors,
+                    map(channel, userIdsAt, (long) users * Long.BYTES).asLongBuffer(),
+                    map(channel, itemIdsAt, (long) items * Long.BYTES).asLongBuffer(),
+                    mapRows(channel, userFactorsAt, users, factors, rowsPerChunk),
+                    mapRows(channel, itemFactorsAt, items, factors, rowsPerChunk),
+                    rowsPerChunk);
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int factors() {
+        return factors;
+    }
+
+    public int userCount() {
+        return userIds.limit();
+    }
+
+    public int itemCount() {
+        return itemIds.limit();
+    }
+
+    /** A heap copy of the user's latent vector, or {@code null} if the model does not know them. */
+    public float[] userVector(long userId) {
+        int row = indexOf(userIds, userId);
+        if (row < 0) {
+            return null;
+        }
+        float[] vector = new float[factors];
+        userFactors[row / rowsPerChunk].get((row % rowsPerChunk) * factors, vector);
+        return vector;
+    }
+
+    /** Id of the title stored at {@code row}, for {@code 0 <= row < itemCount()}. */
+    public long itemId(int row) {
+        return itemIds.get(row);
+    }
+
+    /** Copies the latent vector of the title at {@code row} into {@code out}. */
+    public void itemVector(int row, float[] out) {
+        itemFactors[row / rowsPerChunk].get((row % rowsPerChunk) * factors, out);
+    }
+
+    /**
+     * Writes the predicted preference of each candidate into {@code scores}; titles the model
+     * does not know score {@link Float#NaN}.
+     */
+    public void score(float[] userVector, long[] candidates, float[] scores) {
+        for (int i = 0; i < candidates.length; i++) {
+            int row = indexOf(itemIds, candidates[i]);
+            scores[i] = row < 0 ? Float.NaN
+                    : dot(userVector, itemFactors[row / rowsPerChunk], (row % rowsPerChunk) * factors, factors);
+        }
+    }
+
+    /** Scans the whole catalogue for the user's best {@code limit} titles not rejected by {@code exclude}. */
+    public RecommendationEngine.Ranking recommend(float[] userVector, int limit, LongPredicate exclude) {
+        TopK top = new TopK(limit);
+        int items = itemCount();
+        // Rows are copied out in blocks: a bulk get is a single memory copy, and the dot product
+        // then runs over two heap arrays with no per-element buffer checks
+        int blockRows = Math.max(1, 4096 / factors);
+        float[] block = new float[blockRows * factors];
+        for (int chunk = 0; chunk < itemFactors.length; chunk++) {
+            FloatBuffer rows = itemFactors[chunk];
+            int first = chunk * rowsPerChunk;
+            int last = Math.min(items, first + rowsPerChunk);
+            for (int row = first; row < last; row++) {
+                int inBlock = (row - first) % blockRows;
+                if (inBlock == 0) {
+                    int count = Math.min(blockRows, last - row);
+                    rows.get((row - first) * factors, block, 0, count * factors);
+                }
+                float score = dot(userVector, block, inBlock * factors, factors);
+                if (score > top.threshold()) {
+                    long contentId = itemIds.get(row);
+                    if (!exclude.test(contentId)) {
+                        top.offer(contentId, score);
+                    }
+                }
+            }
+        }
+        long[] ids = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(ids, scores);
+        return new RecommendationEngine.Ranking(ids, scores);
+    }
+
+    /**
+     * Dot product over one factor row. Four independent accumulators break the dependency on a
+     * single running sum, so the JIT can pipeline the multiply-adds and unroll the loop; the
+     * buffer reads compile down to plain loads from the mapping.
+     */
+    static float dot(float[] u, FloatBuffer rows, int base, int k) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < k; i += 4) {
+            s0 += u[i] * rows.get(base + i);
+            s1 += u[i + 1] * rows.get(base + i + 1);
+            s2 += u[i + 2] * rows.get(base + i + 2);
+            s3 += u[i + 3] * rows.get(base + i + 3);
+        }
+        for (; i < k; i++) {
+            s0 += u[i] * rows.get(base + i);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /** As {@link #dot(float[], FloatBuffer, int, int)}, over a row already copied to the heap. */
+    static float dot(float[] u, float[] rows, int base, int k) {
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < k; i += 4) {
+            s0 += u[i] * rows[base + i];
+            s1 += u[i + 1] * rows[base + i + 1];
+            s2 += u[i + 2] * rows[base + i + 2];
+            s3 += u[i + 3] * rows[base + i + 3];
+        }
+        for (; i < k; i++) {
+            s0 += u[i] * rows[base + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static int indexOf(LongBuffer ids, long id) {
+        int low = 0;
+        int high = ids.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = ids.get(mid);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static FloatBuffer[] mapRows(FileChannel channel, long position, int rows, int factors,
+                                         int rowsPerChunk) throws IOException {
+        int chunks = Math.max(1, (rows + rowsPerChunk - 1) / rowsPerChunk);
+        FloatBuffer[] mapped = new FloatBuffer[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int chunkRows = Math.min(rowsPerChunk, rows - chunk * rowsPerChunk);
+            long offset = position + (long) chunk * rowsPerChunk * factors * Float.BYTES;
+            mapped[chunk] = map(channel, offset, (long) Math.max(0, chunkRows) * factors * Float.BYTES).asFloatBuffer();
+        }
+        return mapped;
+    }
+}
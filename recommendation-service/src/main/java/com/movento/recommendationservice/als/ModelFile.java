@@ -0,0 +1,116 @@
+package com.movento.recommendationservice.als;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary layout of a trained model, little-endian:
+ * <pre>
+ *   header (64 bytes): magic "MALS", format version, model version (long), factors,
+ *                      user count, item count, zero padding
+ *   user ids          long[users], sorted
+ *   item ids          long[items], sorted
+ *   user factors      float[users * factors], row-major
+ *   item factors      float[items * factors], row-major
+ * </pre>
+ * Sections follow each other without gaps, so readers can map them directly. Files are written
+ * to a temporary name and renamed into place, so a reader never sees a partial model.
+ */
+public final class ModelFile {
+
+    static final int MAGIC = 0x534C414D; // "MALS" read little-endian
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 64;
+
+    private static final String PREFIX = "als-model-";
+    private static final String SUFFIX = ".bin";
+
+    private ModelFile() {
+    }
+
+    public static Path path(Path directory, long version) {
+        return directory.resolve(PREFIX + version + SUFFIX);
+    }
+
+    /** The model version encoded in a file name, or -1 if it is not a model file. */
+    public static long version(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public static Path write(FactorModel model, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path target = path(directory, model.version());
+        Path temporary = Files.createTempFile(directory, PREFIX, ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(model.version())
+                    .putInt(model.factors())
+                    .putInt(model.userIds().length)
+                    .putInt(model.itemIds().length);
+            buffer.position(HEADER_BYTES);
+            writeLongs(channel, buffer, model.userIds());
+            writeLongs(channel, buffer, model.itemIds());
+            writeFloats(channel, buffer, model.userFactors());
+            writeFloats(channel, buffer, model.itemFactors());
+            drain(channel, buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    // Bulk copies through a typed view of the staging buffer, which shares its byte order
+    private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] values) throws IOException {
+        int offset = 0;
+        while (offset < values.length) {
+            if (buffer.remaining() < Long.BYTES) {
+                drain(channel, buffer);
+            }
+            int count = Math.min(buffer.remaining() / Long.BYTES, values.length - offset);
+            buffer.asLongBuffer().put(values, offset, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            offset += count;
+        }
+    }
+
+    private static void writeFloats(FileChannel channel, ByteBuffer buffer, float[] values) throws IOException {
+        int offset = 0;
+        while (offset < values.length) {
+            if (buffer.remaining() < Float.BYTES) {
+                drain(channel, buffer);
+            }
+            int count = Math.min(buffer.remaining() / Float.BYTES, values.length - offset);
+            buffer.asFloatBuffer().put(values, offset, count);
+            buffer.position(buffer.position() + count * Float.BYTES);
+            offset += count;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
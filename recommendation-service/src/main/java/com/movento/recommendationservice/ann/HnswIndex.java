@@ -0,0 +1,655 @@
+package com.movento.recommendationservice.ann;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Hierarchical navigable small world graph (Malkov and Yashunin) for maximum inner product
+ * search over float vectors, e.g. ALS title factors.
+ *
+ * <p>Layer 0, which holds every node, lives in a memory-mapped file with one fixed-size record
+ * per node: id, level, neighbour count, up to {@code 2M} neighbour indexes, then the vector.
+ * The sparse upper layers (about one node in {@code M}) are kept on the heap and written to a
+ * sidecar file by {@link #save}. Reopening a saved index maps the file as is, so start-up cost
+ * is reading the sidecar rather than rebuilding the graph.
+ *
+ * <p>Inserts are serialised by the instance monitor; searches take no locks and may run while
+ * titles are being inserted. A node's vector and links are written before any link to it is
+ * published with release semantics, and readers load links with acquire semantics, so a
+ * reader that reaches a node always sees its data. A list being pruned may briefly show a mix
+ * of old and new neighbours, all of them valid nodes, which only affects recall. The node region
+ * doubles by remapping into a new file when full.
+ */
+public final class HnswIndex {
+
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final int MAGIC = 0x57534E48; // "HNSW" read little-endian
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAX_LEVEL = 16;
+    private static final String UPPER_SUFFIX = ".upper";
+
+    // Node record layout
+    private static final int ID_OFFSET = 0;
+    private static final int LEVEL_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final int LINKS_OFFSET = 16;
+
+    /** The mapped node region; replaced wholesale when the index grows. */
+    private record Storage(MappedByteBuffer buffer, FloatBuffer floats, int capacity) {
+    }
+
+    /** Entry point and top level, published together. */
+    private record Entry(int node, int level) {
+    }
+
+    /** Per-thread visited marks, reset in O(1) by bumping the generation. */
+    private static final class Visited {
+        int[] marks = new int[0];
+        int generation;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[capacity];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean visit(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+
+    private static final ThreadLocal<Visited> VISITED = ThreadLocal.withInitial(Visited::new);
+
+    private final Path file;
+    private final int dimension;
+    private final int m;
+    private final int maxLinks0;
+    private final int efConstruction;
+    private final int nodeBytes;
+    private final int vectorOffset;
+    private final double levelMultiplier;
+    private final long tag;
+    private final ConcurrentHashMap<Long, Integer> nodesById = new ConcurrentHashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+
+    private volatile Storage storage;
+    private volatile AtomicReferenceArray<AtomicIntegerArray[]> upper;
+    private volatile Entry entry;
+    private volatile int size;
+
+    private HnswIndex(Path file, int dimension, int m, int efConstruction, long tag) {
+        this.file = file;
+        this.dimension = dimension;
+        this.m = m;
+        this.maxLinks0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.tag = tag;
+        this.vectorOffset = LINKS_OFFSET + 4 * maxLinks0;
+        this.nodeBytes = (vectorOffset + 4 * dimension + 7) & ~7;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    /**
+     * Creates an empty index backed by {@code file}, replacing any existing one.
+     *
+     * @param tag caller-defined label stored with the index, e.g. the model version
+     */
+    public static HnswIndex create(Path file, int dimension, int m, int efConstruction, int capacity, long tag)
+            throws IOException {
+        if (dimension <= 0 || m < 2 || capacity <= 0) {
+            throw new IllegalArgumentException("Invalid index parameters");
+        }
+        HnswIndex index = new HnswIndex(file, dimension, m, efConstruction, tag);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(upperFile(file));
+        index.storage = index.map(file, capacity);
+        index.upper = new AtomicReferenceArray<>(capacity);
+        index.writeHeader();
+        return index;
+    }
+
+    /** Maps an index previously written by {@link #save}. */
+    public static HnswIndex open(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    throw new IOException("Truncated index file: " + file);
+                }
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+            throw new IOException("Not a supported index file: " + file);
+        }
+        int dimension = header.getInt();
+        int m = header.getInt();
+        int efConstruction = header.getInt();
+        int capacity = header.getInt();
+        int size = header.getInt();
+        int entryNode = header.getInt();
+        int maxLevel = header.getInt();
+        long tag = header.getLong(40);
+
+        HnswIndex index = new HnswIndex(file, dimension, m, efConstruction, tag);
+        if (Files.size(file) != HEADER_BYTES + (long) capacity * index.nodeBytes) {
+            throw new IOException("Truncated index file: " + file);
+        }
+        index.storage = index.map(file, capacity);
+        index.upper = new AtomicReferenceArray<>(capacity);
+        index.readUpperLayers(size);
+        for (int node = 0; node < size; node++) {
+            index.nodesById.put(index.storage.buffer().getLong(index.base(node) + ID_OFFSET), node);
+        }
+        index.entry = size == 0 ? null : new Entry(entryNode, maxLevel);
+        index.size = size;
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public long tag() {
+        return tag;
+    }
+
+    public boolean contains(long id) {
+        return nodesById.containsKey(id);
+    }
+
+    /**
+     * Inserts a vector, or overwrites the vector of an id already present (its links are kept,
+     * so heavily changed vectors are better served by a rebuild).
+     */
+    public synchronized void add(long id, float[] vector) throws IOException {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected " + dimension + " dimensions, got " + vector.length);
+        }
+        Integer existing = nodesById.get(id);
+        if (existing != null) {
+            writeVector(storage, existing, vector);
+            return;
+        }
+        int node = size;
+        if (node == storage.capacity()) {
+            grow();
+        }
+        Storage s = storage;
+        int level = randomLevel();
+        int base = base(node);
+        s.buffer().putLong(base + ID_OFFSET, id);
+        s.buffer().putInt(base + LEVEL_OFFSET, level);
+        INT.setRelease(s.buffer(), base + COUNT_OFFSET, 0);
+        writeVector(s, node, vector);
+        if (level > 0) {
+            AtomicIntegerArray[] levels = new AtomicIntegerArray[level + 1];
+            for (int l = 1; l <= level; l++) {
+                levels[l] = new AtomicIntegerArray(m + 1);
+            }
+            upper.set(node, levels);
+        }
+
+        Entry current = entry;
+        if (current != null) {
+            link(s, node, vector, level, current);
+        }
+        nodesById.put(id, node);
+        size = node + 1;
+        if (current == null || level > current.level()) {
+            entry = new Entry(node, level);
+        }
+    }
+
+    /**
+     * The {@code k} nodes with the largest inner product with {@code query}, best first, scored
+     * by that inner product. {@code ef} trades recall for latency; it is raised to {@code k}.
+     */
+    public RecommendationEngine.Ranking search(float[] query, int k, int ef) {
+        Entry current = entry;
+        if (current == null || k <= 0) {
+            return RecommendationEngine.Ranking.EMPTY;
+        }
+        // Read after the entry point so the region is at least as new as any node it names
+        Storage s = storage;
+        AtomicReferenceArray<AtomicIntegerArray[]> layers = upper;
+        int ep = current.node();
+        float epDistance = distance(s, query, ep);
+        for (int level = current.level(); level > 0; level--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                AtomicIntegerArray links = upperLinks(layers, ep, level);
+                if (links == null) {
+                    break;
+                }
+                int count = Math.min(links.get(0), m);
+                for (int i = 1; i <= count; i++) {
+                    int candidate = links.get(i);
+                    float d = distance(s, query, candidate);
+                    if (d < epDistance) {
+                        epDistance = d;
+                        ep = candidate;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        NodeQueue results = searchLayer(s, layers, query, ep, epDistance, Math.max(ef, k), 0);
+        while (results.size() > k) {
+            results.pop();
+        }
+        TopK top = new TopK(results.size());
+        while (!results.isEmpty()) {
+            int node = results.peekNode();
+            top.offer(s.buffer().getLong(base(node) + ID_OFFSET), results.peekKey());
+            results.pop();
+        }
+        long[] ids = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(ids, scores);
+        return new RecommendationEngine.Ranking(ids, scores);
+    }
+
+    /** Flushes the node region and writes the upper layers, making the index reopenable. */
+    public synchronized void save() throws IOException {
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            int nodes = size;
+            for (int node = 0; node < nodes; node++) {
+                AtomicIntegerArray[] levels = upper.get(node);
+                if (levels == null) {
+                    continue;
+                }
+                out.writeInt(node);
+                out.writeInt(levels.length - 1);
+                for (int l = 1; l < levels.length; l++) {
+                    int count = levels[l].get(0);
+                    out.writeInt(count);
+                    for (int i = 1; i <= count; i++) {
+                        out.writeInt(levels[l].get(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, upperFile(file), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        writeHeader();
+        storage.buffer().force();
+    }
+
+    // Connects a node already written at `node` into every layer up to `level`
+    private void link(Storage s, int node, float[] vector, int level, Entry current) {
+        AtomicReferenceArray<AtomicIntegerArray[]> layers = upper;
+        int ep = current.node();
+        float epDistance = distance(s, vector, ep);
+        for (int l = current.level(); l > level; l--) {
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                AtomicIntegerArray links = upperLinks(layers, ep, l);
+                int count = links == null ? 0 : links.get(0);
+                for (int i = 1; i <= count; i++) {
+                    int candidate = links.get(i);
+                    float d = distance(s, vector, candidate);
+                    if (d < epDistance) {
+                        epDistance = d;
+                        ep = candidate;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        for (int l = Math.min(level, current.level()); l >= 0; l--) {
+            NodeQueue found = searchLayer(s, layers, vector, ep, epDistance, efConstruction, l);
+            int maxLinks = l == 0 ? maxLinks0 : m;
+            int[] neighbours = selectNeighbours(s, found, m);
+            // The heuristic always keeps the closest candidate first; it seeds the next layer down
+            ep = neighbours[0];
+            epDistance = distance(s, vector, ep);
+            setLinks(s, layers, node, l, neighbours, neighbours.length);
+            for (int neighbour : neighbours) {
+                addLink(s, layers, neighbour, node, l, maxLinks);
+            }
+        }
+    }
+
+    /**
+     * Best-first search of one layer from {@code ep}. Returns up to {@code ef} nodes in a
+     * max-heap on distance (keys negated), so the head is the worst result kept.
+     */
+    private NodeQueue searchLayer(Storage s, AtomicReferenceArray<AtomicIntegerArray[]> layers, float[] query,
+                                  int ep, float epDistance, int ef, int level) {
+        Visited visited = VISITED.get();
+        visited.reset(s.capacity());
+        NodeQueue candidates = new NodeQueue(ef * 2);
+        NodeQueue results = new NodeQueue(ef + 1);
+        visited.visit(ep);
+        candidates.push(epDistance, ep);
+        results.push(-epDistance, ep);
+
+        while (!candidates.isEmpty()) {
+            float candidateDistance = candidates.peekKey();
+            int candidate = candidates.peekNode();
+            candidates.pop();
+            if (candidateDistance > -results.peekKey() && results.size() >= ef) {
+                break;
+            }
+            if (level == 0) {
+                int base = base(candidate);
+                int count = Math.min((int) INT.getAcquire(s.buffer(), base + COUNT_OFFSET), maxLinks0);
+                for (int i = 0; i < count; i++) {
+                    int neighbour = (int) INT.getAcquire(s.buffer(), base + LINKS_OFFSET + 4 * i);
+                    visitNeighbour(s, query, ef, visited, candidates, results, neighbour);
+                }
+            } else {
+                AtomicIntegerArray links = upperLinks(layers, candidate, level);
+                int count = links == null ? 0 : Math.min(links.get(0), m);
+                for (int i = 1; i <= count; i++) {
+                    visitNeighbour(s, query, ef, visited, candidates, results, links.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
+    private void visitNeighbour(Storage s, float[] query, int ef, Visited visited, NodeQueue candidates,
+                                NodeQueue results, int neighbour) {
+        if (neighbour >= s.capacity() || !visited.visit(neighbour)) {
+            return;
+        }
+        float d = distance(s, query, neighbour);
+        if (results.size() < ef || d < -results.peekKey()) {
+            candidates.push(d, neighbour);
+            results.push(-d, neighbour);
+            if (results.size() > ef) {
+                results.pop();
+            }
+        }
+    }
+
+    /**
+     * The neighbour-selection heuristic: take candidates closest first, skipping any that is
+     * closer to an already selected neighbour than to the base point, which keeps links
+     * spread across clusters rather than all pointing into the nearest one.
+     */
+    private int[] selectNeighbours(Storage s, NodeQueue found, int limit) {
+        int n = found.size();
+        int[] nodes = new int[n];
+        float[] distances = new float[n];
+        // The queue pops farthest first
+        for (int i = n - 1; i >= 0; i--) {
+            nodes[i] = found.peekNode();
+            distances[i] = -found.peekKey();
+            found.pop();
+        }
+        return prune(s, nodes, distances, n, limit);
+    }
+
+    private int[] prune(Storage s, int[] nodes, float[] distances, int n, int limit) {
+        int[] selected = new int[Math.min(limit, n)];
+        int count = 0;
+        float[] candidateVector = new float[dimension];
+        for (int i = 0; i < n && count < selected.length; i++) {
+            readVector(s, nodes[i], candidateVector);
+            boolean keep = true;
+            for (int j = 0; j < count; j++) {
+                if (distance(s, candidateVector, selected[j]) < distances[i]) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected[count++] = nodes[i];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    // Adds `node` to the neighbour list of `target`, pruning the list if it overflows
+    private void addLink(Storage s, AtomicReferenceArray<AtomicIntegerArray[]> layers, int target, int node,
+                         int level, int maxLinks) {
+        int[] current = links(s, layers, target, level);
+        if (current.length < maxLinks) {
+            int[] extended = Arrays.copyOf(current, current.length + 1);
+            extended[current.length] = node;
+            setLinks(s, layers, target, level, extended, extended.length);
+            return;
+        }
+        float[] targetVector = new float[dimension];
+        readVector(s, target, targetVector);
+        int n = current.length + 1;
+        int[] nodes = Arrays.copyOf(current, n);
+        nodes[current.length] = node;
+        float[] distances = new float[n];
+        for (int i = 0; i < n; i++) {
+            distances[i] = distance(s, targetVector, nodes[i]);
+        }
+        sortByDistance(nodes, distances, n);
+        int[] kept = prune(s, nodes, distances, n, maxLinks);
+        setLinks(s, layers, target, level, kept, kept.length);
+    }
+
+    private int[] links(Storage s, AtomicReferenceArray<AtomicIntegerArray[]> layers, int node, int level) {
+        if (level == 0) {
+            int base = base(node);
+            int count = (int) INT.getAcquire(s.buffer(), base + COUNT_OFFSET);
+            int[] links = new int[count];
+            for (int i = 0; i < count; i++) {
+                links[i] = (int) INT.getAcquire(s.buffer(), base + LINKS_OFFSET + 4 * i);
+            }
+            return links;
+        }
+        AtomicIntegerArray array = upperLinks(layers, node, level);
+        int count = array == null ? 0 : array.get(0);
+        int[] links = new int[count];
+        for (int i = 0; i < count; i++) {
+            links[i] = array.get(i + 1);
+        }
+        return links;
+    }
+
+    // Entries first, count last, so a reader never sees a count covering unwritten entries
+    private void setLinks(Storage s, AtomicReferenceArray<AtomicIntegerArray[]> layers, int node, int level,
+                          int[] links, int count) {
+        if (level == 0) {
+            int base = base(node);
+            for (int i = 0; i < count; i++) {
+                INT.setRelease(s.buffer(), base + LINKS_OFFSET + 4 * i, links[i]);
+            }
+            INT.setRelease(s.buffer(), base + COUNT_OFFSET, count);
+            return;
+        }
+        AtomicIntegerArray array = upperLinks(layers, node, level);
+        for (int i = 0; i < count; i++) {
+            array.set(i + 1, links[i]);
+        }
+        array.set(0, count);
+    }
+
+    private static AtomicIntegerArray upperLinks(AtomicReferenceArray<AtomicIntegerArray[]> layers, int node,
+                                                 int level) {
+        if (node >= layers.length()) {
+            return null;
+        }
+        AtomicIntegerArray[] levels = layers.get(node);
+        return levels == null || level >= levels.length ? null : levels[level];
+    }
+
+    private static void sortByDistance(int[] nodes, float[] distances, int n) {
+        // Lists are at most 2M + 1 long; insertion sort beats allocating for Arrays.sort
+        for (int i = 1; i < n; i++) {
+            float d = distances[i];
+            int node = nodes[i];
+            int j = i - 1;
+            while (j >= 0 && distances[j] > d) {
+                distances[j + 1] = distances[j];
+                nodes[j + 1] = nodes[j];
+                j--;
+            }
+            distances[j + 1] = d;
+            nodes[j + 1] = node;
+        }
+    }
+
+    /** Negated inner product, so that smaller is closer. */
+    private float distance(Storage s, float[] query, int node) {
+        FloatBuffer floats = s.floats();
+        int base = (base(node) + vectorOffset) >> 2;
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int i = 0;
+        for (; i + 3 < dimension; i += 4) {
+            s0 += query[i] * floats.get(base + i);
+            s1 += query[i + 1] * floats.get(base + i + 1);
+            s2 += query[i + 2] * floats.get(base + i + 2);
+            s3 += query[i + 3] * floats.get(base + i + 3);
+        }
+        for (; i < dimension; i++) {
+            s0 += query[i] * floats.get(base + i);
+        }
+        return -((s0 + s1) + (s2 + s3));
+    }
+
+    private void readVector(Storage s, int node, float[] out) {
+        s.floats().get((base(node) + vectorOffset) >> 2, out);
+    }
+
+    private void writeVector(Storage s, int node, float[] vector) {
+        s.floats().put((base(node) + vectorOffset) >> 2, vector);
+    }
+
+    private int base(int node) {
+        return HEADER_BYTES + node * nodeBytes;
+    }
+
+    private int randomLevel() {
+        double uniform = 1.0 - random.nextDouble();
+        return Math.min(MAX_LEVEL, (int) (-Math.log(uniform) * levelMultiplier));
+    }
+
+    private Storage map(Path path, int capacity) throws IOException {
+        long bytes = HEADER_BYTES + (long) capacity * nodeBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Index of " + capacity + " nodes exceeds a single mapping");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new Storage(buffer, buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer(), capacity);
+        }
+    }
+
+    // Doubles the node region into a fresh file and renames it over the old one; searches still
+    // holding the old mapping finish against it
+    private void grow() throws IOException {
+        Storage old = storage;
+        int capacity = old.capacity() * 2;
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".grow");
+        Files.delete(temporary);
+        Storage grown = map(temporary, capacity);
+        ByteBuffer used = old.buffer().duplicate();
+        used.position(0).limit(HEADER_BYTES + size * nodeBytes);
+        grown.buffer().put(0, used, 0, used.remaining());
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        AtomicReferenceArray<AtomicIntegerArray[]> oldUpper = upper;
+        AtomicReferenceArray<AtomicIntegerArray[]> grownUpper = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < oldUpper.length(); i++) {
+            grownUpper.set(i, oldUpper.get(i));
+        }
+        upper = grownUpper;
+        storage = grown;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        ByteBuffer buffer = storage.buffer();
+        Entry current = entry;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putInt(8, dimension);
+        buffer.putInt(12, m);
+        buffer.putInt(16, efConstruction);
+        buffer.putInt(20, storage.capacity());
+        buffer.putInt(24, size);
+        buffer.putInt(28, current == null ? -1 : current.node());
+        buffer.putInt(32, current == null ? -1 : current.level());
+        buffer.putLong(40, tag);
+    }
+
+    private void readUpperLayers(int nodes) throws IOException {
+        Path sidecar = upperFile(file);
+        if (!Files.exists(sidecar)) {
+            return;
+        }
+        try (InputStream stream = Files.newInputStream(sidecar);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            while (in.available() > 0) {
+                int node = in.readInt();
+                int levels = in.readInt();
+                AtomicIntegerArray[] layers = new AtomicIntegerArray[levels + 1];
+                for (int l = 1; l <= levels; l++) {
+                    layers[l] = new AtomicIntegerArray(m + 1);
+                    int count = in.readInt();
+                    layers[l].set(0, count);
+                    for (int i = 1; i <= count; i++) {
+                        layers[l].set(i, in.readInt());
+                    }
+                }
+                // Nodes past the saved size were inserted after the header was last written
+                if (node < nodes) {
+                    upper.set(node, layers);
+                }
+            }
+        }
+    }
+
+    private static Path upperFile(Path file) {
+        return file.resolveSibling(file.getFileName() + UPPER_SUFFIX);
+    }
+}
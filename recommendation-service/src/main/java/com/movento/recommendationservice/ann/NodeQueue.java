@@ -0,0 +1,82 @@
+package com.movento.recommendationservice.ann;
+
+import java.util.Arrays;
+
+/**
+ * Growable binary min-heap of {@code (key, node)} pairs kept in parallel primitive arrays. A
+ * max-heap is obtained by pushing negated keys.
+ */
+final class NodeQueue {
+
+    private float[] keys;
+    private int[] nodes;
+    private int size;
+
+    NodeQueue(int capacity) {
+        keys = new float[Math.max(4, capacity)];
+        nodes = new int[keys.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    float peekKey() {
+        return keys[0];
+    }
+
+    int peekNode() {
+        return nodes[0];
+    }
+
+    void push(float key, int node) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[i] = keys[parent];
+            nodes[i] = nodes[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    /** Removes the smallest entry; read it first with {@link #peekKey} and {@link #peekNode}. */
+    void pop() {
+        float key = keys[--size];
+        int node = nodes[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[i] = keys[child];
+            nodes[i] = nodes[child];
+            i = child;
+        }
+        if (size > 0) {
+            keys[i] = key;
+            nodes[i] = node;
+        }
+    }
+}
@@ -1,15 +1,98 @@
 package com.movento.recommendationservice.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class RabbitMQConfig {
 
+    // Session start/end events published by streaming-service as "TYPE:sessionId:userId:contentId"
+    public static final String STREAMING_EXCHANGE = "streaming.events";
+    public static final String STREAMING_ROUTING_PATTERN = "streaming.#";
+
+    // View and rating events published by content-service as JSON
+    public static final String ACTIVITY_EXCHANGE = "activity.events";
+    public static final String ACTIVITY_ROUTING_PATTERN = "activity.#";
+
+    private final String instanceId;
+    private final Duration queueExpiry;
+
+    public RabbitMQConfig(@Value("${app.messaging.instance-id}") String instanceId,
+                          @Value("${app.messaging.queue-expiry:7d}") Duration queueExpiry) {
+        this.instanceId = instanceId;
+        this.queueExpiry = queueExpiry;
+    }
+
     @Bean
     public TopicExchange recommendationExchange(@Value("${app.messaging.exchange}") String exchangeName) {
         return new TopicExchange(exchangeName);
     }
+
+    // Every instance keeps the whole engine in memory, so each gets its own queue and sees every
+    // event. The queues are durable and named after the instance, so events published while it
+    // restarts wait for it instead of being lost; they only go once no consumer has come back
+    // for the expiry, i.e. the instance is retired.
+    @Bean
+    public TopicExchange streamingEventsExchange() {
+        return new TopicExchange(STREAMING_EXCHANGE);
+    }
+
+    @Bean
+    public Queue streamingEventsQueue() {
+        return instanceQueue("streaming");
+    }
+
+    @Bean
+    public Binding streamingEventsBinding() {
+        return BindingBuilder
+                .bind(streamingEventsQueue())
+                .to(streamingEventsExchange())
+                .with(STREAMING_ROUTING_PATTERN);
+    }
+
+    @Bean
+    public TopicExchange activityEventsExchange() {
+        return new TopicExchange(ACTIVITY_EXCHANGE);
+    }
+
+    @Bean
+    public Queue activityEventsQueue() {
+        return instanceQueue("activity");
+    }
+
+    @Bean
+    public Binding activityEventsBinding() {
+        return BindingBuilder
+                .bind(activityEventsQueue())
+                .to(activityEventsExchange())
+                .with(ACTIVITY_ROUTING_PATTERN);
+    }
+
+    private Queue instanceQueue(String source) {
+        return QueueBuilder.durable("recommendation." + source + "." + instanceId)
+                .expires(Math.toIntExact(queueExpiry.toMillis()))
+                .build();
+    }
+
+    // JSON only for the activity listener; outgoing recommendation events stay plain strings
+    @Bean
+    public SimpleRabbitListenerContainerFactory jsonListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        return factory;
+    }
 }
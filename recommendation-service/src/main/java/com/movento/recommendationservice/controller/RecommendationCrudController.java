@@ -2,6 +2,7 @@ package com.movento.recommendationservice.controller;
 
 import com.movento.recommendationservice.dto.RecommendationRequest;
 import com.movento.recommendationservice.dto.RecommendationResponse;
+import com.movento.recommendationservice.dto.SimilarItemResponse;
 import com.movento.recommendationservice.service.RecommendationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -34,8 +36,19 @@ public class RecommendationCrudController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<RecommendationResponse>> getUserRecommendations(@PathVariable Long userId) {
-        return ResponseEntity.ok(service.getUserRecommendations(userId));
+    public ResponseEntity<List<RecommendationResponse>> getUserRecommendations(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(service.getUserRecommendations(userId,
+                Math.max(0, offset), Math.max(1, Math.min(limit, 100))));
+    }
+
+    @GetMapping("/similar/{contentId}")
+    public ResponseEntity<List<SimilarItemResponse>> getSimilarItems(
+            @PathVariable Long contentId,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(service.getSimilarItems(contentId, Math.max(1, Math.min(limit, 100))));
     }
 
     @PostMapping("/{id}/score")
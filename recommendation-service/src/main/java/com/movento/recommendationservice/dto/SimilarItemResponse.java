@@ -0,0 +1,11 @@
+package com.movento.recommendationservice.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class SimilarItemResponse {
+    private Long contentId;
+    private Double similarity;
+}
@@ -0,0 +1,23 @@
+package com.movento.recommendationservice.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/** A view or rating published by content-service; {@code rating} is null for views and deletions. */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserActivityEvent {
+    public static final String VIEW = "VIEW";
+    public static final String RATING = "RATING";
+
+    private String type;
+    private Long userId;
+    private Long contentId;
+    private Integer rating;
+    private boolean completed;
+    private LocalDateTime timestamp;
+}
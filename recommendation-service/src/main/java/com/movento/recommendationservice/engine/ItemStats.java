@@ -0,0 +1,37 @@
+package com.movento.recommendationservice.engine;
+
+/**
+ * Per-title counters: how many users currently hold it positively and, for every other title,
+ * how many of those users also hold that one positively. Guarded by its own monitor.
+ */
+final class ItemStats {
+
+    private final LongFloatMap coOccurrences = new LongFloatMap();
+    private int popularity;
+
+    synchronized int popularity() {
+        return popularity;
+    }
+
+    synchronized void addPopularity(int delta) {
+        popularity += delta;
+    }
+
+    synchronized void addCoOccurrence(long other, float delta) {
+        if (coOccurrences.addTo(other, delta) <= 0f) {
+            coOccurrences.remove(other);
+        }
+    }
+
+    synchronized float coOccurrence(long other) {
+        return coOccurrences.get(other, 0f);
+    }
+
+    synchronized int neighbourCount() {
+        return coOccurrences.size();
+    }
+
+    synchronized void forEachCoOccurrence(LongFloatMap.Consumer consumer) {
+        coOccurrences.forEach(consumer);
+    }
+}
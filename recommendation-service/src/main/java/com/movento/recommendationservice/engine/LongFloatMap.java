@@ -0,0 +1,139 @@
+package com.movento.recommendationservice.engine;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> float} map with linear probing, used for interaction weights
+ * and co-occurrence counts so the hot paths neither box keys nor allocate entries.
+ * Not thread-safe; owners guard it with their own lock.
+ */
+public final class LongFloatMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, float value);
+    }
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+    private int mask;
+
+    public LongFloatMap() {
+        this(8);
+    }
+
+    public LongFloatMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slot(key)] == key;
+    }
+
+    public float get(long key, float defaultValue) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    public void put(long key, float value) {
+        checkKey(key);
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            if (++size > (mask + 1) * 3 / 4) {
+                values[slot] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /** Adds {@code delta} to the value for {@code key}, starting from 0, and returns the sum. */
+    public float addTo(long key, float delta) {
+        float updated = get(key, 0f) + delta;
+        put(key, updated);
+        return updated;
+    }
+
+    public boolean remove(long key) {
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        // Backward-shift deletion keeps probe sequences intact without tombstones
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new float[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Unsupported key: " + key);
+        }
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
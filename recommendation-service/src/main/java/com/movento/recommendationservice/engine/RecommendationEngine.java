@@ -0,0 +1,309 @@
+package com.movento.recommendationservice.engine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Online item-based collaborative filter. Each event updates the user's interaction vector;
+ * whenever a title crosses into (or out of) the user's positive set, the co-occurrence counts
+ * between it and the user's other positive titles move by one. Scores are then
+ * {@code sum(w_i * c_ij / sqrt(p_i * p_j))} over the user's positive titles {@code i}, i.e.
+ * cosine similarity on binary vectors weighted by how strongly the user likes {@code i}.
+ *
+ * <p>All state is in memory and rebuilt from the {@code user_interactions} snapshot on start-up;
+ * {@link #drainDirty} feeds the snapshot writer with what changed since its last flush.
+ */
+@Component
+public class RecommendationEngine {
+
+    /** Identifies an interaction changed since the last snapshot. */
+    public record InteractionKey(long userId, long contentId) {
+    }
+
+    /** The persisted state of one interaction. */
+    public record Interaction(long userId, long contentId, float implicitWeight, Integer rating) {
+    }
+
+    /** Receives (user, title) pairs without boxing. */
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(long userId, long contentId);
+    }
+
+    /** A ranked result: parallel arrays of titles and scores, best first. */
+    public record Ranking(long[] contentIds, float[] scores) {
+
+        public static final Ranking EMPTY = new Ranking(new long[0], new float[0]);
+
+        public int size() {
+            return contentIds.length;
+        }
+
+        /** The best {@code limit} entries, or this ranking if it is no longer. */
+        public Ranking head(int limit) {
+            if (contentIds.length <= limit) {
+                return this;
+            }
+            long[] ids = new long[limit];
+            float[] head = new float[limit];
+            System.arraycopy(contentIds, 0, ids, 0, limit);
+            System.arraycopy(scores, 0, head, 0, limit);
+            return new Ranking(ids, head);
+        }
+    }
+
+    private final ConcurrentHashMap<Long, UserProfile> profiles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, ItemStats> items = new ConcurrentHashMap<>();
+    private final Set<InteractionKey> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<Long> changedUsers = ConcurrentHashMap.newKeySet();
+    private final Timer computeTimer;
+
+    private volatile Ranking popular = Ranking.EMPTY;
+
+    @Value("${app.engine.max-profile-size:200}")
+    private int maxProfileSize = 200;
+
+    @Value("${app.engine.max-implicit-weight:10}")
+    private float maxImplicitWeight = 10f;
+
+    public RecommendationEngine(MeterRegistry meterRegistry) {
+        this.computeTimer = Timer.builder("recommendation.engine.compute")
+                .description("Time to score a user's recommendations")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.engine.users", profiles, ConcurrentHashMap::size)
+                .register(meterRegistry);
+        Gauge.builder("recommendation.engine.items", items, ConcurrentHashMap::size)
+                .register(meterRegistry);
+    }
+
+    /** Adds implicit feedback such as a started session or a finished view. */
+    public void recordImplicit(long userId, long contentId, float delta) {
+        update(userId, contentId, profile -> {
+            float current = profile.implicitWeight(contentId);
+            profile.setImplicit(contentId, Math.min(maxImplicitWeight, current + delta));
+        }, true);
+    }
+
+    /** Replaces the user's rating of a title; {@code null} removes it. */
+    public void recordRating(long userId, long contentId, Integer rating) {
+        update(userId, contentId, profile -> profile.setRating(contentId, rating), true);
+    }
+
+    /** Loads a snapshotted interaction without marking it dirty again. */
+    public void restore(long userId, long contentId, float implicitWeight, Integer rating) {
+        update(userId, contentId, profile -> {
+            profile.setImplicit(contentId, implicitWeight);
+            profile.setRating(contentId, rating);
+        }, false);
+    }
+
+    /** The current state of an interaction, or {@code null} if it is no longer tracked. */
+    public Interaction interaction(long userId, long contentId) {
+        UserProfile profile = profiles.get(userId);
+        if (profile == null) {
+            return null;
+        }
+        synchronized (profile) {
+            if (!profile.contains(contentId)) {
+                return null;
+            }
+            return new Interaction(userId, contentId, profile.implicitWeight(contentId), profile.rating(contentId));
+        }
+    }
+
+    /** Queues an interaction for the next snapshot again, e.g. after a failed write. */
+    public void markDirty(long userId, long contentId) {
+        dirty.add(new InteractionKey(userId, contentId));
+    }
+
+    /** Queues a user's list for recomputation again, e.g. after its write lost to a newer list. */
+    public void markChanged(long userId) {
+        changedUsers.add(userId);
+    }
+
+    /** Whether the user has any recorded interaction with the title. */
+    public boolean hasInteracted(long userId, long contentId) {
+        UserProfile profile = profiles.get(userId);
+        if (profile == null) {
+            return false;
+        }
+        synchronized (profile) {
+            return profile.contains(contentId);
+        }
+    }
+
+    /** The weight a snapshotted interaction contributes, as the engine itself would combine it. */
+    public static float combinedWeight(float implicitWeight, Integer rating) {
+        return implicitWeight + (rating == null ? 0f : UserProfile.ratingWeight(rating));
+    }
+
+    /** Hands every interaction changed so far to {@code consumer}; later changes wait for the next call. */
+    public void drainDirty(Consumer<InteractionKey> consumer) {
+        for (InteractionKey key : new ArrayList<>(dirty)) {
+            dirty.remove(key);
+            consumer.accept(key);
+        }
+    }
+
+    /**
+     * Hands every user whose own interactions changed since the last call to {@code consumer},
+     * so their materialised lists can be recomputed.
+     */
+    public void drainChangedUsers(Consumer<Long> consumer) {
+        for (Long userId : new ArrayList<>(changedUsers)) {
+            changedUsers.remove(userId);
+            consumer.accept(userId);
+        }
+    }
+
+    /**
+     * Scores every title co-occurring with the user's positive titles and returns the best
+     * {@code limit} the user has not interacted with yet.
+     */
+    public Ranking recommend(long userId, int limit) {
+        UserProfile profile = profiles.get(userId);
+        if (profile == null || limit <= 0) {
+            return Ranking.EMPTY;
+        }
+        return computeTimer.record(() -> score(profile, limit));
+    }
+
+    /** The most widely liked titles, refreshed by {@link #refreshPopular}; the cold-start answer. */
+    public Ranking popular(int limit) {
+        return popular.head(limit);
+    }
+
+    public void refreshPopular(int size) {
+        TopK top = new TopK(size);
+        items.forEach((contentId, stats) -> {
+            int popularity = stats.popularity();
+            if (popularity > 0) {
+                top.offer(contentId, popularity);
+            }
+        });
+        popular = drain(top);
+    }
+
+    /** Visits every title each user currently holds positively, one profile at a time. */
+    public void forEachPositive(PairConsumer consumer) {
+        profiles.forEach((userId, profile) -> {
+            synchronized (profile) {
+                profile.forEachWeight((contentId, weight) -> {
+                    if (weight > 0f) {
+                        consumer.accept(userId, contentId);
+                    }
+                });
+            }
+        });
+    }
+
+    public int userCount() {
+        return profiles.size();
+    }
+
+    private Ranking score(UserProfile profile, int limit) {
+        LongFloatMap positives = new LongFloatMap(32);
+        LongFloatMap seen = new LongFloatMap(64);
+        synchronized (profile) {
+            profile.forEachWeight((contentId, weight) -> {
+                seen.put(contentId, weight);
+                if (weight > 0f) {
+                    positives.put(contentId, weight);
+                }
+            });
+        }
+
+        // Accumulate w_i * c_ij / sqrt(p_i) per candidate, then divide by sqrt(p_j) once
+        LongFloatMap partial = new LongFloatMap(256);
+        positives.forEach((contentId, weight) -> {
+            ItemStats stats = items.get(contentId);
+            if (stats == null) {
+                return;
+            }
+            int popularity = stats.popularity();
+            if (popularity <= 0) {
+                return;
+            }
+            float scale = weight / (float) Math.sqrt(popularity);
+            stats.forEachCoOccurrence((candidate, count) -> {
+                if (!seen.containsKey(candidate)) {
+                    partial.addTo(candidate, scale * count);
+                }
+            });
+        });
+
+        TopK top = new TopK(limit);
+        partial.forEach((candidate, sum) -> {
+            ItemStats stats = items.get(candidate);
+            int popularity = stats == null ? 0 : stats.popularity();
+            if (popularity > 0) {
+                top.offer(candidate, sum / (float) Math.sqrt(popularity));
+            }
+        });
+        return drain(top);
+    }
+
+    private void update(long userId, long contentId, Consumer<UserProfile> change, boolean markDirty) {
+        UserProfile profile = profiles.computeIfAbsent(userId, id -> new UserProfile());
+        synchronized (profile) {
+            boolean wasPositive = profile.weight(contentId) > 0f;
+            boolean isNew = !profile.contains(contentId);
+            change.accept(profile);
+            boolean positive = profile.weight(contentId) > 0f;
+            if (positive != wasPositive) {
+                onTransition(profile, contentId, positive);
+            }
+            if (isNew && profile.size() > maxProfileSize) {
+                evictWeakest(profile, contentId);
+            }
+        }
+        if (markDirty) {
+            dirty.add(new InteractionKey(userId, contentId));
+            changedUsers.add(userId);
+        }
+    }
+
+    // Drops the least significant title so a heavy user's profile, and the pair updates each
+    // of their events costs, stay bounded. The title just recorded is never the one dropped, even
+    // when it is the weakest, so the cap holds. The snapshot row is kept and may return on restart.
+    private void evictWeakest(UserProfile profile, long keep) {
+        long weakest = profile.weakestExcept(keep);
+        if (weakest == Long.MIN_VALUE) {
+            return;
+        }
+        boolean positive = profile.weight(weakest) > 0f;
+        profile.remove(weakest);
+        if (positive) {
+            onTransition(profile, weakest, false);
+        }
+    }
+
+    // Caller holds the profile monitor; item monitors are only ever taken one at a time
+    private void onTransition(UserProfile profile, long contentId, boolean positive) {
+        float delta = positive ? 1f : -1f;
+        ItemStats stats = items.computeIfAbsent(contentId, id -> new ItemStats());
+        stats.addPopularity(positive ? 1 : -1);
+        profile.forEachWeight((other, weight) -> {
+            if (other == contentId || weight <= 0f) {
+                return;
+            }
+            stats.addCoOccurrence(other, delta);
+            items.computeIfAbsent(other, id -> new ItemStats()).addCoOccurrence(contentId, delta);
+        });
+    }
+
+    private static Ranking drain(TopK top) {
+        long[] ids = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(ids, scores);
+        return new Ranking(ids, scores);
+    }
+}
@@ -0,0 +1,87 @@
+package com.movento.recommendationservice.engine;
+
+import java.util.Arrays;
+
+/**
+ * Immutable item-to-item neighbour lists in compressed sparse row form. Titles are kept sorted
+ * in {@code itemIds}; the neighbours of the title at index {@code i} occupy
+ * {@code [offsets[i], offsets[i + 1])} of {@code neighbours} (indexes back into
+ * {@code itemIds}) and {@code similarities}, best first. Cosine similarities lie in [0, 1] and
+ * are stored as unsigned 16-bit fractions of 1 (error at most 1/131070, far below any difference
+ * that changes a list), so each neighbour costs six bytes: 1M titles with 100 neighbours each
+ * take about 600 MB and typical sparser lists far less. Lookups are a binary search plus a copy,
+ * with no boxing.
+ */
+public final class SimilarityIndex {
+
+    public static final SimilarityIndex EMPTY =
+            new SimilarityIndex(new long[0], new int[]{0}, new int[0], new short[0]);
+
+    private static final float SCALE = 0xFFFF;
+
+    private final long[] itemIds;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final short[] similarities;
+
+    SimilarityIndex(long[] itemIds, int[] offsets, int[] neighbours, short[] similarities) {
+        this.itemIds = itemIds;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.similarities = similarities;
+    }
+
+    public int itemCount() {
+        return itemIds.length;
+    }
+
+    public long neighbourCount() {
+        return neighbours.length;
+    }
+
+    /** Approximate heap footprint of the arrays. */
+    public long sizeInBytes() {
+        return 8L * itemIds.length + 4L * offsets.length + 4L * neighbours.length + 2L * similarities.length;
+    }
+
+    /** The titles most similar to {@code contentId}, at most {@code limit}, best first. */
+    public RecommendationEngine.Ranking similarTo(long contentId, int limit) {
+        int item = Arrays.binarySearch(itemIds, contentId);
+        if (item < 0 || limit <= 0) {
+            return RecommendationEngine.Ranking.EMPTY;
+        }
+        int from = offsets[item];
+        int count = Math.min(limit, offsets[item + 1] - from);
+        long[] ids = new long[count];
+        float[] scores = new float[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = itemIds[neighbours[from + i]];
+            scores[i] = dequantise(similarities[from + i]);
+        }
+        return new RecommendationEngine.Ranking(ids, scores);
+    }
+
+    /** Similarity of two titles, 0 if either is unknown or not among the other's neighbours. */
+    public float similarity(long contentId, long otherId) {
+        int item = Arrays.binarySearch(itemIds, contentId);
+        int other = Arrays.binarySearch(itemIds, otherId);
+        if (item < 0 || other < 0) {
+            return 0f;
+        }
+        for (int i = offsets[item]; i < offsets[item + 1]; i++) {
+            if (neighbours[i] == other) {
+                return dequantise(similarities[i]);
+            }
+        }
+        return 0f;
+    }
+
+    /** The 16-bit form of a similarity in [0, 1]; order-preserving, so ranked lists stay ranked. */
+    static short quantise(float similarity) {
+        return (short) Math.round(Math.min(Math.max(similarity, 0f), 1f) * SCALE);
+    }
+
+    static float dequantise(short quantised) {
+        return Short.toUnsignedInt(quantised) / SCALE;
+    }
+}
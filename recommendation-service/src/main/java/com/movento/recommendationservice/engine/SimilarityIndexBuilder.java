@@ -0,0 +1,258 @@
+package com.movento.recommendationservice.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds a {@link SimilarityIndex} from positive (user, title) interactions. Interactions are
+ * compacted into user-to-title and title-to-user adjacency arrays; titles are then split into
+ * shards solved in parallel on a fork-join pool. For each title the co-occurrence counts with
+ * every title sharing a user are accumulated into a dense per-thread scratch array, turned into
+ * cosine similarity {@code c_ij / sqrt(p_i * p_j)}, and only the best {@code neighbours} are
+ * kept. Not thread-safe; {@link #build} may be called once.
+ */
+public final class SimilarityIndexBuilder {
+
+    private static final int SHARD_SIZE = 256;
+
+    private long[] users = new long[1024];
+    private long[] items = new long[1024];
+    private int size;
+
+    /** Records that {@code userId} holds {@code contentId} positively; duplicates are ignored. */
+    public void add(long userId, long contentId) {
+        if (size == users.length) {
+            users = Arrays.copyOf(users, size * 2);
+            items = Arrays.copyOf(items, size * 2);
+        }
+        users[size] = userId;
+        items[size] = contentId;
+        size++;
+    }
+
+    public int interactionCount() {
+        return size;
+    }
+
+    public SimilarityIndex build(int neighbours, int parallelism) {
+        if (size == 0) {
+            return SimilarityIndex.EMPTY;
+        }
+        long[] itemIds = distinct(items, size);
+        long[] userIds = distinct(users, size);
+        int itemCount = itemIds.length;
+        int userCount = userIds.length;
+
+        // Dense indexes, then both adjacency directions by counting sort
+        int[] userOf = new int[size];
+        int[] itemOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            userOf[i] = Arrays.binarySearch(userIds, users[i]);
+            itemOf[i] = Arrays.binarySearch(itemIds, items[i]);
+        }
+        users = null;
+        items = null;
+        int[] userOffsets = new int[userCount + 1];
+        int[] itemsOfUser = group(userOf, itemOf, userOffsets);
+        itemsOfUser = Arrays.copyOf(itemsOfUser, dedupe(userOffsets, itemsOfUser));
+        int[] itemOffsets = new int[itemCount + 1];
+        int[] usersOfItem = invert(userOffsets, itemsOfUser, itemCount, itemOffsets);
+
+        int[][] shardNeighbours = new int[itemCount][];
+        short[][] shardSimilarities = new short[itemCount][];
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new Shard(0, itemCount, neighbours, userOffsets, itemsOfUser, itemOffsets, usersOfItem,
+                    shardNeighbours, shardSimilarities));
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] offsets = new int[itemCount + 1];
+        for (int i = 0; i < itemCount; i++) {
+            offsets[i + 1] = offsets[i] + shardNeighbours[i].length;
+        }
+        int[] neighbourIndex = new int[offsets[itemCount]];
+        short[] similarities = new short[offsets[itemCount]];
+        for (int i = 0; i < itemCount; i++) {
+            int length = shardNeighbours[i].length;
+            System.arraycopy(shardNeighbours[i], 0, neighbourIndex, offsets[i], length);
+            System.arraycopy(shardSimilarities[i], 0, similarities, offsets[i], length);
+            shardNeighbours[i] = null;
+            shardSimilarities[i] = null;
+        }
+        return new SimilarityIndex(itemIds, offsets, neighbourIndex, similarities);
+    }
+
+    /** Solves a contiguous range of titles, splitting until it is one shard. */
+    private static final class Shard extends RecursiveAction {
+
+        // Scratch is per worker thread; the pool and its threads die with the build
+        private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<>();
+
+        private final int from;
+        private final int to;
+        private final int neighbours;
+        private final int[] userOffsets;
+        private final int[] itemsOfUser;
+        private final int[] itemOffsets;
+        private final int[] usersOfItem;
+        private final int[][] outNeighbours;
+        private final short[][] outSimilarities;
+
+        Shard(int from, int to, int neighbours, int[] userOffsets, int[] itemsOfUser, int[] itemOffsets,
+              int[] usersOfItem, int[][] outNeighbours, short[][] outSimilarities) {
+            this.from = from;
+            this.to = to;
+            this.neighbours = neighbours;
+            this.userOffsets = userOffsets;
+            this.itemsOfUser = itemsOfUser;
+            this.itemOffsets = itemOffsets;
+            this.usersOfItem = usersOfItem;
+            this.outNeighbours = outNeighbours;
+            this.outSimilarities = outSimilarities;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SHARD_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(split(from, mid), split(mid, to));
+                return;
+            }
+            Scratch scratch = SCRATCH.get();
+            if (scratch == null) {
+                scratch = new Scratch(itemOffsets.length - 1, neighbours);
+                SCRATCH.set(scratch);
+            }
+            for (int item = from; item < to; item++) {
+                solve(item, scratch);
+            }
+        }
+
+        private Shard split(int from, int to) {
+            return new Shard(from, to, neighbours, userOffsets, itemsOfUser, itemOffsets, usersOfItem,
+                    outNeighbours, outSimilarities);
+        }
+
+        private void solve(int item, Scratch scratch) {
+            int[] counts = scratch.counts;
+            int[] touched = scratch.touched;
+            int touchedCount = 0;
+            for (int u = itemOffsets[item]; u < itemOffsets[item + 1]; u++) {
+                int user = usersOfItem[u];
+                for (int j = userOffsets[user]; j < userOffsets[user + 1]; j++) {
+                    int other = itemsOfUser[j];
+                    if (other != item && counts[other]++ == 0) {
+                        touched[touchedCount++] = other;
+                    }
+                }
+            }
+
+            TopK top = scratch.top;
+            top.clear();
+            float popularity = itemOffsets[item + 1] - itemOffsets[item];
+            for (int t = 0; t < touchedCount; t++) {
+                int other = touched[t];
+                float otherPopularity = itemOffsets[other + 1] - itemOffsets[other];
+                top.offer(other, counts[other] / (float) Math.sqrt(popularity * otherPopularity));
+                counts[other] = 0;
+            }
+
+            int n = top.size();
+            top.drainDescending(scratch.ids, scratch.scores);
+            int[] ids = new int[n];
+            short[] scores = new short[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = (int) scratch.ids[i];
+                scores[i] = SimilarityIndex.quantise(scratch.scores[i]);
+            }
+            outNeighbours[item] = ids;
+            outSimilarities[item] = scores;
+        }
+    }
+
+    private static final class Scratch {
+        final int[] counts;
+        final int[] touched;
+        final TopK top;
+        final long[] ids;
+        final float[] scores;
+
+        Scratch(int itemCount, int neighbours) {
+            counts = new int[itemCount];
+            touched = new int[itemCount];
+            top = new TopK(neighbours);
+            ids = new long[neighbours];
+            scores = new float[neighbours];
+        }
+    }
+
+    private static long[] distinct(long[] values, int length) {
+        long[] sorted = Arrays.copyOf(values, length);
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, unique);
+    }
+
+    // Buckets values by key; offsets receives the CSR row boundaries
+    private static int[] group(int[] keys, int[] values, int[] offsets) {
+        for (int key : keys) {
+            offsets[key + 1]++;
+        }
+        for (int i = 0; i + 1 < offsets.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] grouped = new int[values.length];
+        for (int i = 0; i < keys.length; i++) {
+            grouped[cursor[keys[i]]++] = values[i];
+        }
+        return grouped;
+    }
+
+    // Sorts each row and drops repeats in place so a duplicate interaction counts once;
+    // returns the new length of rows
+    private static int dedupe(int[] offsets, int[] rows) {
+        int write = 0;
+        int rowStart = 0;
+        for (int r = 0; r + 1 < offsets.length; r++) {
+            int rowEnd = offsets[r + 1];
+            Arrays.sort(rows, rowStart, rowEnd);
+            offsets[r] = write;
+            for (int i = rowStart; i < rowEnd; i++) {
+                if (i == rowStart || rows[i] != rows[i - 1]) {
+                    rows[write++] = rows[i];
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[offsets.length - 1] = write;
+        return write;
+    }
+
+    // Transposes a CSR adjacency: for every column, the rows that contain it
+    private static int[] invert(int[] rowOffsets, int[] rows, int columnCount, int[] columnOffsets) {
+        int length = rowOffsets[rowOffsets.length - 1];
+        for (int i = 0; i < length; i++) {
+            columnOffsets[rows[i] + 1]++;
+        }
+        for (int c = 0; c < columnCount; c++) {
+            columnOffsets[c + 1] += columnOffsets[c];
+        }
+        int[] cursor = Arrays.copyOf(columnOffsets, columnCount);
+        int[] transposed = new int[length];
+        for (int r = 0; r + 1 < rowOffsets.length; r++) {
+            for (int i = rowOffsets[r]; i < rowOffsets[r + 1]; i++) {
+                transposed[cursor[rows[i]]++] = r;
+            }
+        }
+        return transposed;
+    }
+}
@@ -0,0 +1,115 @@
+package com.movento.recommendationservice.engine;
+
+/**
+ * Keeps the {@code k} highest-scoring ids seen so far in a fixed-size binary min-heap, so
+ * selecting from {@code n} candidates costs {@code O(n log k)} with no per-candidate allocation.
+ * Ties on score are broken towards the lower id to keep results stable.
+ */
+public final class TopK {
+
+    private final long[] ids;
+    private final float[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.ids = new long[k];
+        this.scores = new float[k];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    /** The score an id must beat to enter a full heap. */
+    public float threshold() {
+        return size < ids.length ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    public boolean offer(long id, float score) {
+        if (size < ids.length) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+            return true;
+        }
+        if (ids.length == 0 || !before(id, score, ids[0], scores[0])) {
+            return false;
+        }
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Empties the heap into the given arrays, best first, and returns the number of entries
+     * written.
+     */
+    public int drainDescending(long[] idsOut, float[] scoresOut) {
+        int n = size;
+        for (int i = n - 1; i >= 0; i--) {
+            idsOut[i] = ids[0];
+            scoresOut[i] = scores[0];
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return n;
+    }
+
+    // True if (id, score) ranks above (otherId, otherScore)
+    private static boolean before(long id, float score, long otherId, float otherScore) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private void siftUp(int i) {
+        long id = ids[i];
+        float score = scores[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(ids[parent], scores[parent], id, score)) {
+                break;
+            }
+            ids[i] = ids[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        ids[i] = id;
+        scores[i] = score;
+    }
+
+    private void siftDown(int i) {
+        long id = ids[i];
+        float score = scores[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && before(ids[child], scores[child], ids[right], scores[right])) {
+                child = right;
+            }
+            if (!before(id, score, ids[child], scores[child])) {
+                break;
+            }
+            ids[i] = ids[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        ids[i] = id;
+        scores[i] = score;
+    }
+}
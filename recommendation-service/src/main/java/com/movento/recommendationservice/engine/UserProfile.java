@@ -0,0 +1,81 @@
+package com.movento.recommendationservice.engine;
+
+/**
+ * A user's interaction vector: accumulated implicit weight (sessions, views) and the latest
+ * explicit rating per title. Every title in the profile has an implicit entry, possibly 0, so
+ * that map doubles as the key set. Guarded by its own monitor; callers hold it for the whole
+ * read-modify-write so the positive/non-positive transitions the engine reacts to are exact.
+ */
+final class UserProfile {
+
+    private final LongFloatMap implicit = new LongFloatMap();
+    private final LongFloatMap ratings = new LongFloatMap();
+
+    int size() {
+        return implicit.size();
+    }
+
+    boolean contains(long contentId) {
+        return implicit.containsKey(contentId);
+    }
+
+    float implicitWeight(long contentId) {
+        return implicit.get(contentId, 0f);
+    }
+
+    Integer rating(long contentId) {
+        float rating = ratings.get(contentId, Float.NaN);
+        return Float.isNaN(rating) ? null : (int) rating;
+    }
+
+    float weight(long contentId) {
+        float rating = ratings.get(contentId, Float.NaN);
+        return implicit.get(contentId, 0f) + (Float.isNaN(rating) ? 0f : ratingWeight(rating));
+    }
+
+    void setImplicit(long contentId, float weight) {
+        implicit.put(contentId, weight);
+    }
+
+    void setRating(long contentId, Integer rating) {
+        if (!implicit.containsKey(contentId)) {
+            implicit.put(contentId, 0f);
+        }
+        if (rating == null) {
+            ratings.remove(contentId);
+        } else {
+            ratings.put(contentId, rating);
+        }
+    }
+
+    void remove(long contentId) {
+        implicit.remove(contentId);
+        ratings.remove(contentId);
+    }
+
+    /** Calls {@code consumer} once per title with its combined weight. */
+    void forEachWeight(LongFloatMap.Consumer consumer) {
+        implicit.forEach((contentId, weight) -> consumer.accept(contentId, weight(contentId)));
+    }
+
+    /**
+     * The title other than {@code except} contributing least to the profile, the one to drop
+     * when it is full, or {@link Long#MIN_VALUE} if there is none.
+     */
+    long weakestExcept(long except) {
+        long[] weakest = {Long.MIN_VALUE};
+        float[] smallest = {Float.POSITIVE_INFINITY};
+        forEachWeight((contentId, weight) -> {
+            if (contentId != except && Math.abs(weight) < smallest[0]) {
+                smallest[0] = Math.abs(weight);
+                weakest[0] = contentId;
+            }
+        });
+        return weakest[0];
+    }
+
+    // Ratings are 1-10; centre them so a poor rating counts against a title
+    static float ratingWeight(float rating) {
+        return (rating - 5.5f) / 1.5f;
+    }
+}
@@ -0,0 +1,49 @@
+package com.movento.recommendationservice.messaging;
+
+import com.movento.recommendationservice.dto.UserActivityEvent;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/** Feeds view-history and rating events from content-service into the engine. */
+@Component
+@RequiredArgsConstructor
+public class ActivityEventListener {
+
+    public static final String LISTENER_ID = "activityEvents";
+
+    private final RecommendationEngine engine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.engine.weights.view-completed:3.0}")
+    private float viewCompletedWeight;
+
+    @Value("${app.engine.weights.view-started:0.5}")
+    private float viewStartedWeight;
+
+    @RabbitListener(id = LISTENER_ID, queues = "#{activityEventsQueue.name}",
+            containerFactory = "jsonListenerContainerFactory", autoStartup = "false")
+    public void onActivityEvent(UserActivityEvent event) {
+        if (event.getUserId() == null || event.getContentId() == null) {
+            count("skipped");
+            return;
+        }
+        if (UserActivityEvent.VIEW.equals(event.getType())) {
+            engine.recordImplicit(event.getUserId(), event.getContentId(),
+                    event.isCompleted() ? viewCompletedWeight : viewStartedWeight);
+        } else if (UserActivityEvent.RATING.equals(event.getType())) {
+            engine.recordRating(event.getUserId(), event.getContentId(), event.getRating());
+        } else {
+            count("skipped");
+            return;
+        }
+        count("applied");
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("recommendation.events", "source", "activity", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,63 @@
+package com.movento.recommendationservice.messaging;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Feeds session start and end events into the engine. Payloads are plain strings of the form
+ * {@code TYPE:sessionId:userId:contentId}; older three-field payloads carry no title and are
+ * skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingEventListener {
+
+    public static final String LISTENER_ID = "streamingEvents";
+
+    private final RecommendationEngine engine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.engine.weights.session-started:1.0}")
+    private float sessionStartedWeight;
+
+    @Value("${app.engine.weights.session-ended:1.0}")
+    private float sessionEndedWeight;
+
+    @RabbitListener(id = LISTENER_ID, queues = "#{streamingEventsQueue.name}", autoStartup = "false")
+    public void onStreamingEvent(Message message) {
+        String[] fields = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (fields.length < 4) {
+            count("skipped");
+            return;
+        }
+        float weight;
+        switch (fields[0]) {
+            case "STREAMING_SESSION_CREATED" -> weight = sessionStartedWeight;
+            case "STREAMING_SESSION_ENDED" -> weight = sessionEndedWeight;
+            default -> {
+                count("skipped");
+                return;
+            }
+        }
+        try {
+            engine.recordImplicit(Long.parseLong(fields[2]), Long.parseLong(fields[3]), weight);
+            count("applied");
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed streaming event: {}", String.join(":", fields));
+            count("skipped");
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("recommendation.events", "source", "streaming", "outcome", outcome).increment();
+    }
+}
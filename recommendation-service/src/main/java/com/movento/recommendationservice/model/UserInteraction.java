@@ -0,0 +1,45 @@
+package com.movento.recommendationservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of one user's interaction with a title, written by {@code InteractionSnapshotter}
+ * and replayed into the engine on start-up.
+ */
+@Entity
+@Table(name = "user_interactions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "content_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserInteraction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(nullable = false)
+    private float implicitWeight;
+
+    private Integer rating;
+
+    @Column(nullable = false)
+    private Instant updatedAt = Instant.now();
+}
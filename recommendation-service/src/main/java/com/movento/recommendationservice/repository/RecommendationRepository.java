@@ -1,10 +1,13 @@
 package com.movento.recommendationservice.repository;
 
 import com.movento.recommendationservice.model.Recommendation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
 
 public interface RecommendationRepository extends JpaRepository<Recommendation, Long> {
     List<Recommendation> findByUserId(Long userId);
+
+    List<Recommendation> findByUserIdOrderByScoreDesc(Long userId, Pageable pageable);
 }
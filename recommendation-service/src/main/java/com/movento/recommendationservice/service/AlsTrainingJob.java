@@ -0,0 +1,145 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.als.AlsTrainer;
+import com.movento.recommendationservice.als.FactorModel;
+import com.movento.recommendationservice.als.InteractionMatrix;
+import com.movento.recommendationservice.als.ModelFile;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Periodically trains the ALS model from the {@code user_interactions} snapshot, which already
+ * folds watch completion and ratings into one weight per user and title. Rows are streamed with
+ * a database cursor straight into primitive arrays. The model is written to the shared model
+ * directory and loaded locally at once; other instances pick it up on their next poll, so only
+ * one instance needs {@code app.als.trainer-enabled}.
+ */
+@Slf4j
+@Component
+public class AlsTrainingJob {
+
+    private static final String SCAN_SQL =
+            "SELECT user_id, content_id, implicit_weight, rating FROM user_interactions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final FactorModelService factorModelService;
+    private final Timer trainTimer;
+
+    @Value("${app.als.trainer-enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.als.model-dir:models}")
+    private String modelDir;
+
+    @Value("${app.als.factors:64}")
+    private int factors;
+
+    @Value("${app.als.iterations:10}")
+    private int iterations;
+
+    @Value("${app.als.lambda:0.05}")
+    private float lambda;
+
+    @Value("${app.als.alpha:5.0}")
+    private float alpha;
+
+    @Value("${app.als.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.als.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${app.als.keep-models:3}")
+    private int keepModels;
+
+    public AlsTrainingJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          FactorModelService factorModelService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.factorModelService = factorModelService;
+        this.trainTimer = Timer.builder("recommendation.als.train")
+                .description("Time to load interactions, train and write an ALS model")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.als.initial-delay-ms:120000}",
+            fixedDelayString = "${app.als.train-interval-ms:21600000}")
+    public void train() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            InteractionMatrix matrix = load();
+            if (matrix.nonZeros() == 0) {
+                log.debug("No interactions to train on");
+                return;
+            }
+            int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+            FactorModel model = AlsTrainer.train(matrix,
+                    new AlsTrainer.Settings(factors, iterations, lambda, alpha, threads, started),
+                    System.currentTimeMillis());
+            Path file = ModelFile.write(model, Paths.get(modelDir));
+            factorModelService.load(file);
+            pruneOldModels();
+            long elapsed = System.nanoTime() - started;
+            trainTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("Trained ALS model {} on {} interactions ({} users, {} items) in {} ms",
+                    model.version(), matrix.nonZeros(), matrix.userCount(), matrix.itemCount(), elapsed / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("ALS training failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Postgres only streams with a cursor inside a transaction
+    private InteractionMatrix load() {
+        InteractionMatrix.Builder builder = new InteractionMatrix.Builder();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement(SCAN_SQL);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            int rating = rs.getInt(4);
+            float weight = RecommendationEngine.combinedWeight(rs.getFloat(3), rs.wasNull() ? null : rating);
+            if (weight != 0f) {
+                builder.add(rs.getLong(1), rs.getLong(2), weight);
+            }
+        }));
+        return builder.build();
+    }
+
+    private void pruneOldModels() throws IOException {
+        Path directory = Paths.get(modelDir);
+        List<Path> models;
+        try (Stream<Path> files = Files.list(directory)) {
+            models = files.filter(file -> ModelFile.version(file) >= 0)
+                    .sorted(Comparator.comparingLong(ModelFile::version).reversed())
+                    .collect(Collectors.toList());
+        }
+        // Mapped files stay readable after unlinking, so instances still serving them are unaffected
+        for (Path old : models.subList(Math.min(keepModels, models.size()), models.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+}
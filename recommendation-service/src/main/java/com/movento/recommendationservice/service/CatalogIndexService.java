@@ -0,0 +1,161 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.als.MappedFactorModel;
+import com.movento.recommendationservice.ann.HnswIndex;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Keeps an HNSW index over the title vectors of the ALS model being served, so catalogue-wide
+ * retrieval is a graph search instead of a dot product per title. The index for a model
+ * version is built once, saved next to the others and simply reopened on later start-ups.
+ * Until the index for the current model is ready, retrieval falls back to the exact scan.
+ */
+@Slf4j
+@Service
+public class CatalogIndexService {
+
+    private static final String PREFIX = "catalog-";
+    private static final String SUFFIX = ".hnsw";
+
+    private final FactorModelService factorModelService;
+    private final Timer buildTimer;
+
+    private volatile HnswIndex index;
+
+    @Value("${app.ann.index-dir:indexes}")
+    private String indexDir;
+
+    @Value("${app.ann.m:16}")
+    private int m;
+
+    @Value("${app.ann.ef-construction:200}")
+    private int efConstruction;
+
+    @Value("${app.ann.ef-search:100}")
+    private int efSearch;
+
+    public CatalogIndexService(FactorModelService factorModelService, MeterRegistry meterRegistry) {
+        this.factorModelService = factorModelService;
+        this.buildTimer = Timer.builder("recommendation.ann.build")
+                .description("Time to build the catalogue HNSW index for a model")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.ann.size", this, service -> {
+                    HnswIndex current = service.index;
+                    return current == null ? 0 : current.size();
+                })
+                .register(meterRegistry);
+    }
+
+    /**
+     * Best titles for the user by predicted preference, skipping those {@code exclude} rejects,
+     * or {@code null} if no model knows the user.
+     */
+    public RecommendationEngine.Ranking recommend(long userId, int limit, LongPredicate exclude) {
+        MappedFactorModel model = factorModelService.current();
+        float[] vector = model == null ? null : model.userVector(userId);
+        if (vector == null) {
+            return null;
+        }
+        HnswIndex current = index;
+        if (current == null || current.tag() != model.version()) {
+            return model.recommend(vector, limit, exclude);
+        }
+        // Over-fetch to leave room for titles the user has already seen
+        int fetch = limit * 2;
+        RecommendationEngine.Ranking found = current.search(vector, fetch, Math.max(efSearch, fetch));
+        TopK top = new TopK(limit);
+        for (int i = 0; i < found.size(); i++) {
+            if (!exclude.test(found.contentIds()[i])) {
+                top.offer(found.contentIds()[i], found.scores()[i]);
+            }
+        }
+        if (top.size() < limit && found.size() == fetch) {
+            return model.recommend(vector, limit, exclude);
+        }
+        long[] ids = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(ids, scores);
+        return new RecommendationEngine.Ranking(ids, scores);
+    }
+
+    @Scheduled(initialDelayString = "${app.ann.check-interval-ms:30000}",
+            fixedDelayString = "${app.ann.check-interval-ms:30000}")
+    public void refresh() {
+        MappedFactorModel model = factorModelService.current();
+        HnswIndex current = index;
+        if (model == null || current != null && current.tag() == model.version()) {
+            return;
+        }
+        Path directory = Paths.get(indexDir);
+        Path file = directory.resolve(PREFIX + model.version() + SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            HnswIndex ready = Files.exists(file) ? open(file, model) : null;
+            if (ready == null) {
+                ready = build(file, model);
+            }
+            index = ready;
+            pruneOthers(directory, file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not prepare catalogue index for model {}: {}", model.version(), e.getMessage());
+        }
+    }
+
+    private HnswIndex open(Path file, MappedFactorModel model) {
+        try {
+            HnswIndex opened = HnswIndex.open(file);
+            if (opened.tag() == model.version() && opened.size() == model.itemCount()) {
+                log.info("Opened catalogue index {} with {} titles", file, opened.size());
+                return opened;
+            }
+        } catch (IOException e) {
+            log.warn("Discarding unreadable catalogue index {}: {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    private HnswIndex build(Path file, MappedFactorModel model) throws IOException {
+        long started = System.nanoTime();
+        HnswIndex built = HnswIndex.create(file, model.factors(), m, efConstruction,
+                Math.max(1, model.itemCount()), model.version());
+        float[] vector = new float[model.factors()];
+        for (int row = 0; row < model.itemCount(); row++) {
+            model.itemVector(row, vector);
+            built.add(model.itemId(row), vector);
+        }
+        built.save();
+        long elapsed = System.nanoTime() - started;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Built catalogue index for model {}: {} titles in {} ms",
+                model.version(), built.size(), elapsed / 1_000_000);
+        return built;
+    }
+
+    // Indexes of older models are never served again; mapped files stay valid once unlinked
+    private static void pruneOthers(Path directory, Path keep) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && !name.startsWith(keep.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
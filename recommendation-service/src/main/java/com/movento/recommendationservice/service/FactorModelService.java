@@ -0,0 +1,117 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.als.MappedFactorModel;
+import com.movento.recommendationservice.als.ModelFile;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Serves the newest ALS model found in the model directory. Each poll maps any newer file and
+ * swaps it in with a single reference update; requests already holding the previous model
+ * finish against it, and its mapping is released once nothing references it.
+ */
+@Slf4j
+@Service
+public class FactorModelService {
+
+    private final AtomicReference<MappedFactorModel> current = new AtomicReference<>();
+
+    @Value("${app.als.model-dir:models}")
+    private String modelDir;
+
+    public FactorModelService(MeterRegistry meterRegistry) {
+        Gauge.builder("recommendation.als.model.version", current,
+                        model -> model.get() == null ? 0 : model.get().version())
+                .description("Version of the ALS model being served")
+                .register(meterRegistry);
+    }
+
+    public MappedFactorModel current() {
+        return current.get();
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.als.reload-interval-ms:30000}")
+    public void reload() {
+        Path directory = Paths.get(modelDir);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Path newest;
+        try (Stream<Path> files = Files.list(directory)) {
+            newest = files.filter(file -> ModelFile.version(file) >= 0)
+                    .max((a, b) -> Long.compare(ModelFile.version(a), ModelFile.version(b)))
+                    .orElse(null);
+        } catch (IOException e) {
+            log.warn("Could not list model directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        if (newest != null) {
+            load(newest);
+        }
+    }
+
+    /** Maps {@code file} and serves it if it is newer than the current model. */
+    public void load(Path file) {
+        MappedFactorModel serving = current.get();
+        if (serving != null && ModelFile.version(file) <= serving.version()) {
+            return;
+        }
+        try {
+            MappedFactorModel model = MappedFactorModel.open(file);
+            // A concurrent load may have installed something newer meanwhile
+            MappedFactorModel previous = current.getAndUpdate(
+                    existing -> existing == null || existing.version() < model.version() ? model : existing);
+            if (previous == null || previous.version() < model.version()) {
+                log.info("Serving ALS model {}: {} users, {} items, {} factors",
+                        model.version(), model.userCount(), model.itemCount(), model.factors());
+            }
+        } catch (IOException e) {
+            log.warn("Could not load ALS model {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-ranks candidates by predicted preference. Candidates the model has not seen keep their
+     * original order after the scored ones, with a score of 0. Returns {@code null} if no model
+     * knows the user.
+     */
+    public RecommendationEngine.Ranking rerank(long userId, RecommendationEngine.Ranking candidates, int limit) {
+        MappedFactorModel model = current.get();
+        float[] vector = model == null ? null : model.userVector(userId);
+        if (vector == null) {
+            return null;
+        }
+        long[] ids = candidates.contentIds();
+        float[] scores = new float[ids.length];
+        model.score(vector, ids, scores);
+
+        TopK top = new TopK(limit);
+        for (int i = 0; i < ids.length; i++) {
+            if (!Float.isNaN(scores[i])) {
+                top.offer(ids[i], scores[i]);
+            }
+        }
+        long[] rankedIds = new long[Math.min(limit, ids.length)];
+        float[] rankedScores = new float[rankedIds.length];
+        int ranked = top.drainDescending(rankedIds, rankedScores);
+        for (int i = 0; i < ids.length && ranked < rankedIds.length; i++) {
+            if (Float.isNaN(scores[i])) {
+                rankedIds[ranked++] = ids[i];
+            }
+        }
+        return new RecommendationEngine.Ranking(rankedIds, rankedScores);
+    }
+}
@@ -0,0 +1,140 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.messaging.ActivityEventListener;
+import com.movento.recommendationservice.messaging.StreamingEventListener;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persists the engine's interaction vectors and rebuilds them on start-up. Changed
+ * interactions are upserted in batches every few seconds, so a restart loses at most one
+ * flush interval of events. Listeners only start once the snapshot has been replayed, so no
+ * event is applied twice or overwritten by an older row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InteractionSnapshotter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_interactions (user_id, content_id, implicit_weight, rating, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (user_id, content_id) DO UPDATE SET "
+                    + "implicit_weight = EXCLUDED.implicit_weight, rating = EXCLUDED.rating, "
+                    + "updated_at = EXCLUDED.updated_at";
+
+    private static final String SCAN_SQL =
+            "SELECT user_id, content_id, implicit_weight, rating FROM user_interactions";
+
+    private final RecommendationEngine engine;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+
+    @Value("${app.engine.snapshot-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.engine.restore-fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${app.engine.popular-size:100}")
+    private int popularSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreAndStartListeners() {
+        try {
+            long started = System.nanoTime();
+            long rows = restore();
+            engine.refreshPopular(popularSize);
+            log.info("Restored {} interactions for {} users in {} ms",
+                    rows, engine.userCount(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Could not restore interaction snapshot, starting empty: {}", e.getMessage());
+        }
+        listenerRegistry.getListenerContainer(StreamingEventListener.LISTENER_ID).start();
+        listenerRegistry.getListenerContainer(ActivityEventListener.LISTENER_ID).start();
+    }
+
+    @Scheduled(initialDelayString = "${app.engine.snapshot-interval-ms:5000}",
+            fixedDelayString = "${app.engine.snapshot-interval-ms:5000}")
+    public void flush() {
+        List<RecommendationEngine.Interaction> batch = new ArrayList<>(batchSize);
+        engine.drainDirty(key -> {
+            RecommendationEngine.Interaction interaction = engine.interaction(key.userId(), key.contentId());
+            if (interaction != null) {
+                batch.add(interaction);
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+        });
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+        engine.refreshPopular(popularSize);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(List<RecommendationEngine.Interaction> batch) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), (ps, interaction) -> {
+                ps.setLong(1, interaction.userId());
+                ps.setLong(2, interaction.contentId());
+                ps.setFloat(3, interaction.implicitWeight());
+                if (interaction.rating() == null) {
+                    ps.setNull(4, Types.INTEGER);
+                } else {
+                    ps.setInt(4, interaction.rating());
+                }
+                ps.setTimestamp(5, now);
+            });
+        } catch (DataAccessException e) {
+            log.warn("Failed to snapshot {} interactions, retrying next flush: {}", batch.size(), e.getMessage());
+            batch.forEach(interaction -> engine.markDirty(interaction.userId(), interaction.contentId()));
+        }
+    }
+
+    // Postgres only streams with a cursor inside a transaction; otherwise the whole table is buffered
+    private long restore() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Long rows = readOnly.execute(status -> {
+            long[] count = {0};
+            jdbcTemplate.query(con -> {
+                var statement = con.prepareStatement(SCAN_SQL);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                int rating = rs.getInt(4);
+                engine.restore(rs.getLong(1), rs.getLong(2), rs.getFloat(3), rs.wasNull() ? null : rating);
+                count[0]++;
+            });
+            return count[0];
+        });
+        return rows == null ? 0 : rows;
+    }
+}
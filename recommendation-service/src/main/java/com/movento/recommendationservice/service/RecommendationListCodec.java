@@ -0,0 +1,83 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+/**
+ * Binary form of a user's ranked list: a 13-byte header (format version, entry count, epoch
+ * millis computed) followed by 12-byte {@code (contentId, score)} entries, best first. A page is
+ * decoded straight from its offset without touching the entries before it.
+ */
+final class RecommendationListCodec {
+
+    static final byte VERSION = 1;
+    static final int HEADER_BYTES = 13;
+    static final int ENTRY_BYTES = 12;
+
+    private RecommendationListCodec() {
+    }
+
+    static byte[] encode(RecommendationEngine.Ranking ranking, Instant computedAt) {
+        int count = ranking.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + count * ENTRY_BYTES);
+        buffer.put(VERSION).putInt(count).putLong(computedAt.toEpochMilli());
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(ranking.contentIds()[i]).putFloat(ranking.scores()[i]);
+        }
+        return buffer.array();
+    }
+
+    /** Entries {@code [offset, offset + limit)}, or {@code null} if the blob is not in this format. */
+    static RecommendationListStore.Page decode(byte[] bytes, int offset, int limit) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_BYTES || buffer.get() != VERSION) {
+            return null;
+        }
+        int total = buffer.getInt();
+        Instant computedAt = Instant.ofEpochMilli(buffer.getLong());
+        if (bytes.length != HEADER_BYTES + total * ENTRY_BYTES) {
+            return null;
+        }
+        int from = Math.min(Math.max(offset, 0), total);
+        int count = Math.min(Math.max(limit, 0), total - from);
+        long[] contentIds = new long[count];
+        float[] scores = new float[count];
+        buffer.position(HEADER_BYTES + from * ENTRY_BYTES);
+        for (int i = 0; i < count; i++) {
+            contentIds[i] = buffer.getLong();
+            scores[i] = buffer.getFloat();
+        }
+        return new RecommendationListStore.Page(computedAt, total,
+                new RecommendationEngine.Ranking(contentIds, scores));
+    }
+
+    /**
+     * Re-ranks a stored list after one title's score changed: the list is loaded into a bounded
+     * min-heap without that title, which is then offered again unless {@code score} is {@code null}.
+     * The result is stamped with the later of its computed-at time and {@code changedAt}.
+     */
+    static byte[] apply(byte[] bytes, long contentId, Float score, int capacity, Instant changedAt) {
+        RecommendationListStore.Page page = decode(bytes, 0, Integer.MAX_VALUE);
+        if (page == null) {
+            return null;
+        }
+        RecommendationEngine.Ranking ranking = page.ranking();
+        TopK top = new TopK(capacity);
+        for (int i = 0; i < ranking.size(); i++) {
+            if (ranking.contentIds()[i] != contentId) {
+                top.offer(ranking.contentIds()[i], ranking.scores()[i]);
+            }
+        }
+        if (score != null) {
+            top.offer(contentId, score);
+        }
+        long[] contentIds = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(contentIds, scores);
+        Instant computedAt = changedAt.isAfter(page.computedAt()) ? changedAt : page.computedAt();
+        return encode(new RecommendationEngine.Ranking(contentIds, scores), computedAt);
+    }
+}
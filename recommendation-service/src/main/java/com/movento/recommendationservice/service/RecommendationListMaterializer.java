@@ -0,0 +1,58 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes the materialised lists of users whose interactions changed and writes them in
+ * pipelined batches, so reads keep being served from the store while activity flows in. Lists
+ * of users whose own interactions did not change, e.g. after a new model is loaded, are
+ * refreshed when their TTL lapses.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecommendationListMaterializer {
+
+    private final RecommendationEngine engine;
+    private final RecommendationService recommendationService;
+
+    @Value("${app.lists.size:100}")
+    private int listSize;
+
+    @Value("${app.lists.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.lists.refresh-interval-ms:5000}",
+            fixedDelayString = "${app.lists.refresh-interval-ms:5000}")
+    public void refresh() {
+        List<Long> users = new ArrayList<>();
+        engine.drainChangedUsers(users::add);
+        if (users.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        for (int from = 0; from < users.size(); from += batchSize) {
+            List<Long> batch = users.subList(from, Math.min(users.size(), from + batchSize));
+            Map<Long, RecommendationEngine.Ranking> lists = new HashMap<>(batch.size() * 2);
+            Instant computedAt = Instant.now();
+            for (Long userId : batch) {
+                lists.put(userId, recommendationService.computeRanking(userId, listSize));
+            }
+            // A list updated after this batch started is newer; recompute those users next round
+            recommendationService.storeLists(lists, computedAt).forEach(engine::markChanged);
+        }
+        log.debug("Materialised {} recommendation lists in {} ms",
+                users.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
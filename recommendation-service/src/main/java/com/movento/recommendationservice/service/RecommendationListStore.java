@@ -0,0 +1,45 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Materialised per-user recommendation lists, best first and bounded in length. Lists lapse
+ * after their TTL, so a user who has gone quiet falls back to being computed on demand.
+ */
+public interface RecommendationListStore {
+
+    /**
+     * The entries {@code [offset, offset + limit)} of the user's list.
+     *
+     * @return the page, or {@code null} if no list is stored for the user
+     */
+    Page read(Long userId, int offset, int limit);
+
+    /**
+     * Replaces the given users' lists, except where the stored list is newer than
+     * {@code computedAt}, so a ranking that raced a later write or update never replaces it.
+     *
+     * @return the users whose stored list was newer and kept
+     */
+    Set<Long> write(Map<Long, RecommendationEngine.Ranking> lists, Instant computedAt, Duration ttl);
+
+    /** Stores the user's list only if none is stored yet. */
+    void writeIfAbsent(Long userId, RecommendationEngine.Ranking ranking, Instant computedAt, Duration ttl);
+
+    /**
+     * Moves one title within a stored list to its new score, or removes it if {@code score} is
+     * {@code null}, keeping at most {@code capacity} entries. The list then counts as computed
+     * no earlier than {@code changedAt}.
+     *
+     * @return whether the user had a list to update
+     */
+    boolean update(Long userId, long contentId, Float score, int capacity, Instant changedAt, Duration ttl);
+
+    record Page(Instant computedAt, int total, RecommendationEngine.Ranking ranking) {
+    }
+}
@@ -2,30 +2,57 @@ package com.movento.recommendationservice.service;
 
 import com.movento.recommendationservice.dto.RecommendationRequest;
 import com.movento.recommendationservice.dto.RecommendationResponse;
+import com.movento.recommendationservice.dto.SimilarItemResponse;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
 import com.movento.recommendationservice.model.Recommendation;
 import com.movento.recommendationservice.repository.RecommendationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecommendationService {
 
     private final RecommendationRepository repository;
     private final RabbitTemplate rabbitTemplate;
+    private final RecommendationEngine engine;
+    private final SimilarityIndexService similarityIndexService;
+    private final FactorModelService factorModelService;
+    private final CatalogIndexService catalogIndexService;
+    private final RecommendationListStore listStore;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.messaging.exchange}")
     private String exchange;
     @Value("${app.messaging.routing-key}")
     private String routingKey;
+    @Value("${app.als.rerank-depth:5}")
+    private int rerankDepth;
+    @Value("${app.lists.size:100}")
+    private int listSize;
+    @Value("${app.lists.ttl-ms:3600000}")
+    private long listTtlMs;
 
     @Cacheable(value = "recommendations", key = "#id")
     @Transactional(readOnly = true)
@@ -35,11 +62,105 @@ public class RecommendationService {
         return mapToResponse(recommendation);
     }
 
-    @Transactional(readOnly = true)
-    public List<RecommendationResponse> getUserRecommendations(Long userId) {
-        return repository.findByUserId(userId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    /**
+     * A page of the user's materialised list: one Redis read and a decode, no SQL. A user without
+     * a stored list has it computed and written through, so only the first read after a quiet
+     * spell pays for scoring.
+     */
+    public List<RecommendationResponse> getUserRecommendations(Long userId, int offset, int limit) {
+        RecommendationListStore.Page page = null;
+        try {
+            page = listStore.read(userId, offset, limit);
+        } catch (RuntimeException e) {
+            log.warn("Recommendation list store unavailable, computing for user {}: {}", userId, e.getMessage());
+        }
+        meterRegistry.counter("recommendation.lists.reads", "outcome", page != null ? "hit" : "miss").increment();
+        if (page == null) {
+            Instant computedAt = Instant.now();
+            RecommendationEngine.Ranking ranking = computeRanking(userId, listSize);
+            // Only if still absent, so a list the materialiser or an update stored meanwhile stays
+            try {
+                listStore.writeIfAbsent(userId, ranking, computedAt, Duration.ofMillis(listTtlMs));
+            } catch (RuntimeException e) {
+                log.warn("Could not store recommendation list of user {}: {}", userId, e.getMessage());
+            }
+            page = new RecommendationListStore.Page(computedAt, ranking.size(), slice(ranking, offset, limit));
+        }
+        RecommendationEngine.Ranking ranking = page.ranking();
+        List<RecommendationResponse> responses = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            responses.add(RecommendationResponse.builder()
+                    .userId(userId)
+                    .contentId(ranking.contentIds()[i])
+                    .score((double) ranking.scores()[i])
+                    .createdAt(page.computedAt())
+                    .build());
+        }
+        return responses;
+    }
+
+    /**
+     * The user's best {@code size} titles: the user's stored recommendations first, then top-K
+     * from the online engine, re-ranked by the latent-factor model when one is being served.
+     * Users with neither get the currently popular titles. Stored scores and model scores are on
+     * unrelated scales, so each source keeps its own order inside its tier (see
+     * {@link #storedRank}).
+     */
+    public RecommendationEngine.Ranking computeRanking(Long userId, int size) {
+        // Co-occurrence proposes a wider candidate set; the ALS model, when it knows the user, ranks it
+        RecommendationEngine.Ranking ranking = engine.recommend(userId, size * rerankDepth);
+        RecommendationEngine.Ranking reranked = ranking.size() > 0
+                ? factorModelService.rerank(userId, ranking, size)
+                : catalogIndexService.recommend(userId, size, contentId -> engine.hasInteracted(userId, contentId));
+        ranking = reranked != null ? reranked : ranking.head(size);
+
+        List<Recommendation> stored = repository.findByUserIdOrderByScoreDesc(userId, PageRequest.of(0, size));
+        if (ranking.size() == 0 && stored.isEmpty()) {
+            ranking = engine.popular(size);
+        }
+        Set<Long> storedIds = new HashSet<>();
+        TopK top = new TopK(size);
+        for (Recommendation recommendation : stored) {
+            if (storedIds.add(recommendation.getContentId())) {
+                top.offer(recommendation.getContentId(), storedRank(recommendation.getScore()));
+            }
+        }
+        for (int i = 0; i < ranking.size(); i++) {
+            if (!storedIds.contains(ranking.contentIds()[i])) {
+                top.offer(ranking.contentIds()[i], computedRank(ranking.scores()[i]));
+            }
+        }
+        long[] contentIds = new long[top.size()];
+        float[] scores = new float[top.size()];
+        top.drainDescending(contentIds, scores);
+        return new RecommendationEngine.Ranking(contentIds, scores);
+    }
+
+    /**
+     * Replaces the given users' materialised lists; a store outage only costs freshness.
+     *
+     * @return the users whose stored list was newer than {@code computedAt} and kept
+     */
+    public Set<Long> storeLists(Map<Long, RecommendationEngine.Ranking> lists, Instant computedAt) {
+        try {
+            return listStore.write(lists, computedAt, Duration.ofMillis(listTtlMs));
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} recommendation lists: {}", lists.size(), e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /** "More like this": the nearest neighbours of a title in the item similarity index. */
+    public List<SimilarItemResponse> getSimilarItems(Long contentId, int limit) {
+        RecommendationEngine.Ranking ranking = similarityIndexService.similarTo(contentId, limit);
+        List<SimilarItemResponse> responses = new ArrayList<>(ranking.size());
+        for (int i = 0; i < ranking.size(); i++) {
+            responses.add(SimilarItemResponse.builder()
+                    .contentId(ranking.contentIds()[i])
+                    .similarity((double) ranking.scores()[i])
+                    .build());
+        }
+        return responses;
     }
 
     @Transactional
@@ -50,6 +171,7 @@ public class RecommendationService {
         recommendation.setScore(request.getScore());
         Recommendation saved = repository.save(recommendation);
         publishEvent("RECOMMENDATION_CREATED", saved);
+        updateListAfterCommit(saved.getUserId(), saved.getContentId(), saved.getScore());
         return mapToResponse(saved);
     }
 
@@ -61,6 +183,7 @@ public class RecommendationService {
         recommendation.setScore(score);
         Recommendation saved = repository.save(recommendation);
         publishEvent("RECOMMENDATION_UPDATED", saved);
+        updateListAfterCommit(saved.getUserId(), saved.getContentId(), saved.getScore());
         return mapToResponse(saved);
     }
 
@@ -71,6 +194,56 @@ public class RecommendationService {
                 .orElseThrow(() -> new IllegalArgumentException("Recommendation not found"));
         repository.delete(recommendation);
         publishEvent("RECOMMENDATION_DELETED", recommendation);
+        updateListAfterCommit(recommendation.getUserId(), recommendation.getContentId(), null);
+    }
+
+    // Applied once the row is committed, and the list is stamped with that time: a materialised
+    // ranking computed before it may have read the table without the change, so the store keeps
+    // the updated list over it and the materialiser computes that user again
+    private void updateListAfterCommit(Long userId, Long contentId, Double score) {
+        Runnable update = () -> {
+            try {
+                listStore.update(userId, contentId, score == null ? null : storedRank(score),
+                        listSize, Instant.now(), Duration.ofMillis(listTtlMs));
+            } catch (RuntimeException e) {
+                log.warn("Could not update recommendation list of user {}: {}", userId, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    // List scores are ranks, not raw scores. Each source is squashed monotonically into its own
+    // band: stored recommendations into (1, 3), above everything the engine, the ALS model or the
+    // popularity fallback computed, which land in (-1, 1). An update of a stored row lands in the
+    // same band as the ranking it is merged into.
+    static float storedRank(double score) {
+        return (float) (2 + squash(score));
+    }
+
+    static float computedRank(double score) {
+        return (float) squash(score);
+    }
+
+    private static double squash(double score) {
+        return score / (1 + Math.abs(score));
+    }
+
+    // Clamped like RecommendationListCodec#decode; from + limit could overflow, what is left cannot
+    private static RecommendationEngine.Ranking slice(RecommendationEngine.Ranking ranking, int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), ranking.size());
+        int to = from + Math.min(Math.max(limit, 0), ranking.size() - from);
+        return new RecommendationEngine.Ranking(
+                Arrays.copyOfRange(ranking.contentIds(), from, to),
+                Arrays.copyOfRange(ranking.scores(), from, to));
     }
 
     private RecommendationResponse mapToResponse(Recommendation recommendation) {
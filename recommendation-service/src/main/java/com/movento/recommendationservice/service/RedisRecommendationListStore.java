@@ -0,0 +1,117 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One binary value per user (see {@link RecommendationListCodec}), so a read is a single GET.
+ * Bulk writes are pipelined calls of a script that keeps a stored list computed later than the
+ * one being written; a single-title update is an optimistic WATCH/MULTI read-modify-write that
+ * is retried if a concurrent write lands in between, and drops the list if it keeps losing.
+ */
+@Component
+public class RedisRecommendationListStore implements RecommendationListStore {
+
+    private static final int UPDATE_ATTEMPTS = 3;
+
+    private static final RedisScript<Long> WRITE_SCRIPT =
+            RedisScript.of(new ClassPathResource("META-INF/scripts/recommendation_list_write.lua"), Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    public RedisRecommendationListStore(RedisTemplate<String, byte[]> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Page read(Long userId, int offset, int limit) {
+        byte[] bytes = redisTemplate.opsForValue().get(key(userId));
+        return bytes == null ? null : RecommendationListCodec.decode(bytes, offset, limit);
+    }
+
+    @Override
+    public Set<Long> write(Map<Long, RecommendationEngine.Ranking> lists, Instant computedAt, Duration ttl) {
+        if (lists.isEmpty()) {
+            return Set.of();
+        }
+        // EVAL rather than EVALSHA: a pipeline cannot fall back when the script cache is cold
+        byte[] script = WRITE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        byte[] ttlMillis = String.valueOf(ttl.toMillis()).getBytes(StandardCharsets.UTF_8);
+        List<Long> userIds = new ArrayList<>(lists.keySet());
+        List<Object> stored = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long userId : userIds) {
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1,
+                        key(userId).getBytes(StandardCharsets.UTF_8),
+                        RecommendationListCodec.encode(lists.get(userId), computedAt),
+                        ttlMillis);
+            }
+            return null;
+        });
+        Set<Long> kept = new HashSet<>();
+        for (int i = 0; i < userIds.size(); i++) {
+            if (Long.valueOf(0L).equals(stored.get(i))) {
+                kept.add(userIds.get(i));
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public void writeIfAbsent(Long userId, RecommendationEngine.Ranking ranking, Instant computedAt, Duration ttl) {
+        redisTemplate.opsForValue().setIfAbsent(key(userId), RecommendationListCodec.encode(ranking, computedAt), ttl);
+    }
+
+    @Override
+    public boolean update(Long userId, long contentId, Float score, int capacity, Instant changedAt,
+                          Duration ttl) {
+        String key = key(userId);
+        Boolean updated = redisTemplate.execute(new SessionCallback<Boolean>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Boolean execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, byte[]> redis = (RedisOperations<String, byte[]>) operations;
+                for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+                    redis.watch(key);
+                    byte[] current = redis.opsForValue().get(key);
+                    byte[] next = current == null
+                            ? null : RecommendationListCodec.apply(current, contentId, score, capacity, changedAt);
+                    if (next == null) {
+                        redis.unwatch();
+                        return false;
+                    }
+                    redis.multi();
+                    redis.opsForValue().set(key, next, ttl);
+                    List<Object> result = redis.exec();
+                    if (result != null && !result.isEmpty()) {
+                        return true;
+                    }
+                }
+                // Contended beyond retrying: drop the list so the next read recomputes it
+                redis.delete(key);
+                return false;
+            }
+        });
+        return Boolean.TRUE.equals(updated);
+    }
+
+    private static String key(Long userId) {
+        return "recommendations.list.{" + userId + "}";
+    }
+}
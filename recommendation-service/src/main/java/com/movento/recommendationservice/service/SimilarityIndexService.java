@@ -0,0 +1,65 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.SimilarityIndex;
+import com.movento.recommendationservice.engine.SimilarityIndexBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically rebuilds the item-to-item {@link SimilarityIndex} from the engine's positive
+ * interactions and swaps it in atomically; readers always see a complete index.
+ */
+@Slf4j
+@Service
+public class SimilarityIndexService {
+
+    private final RecommendationEngine engine;
+    private final Timer buildTimer;
+
+    private volatile SimilarityIndex index = SimilarityIndex.EMPTY;
+
+    @Value("${app.similarity.neighbours:100}")
+    private int neighbours = 100;
+
+    @Value("${app.similarity.parallelism:0}")
+    private int parallelism;
+
+    public SimilarityIndexService(RecommendationEngine engine, MeterRegistry meterRegistry) {
+        this.engine = engine;
+        this.buildTimer = Timer.builder("recommendation.similarity.build")
+                .description("Time to rebuild the item similarity index")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.similarity.items", this, service -> service.index.itemCount())
+                .register(meterRegistry);
+        Gauge.builder("recommendation.similarity.bytes", this, service -> service.index.sizeInBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public RecommendationEngine.Ranking similarTo(long contentId, int limit) {
+        return index.similarTo(contentId, limit);
+    }
+
+    @Scheduled(initialDelayString = "${app.similarity.initial-delay-ms:30000}",
+            fixedDelayString = "${app.similarity.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+        engine.forEachPositive(builder::add);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        SimilarityIndex rebuilt = builder.build(neighbours, threads);
+        index = rebuilt;
+        long elapsed = System.nanoTime() - started;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Rebuilt similarity index: {} items, {} neighbours, {} KiB in {} ms",
+                rebuilt.itemCount(), rebuilt.neighbourCount(), rebuilt.sizeInBytes() / 1024, elapsed / 1_000_000);
+    }
+}
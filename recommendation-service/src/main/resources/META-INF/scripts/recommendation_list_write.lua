@@ -0,0 +1,24 @@
+-- KEYS[1]: a user's materialised list, in RecommendationListCodec format (byte 1: format version,
+--          bytes 6-13: computed-at epoch millis, big-endian)
+-- ARGV: encoded list, ttl in ms
+-- Stores the list unless the stored one was computed later; returns 1 if stored, 0 if kept
+local key = KEYS[1]
+local list = ARGV[1]
+local ttl = ARGV[2]
+
+local function computed_at(bytes)
+  local millis = 0
+  for i = 6, 13 do
+    millis = millis * 256 + string.byte(bytes, i)
+  end
+  return millis
+end
+
+local current = redis.call("get", key)
+if current and #current >= 13 and string.byte(current, 1) == string.byte(list, 1)
+    and computed_at(current) > computed_at(list) then
+  return 0
+end
+
+redis.call("set", key, list, "px", ttl)
+return 1
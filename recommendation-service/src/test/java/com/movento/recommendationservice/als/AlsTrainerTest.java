@@ -0,0 +1,100 @@
+package com.movento.recommendationservice.als;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AlsTrainerTest {
+
+    private static final AlsTrainer.Settings SETTINGS = new AlsTrainer.Settings(4, 10, 0.05f, 5f, 2, 1L);
+
+    @Test
+    void choleskySolvesASymmetricPositiveDefiniteSystem() {
+        // A = [[4, 2, 0], [2, 5, 1], [0, 1, 3]], upper triangle only; x = [1, -1, 2]
+        double[] a = {4, 2, 0, 0, 5, 1, 0, 0, 3};
+        double[] b = {2, -1, 5};
+
+        AlsTrainer.choleskySolve(a, b, 3);
+
+        assertThat(b[0]).isCloseTo(1, within(1e-9));
+        assertThat(b[1]).isCloseTo(-1, within(1e-9));
+        assertThat(b[2]).isCloseTo(2, within(1e-9));
+    }
+
+    @Test
+    void matrixKeepsTheLastWeightOfARepeatedPairInBothOrders() {
+        InteractionMatrix.Builder builder = new InteractionMatrix.Builder();
+        builder.add(20, 7, 1f);
+        builder.add(10, 7, 2f);
+        builder.add(20, 7, 3f);
+        builder.add(20, 9, -1f);
+
+        InteractionMatrix matrix = builder.build();
+
+        assertThat(matrix.userIds).containsExactly(10, 20);
+        assertThat(matrix.itemIds).containsExactly(7, 9);
+        assertThat(matrix.nonZeros()).isEqualTo(3);
+        // User 20's row: title 7 at weight 3, title 9 at weight -1
+        assertThat(matrix.userItems).containsExactly(0, 0, 1);
+        assertThat(matrix.userWeights).containsExactly(2f, 3f, -1f);
+        // Title 7's column: users 10 and 20
+        assertThat(matrix.itemOffsets).containsExactly(0, 2, 3);
+        assertThat(matrix.itemUsers).containsExactly(0, 1, 1);
+        assertThat(matrix.itemWeights).containsExactly(2f, 3f, -1f);
+    }
+
+    @Test
+    void heldOutTitlesFromTheUsersOwnClusterOutscoreTheOtherCluster() {
+        InteractionMatrix.Builder builder = new InteractionMatrix.Builder();
+        for (long user = 0; user < 20; user++) {
+            long first = user < 10 ? 100 : 200;
+            for (long item = first; item < first + 5; item++) {
+                // Every user skips one title of their cluster, a different one per user
+                if (item - first != user % 5) {
+                    builder.add(user, item, 1f);
+                }
+            }
+        }
+
+        FactorModel model = AlsTrainer.train(builder.build(), SETTINGS, 1L);
+
+        for (long user = 0; user < 20; user++) {
+            long own = (user < 10 ? 100 : 200) + user % 5;
+            float held = score(model, user, own);
+            for (long other = 0; other < 5; other++) {
+                assertThat(held).isGreaterThan(score(model, user, (user < 10 ? 200 : 100) + other));
+            }
+        }
+    }
+
+    @Test
+    void trainingIsDeterministicForASeedWhateverTheParallelism() {
+        InteractionMatrix.Builder builder = new InteractionMatrix.Builder();
+        for (long user = 0; user < 50; user++) {
+            builder.add(user, user % 7, 1f);
+            builder.add(user, 10 + user % 3, 2f);
+            builder.add(user, 20 + user % 11, -1f);
+        }
+        InteractionMatrix matrix = builder.build();
+
+        FactorModel serial = AlsTrainer.train(matrix, new AlsTrainer.Settings(4, 3, 0.05f, 5f, 1, 9L), 1L);
+        FactorModel parallel = AlsTrainer.train(matrix, new AlsTrainer.Settings(4, 3, 0.05f, 5f, 4, 9L), 1L);
+
+        assertThat(parallel.userFactors()).containsExactly(serial.userFactors());
+        assertThat(parallel.itemFactors()).containsExactly(serial.itemFactors());
+    }
+
+    private static float score(FactorModel model, long userId, long contentId) {
+        int user = Arrays.binarySearch(model.userIds(), userId);
+        int item = Arrays.binarySearch(model.itemIds(), contentId);
+        int k = model.factors();
+        float sum = 0f;
+        for (int i = 0; i < k; i++) {
+            sum += model.userFactors()[user * k + i] * model.itemFactors()[item * k + i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,141 @@
+package com.movento.recommendationservice.als;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class MappedFactorModelTest {
+
+    // Not a multiple of four, so the dot product's tail loop runs too
+    private static final int FACTORS = 5;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void mappedModelReadsBackWhatWasWritten() throws IOException {
+        FactorModel model = model(3, 4);
+
+        MappedFactorModel mapped = MappedFactorModel.open(ModelFile.write(model, directory));
+
+        assertThat(mapped.version()).isEqualTo(7);
+        assertThat(mapped.factors()).isEqualTo(FACTORS);
+        assertThat(mapped.userCount()).isEqualTo(3);
+        assertThat(mapped.itemCount()).isEqualTo(4);
+        assertThat(mapped.userVector(20)).containsExactly(row(model.userFactors(), 1));
+        assertThat(mapped.userVector(21)).isNull();
+        assertThat(mapped.itemId(2)).isEqualTo(300);
+        float[] vector = new float[FACTORS];
+        mapped.itemVector(3, vector);
+        assertThat(vector).containsExactly(row(model.itemFactors(), 3));
+    }
+
+    @Test
+    void scoresAreDotProductsAndUnknownTitlesAreNaN() throws IOException {
+        FactorModel model = model(1, 4);
+        MappedFactorModel mapped = MappedFactorModel.open(ModelFile.write(model, directory));
+        float[] user = mapped.userVector(10);
+
+        float[] scores = new float[2];
+        mapped.score(user, new long[]{200, 250}, scores);
+
+        assertThat(scores[0]).isCloseTo(dot(user, row(model.itemFactors(), 1)), within(1e-5f));
+        assertThat(scores[1]).isNaN();
+    }
+
+    @Test
+    void recommendMatchesAFullScanAndHonoursExclusions() throws IOException {
+        FactorModel model = model(1, 3000);
+        MappedFactorModel mapped = MappedFactorModel.open(ModelFile.write(model, directory));
+        float[] user = mapped.userVector(10);
+        long excluded = bestItem(model, user, -1);
+
+        RecommendationEngine.Ranking ranking = mapped.recommend(user, 5, contentId -> contentId == excluded);
+
+        assertThat(ranking.size()).isEqualTo(5);
+        assertThat(ranking.contentIds()).doesNotContain(excluded);
+        assertThat(ranking.contentIds()[0]).isEqualTo(bestItem(model, user, excluded));
+        for (int i = 1; i < ranking.size(); i++) {
+            assertThat(ranking.scores()[i]).isLessThanOrEqualTo(ranking.scores()[i - 1]);
+        }
+    }
+
+    @Test
+    void truncatedAndForeignFilesAreRejected() throws IOException {
+        Path file = ModelFile.write(model(2, 2), directory);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThatThrownBy(() -> MappedFactorModel.open(truncated)).isInstanceOf(IOException.class);
+
+        Path foreign = directory.resolve("foreign.bin");
+        Files.write(foreign, new byte[ModelFile.HEADER_BYTES], StandardOpenOption.CREATE);
+        assertThatThrownBy(() -> MappedFactorModel.open(foreign)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void modelFileNamesCarryTheVersion() {
+        assertThat(ModelFile.version(ModelFile.path(directory, 42))).isEqualTo(42);
+        assertThat(ModelFile.version(directory.resolve("als-model-x.bin"))).isEqualTo(-1);
+        assertThat(ModelFile.version(directory.resolve("other.bin"))).isEqualTo(-1);
+    }
+
+    // User ids 10, 20, ...; item ids 100, 200, ...
+    private static FactorModel model(int users, int items) {
+        Random random = new Random(3);
+        long[] userIds = new long[users];
+        long[] itemIds = new long[items];
+        float[] userFactors = new float[users * FACTORS];
+        float[] itemFactors = new float[items * FACTORS];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = 10L * (i + 1);
+        }
+        for (int i = 0; i < items; i++) {
+            itemIds[i] = 100L * (i + 1);
+        }
+        for (int i = 0; i < userFactors.length; i++) {
+            userFactors[i] = random.nextFloat() - 0.5f;
+        }
+        for (int i = 0; i < itemFactors.length; i++) {
+            itemFactors[i] = random.nextFloat() - 0.5f;
+        }
+        return new FactorModel(7, FACTORS, userIds, itemIds, userFactors, itemFactors);
+    }
+
+    private static long bestItem(FactorModel model, float[] user, long excluded) {
+        long best = -1;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < model.itemIds().length; i++) {
+            float score = dot(user, row(model.itemFactors(), i));
+            if (model.itemIds()[i] != excluded && score > bestScore) {
+                best = model.itemIds()[i];
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private static float[] row(float[] factors, int row) {
+        return Arrays.copyOfRange(factors, row * FACTORS, (row + 1) * FACTORS);
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
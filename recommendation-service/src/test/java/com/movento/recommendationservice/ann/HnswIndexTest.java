@@ -0,0 +1,141 @@
+package com.movento.recommendationservice.ann;
+
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.TopK;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 16;
+    private static final int NODES = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void searchFindsMostOfTheExactTopByInnerProduct() throws IOException {
+        float[][] vectors = vectors(NODES, 1);
+        // Starts small so the node region is remapped several times on the way
+        HnswIndex index = HnswIndex.create(directory.resolve("index.bin"), DIMENSION, 16, 200, 64, 5L);
+        for (int i = 0; i < NODES; i++) {
+            index.add(1000L + i, vectors[i]);
+        }
+
+        assertThat(index.size()).isEqualTo(NODES);
+        assertThat(recall(index, vectors, 10)).isGreaterThanOrEqualTo(0.9);
+    }
+
+    @Test
+    void resultsAreScoredByInnerProductBestFirst() throws IOException {
+        float[][] vectors = vectors(200, 2);
+        HnswIndex index = build(vectors);
+        float[] query = vectors(1, 3)[0];
+
+        RecommendationEngine.Ranking ranking = index.search(query, 5, 50);
+
+        assertThat(ranking.size()).isEqualTo(5);
+        for (int i = 0; i < ranking.size(); i++) {
+            float[] vector = vectors[(int) (ranking.contentIds()[i] - 1000)];
+            assertThat(ranking.scores()[i]).isCloseTo(dot(query, vector), within(1e-4f));
+            if (i > 0) {
+                assertThat(ranking.scores()[i]).isLessThanOrEqualTo(ranking.scores()[i - 1]);
+            }
+        }
+    }
+
+    @Test
+    void savedIndexReopensWithTheSameGraph() throws IOException {
+        float[][] vectors = vectors(500, 4);
+        HnswIndex index = build(vectors);
+        index.save();
+        float[] query = vectors(1, 5)[0];
+
+        HnswIndex reopened = HnswIndex.open(directory.resolve("index.bin"));
+
+        assertThat(reopened.size()).isEqualTo(500);
+        assertThat(reopened.dimension()).isEqualTo(DIMENSION);
+        assertThat(reopened.tag()).isEqualTo(5L);
+        assertThat(reopened.contains(1000L)).isTrue();
+        assertThat(reopened.contains(999L)).isFalse();
+        assertThat(reopened.search(query, 10, 50).contentIds()).containsExactly(index.search(query, 10, 50).contentIds());
+    }
+
+    @Test
+    void addingAKnownIdReplacesItsVector() throws IOException {
+        float[][] vectors = vectors(100, 6);
+        HnswIndex index = build(vectors);
+        float[] query = new float[DIMENSION];
+        query[0] = 1f;
+        float[] replacement = new float[DIMENSION];
+        replacement[0] = 100f;
+
+        index.add(1042L, replacement);
+
+        assertThat(index.size()).isEqualTo(100);
+        assertThat(index.search(query, 1, 50).contentIds()).containsExactly(1042L);
+    }
+
+    @Test
+    void emptyIndexAndBadInputs() throws IOException {
+        HnswIndex index = HnswIndex.create(directory.resolve("empty.bin"), DIMENSION, 16, 200, 8, 0L);
+
+        assertThat(index.search(new float[DIMENSION], 10, 50).size()).isZero();
+        assertThatThrownBy(() -> index.add(1L, new float[DIMENSION + 1])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HnswIndex.create(directory.resolve("bad.bin"), DIMENSION, 1, 200, 8, 0L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HnswIndex build(float[][] vectors) throws IOException {
+        HnswIndex index = HnswIndex.create(directory.resolve("index.bin"), DIMENSION, 16, 200, vectors.length, 5L);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add(1000L + i, vectors[i]);
+        }
+        return index;
+    }
+
+    // Mean share of the exact top k found, over a batch of random queries
+    private static double recall(HnswIndex index, float[][] vectors, int k) {
+        float[][] queries = vectors(50, 99);
+        int found = 0;
+        for (float[] query : queries) {
+            TopK exact = new TopK(k);
+            for (int i = 0; i < vectors.length; i++) {
+                exact.offer(1000L + i, dot(query, vectors[i]));
+            }
+            long[] expected = new long[k];
+            exact.drainDescending(expected, new float[k]);
+            long[] actual = index.search(query, k, 100).contentIds();
+            found += (int) Arrays.stream(actual).filter(id -> Arrays.stream(expected).anyMatch(e -> e == id)).count();
+        }
+        return found / (double) (queries.length * k);
+    }
+
+    private static float[][] vectors(int count, long seed) {
+        Random random = new Random(seed);
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int i = 0; i < DIMENSION; i++) {
+                vector[i] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,98 @@
+package com.movento.recommendationservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongFloatMapTest {
+
+    @Test
+    void putGetAndAddTo() {
+        LongFloatMap map = new LongFloatMap();
+        map.put(7, 1.5f);
+        map.put(7, 2.5f);
+
+        assertThat(map.get(7, 0f)).isEqualTo(2.5f);
+        assertThat(map.get(8, -1f)).isEqualTo(-1f);
+        assertThat(map.addTo(7, 1f)).isEqualTo(3.5f);
+        assertThat(map.addTo(9, 2f)).isEqualTo(2f);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        LongFloatMap map = new LongFloatMap(2);
+        for (long key = 0; key < 1000; key++) {
+            map.put(key * 31, key);
+        }
+
+        assertThat(map.size()).isEqualTo(1000);
+        for (long key = 0; key < 1000; key++) {
+            assertThat(map.get(key * 31, -1f)).isEqualTo((float) key);
+        }
+    }
+
+    @Test
+    void removeKeepsCollidingKeysReachable() {
+        // Keys sharing a home slot form one probe chain; removing from its middle must not cut it
+        LongFloatMap map = new LongFloatMap(8);
+        long[] colliding = collidingKeys(4, 15);
+        for (long key : colliding) {
+            map.put(key, key);
+        }
+
+        assertThat(map.remove(colliding[1])).isTrue();
+        assertThat(map.remove(colliding[1])).isFalse();
+
+        assertThat(map.containsKey(colliding[1])).isFalse();
+        for (long key : new long[] {colliding[0], colliding[2], colliding[3]}) {
+            assertThat(map.get(key, -1f)).isEqualTo((float) key);
+        }
+        assertThat(map.size()).isEqualTo(3);
+    }
+
+    @Test
+    void agreesWithAHashMapUnderRandomOperations() {
+        Random random = new Random(7);
+        LongFloatMap map = new LongFloatMap();
+        Map<Long, Float> expected = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(500) - 250;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                float value = random.nextFloat();
+                map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Long, Float> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void theSentinelKeyIsRejected() {
+        assertThatThrownBy(() -> new LongFloatMap().put(Long.MIN_VALUE, 1f))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] collidingKeys(int count, int mask) {
+        long[] keys = new long[count];
+        int found = 0;
+        int home = LongFloatMap.mix(1) & mask;
+        for (long key = 1; found < count; key++) {
+            if ((LongFloatMap.mix(key) & mask) == home) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+}
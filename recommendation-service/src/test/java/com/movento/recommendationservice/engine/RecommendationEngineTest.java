@@ -0,0 +1,90 @@
+package com.movento.recommendationservice.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationEngineTest {
+
+    private static final long A = 1;
+    private static final long B = 2;
+    private static final long C = 3;
+    private static final long D = 4;
+
+    private final RecommendationEngine engine = new RecommendationEngine(new SimpleMeterRegistry());
+
+    @Test
+    void titlesCoOccurringMoreOftenRankHigherAndSeenTitlesAreSkipped() {
+        engine.recordImplicit(1, A, 1f);
+        engine.recordImplicit(1, B, 1f);
+        engine.recordImplicit(2, A, 1f);
+        engine.recordImplicit(2, B, 1f);
+        engine.recordImplicit(3, A, 1f);
+        engine.recordImplicit(3, C, 1f);
+        engine.recordImplicit(4, A, 1f);
+
+        RecommendationEngine.Ranking ranking = engine.recommend(4, 10);
+
+        assertThat(ranking.contentIds()).containsExactly(B, C);
+        assertThat(ranking.scores()[0]).isGreaterThan(ranking.scores()[1]);
+    }
+
+    @Test
+    void aPoorRatingTakesATitleOutOfTheUsersPositiveSet() {
+        engine.recordImplicit(1, A, 1f);
+        engine.recordImplicit(1, B, 1f);
+        engine.recordImplicit(2, A, 1f);
+
+        engine.recordRating(1, B, 1);
+
+        assertThat(engine.recommend(2, 10).size()).isZero();
+        assertThat(engine.interaction(1, B).rating()).isEqualTo(1);
+    }
+
+    @Test
+    void aFullProfileDropsItsWeakestOtherTitleEvenWhenTheNewOneIsWeaker() {
+        ReflectionTestUtils.setField(engine, "maxProfileSize", 3);
+        engine.recordImplicit(1, A, 5f);
+        engine.recordImplicit(1, B, 4f);
+        engine.recordImplicit(1, C, 3f);
+
+        engine.recordImplicit(1, D, 0.5f);
+
+        assertThat(engine.hasInteracted(1, D)).isTrue();
+        assertThat(engine.hasInteracted(1, C)).isFalse();
+        assertThat(engine.hasInteracted(1, A)).isTrue();
+        assertThat(engine.hasInteracted(1, B)).isTrue();
+    }
+
+    @Test
+    void evictingAPositiveTitleRetractsItsPopularity() {
+        ReflectionTestUtils.setField(engine, "maxProfileSize", 2);
+        engine.recordImplicit(1, A, 5f);
+        engine.recordImplicit(1, B, 1f);
+
+        engine.recordImplicit(1, C, 2f);
+        engine.refreshPopular(10);
+
+        assertThat(engine.popular(10).contentIds()).containsExactly(A, C);
+    }
+
+    @Test
+    void restoredInteractionsAreNotSnapshottedAgain() {
+        engine.restore(1, A, 2f, 8);
+        engine.recordImplicit(2, B, 1f);
+
+        List<RecommendationEngine.InteractionKey> dirty = new ArrayList<>();
+        engine.drainDirty(dirty::add);
+        List<Long> changed = new ArrayList<>();
+        engine.drainChangedUsers(changed::add);
+
+        assertThat(dirty).containsExactly(new RecommendationEngine.InteractionKey(2, B));
+        assertThat(changed).containsExactly(2L);
+        assertThat(engine.interaction(1, A)).isEqualTo(new RecommendationEngine.Interaction(1, A, 2f, 8));
+    }
+}
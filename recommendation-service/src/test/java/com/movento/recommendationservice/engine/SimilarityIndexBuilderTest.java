@@ -0,0 +1,122 @@
+package com.movento.recommendationservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimilarityIndexBuilderTest {
+
+    @Test
+    void neighboursAreCosineSimilarityBestFirst() {
+        SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+        // Title 1 is held by users 1-4, title 2 by users 1-2, title 3 by user 3 only
+        for (long user = 1; user <= 4; user++) {
+            builder.add(user, 1);
+        }
+        builder.add(1, 2);
+        builder.add(2, 2);
+        builder.add(3, 3);
+
+        SimilarityIndex index = builder.build(10, 1);
+
+        RecommendationEngine.Ranking similar = index.similarTo(1, 10);
+        assertThat(similar.contentIds()).containsExactly(2, 3);
+        assertThat(similar.scores()[0]).isCloseTo((float) (2 / Math.sqrt(4 * 2)), within(1e-5f));
+        assertThat(similar.scores()[1]).isCloseTo((float) (1 / Math.sqrt(4 * 1)), within(1e-5f));
+        assertThat(index.similarity(2, 1)).isEqualTo(similar.scores()[0]);
+        assertThat(index.similarity(2, 3)).isZero();
+        assertThat(index.similarity(1, 99)).isZero();
+    }
+
+    @Test
+    void duplicateInteractionsCountOnce() {
+        SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+        builder.add(1, 1);
+        builder.add(1, 1);
+        builder.add(1, 2);
+        builder.add(2, 2);
+
+        SimilarityIndex index = builder.build(10, 1);
+
+        assertThat(index.similarity(1, 2)).isCloseTo((float) (1 / Math.sqrt(2)), within(1e-5f));
+    }
+
+    @Test
+    void listsAreCutToTheRequestedLengthAndLimit() {
+        SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+        for (long item = 1; item <= 6; item++) {
+            builder.add(1, item);
+        }
+
+        SimilarityIndex index = builder.build(3, 1);
+
+        assertThat(index.neighbourCount()).isEqualTo(6 * 3);
+        assertThat(index.similarTo(1, 10).contentIds()).containsExactly(2, 3, 4);
+        assertThat(index.similarTo(1, 2).size()).isEqualTo(2);
+        assertThat(index.similarTo(1, 0).size()).isZero();
+        assertThat(index.similarTo(42, 10).size()).isZero();
+    }
+
+    @Test
+    void emptyInputBuildsTheEmptyIndex() {
+        assertThat(new SimilarityIndexBuilder().build(10, 2)).isSameAs(SimilarityIndex.EMPTY);
+    }
+
+    @Test
+    void parallelBuildMatchesABruteForceOverManyShards() {
+        Random random = new Random(11);
+        SimilarityIndexBuilder builder = new SimilarityIndexBuilder();
+        Map<Long, Set<Long>> usersOfItem = new TreeMap<>();
+        for (long user = 0; user < 300; user++) {
+            for (int i = 0; i < 8; i++) {
+                long item = 1000 + random.nextInt(700);
+                builder.add(user, item);
+                usersOfItem.computeIfAbsent(item, id -> new HashSet<>()).add(user);
+            }
+        }
+
+        SimilarityIndex index = builder.build(5, 4);
+
+        assertThat(index.itemCount()).isEqualTo(usersOfItem.size());
+        for (long item : usersOfItem.keySet()) {
+            Map<Long, Float> expected = cosine(item, usersOfItem);
+            RecommendationEngine.Ranking similar = index.similarTo(item, 5);
+            assertThat(similar.size()).isEqualTo(Math.min(5, expected.size()));
+            float previous = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < similar.size(); i++) {
+                assertThat(similar.scores()[i]).isLessThanOrEqualTo(previous)
+                        .isCloseTo(expected.get(similar.contentIds()[i]), within(1e-5f));
+                previous = similar.scores()[i];
+            }
+            // Nothing left out scores better than the last neighbour kept
+            if (similar.size() == 5) {
+                float cut = similar.scores()[4];
+                long better = expected.values().stream().filter(score -> score > cut + 1e-5f).count();
+                assertThat(better).isLessThanOrEqualTo(4);
+            }
+        }
+    }
+
+    private static Map<Long, Float> cosine(long item, Map<Long, Set<Long>> usersOfItem) {
+        Set<Long> users = usersOfItem.get(item);
+        Map<Long, Float> scores = new HashMap<>();
+        usersOfItem.forEach((other, otherUsers) -> {
+            if (other == item) {
+                return;
+            }
+            long common = otherUsers.stream().filter(users::contains).count();
+            if (common > 0) {
+                scores.put(other, (float) (common / Math.sqrt((double) users.size() * otherUsers.size())));
+            }
+        });
+        return scores;
+    }
+}
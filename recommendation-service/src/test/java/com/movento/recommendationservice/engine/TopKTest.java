@@ -0,0 +1,86 @@
+package com.movento.recommendationservice.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKTest {
+
+    @Test
+    void keepsTheHighestScoresBestFirst() {
+        TopK top = new TopK(3);
+        float[] scores = {0.5f, 2f, 1f, 3f, 0.1f, 2.5f};
+        for (int i = 0; i < scores.length; i++) {
+            top.offer(i, scores[i]);
+        }
+
+        long[] ids = new long[3];
+        float[] out = new float[3];
+        assertThat(top.drainDescending(ids, out)).isEqualTo(3);
+
+        assertThat(ids).containsExactly(3, 5, 1);
+        assertThat(out).containsExactly(3f, 2.5f, 2f);
+        assertThat(top.size()).isZero();
+    }
+
+    @Test
+    void tiesGoToTheLowerId() {
+        TopK top = new TopK(2);
+        top.offer(9, 1f);
+        top.offer(4, 1f);
+        top.offer(7, 1f);
+
+        long[] ids = new long[2];
+        top.drainDescending(ids, new float[2]);
+
+        assertThat(ids).containsExactly(4, 7);
+    }
+
+    @Test
+    void thresholdIsOpenUntilTheHeapIsFull() {
+        TopK top = new TopK(2);
+        assertThat(top.threshold()).isEqualTo(Float.NEGATIVE_INFINITY);
+        top.offer(1, 5f);
+        top.offer(2, 3f);
+
+        assertThat(top.threshold()).isEqualTo(3f);
+        assertThat(top.offer(3, 2f)).isFalse();
+        assertThat(top.offer(4, 4f)).isTrue();
+        assertThat(top.threshold()).isEqualTo(4f);
+    }
+
+    @Test
+    void zeroCapacityAcceptsNothingAndNegativeIsRejected() {
+        TopK empty = new TopK(0);
+        assertThat(empty.offer(1, 100f)).isFalse();
+        assertThat(empty.size()).isZero();
+
+        assertThatThrownBy(() -> new TopK(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void matchesAFullSortOnRandomInput() {
+        Random random = new Random(42);
+        float[] scores = new float[1000];
+        TopK top = new TopK(25);
+        for (int i = 0; i < scores.length; i++) {
+            // Coarse scores so the tie-break is exercised too
+            scores[i] = random.nextInt(200);
+            top.offer(i, scores[i]);
+        }
+
+        long[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> scores[a] != scores[b] ? Float.compare(scores[b], scores[a]) : Integer.compare(a, b))
+                .limit(25)
+                .mapToLong(Integer::longValue)
+                .toArray();
+        long[] ids = new long[25];
+        top.drainDescending(ids, new float[25]);
+
+        assertThat(ids).containsExactly(expected);
+    }
+}
@@ -0,0 +1,74 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.engine.RecommendationEngine.Ranking;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecommendationListCodecTest {
+
+    private static final Instant COMPUTED_AT = Instant.ofEpochMilli(1_700_000_000_123L);
+    private static final Ranking LIST = new Ranking(new long[]{10, 20, 30, 40}, new float[]{4f, 3f, 2f, 1f});
+
+    @Test
+    void pagesDecodeFromTheirOffset() {
+        byte[] bytes = RecommendationListCodec.encode(LIST, COMPUTED_AT);
+
+        RecommendationListStore.Page page = RecommendationListCodec.decode(bytes, 1, 2);
+
+        assertThat(bytes).hasSize(RecommendationListCodec.HEADER_BYTES + 4 * RecommendationListCodec.ENTRY_BYTES);
+        assertThat(page.total()).isEqualTo(4);
+        assertThat(page.computedAt()).isEqualTo(COMPUTED_AT);
+        assertThat(page.ranking().contentIds()).containsExactly(20, 30);
+        assertThat(page.ranking().scores()).containsExactly(3f, 2f);
+    }
+
+    @Test
+    void outOfRangePagesAreClampedWithoutOverflow() {
+        byte[] bytes = RecommendationListCodec.encode(LIST, COMPUTED_AT);
+
+        assertThat(RecommendationListCodec.decode(bytes, 3, Integer.MAX_VALUE).ranking().contentIds()).containsExactly(40);
+        assertThat(RecommendationListCodec.decode(bytes, 10, 5).ranking().size()).isZero();
+        assertThat(RecommendationListCodec.decode(bytes, -1, -1).ranking().size()).isZero();
+    }
+
+    @Test
+    void foreignOrTruncatedBlobsAreNotDecoded() {
+        byte[] bytes = RecommendationListCodec.encode(LIST, COMPUTED_AT);
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 2;
+
+        assertThat(RecommendationListCodec.decode(Arrays.copyOf(bytes, bytes.length - 1), 0, 10)).isNull();
+        assertThat(RecommendationListCodec.decode(otherVersion, 0, 10)).isNull();
+        assertThat(RecommendationListCodec.decode(new byte[3], 0, 10)).isNull();
+        assertThat(RecommendationListCodec.apply(new byte[3], 10, 1f, 10, COMPUTED_AT)).isNull();
+    }
+
+    @Test
+    void applyMovesATitleToItsNewRank() {
+        byte[] bytes = RecommendationListCodec.encode(LIST, COMPUTED_AT);
+
+        byte[] moved = RecommendationListCodec.apply(bytes, 40, 3.5f, 10, COMPUTED_AT);
+        byte[] removed = RecommendationListCodec.apply(bytes, 20, null, 10, COMPUTED_AT);
+        byte[] added = RecommendationListCodec.apply(bytes, 50, 5f, 4, COMPUTED_AT);
+
+        assertThat(RecommendationListCodec.decode(moved, 0, 10).ranking().contentIds()).containsExactly(10, 40, 20, 30);
+        assertThat(RecommendationListCodec.decode(removed, 0, 10).ranking().contentIds()).containsExactly(10, 30, 40);
+        assertThat(RecommendationListCodec.decode(added, 0, 10).ranking().contentIds()).containsExactly(50, 10, 20, 30);
+    }
+
+    @Test
+    void applyStampsTheLaterOfTheTwoTimes() {
+        byte[] bytes = RecommendationListCodec.encode(LIST, COMPUTED_AT);
+        Instant later = COMPUTED_AT.plusSeconds(30);
+
+        byte[] updated = RecommendationListCodec.apply(bytes, 10, 1f, 10, later);
+        byte[] replayed = RecommendationListCodec.apply(updated, 10, 1f, 10, COMPUTED_AT);
+
+        assertThat(RecommendationListCodec.decode(updated, 0, 10).computedAt()).isEqualTo(later);
+        assertThat(RecommendationListCodec.decode(replayed, 0, 10).computedAt()).isEqualTo(later);
+    }
+}
@@ -0,0 +1,116 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.dto.RecommendationRequest;
+import com.movento.recommendationservice.engine.RecommendationEngine;
+import com.movento.recommendationservice.engine.RecommendationEngine.Ranking;
+import com.movento.recommendationservice.model.Recommendation;
+import com.movento.recommendationservice.repository.RecommendationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceTest {
+
+    private static final long USER = 1L;
+
+    private final RecommendationRepository repository = mock(RecommendationRepository.class);
+    private final RecommendationEngine engine = mock(RecommendationEngine.class);
+    private final FactorModelService factorModelService = mock(FactorModelService.class);
+    private final RecommendationListStore listStore = mock(RecommendationListStore.class);
+
+    private RecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RecommendationService(repository, mock(RabbitTemplate.class), engine,
+                mock(SimilarityIndexService.class), factorModelService, mock(CatalogIndexService.class),
+                listStore, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "rerankDepth", 5);
+        ReflectionTestUtils.setField(service, "listSize", 10);
+        ReflectionTestUtils.setField(service, "listTtlMs", 60_000L);
+    }
+
+    @Test
+    void storedRecommendationsRankAboveComputedOnesInTheirOwnOrder() {
+        when(engine.recommend(eq(USER), anyInt())).thenReturn(new Ranking(new long[]{1, 2}, new float[]{40f, 3f}));
+        stored(recommendation(8, 5.0), recommendation(9, 0.2));
+
+        Ranking ranking = service.computeRanking(USER, 10);
+
+        assertThat(ranking.contentIds()).containsExactly(8, 9, 1, 2);
+    }
+
+    @Test
+    void rerankedScoresStayBelowStoredOnes() {
+        Ranking candidates = new Ranking(new long[]{1, 2}, new float[]{1f, 2f});
+        when(engine.recommend(eq(USER), anyInt())).thenReturn(candidates);
+        when(factorModelService.rerank(eq(USER), any(), anyInt()))
+                .thenReturn(new Ranking(new long[]{2, 1}, new float[]{1000f, -3f}));
+        stored(recommendation(9, -50.0));
+
+        Ranking ranking = service.computeRanking(USER, 10);
+
+        assertThat(ranking.contentIds()).containsExactly(9, 2, 1);
+    }
+
+    @Test
+    void popularTitlesAreRankedLikeComputedOnes() {
+        when(engine.recommend(eq(USER), anyInt())).thenReturn(Ranking.EMPTY);
+        when(engine.popular(10)).thenReturn(new Ranking(new long[]{4, 5}, new float[]{900f, 12f}));
+        stored();
+
+        Ranking ranking = service.computeRanking(USER, 10);
+
+        assertThat(ranking.contentIds()).containsExactly(4, 5);
+        assertThat(ranking.scores()[0]).isLessThan(RecommendationService.storedRank(-1e9));
+    }
+
+    @Test
+    void incrementalUpdatePlacesAStoredRowInTheStoredTier() {
+        when(engine.recommend(eq(USER), anyInt())).thenReturn(new Ranking(new long[]{1, 2}, new float[]{40f, 3f}));
+        stored(recommendation(8, 5.0));
+        Ranking ranking = service.computeRanking(USER, 10);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RecommendationRequest request = new RecommendationRequest();
+        request.setUserId(USER);
+        request.setContentId(7L);
+        request.setScore(0.1);
+        service.createRecommendation(request);
+
+        ArgumentCaptor<Float> score = ArgumentCaptor.forClass(Float.class);
+        verify(listStore).update(eq(USER), eq(7L), score.capture(), eq(10), any(), any());
+        byte[] updated = RecommendationListCodec.apply(
+                RecommendationListCodec.encode(ranking, Instant.EPOCH), 7L, score.getValue(), 10, Instant.EPOCH);
+        assertThat(RecommendationListCodec.decode(updated, 0, 10).ranking().contentIds())
+                .containsExactly(8, 7, 1, 2);
+    }
+
+    private void stored(Recommendation... recommendations) {
+        when(repository.findByUserIdOrderByScoreDesc(eq(USER), any(Pageable.class)))
+                .thenReturn(List.of(recommendations));
+    }
+
+    private static Recommendation recommendation(long contentId, double score) {
+        Recommendation recommendation = new Recommendation();
+        recommendation.setUserId(USER);
+        recommendation.setContentId(contentId);
+        recommendation.setScore(score);
+        return recommendation;
+    }
+}
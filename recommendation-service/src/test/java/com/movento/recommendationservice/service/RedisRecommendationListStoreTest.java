@@ -0,0 +1,130 @@
+package com.movento.recommendationservice.service;
+
+import com.movento.recommendationservice.config.RedisConfig;
+import com.movento.recommendationservice.engine.RecommendationEngine.Ranking;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class RedisRecommendationListStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Instant T0 = Instant.ofEpochMilli(1_700_000_000_000L);
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static RedisTemplate<String, byte[]> redisTemplate;
+
+    private RedisRecommendationListStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new RedisConfig().binaryRedisTemplate(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        store = new RedisRecommendationListStore(redisTemplate);
+    }
+
+    @Test
+    void writtenListsAreReadBackAPageAtATime() {
+        assertThat(store.write(Map.of(1L, ranking(10, 20, 30, 40)), T0, TTL)).isEmpty();
+
+        RecommendationListStore.Page page = store.read(1L, 1, 2);
+
+        assertThat(page.total()).isEqualTo(4);
+        assertThat(page.computedAt()).isEqualTo(T0);
+        assertThat(page.ranking().contentIds()).containsExactly(20, 30);
+        assertThat(store.read(2L, 0, 10)).isNull();
+        assertThat(redisTemplate.getExpire("recommendations.list.{1}")).isPositive();
+    }
+
+    @Test
+    void anOlderRankingNeverReplacesANewerOne() {
+        store.write(Map.of(1L, ranking(10)), T0.plusSeconds(5), TTL);
+
+        Set<Long> kept = store.write(Map.of(1L, ranking(99), 2L, ranking(20)), T0, TTL);
+
+        assertThat(kept).containsExactly(1L);
+        assertThat(store.read(1L, 0, 10).ranking().contentIds()).containsExactly(10);
+        assertThat(store.read(2L, 0, 10).ranking().contentIds()).containsExactly(20);
+
+        store.write(Map.of(1L, ranking(77)), T0.plusSeconds(5), TTL);
+        assertThat(store.read(1L, 0, 10).ranking().contentIds()).containsExactly(77);
+    }
+
+    @Test
+    void anUpdateIsNotUndoneByARankingComputedBeforeIt() {
+        store.write(Map.of(1L, ranking(10, 20)), T0, TTL);
+        assertThat(store.update(1L, 30, 5f, 10, T0.plusSeconds(10), TTL)).isTrue();
+
+        Set<Long> kept = store.write(Map.of(1L, ranking(10, 20)), T0.plusSeconds(1), TTL);
+
+        assertThat(kept).containsExactly(1L);
+        RecommendationListStore.Page page = store.read(1L, 0, 10);
+        assertThat(page.ranking().contentIds()).containsExactly(30, 10, 20);
+        assertThat(page.computedAt()).isEqualTo(T0.plusSeconds(10));
+    }
+
+    @Test
+    void updatesMoveOrRemoveOneTitleOfAnExistingList() {
+        store.write(Map.of(1L, ranking(10, 20, 30)), T0, TTL);
+
+        store.update(1L, 30, 9f, 10, T0, TTL);
+        store.update(1L, 10, null, 10, T0, TTL);
+
+        assertThat(store.read(1L, 0, 10).ranking().contentIds()).containsExactly(30, 20);
+        assertThat(store.update(2L, 10, 1f, 10, T0, TTL)).isFalse();
+        assertThat(store.read(2L, 0, 10)).isNull();
+    }
+
+    @Test
+    void writeIfAbsentLeavesAStoredListAlone() {
+        store.write(Map.of(1L, ranking(10)), T0, TTL);
+
+        store.writeIfAbsent(1L, ranking(99), T0.plusSeconds(1), TTL);
+        store.writeIfAbsent(2L, ranking(20), T0, TTL);
+
+        assertThat(store.read(1L, 0, 10).ranking().contentIds()).containsExactly(10);
+        assertThat(store.read(2L, 0, 10).ranking().contentIds()).containsExactly(20);
+    }
+
+    // Scores fall with position, so the list is best first as stored
+    private static Ranking ranking(long... contentIds) {
+        float[] scores = new float[contentIds.length];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = 1f - i * 0.1f;
+        }
+        return new Ranking(contentIds, scores);
+    }
+}
@@ -0,0 +1,14 @@
+package com.movento.streamingservice.client;
+
+import com.movento.streamingservice.dto.ServiceResponse;
+import com.movento.streamingservice.dto.UserPlanDto;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "payment-service")
+public interface PaymentServiceClient {
+
+    @GetMapping("/api/payments/api/payments/user/{userId}/plan")
+    ServiceResponse<UserPlanDto> getUserPlan(@PathVariable("userId") Long userId);
+}
@@ -0,0 +1,82 @@
+package com.movento.streamingservice.controller;
+
+import com.movento.streamingservice.service.ManifestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * VOD manifests. They only change when a title is re-packaged, which changes its version, so a
+ * request pinned to the current version with {@code v} is served as immutable with a long TTL.
+ * The unversioned entry points (master playlist, MPD) are cached briefly and revalidated with the
+ * version as ETag, so players pick up a re-packaged title.
+ */
+@RestController
+@RequestMapping("/manifests/{contentId}")
+@RequiredArgsConstructor
+public class ManifestController {
+
+    private static final MediaType HLS = MediaType.parseMediaType("application/vnd.apple.mpegurl");
+    private static final MediaType DASH = MediaType.parseMediaType("application/dash+xml");
+
+    private final ManifestService manifestService;
+
+    @Value("${app.manifests.vod-max-age:1d}")
+    private Duration vodMaxAge;
+
+    @Value("${app.manifests.unversioned-max-age:30s}")
+    private Duration unversionedMaxAge;
+
+    @GetMapping("/master.m3u8")
+    public ResponseEntity<byte[]> hlsMaster(@PathVariable Long contentId,
+                                            @RequestParam(required = false) Long episodeId,
+                                            WebRequest request) {
+        return manifest(contentId, episodeId, null, HLS, request, () -> manifestService.hlsMaster(contentId, episodeId));
+    }
+
+    @GetMapping("/{rendition}.m3u8")
+    public ResponseEntity<byte[]> hlsMedia(@PathVariable Long contentId,
+                                           @PathVariable String rendition,
+                                           @RequestParam(required = false) Long episodeId,
+                                           @RequestParam(required = false) String v,
+                                           WebRequest request) {
+        return manifest(contentId, episodeId, v, HLS, request,
+            () -> manifestService.hlsMedia(contentId, episodeId, rendition));
+    }
+
+    @GetMapping("/manifest.mpd")
+    public ResponseEntity<byte[]> dash(@PathVariable Long contentId,
+                                       @RequestParam(required = false) Long episodeId,
+                                       WebRequest request) {
+        return manifest(contentId, episodeId, null, DASH, request, () -> manifestService.dash(contentId, episodeId));
+    }
+
+    private ResponseEntity<byte[]> manifest(Long contentId, Long episodeId, String requestedVersion, MediaType type,
+                                            WebRequest request, Supplier<byte[]> body) {
+        String version = manifestService.version(contentId, episodeId);
+        String etag = "\"v" + version + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // A stale or missing v must not pin whatever this URL currently returns
+        CacheControl cacheControl = version.equals(requestedVersion)
+            ? CacheControl.maxAge(vodMaxAge).cachePublic().immutable()
+            : CacheControl.maxAge(unversionedMaxAge).cachePublic();
+        return ResponseEntity.ok()
+            .contentType(type)
+            .cacheControl(cacheControl)
+            .eTag(etag)
+            .body(body.get());
+    }
+}
@@ -0,0 +1,111 @@
+package com.movento.streamingservice.controller;
+
+import com.movento.streamingservice.service.MediaFile;
+import com.movento.streamingservice.service.MediaSegmentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Serves media segments with single byte-range support. On Tomcat the body is handed to the
+ * connector's sendfile support, which writes the file to the socket with
+ * {@code FileChannel.transferTo}; elsewhere it is copied from the cached open channel.
+ */
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaSegmentService mediaSegmentService;
+
+    @Value("${app.media.cache-control:public, max-age=86400}")
+    private String cacheControl;
+
+    @RequestMapping(value = "/{*path}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void segment(@PathVariable String path, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        MediaFile file = mediaSegmentService.open(path);
+        try {
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            if (new ServletWebRequest(request, response).checkNotModified(file.getEtag(), file.getLastModified())) {
+                return;
+            }
+            response.setContentType(mediaSegmentService.contentType(file));
+
+            long size = file.getSize();
+            long start = 0;
+            long end = size - 1;
+            String range = request.getHeader(HttpHeaders.RANGE);
+            List<HttpRange> ranges = range != null && ifRangeMatches(request, file) ? parseRanges(range) : List.of();
+            // Multiple ranges are answered with the whole file, which RFC 9110 allows
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(size);
+                end = ranges.get(0).getRangeEnd(size);
+                if (start >= size || end < start) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+
+            long length = end - start + 1;
+            response.setContentLengthLong(length);
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                request.setAttribute(SENDFILE_FILENAME, file.getPath().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+                return;
+            }
+            MediaSegmentService.copyRange(file.getChannel(), start, length,
+                Channels.newChannel(response.getOutputStream()));
+        } finally {
+            file.release();
+        }
+    }
+
+    // A malformed Range header is ignored rather than rejected, as RFC 9110 requires
+    private static List<HttpRange> parseRanges(String range) {
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    // A range is only honoured if the client's copy is still current
+    private static boolean ifRangeMatches(HttpServletRequest request, MediaFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.getEtag());
+        }
+        long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+        return since >= 0 && file.getLastModified() / 1000 <= since / 1000;
+    }
+}
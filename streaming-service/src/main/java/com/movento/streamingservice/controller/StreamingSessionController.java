@@ -1,7 +1,9 @@
 package com.movento.streamingservice.controller;
 
+import com.movento.streamingservice.dto.HeartbeatRequest;
 import com.movento.streamingservice.dto.StreamingSessionRequest;
 import com.movento.streamingservice.dto.StreamingSessionResponse;
+import com.movento.streamingservice.dto.WatchingNowResponse;
 import com.movento.streamingservice.service.StreamingSessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -32,6 +35,20 @@ public class StreamingSessionController {
         return ResponseEntity.ok(service.endSession(id));
     }
 
+    @PostMapping("/{id}/heartbeat")
+    public ResponseEntity<StreamingSessionResponse> heartbeat(@PathVariable Long id,
+                                                              @Valid @RequestBody HeartbeatRequest request) {
+        return ResponseEntity.ok(service.heartbeat(id, request.getPositionSeconds()));
+    }
+
+    /**
+     * Viewers currently playing {@code contentId} on this instance, or all active sessions without it.
+     */
+    @GetMapping("/watching")
+    public ResponseEntity<WatchingNowResponse> watching(@RequestParam(required = false) Long contentId) {
+        return ResponseEntity.ok(service.watching(contentId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<StreamingSessionResponse> get(@PathVariable Long id) {
         return ResponseEntity.ok(service.getSession(id));
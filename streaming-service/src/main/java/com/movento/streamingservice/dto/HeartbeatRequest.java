@@ -0,0 +1,15 @@
+package com.movento.streamingservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class HeartbeatRequest {
+
+    @NotNull
+    @PositiveOrZero
+    private Long positionSeconds;
+}
@@ -0,0 +1,13 @@
+package com.movento.streamingservice.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Envelope used by other services' APIs; only the payload is of interest here.
+ */
+@Getter
+@Setter
+public class ServiceResponse<T> {
+    private T data;
+}
@@ -15,4 +15,6 @@ public class StreamingSessionResponse {
     private StreamingSession.SessionStatus status;
     private Instant startedAt;
     private Instant endedAt;
+    private Instant lastHeartbeatAt;
+    private Long positionSeconds;
 }
@@ -0,0 +1,12 @@
+package com.movento.streamingservice.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserPlanDto {
+    private Long userId;
+    private String planId;
+    private int maxStreams;
+}
@@ -0,0 +1,11 @@
+package com.movento.streamingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class WatchingNowResponse {
+    private Long contentId;
+    private int viewers;
+}
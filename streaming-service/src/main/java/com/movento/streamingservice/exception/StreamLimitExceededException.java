@@ -0,0 +1,12 @@
+package com.movento.streamingservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class StreamLimitExceededException extends RuntimeException {
+
+    public StreamLimitExceededException(int maxStreams) {
+        super("Concurrent stream limit of " + maxStreams + " reached");
+    }
+}
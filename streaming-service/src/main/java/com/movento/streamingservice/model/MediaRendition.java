@@ -0,0 +1,70 @@
+package com.movento.streamingservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One packaged rendition of a title or episode, as written by the packaging pipeline. Segment
+ * files live under {@code basePath} in the media root and are named by {@code segmentPattern}
+ * (a printf pattern taking the segment number).
+ */
+@Entity
+@Table(name = "media_renditions", indexes = @Index(columnList = "contentId, episodeId"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class MediaRendition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long contentId;
+
+    private Long episodeId;
+
+    /** Rendition name used in URLs, e.g. {@code 720p}. */
+    @NotNull
+    @Column(nullable = false)
+    private String name;
+
+    private int bandwidth;
+
+    private Integer width;
+
+    private Integer height;
+
+    private String codecs;
+
+    @NotNull
+    @Column(nullable = false)
+    private String basePath;
+
+    @NotNull
+    @Column(nullable = false)
+    private String segmentPattern;
+
+    private int startNumber = 1;
+
+    /** fMP4 initialization segment; {@code null} for MPEG-TS renditions. */
+    private String initSegment;
+
+    /** Comma-separated segment durations in milliseconds. */
+    @NotNull
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String segmentDurationsMs;
+
+    /** Bumped by the packager whenever the rendition is re-packaged. */
+    private long version;
+}
@@ -44,6 +44,10 @@ public class StreamingSession {
 
     private Instant endedAt;
 
+    private Instant lastHeartbeatAt;
+
+    private Long positionSeconds;
+
     public enum SessionStatus {
         ACTIVE,
         ENDED
@@ -0,0 +1,10 @@
+package com.movento.streamingservice.repository;
+
+import com.movento.streamingservice.model.MediaRendition;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface MediaRenditionRepository extends JpaRepository<MediaRendition, Long> {
+    List<MediaRendition> findByContentIdAndEpisodeIdOrderByBandwidthAsc(Long contentId, Long episodeId);
+}
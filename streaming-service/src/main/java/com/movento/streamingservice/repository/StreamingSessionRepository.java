@@ -2,9 +2,24 @@ package com.movento.streamingservice.repository;
 
 import com.movento.streamingservice.model.StreamingSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface StreamingSessionRepository extends JpaRepository<StreamingSession, Long> {
     List<StreamingSession> findByUserId(Long userId);
+
+    /**
+     * Ends sessions that are still ACTIVE but have not been heard from since {@code cutoff}, e.g. when
+     * the instance tracking them went down. The session is taken to have ended at its last heartbeat.
+     */
+    @Modifying
+    @Query("UPDATE StreamingSession s SET s.status = :ended, s.endedAt = COALESCE(s.lastHeartbeatAt, s.startedAt) " +
+           "WHERE s.status = :active AND COALESCE(s.lastHeartbeatAt, s.startedAt) < :cutoff")
+    int endAbandonedSessions(@Param("cutoff") Instant cutoff,
+                             @Param("active") StreamingSession.SessionStatus active,
+                             @Param("ended") StreamingSession.SessionStatus ended);
 }
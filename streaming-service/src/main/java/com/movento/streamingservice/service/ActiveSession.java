@@ -0,0 +1,43 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * In-memory state of a session that is currently playing. Identity fields are fixed; heartbeat
+ * fields are overwritten by the latest heartbeat and read by the expiry timer and the writer.
+ */
+@Getter
+public class ActiveSession {
+
+    private final Long id;
+    private final Long userId;
+    private final Long contentId;
+    private final Instant startedAt;
+
+    private volatile long lastHeartbeatNanos;
+    private volatile Instant lastHeartbeatAt;
+    private volatile Long positionSeconds;
+
+    ActiveSession(StreamingSession session) {
+        this.id = session.getId();
+        this.userId = session.getUserId();
+        this.contentId = session.getContentId();
+        this.startedAt = session.getStartedAt();
+        this.positionSeconds = session.getPositionSeconds();
+        this.lastHeartbeatNanos = System.nanoTime();
+        this.lastHeartbeatAt = Instant.now();
+    }
+
+    void heartbeat(long positionSeconds) {
+        this.positionSeconds = positionSeconds;
+        this.lastHeartbeatAt = Instant.now();
+        this.lastHeartbeatNanos = System.nanoTime();
+    }
+
+    long idleNanos() {
+        return System.nanoTime() - lastHeartbeatNanos;
+    }
+}
@@ -0,0 +1,157 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sessions currently playing on this instance, sharded by session id. Heartbeats only touch
+ * memory; {@link SessionStateWriter} persists positions in batches. Each session has one pending
+ * timeout on a hashed-wheel timer: when it fires, a session that heartbeated in the meantime is
+ * rescheduled for the remainder of its idle window, otherwise it is expired and ended at its last
+ * heartbeat. This avoids cancelling and re-arming a timer on every heartbeat.
+ */
+@Slf4j
+@Component
+public class ActiveSessionRegistry {
+
+    private static final int SHARDS = 16;
+
+    private final List<Map<Long, ActiveSession>> shards = new ArrayList<>(SHARDS);
+    private final Map<Long, Integer> viewersByContent = new ConcurrentHashMap<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final HashedWheelTimer timer;
+    private final long idleTimeoutNanos;
+    private final SessionStateWriter writer;
+
+    public ActiveSessionRegistry(SessionStateWriter writer,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.sessions.idle-timeout:90s}") Duration idleTimeout) {
+        this.writer = writer;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+        // Expiry only needs second-level precision
+        this.timer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        }, 1, TimeUnit.SECONDS, 512);
+        Gauge.builder("streaming.sessions.active", activeCount, AtomicInteger::get)
+            .description("Sessions currently playing on this instance")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking a session; returns the tracked state if it is already registered.
+     */
+    public ActiveSession register(StreamingSession session) {
+        Map<Long, ActiveSession> shard = shard(session.getId());
+        ActiveSession created = new ActiveSession(session);
+        ActiveSession existing = shard.putIfAbsent(session.getId(), created);
+        if (existing != null) {
+            return existing;
+        }
+        activeCount.incrementAndGet();
+        viewersByContent.merge(created.getContentId(), 1, Integer::sum);
+        writer.positionChanged(created);
+        schedule(created, idleTimeoutNanos);
+        return created;
+    }
+
+    /**
+     * @return the updated session, or {@code null} if it is not playing on this instance
+     */
+    public ActiveSession heartbeat(Long id, long positionSeconds) {
+        ActiveSession session = shard(id).get(id);
+        if (session != null) {
+            session.heartbeat(positionSeconds);
+            writer.positionChanged(session);
+        }
+        return session;
+    }
+
+    public ActiveSession get(Long id) {
+        return shard(id).get(id);
+    }
+
+    /**
+     * Stops tracking a session the client ended; the caller persists the final state.
+     *
+     * @return the last tracked state, or {@code null} if it was not playing on this instance
+     */
+    public ActiveSession end(Long id) {
+        ActiveSession session = shard(id).get(id);
+        if (session == null || !remove(session)) {
+            return null;
+        }
+        writer.forget(id);
+        return session;
+    }
+
+    public int watching(Long contentId) {
+        return viewersByContent.getOrDefault(contentId, 0);
+    }
+
+    public int activeCount() {
+        return activeCount.get();
+    }
+
+    private void schedule(ActiveSession session, long delayNanos) {
+        timer.newTimeout(timeout -> checkIdle(session), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void checkIdle(ActiveSession session) {
+        if (shard(session.getId()).get(session.getId()) != session) {
+            return;
+        }
+        long idle = session.idleNanos();
+        if (idle < idleTimeoutNanos) {
+            schedule(session, idleTimeoutNanos - idle);
+            return;
+        }
+        if (remove(session)) {
+            log.debug("Session {} expired after {}s without a heartbeat", session.getId(),
+                TimeUnit.NANOSECONDS.toSeconds(idle));
+            writer.expired(session);
+        }
+    }
+
+    private boolean remove(ActiveSession session) {
+        if (!shard(session.getId()).remove(session.getId(), session)) {
+            return false;
+        }
+        activeCount.decrementAndGet();
+        // Counts change only inside the map's atomic update, so a concurrent register cannot be lost
+        viewersByContent.compute(session.getContentId(),
+            (id, viewers) -> viewers == null || viewers <= 1 ? null : viewers - 1);
+        return true;
+    }
+
+    private Map<Long, ActiveSession> shard(Long id) {
+        return shards.get(Long.hashCode(id) & (SHARDS - 1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Pending timeouts are dropped; positions reach the database via the writer's final flush
+        for (Timeout timeout : timer.stop()) {
+            timeout.cancel();
+        }
+    }
+}
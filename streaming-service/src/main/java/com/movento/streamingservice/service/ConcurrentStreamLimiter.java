@@ -0,0 +1,100 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.exception.StreamLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Admits a session only while its user holds fewer stream leases than their plan allows. Leases
+ * outlive the registry's idle timeout and are renewed with each position flush, so they lapse
+ * shortly after heartbeats stop, including when the instance serving them crashes. If the lease
+ * store is unavailable sessions are admitted rather than blocking playback.
+ */
+@Slf4j
+@Service
+public class ConcurrentStreamLimiter {
+
+    private final StreamLeaseStore leaseStore;
+    private final PlanLimitService planLimitService;
+    private final Duration leaseTtl;
+
+    private final Counter admitted;
+    private final Counter rejected;
+    private final Counter failedOpen;
+
+    public ConcurrentStreamLimiter(StreamLeaseStore leaseStore,
+                                   PlanLimitService planLimitService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.streams.lease-ttl:2m}") Duration leaseTtl) {
+        this.leaseStore = leaseStore;
+        this.planLimitService = planLimitService;
+        this.leaseTtl = leaseTtl;
+        this.admitted = counter(meterRegistry, "admitted");
+        this.rejected = counter(meterRegistry, "rejected");
+        this.failedOpen = counter(meterRegistry, "failed-open");
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("streaming.admissions")
+            .description("Session admissions by concurrent-stream limit outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+
+    /**
+     * @throws StreamLimitExceededException if the user is already at their plan's stream limit
+     */
+    public void admit(Long userId, Long sessionId) {
+        int maxStreams = planLimitService.maxStreams(userId);
+        boolean granted;
+        try {
+            granted = leaseStore.acquire(new StreamLeaseStore.Lease(userId, sessionId), maxStreams, leaseTtl);
+        } catch (RuntimeException e) {
+            log.warn("Stream lease store unavailable, admitting session {}: {}", sessionId, e.getMessage());
+            failedOpen.increment();
+            return;
+        }
+        if (!granted) {
+            rejected.increment();
+            throw new StreamLimitExceededException(maxStreams);
+        }
+        admitted.increment();
+    }
+
+    public void renew(List<ActiveSession> sessions) {
+        try {
+            leaseStore.renew(leases(sessions), leaseTtl);
+        } catch (RuntimeException e) {
+            log.warn("Could not renew {} stream leases: {}", sessions.size(), e.getMessage());
+        }
+    }
+
+    public void release(List<ActiveSession> sessions) {
+        try {
+            leaseStore.release(leases(sessions));
+        } catch (RuntimeException e) {
+            // Unreleased leases lapse on their own after the lease TTL
+            log.debug("Could not release {} stream leases: {}", sessions.size(), e.getMessage());
+        }
+    }
+
+    public void release(Long userId, Long sessionId) {
+        try {
+            leaseStore.release(List.of(new StreamLeaseStore.Lease(userId, sessionId)));
+        } catch (RuntimeException e) {
+            log.debug("Could not release stream lease of session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static List<StreamLeaseStore.Lease> leases(List<ActiveSession> sessions) {
+        return sessions.stream()
+            .map(session -> new StreamLeaseStore.Lease(session.getUserId(), session.getId()))
+            .toList();
+    }
+}
@@ -0,0 +1,274 @@
+package com.movento.streamingservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.movento.streamingservice.model.MediaRendition;
+import com.movento.streamingservice.repository.MediaRenditionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Renders HLS playlists and DASH MPDs for VOD titles from rendition metadata. Rendered manifests
+ * are kept as bytes in a size-bounded cache keyed by the metadata version, so serving one is a
+ * lookup and re-packaging a title simply moves requests to new keys. The version is a hash of the
+ * title's rendition ids and versions.
+ */
+@Service
+public class ManifestService {
+
+    public enum Format {
+        HLS_MASTER, HLS_MEDIA, DASH
+    }
+
+    private final MediaRenditionRepository renditionRepository;
+    private final String segmentBaseUrl;
+    private final Cache<RenditionSetKey, RenditionSet> renditionSets;
+    private final Cache<ManifestKey, byte[]> manifests;
+    private final MeterRegistry meterRegistry;
+
+    public ManifestService(MediaRenditionRepository renditionRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.manifests.segment-base-url:/api/stream/media/}") String segmentBaseUrl,
+                           @Value("${app.manifests.cache.max-size-bytes:33554432}") long maxSizeBytes,
+                           @Value("${app.manifests.metadata-ttl:30s}") Duration metadataTtl) {
+        this.renditionRepository = renditionRepository;
+        this.meterRegistry = meterRegistry;
+        this.segmentBaseUrl = segmentBaseUrl.endsWith("/") ? segmentBaseUrl : segmentBaseUrl + "/";
+        this.renditionSets = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(metadataTtl)
+            .build();
+        this.manifests = Caffeine.newBuilder()
+            .maximumWeight(maxSizeBytes)
+            .weigher((ManifestKey key, byte[] manifest) -> manifest.length)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, manifests, "manifests");
+    }
+
+    /**
+     * Current version of a title's renditions, to be used as the manifest's validator.
+     */
+    public String version(Long contentId, Long episodeId) {
+        return renditions(contentId, episodeId).version();
+    }
+
+    public byte[] hlsMaster(Long contentId, Long episodeId) {
+        RenditionSet set = renditions(contentId, episodeId);
+        return render(new ManifestKey(Format.HLS_MASTER, contentId, episodeId, null, set.version()),
+            () -> renderMaster(set));
+    }
+
+    public byte[] hlsMedia(Long contentId, Long episodeId, String rendition) {
+        RenditionSet set = renditions(contentId, episodeId);
+        MediaRendition media = set.renditions().stream()
+            .filter(candidate -> candidate.getName().equals(rendition))
+            .findFirst()
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rendition not found"));
+        return render(new ManifestKey(Format.HLS_MEDIA, contentId, episodeId, rendition, set.version()),
+            () -> renderMedia(media));
+    }
+
+    public byte[] dash(Long contentId, Long episodeId) {
+        RenditionSet set = renditions(contentId, episodeId);
+        List<MediaRendition> fragmented = set.renditions().stream()
+            .filter(rendition -> rendition.getInitSegment() != null)
+            .toList();
+        if (fragmented.isEmpty()) {
+            // DASH needs fMP4 segments; MPEG-TS titles are HLS only
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No DASH renditions");
+        }
+        return render(new ManifestKey(Format.DASH, contentId, episodeId, null, set.version()),
+            () -> renderDash(fragmented));
+    }
+
+    private RenditionSet renditions(Long contentId, Long episodeId) {
+        RenditionSet set = renditionSets.get(new RenditionSetKey(contentId, episodeId), key -> {
+            List<MediaRendition> renditions =
+                renditionRepository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(contentId, episodeId);
+            return new RenditionSet(renditions, version(renditions));
+        });
+        if (set.renditions().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No renditions for content " + contentId);
+        }
+        return set;
+    }
+
+    // Every rendition's (id, version) pair contributes, so removing a rendition or re-packaging one at
+    // a lower version also yields a new version, which a maximum over the versions would not
+    private static String version(List<MediaRendition> renditions) {
+        long hash = 0;
+        for (MediaRendition rendition : renditions.stream()
+                .sorted(Comparator.comparing(MediaRendition::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList()) {
+            hash = mix(hash * 31 + Objects.requireNonNullElse(rendition.getId(), 0L));
+            hash = mix(hash * 31 + rendition.getVersion());
+        }
+        return Long.toHexString(hash);
+    }
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private byte[] render(ManifestKey key, Supplier<String> renderer) {
+        return manifests.get(key, k -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            byte[] manifest = renderer.get().getBytes(StandardCharsets.UTF_8);
+            sample.stop(Timer.builder("streaming.manifest.render")
+                .description("Time to render a manifest on a cache miss")
+                .tag("format", k.format().name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+            return manifest;
+        });
+    }
+
+    private String renderMaster(RenditionSet set) {
+        StringBuilder out = new StringBuilder(256);
+        out.append("#EXTM3U\n#EXT-X-VERSION:").append(hlsVersion(set.renditions())).append('\n');
+        out.append("#EXT-X-INDEPENDENT-SEGMENTS\n");
+        for (MediaRendition rendition : set.renditions()) {
+            out.append("#EXT-X-STREAM-INF:BANDWIDTH=").append(rendition.getBandwidth());
+            if (rendition.getWidth() != null && rendition.getHeight() != null) {
+                out.append(",RESOLUTION=").append(rendition.getWidth()).append('x').append(rendition.getHeight());
+            }
+            if (rendition.getCodecs() != null) {
+                out.append(",CODECS=\"").append(rendition.getCodecs()).append('"');
+            }
+            // Versioned so that the immutable media playlists are refetched after re-packaging
+            out.append('\n').append(rendition.getName()).append(".m3u8?v=").append(set.version()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private String renderMedia(MediaRendition rendition) {
+        long[] durations = durations(rendition);
+        long longest = 0;
+        for (long duration : durations) {
+            longest = Math.max(longest, duration);
+        }
+
+        StringBuilder out = new StringBuilder(64 + durations.length * 48);
+        out.append("#EXTM3U\n#EXT-X-VERSION:").append(hlsVersion(List.of(rendition))).append('\n');
+        out.append("#EXT-X-PLAYLIST-TYPE:VOD\n");
+        out.append("#EXT-X-TARGETDURATION:").append((longest + 999) / 1000).append('\n');
+        out.append("#EXT-X-MEDIA-SEQUENCE:").append(rendition.getStartNumber()).append('\n');
+        out.append("#EXT-X-INDEPENDENT-SEGMENTS\n");
+        String base = segmentBaseUrl + rendition.getBasePath() + "/";
+        if (rendition.getInitSegment() != null) {
+            out.append("#EXT-X-MAP:URI=\"").append(base).append(rendition.getInitSegment()).append("\"\n");
+        }
+        for (int i = 0; i < durations.length; i++) {
+            out.append("#EXTINF:").append(seconds(durations[i])).append(",\n");
+            out.append(base).append(String.format(rendition.getSegmentPattern(), rendition.getStartNumber() + i)).append('\n');
+        }
+        out.append("#EXT-X-ENDLIST\n");
+        return out.toString();
+    }
+
+    private String renderDash(List<MediaRendition> renditions) {
+        long totalMs = 0;
+        for (long duration : durations(renditions.get(0))) {
+            totalMs += duration;
+        }
+
+        StringBuilder out = new StringBuilder(512);
+        out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.append("<MPD xmlns=\"urn:mpeg:dash:schema:mpd:2011\" type=\"static\" ")
+            .append("profiles=\"urn:mpeg:dash:profile:isoff-live:2011\" minBufferTime=\"PT2S\" ")
+            .append("mediaPresentationDuration=\"PT").append(seconds(totalMs)).append("S\">\n");
+        out.append("  <Period>\n");
+        out.append("    <AdaptationSet mimeType=\"video/mp4\" segmentAlignment=\"true\">\n");
+        for (MediaRendition rendition : renditions) {
+            String base = segmentBaseUrl + rendition.getBasePath() + "/";
+            out.append("      <Representation id=\"").append(xml(rendition.getName()))
+                .append("\" bandwidth=\"").append(rendition.getBandwidth()).append('"');
+            if (rendition.getCodecs() != null) {
+                out.append(" codecs=\"").append(xml(rendition.getCodecs())).append('"');
+            }
+            if (rendition.getWidth() != null && rendition.getHeight() != null) {
+                out.append(" width=\"").append(rendition.getWidth())
+                    .append("\" height=\"").append(rendition.getHeight()).append('"');
+            }
+            out.append(">\n");
+            out.append("        <SegmentTemplate timescale=\"1000\" startNumber=\"").append(rendition.getStartNumber())
+                .append("\" initialization=\"").append(xml(base + rendition.getInitSegment()))
+                .append("\" media=\"").append(xml(base + dashTemplate(rendition.getSegmentPattern()))).append("\">\n");
+            out.append("          <SegmentTimeline>\n");
+            appendTimeline(out, durations(rendition));
+            out.append("          </SegmentTimeline>\n");
+            out.append("        </SegmentTemplate>\n");
+            out.append("      </Representation>\n");
+        }
+        out.append("    </AdaptationSet>\n  </Period>\n</MPD>\n");
+        return out.toString();
+    }
+
+    // Runs of equal durations collapse into one S element with a repeat count
+    private static void appendTimeline(StringBuilder out, long[] durations) {
+        int i = 0;
+        while (i < durations.length) {
+            int repeat = 0;
+            while (i + repeat + 1 < durations.length && durations[i + repeat + 1] == durations[i]) {
+                repeat++;
+            }
+            out.append("            <S d=\"").append(durations[i]).append('"');
+            if (repeat > 0) {
+                out.append(" r=\"").append(repeat).append('"');
+            }
+            out.append("/>\n");
+            i += repeat + 1;
+        }
+    }
+
+    private static long[] durations(MediaRendition rendition) {
+        String[] parts = rendition.getSegmentDurationsMs().split(",");
+        long[] durations = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            durations[i] = Long.parseLong(parts[i].trim());
+        }
+        return durations;
+    }
+
+    // fMP4 segments (EXT-X-MAP without I-frames-only) need protocol version 6
+    private static int hlsVersion(List<MediaRendition> renditions) {
+        return renditions.stream().anyMatch(rendition -> rendition.getInitSegment() != null) ? 6 : 3;
+    }
+
+    private static String dashTemplate(String segmentPattern) {
+        return segmentPattern.replaceAll("%(0\\d+)?d", "\\$Number%$1d\\$").replace("%d$", "$");
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%d.%03d", millis / 1000, millis % 1000);
+    }
+
+    private static String xml(String value) {
+        return value.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private record RenditionSetKey(Long contentId, Long episodeId) {
+    }
+
+    private record RenditionSet(List<MediaRendition> renditions, String version) {
+    }
+
+    private record ManifestKey(Format format, Long contentId, Long episodeId, String rendition, String version) {
+    }
+}
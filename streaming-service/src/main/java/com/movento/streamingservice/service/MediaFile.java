@@ -0,0 +1,79 @@
+package com.movento.streamingservice.service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An open media file with the metadata needed for conditional and range requests. The channel is
+ * shared by concurrent requests and reference counted, so evicting it from {@link MediaFileCache}
+ * closes it only once the last request using it is done.
+ */
+public final class MediaFile {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final long lastModified;
+    private final String etag;
+    // One reference is held by the cache itself
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private MediaFile(Path path, FileChannel channel, long size, long lastModified) {
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(size) + "\"";
+    }
+
+    static MediaFile open(Path path, BasicFileAttributes attributes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new MediaFile(path, channel, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    boolean retain() {
+        while (true) {
+            int current = references.get();
+            if (current == 0) {
+                return false;
+            }
+            if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Nothing useful to do with a failed close of a read-only channel
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.movento.streamingservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * LRU of open media files, so the segments of popular titles are not re-opened and re-stat'ed
+ * for every range request. Entries are re-opened after a while to pick up replaced files.
+ */
+@Component
+public class MediaFileCache {
+
+    private final Cache<Path, MediaFile> files;
+
+    public MediaFileCache(@Value("${app.media.open-files:256}") long maxOpenFiles,
+                          @Value("${app.media.revalidate-after:60s}") Duration revalidateAfter) {
+        this.files = Caffeine.newBuilder()
+            .maximumSize(maxOpenFiles)
+            .expireAfterWrite(revalidateAfter)
+            .removalListener((Path path, MediaFile file, RemovalCause cause) -> {
+                if (file != null) {
+                    file.release();
+                }
+            })
+            .build();
+    }
+
+    /**
+     * Returns the open file with a reference taken; callers must {@link MediaFile#release()} it.
+     */
+    public MediaFile acquire(Path path) throws IOException {
+        while (true) {
+            MediaFile file;
+            try {
+                file = files.get(path, MediaFileCache::open);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (file.retain()) {
+                return file;
+            }
+            // Evicted and closed between lookup and retain
+            files.asMap().remove(path, file);
+        }
+    }
+
+    private static MediaFile open(Path path) {
+        try {
+            return MediaFile.open(path, Files.readAttributes(path, BasicFileAttributes.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        files.invalidateAll();
+        files.cleanUp();
+    }
+}
@@ -0,0 +1,107 @@
+package com.movento.streamingservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves media segments under the storage root and copies byte ranges of them without
+ * staging the data in heap buffers.
+ */
+@Service
+public class MediaSegmentService {
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+        "ts", "video/mp2t",
+        "m4s", "video/iso.segment",
+        "mp4", "video/mp4",
+        "webm", "video/webm",
+        "aac", "audio/aac",
+        "vtt", "text/vtt");
+
+    private final Path root;
+    private final Set<String> allowedExtensions;
+    private final MediaFileCache mediaFileCache;
+    private volatile Path realRoot;
+
+    public MediaSegmentService(MediaFileCache mediaFileCache,
+                               @Value("${app.media.root}") String root,
+                               @Value("${app.media.allowed-extensions:ts,m4s,mp4,webm,aac,vtt}") String allowedExtensions) {
+        this.mediaFileCache = mediaFileCache;
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.allowedExtensions = Arrays.stream(allowedExtensions.split(","))
+            .map(String::trim)
+            .map(extension -> extension.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Opens a segment by its path relative to the storage root. Paths escaping the root and
+     * files of other types are reported as not found.
+     */
+    public MediaFile open(String relativePath) throws IOException {
+        Path path = root.resolve(relativePath.replaceFirst("^/+", "")).normalize();
+        if (!path.startsWith(root) || !allowedExtensions.contains(extension(path))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Segment not found");
+        }
+        try {
+            // Symbolic links are followed before the check so none can lead out of the root
+            Path real = path.toRealPath();
+            if (!real.startsWith(realRoot())) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Segment not found");
+            }
+            return mediaFileCache.acquire(real);
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Segment not found");
+        }
+    }
+
+    // Resolved on first use, so a root that is mounted after startup is still found
+    private Path realRoot() throws IOException {
+        Path real = realRoot;
+        if (real == null) {
+            real = root.toRealPath();
+            realRoot = real;
+        }
+        return real;
+    }
+
+    public String contentType(MediaFile file) {
+        return CONTENT_TYPES.getOrDefault(extension(file.getPath()), "application/octet-stream");
+    }
+
+    /**
+     * Copies {@code count} bytes from {@code position}. The kernel moves the data directly when
+     * the target is a socket or file channel.
+     */
+    public static void copyRange(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long end = position + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new IOException("Segment ended at " + position + " of " + end + " bytes");
+            }
+            position += transferred;
+        }
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
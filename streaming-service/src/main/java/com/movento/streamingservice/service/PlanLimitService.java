@@ -0,0 +1,65 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.client.PaymentServiceClient;
+import com.movento.streamingservice.dto.ServiceResponse;
+import com.movento.streamingservice.dto.UserPlanDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Concurrent-stream entitlement per user, from payment-service plan data. Limits are cached
+ * locally; while payment-service is unreachable a fallback limit is used and only briefly cached,
+ * so the real plan is picked up soon after it recovers.
+ */
+@Slf4j
+@Service
+public class PlanLimitService {
+
+    private final PaymentServiceClient paymentServiceClient;
+    private final int fallbackMaxStreams;
+    private final Cache<Long, Integer> limits;
+    private final Cache<Long, Integer> fallbacks;
+
+    public PlanLimitService(PaymentServiceClient paymentServiceClient,
+                            @Value("${app.streams.plan-cache.ttl:5m}") Duration ttl,
+                            @Value("${app.streams.plan-cache.fallback-ttl:30s}") Duration fallbackTtl,
+                            @Value("${app.streams.plan-cache.maximum-size:100000}") long maximumSize,
+                            @Value("${app.streams.fallback-max-streams:2}") int fallbackMaxStreams) {
+        this.paymentServiceClient = paymentServiceClient;
+        this.fallbackMaxStreams = fallbackMaxStreams;
+        this.limits = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+        this.fallbacks = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(fallbackTtl)
+            .build();
+    }
+
+    public int maxStreams(Long userId) {
+        Integer limit = limits.getIfPresent(userId);
+        if (limit != null) {
+            return limit;
+        }
+        limit = fallbacks.getIfPresent(userId);
+        if (limit != null) {
+            return limit;
+        }
+        try {
+            ServiceResponse<UserPlanDto> response = paymentServiceClient.getUserPlan(userId);
+            limit = response.getData().getMaxStreams();
+            limits.put(userId, limit);
+        } catch (Exception e) {
+            log.warn("Could not load plan for user {}, using fallback stream limit: {}", userId, e.getMessage());
+            limit = fallbackMaxStreams;
+            fallbacks.put(userId, limit);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,76 @@
+package com.movento.streamingservice.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Leases as one sorted set per user: members are session ids, scores the lease expiry in epoch
+ * millis. Admission is a single script call (drop lapsed leases, count, add); renewals and
+ * releases are pipelined.
+ */
+@Component
+public class RedisStreamLeaseStore implements StreamLeaseStore {
+
+    private static final RedisScript<Long> ACQUIRE_SCRIPT =
+            RedisScript.of(new ClassPathResource("META-INF/scripts/stream_lease_acquire.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisStreamLeaseStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean acquire(Lease lease, int maxStreams, Duration ttl) {
+        Long granted = redisTemplate.execute(ACQUIRE_SCRIPT, List.of(key(lease.userId())),
+                String.valueOf(lease.sessionId()),
+                String.valueOf(maxStreams),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(ttl.toMillis()));
+        return granted != null && granted == 1L;
+    }
+
+    @Override
+    public void renew(List<Lease> leases, Duration ttl) {
+        if (leases.isEmpty()) {
+            return;
+        }
+        double expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Lease lease : leases) {
+                String key = key(lease.userId());
+                redis.zAdd(key, expiresAt, String.valueOf(lease.sessionId()),
+                        RedisZSetCommands.ZAddArgs.ifExists());
+                redis.pExpire(key, ttl.toMillis());
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void release(List<Lease> leases) {
+        if (leases.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Lease lease : leases) {
+                redis.zRem(key(lease.userId()), String.valueOf(lease.sessionId()));
+            }
+            return null;
+        });
+    }
+
+    private static String key(Long userId) {
+        return "streaming.leases.{" + userId + "}";
+    }
+}
@@ -0,0 +1,186 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import com.movento.streamingservice.repository.StreamingSessionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Persists heartbeat state in batches. Positions are coalesced per session between flushes, so a
+ * session costs at most one row update per flush interval however often it heartbeats. Sessions
+ * expired by {@link ActiveSessionRegistry} are ended in the same flush and announced afterwards.
+ * Stream leases of flushed sessions are renewed, and those of expired sessions released, in
+ * batches along with the writes. A session that moved to another instance keeps heartbeating
+ * there, so an expired session is only ended if no newer heartbeat has been persisted since this
+ * instance last saw it.
+ */
+@Slf4j
+@Component
+public class SessionStateWriter {
+
+    private static final String UPDATE_POSITION =
+        "UPDATE streaming_sessions SET last_heartbeat_at = ?, position_seconds = ? WHERE id = ? AND status = 'ACTIVE'";
+    private static final String END_SESSION =
+        "UPDATE streaming_sessions SET status = 'ENDED', ended_at = ?, last_heartbeat_at = ?, position_seconds = ? " +
+        "WHERE id = ? AND status = 'ACTIVE' AND (last_heartbeat_at IS NULL OR last_heartbeat_at <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StreamingSessionRepository repository;
+    private final RabbitTemplate rabbitTemplate;
+    private final CacheManager cacheManager;
+    private final ConcurrentStreamLimiter streamLimiter;
+    private final String exchange;
+    private final String routingKey;
+    private final Duration abandonedAfter;
+
+    private final Map<Long, ActiveSession> dirty = new ConcurrentHashMap<>();
+    private final Queue<ActiveSession> expired = new ConcurrentLinkedQueue<>();
+
+    public SessionStateWriter(JdbcTemplate jdbcTemplate,
+                              StreamingSessionRepository repository,
+                              RabbitTemplate rabbitTemplate,
+                              CacheManager cacheManager,
+                              ConcurrentStreamLimiter streamLimiter,
+                              @Value("${app.messaging.exchange}") String exchange,
+                              @Value("${app.messaging.routing-key}") String routingKey,
+                              @Value("${app.sessions.abandoned-after:10m}") Duration abandonedAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.cacheManager = cacheManager;
+        this.streamLimiter = streamLimiter;
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.abandonedAfter = abandonedAfter;
+    }
+
+    void positionChanged(ActiveSession session) {
+        dirty.put(session.getId(), session);
+    }
+
+    void expired(ActiveSession session) {
+        dirty.remove(session.getId());
+        expired.add(session);
+    }
+
+    void forget(Long id) {
+        dirty.remove(id);
+    }
+
+    @Scheduled(fixedDelayString = "${app.sessions.flush-interval-ms:5000}")
+    public void flush() {
+        flushPositions();
+        flushExpired();
+    }
+
+    private void flushPositions() {
+        List<ActiveSession> batch = new ArrayList<>(dirty.size());
+        for (Long id : dirty.keySet()) {
+            ActiveSession session = dirty.remove(id);
+            if (session != null) {
+                batch.add(session);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_POSITION, batch, batch.size(), (ps, session) -> {
+                ps.setTimestamp(1, Timestamp.from(session.getLastHeartbeatAt()));
+                ps.setObject(2, session.getPositionSeconds());
+                ps.setLong(3, session.getId());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not persist positions of {} sessions, retrying next flush: {}", batch.size(), e.getMessage());
+            // A newer heartbeat that arrived meanwhile wins
+            batch.forEach(session -> dirty.putIfAbsent(session.getId(), session));
+        }
+        streamLimiter.renew(batch);
+    }
+
+    private void flushExpired() {
+        List<ActiveSession> batch = new ArrayList<>();
+        ActiveSession session;
+        while ((session = expired.poll()) != null) {
+            batch.add(session);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[][] counts;
+        try {
+            counts = jdbcTemplate.batchUpdate(END_SESSION, batch, batch.size(), (ps, ended) -> {
+                Timestamp lastHeartbeat = Timestamp.from(ended.getLastHeartbeatAt());
+                ps.setTimestamp(1, lastHeartbeat);
+                ps.setTimestamp(2, lastHeartbeat);
+                ps.setObject(3, ended.getPositionSeconds());
+                ps.setLong(4, ended.getId());
+                ps.setTimestamp(5, lastHeartbeat);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not end {} expired sessions, retrying next flush: {}", batch.size(), e.getMessage());
+            expired.addAll(batch);
+            return;
+        }
+        List<ActiveSession> endedHere = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            // Already ended elsewhere, or still heartbeating on another instance
+            if (counts[0][i] != 0) {
+                endedHere.add(batch.get(i));
+            }
+        }
+        if (endedHere.isEmpty()) {
+            return;
+        }
+        streamLimiter.release(endedHere);
+
+        Cache cache = cacheManager.getCache("streamingSessions");
+        for (ActiveSession ended : endedHere) {
+            if (cache != null) {
+                cache.evict(ended.getId());
+            }
+            rabbitTemplate.convertAndSend(exchange, routingKey,
+                StreamingSessionService.eventPayload("STREAMING_SESSION_ENDED", ended.getId(), ended.getUserId(),
+                    ended.getContentId()));
+        }
+        log.debug("Ended {} idle sessions", endedHere.size());
+    }
+
+    /**
+     * Ends ACTIVE rows no instance has heartbeated for a while, e.g. sessions tracked by an
+     * instance that crashed or clients that never send heartbeats.
+     */
+    @Scheduled(initialDelayString = "${app.sessions.sweep-initial-delay-ms:60000}",
+               fixedDelayString = "${app.sessions.sweep-interval-ms:60000}")
+    @Transactional
+    public void endAbandoned() {
+        int ended = repository.endAbandonedSessions(Instant.now().minus(abandonedAfter),
+            StreamingSession.SessionStatus.ACTIVE, StreamingSession.SessionStatus.ENDED);
+        if (ended > 0) {
+            log.info("Ended {} abandoned sessions without recent heartbeats", ended);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
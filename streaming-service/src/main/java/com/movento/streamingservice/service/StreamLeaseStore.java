@@ -0,0 +1,29 @@
+package com.movento.streamingservice.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user stream leases shared by all streaming-service instances. A lease that is not renewed
+ * within its TTL lapses, so streams of a crashed instance stop counting against the user.
+ */
+public interface StreamLeaseStore {
+
+    /**
+     * Takes or renews the session's lease unless the user already holds {@code maxStreams} other
+     * live leases.
+     *
+     * @return whether the session holds a lease
+     */
+    boolean acquire(Lease lease, int maxStreams, Duration ttl);
+
+    /**
+     * Extends leases that are still held; lapsed leases are not revived.
+     */
+    void renew(List<Lease> leases, Duration ttl);
+
+    void release(List<Lease> leases);
+
+    record Lease(Long userId, Long sessionId) {
+    }
+}
@@ -2,6 +2,7 @@ package com.movento.streamingservice.service;
 
 import com.movento.streamingservice.dto.StreamingSessionRequest;
 import com.movento.streamingservice.dto.StreamingSessionResponse;
+import com.movento.streamingservice.dto.WatchingNowResponse;
 import com.movento.streamingservice.model.StreamingSession;
 import com.movento.streamingservice.repository.StreamingSessionRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,8 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.List;
@@ -22,14 +25,21 @@ public class StreamingSessionService {
 
     private final StreamingSessionRepository repository;
     private final RabbitTemplate rabbitTemplate;
+    private final ActiveSessionRegistry registry;
+    private final ConcurrentStreamLimiter streamLimiter;
     @Value("${app.messaging.exchange}")
     private String exchange;
     @Value("${app.messaging.routing-key}")
     private String routingKey;
 
-    @Cacheable(value = "streamingSessions", key = "#id")
+    // Active sessions change with every heartbeat, so only finished ones are cached
+    @Cacheable(value = "streamingSessions", key = "#id", unless = "#result.status.name() == 'ACTIVE'")
     @Transactional(readOnly = true)
     public StreamingSessionResponse getSession(Long id) {
+        ActiveSession live = registry.get(id);
+        if (live != null) {
+            return mapToResponse(live);
+        }
         StreamingSession session = repository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found"));
         return mapToResponse(session);
@@ -50,15 +60,66 @@ public class StreamingSessionService {
         session.setStatus(StreamingSession.SessionStatus.ACTIVE);
         session.setStartedAt(Instant.now());
         StreamingSession saved = repository.save(session);
+        // Rolls the insert back if the user is already at their plan's stream limit
+        streamLimiter.admit(saved.getUserId(), saved.getId());
+        releaseOnRollback(saved);
         publishEvent("STREAMING_SESSION_CREATED", saved);
+        registry.register(saved);
         return mapToResponse(saved);
     }
 
+    // The lease is taken before commit so a rejected session is never inserted; if the insert
+    // does not commit after all, the lease and the in-memory session must not outlive it
+    private void releaseOnRollback(StreamingSession session) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    registry.end(session.getId());
+                    streamLimiter.release(session.getUserId(), session.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Records playback progress in memory. A session that is still ACTIVE but not tracked here
+     * (created on another instance, or before a restart) is picked up on its first heartbeat.
+     */
+    public StreamingSessionResponse heartbeat(Long id, long positionSeconds) {
+        ActiveSession live = registry.heartbeat(id, positionSeconds);
+        if (live == null) {
+            StreamingSession session = repository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Session not found"));
+            if (session.getStatus() != StreamingSession.SessionStatus.ACTIVE) {
+                throw new IllegalStateException("Session has ended");
+            }
+            // Its lease may have lapsed while no instance tracked it
+            streamLimiter.admit(session.getUserId(), session.getId());
+            live = registry.register(session);
+            live.heartbeat(positionSeconds);
+        }
+        return mapToResponse(live);
+    }
+
+    public WatchingNowResponse watching(Long contentId) {
+        return new WatchingNowResponse(contentId, contentId == null ? registry.activeCount() : registry.watching(contentId));
+    }
+
     @CacheEvict(value = "streamingSessions", key = "#id")
     @Transactional
     public StreamingSessionResponse endSession(Long id) {
         StreamingSession session = repository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Session not found"));
+        ActiveSession live = registry.end(id);
+        streamLimiter.release(session.getUserId(), id);
+        if (live != null) {
+            session.setLastHeartbeatAt(live.getLastHeartbeatAt());
+            session.setPositionSeconds(live.getPositionSeconds());
+        }
         session.setStatus(StreamingSession.SessionStatus.ENDED);
         session.setEndedAt(Instant.now());
         StreamingSession saved = repository.save(session);
@@ -74,11 +135,33 @@ public class StreamingSessionService {
                 .status(session.getStatus())
                 .startedAt(session.getStartedAt())
                 .endedAt(session.getEndedAt())
+                .lastHeartbeatAt(session.getLastHeartbeatAt())
+                .positionSeconds(session.getPositionSeconds())
+                .build();
+    }
+
+    private StreamingSessionResponse mapToResponse(ActiveSession session) {
+        return StreamingSessionResponse.builder()
+                .id(session.getId())
+                .userId(session.getUserId())
+                .contentId(session.getContentId())
+                .status(StreamingSession.SessionStatus.ACTIVE)
+                .startedAt(session.getStartedAt())
+                .lastHeartbeatAt(session.getLastHeartbeatAt())
+                .positionSeconds(session.getPositionSeconds())
                 .build();
     }
 
     private void publishEvent(String type, StreamingSession session) {
-        String message = String.format("%s:%s:%s", type, session.getId(), session.getUserId());
-        rabbitTemplate.convertAndSend(exchange, routingKey, message);
+        rabbitTemplate.convertAndSend(exchange, routingKey, eventPayload(type, session));
+    }
+
+    static String eventPayload(String type, StreamingSession session) {
+        return eventPayload(type, session.getId(), session.getUserId(), session.getContentId());
+    }
+
+    // TYPE:sessionId:userId:contentId; consumers that only need the first three fields ignore the rest
+    static String eventPayload(String type, Long sessionId, Long userId, Long contentId) {
+        return String.format("%s:%s:%s:%s", type, sessionId, userId, contentId);
     }
 }
@@ -0,0 +1,17 @@
+-- KEYS[1]: sorted set of a user's stream leases (member: session id, score: expiry in ms)
+-- ARGV: session id, max streams, now in ms, lease ttl in ms
+local key = KEYS[1]
+local session = ARGV[1]
+local max_streams = tonumber(ARGV[2])
+local now = tonumber(ARGV[3])
+local ttl = tonumber(ARGV[4])
+
+redis.call("zremrangebyscore", key, "-inf", now)
+
+if not redis.call("zscore", key, session) and redis.call("zcard", key) >= max_streams then
+  return 0
+end
+
+redis.call("zadd", key, now + ttl, session)
+redis.call("pexpire", key, ttl)
+return 1
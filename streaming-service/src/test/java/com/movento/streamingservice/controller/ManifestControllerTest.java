@@ -0,0 +1,64 @@
+package com.movento.streamingservice.controller;
+
+import com.movento.streamingservice.service.ManifestService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ManifestControllerTest {
+
+    private final ManifestService manifestService = mock(ManifestService.class);
+    private final ManifestController controller = new ManifestController(manifestService);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "vodMaxAge", Duration.ofDays(1));
+        ReflectionTestUtils.setField(controller, "unversionedMaxAge", Duration.ofSeconds(30));
+        when(manifestService.version(1L, null)).thenReturn("2a");
+        when(manifestService.hlsMaster(1L, null)).thenReturn(new byte[]{1});
+        when(manifestService.hlsMedia(1L, null, "720p")).thenReturn(new byte[]{2});
+    }
+
+    @Test
+    void masterPlaylistIsRevalidatedRatherThanImmutable() {
+        ResponseEntity<byte[]> response = controller.hlsMaster(1L, null, request());
+
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=30, public");
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v2a\"");
+    }
+
+    @Test
+    void mediaPlaylistIsImmutableOnlyWhenPinnedToTheCurrentVersion() {
+        assertThat(controller.hlsMedia(1L, "720p", null, "2a", request()).getHeaders().getCacheControl())
+            .isEqualTo("max-age=86400, public, immutable");
+        assertThat(controller.hlsMedia(1L, "720p", null, "1f", request()).getHeaders().getCacheControl())
+            .isEqualTo("max-age=30, public");
+        assertThat(controller.hlsMedia(1L, "720p", null, null, request()).getHeaders().getCacheControl())
+            .isEqualTo("max-age=30, public");
+    }
+
+    @Test
+    void matchingETagIsNotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/manifests/1/master.m3u8");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v2a\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(controller.hlsMaster(1L, null, new ServletWebRequest(request, response))).isNull();
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/manifests/1"), new MockHttpServletResponse());
+    }
+}
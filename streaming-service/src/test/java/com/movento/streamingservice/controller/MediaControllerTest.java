@@ -0,0 +1,168 @@
+package com.movento.streamingservice.controller;
+
+import com.movento.streamingservice.service.MediaFileCache;
+import com.movento.streamingservice.service.MediaSegmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MediaControllerTest {
+
+    private static final byte[] SEGMENT = new byte[1000];
+
+    static {
+        for (int i = 0; i < SEGMENT.length; i++) {
+            SEGMENT[i] = (byte) i;
+        }
+    }
+
+    @TempDir
+    Path root;
+
+    private MediaFileCache fileCache;
+    private MediaController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.createDirectories(root.resolve("title/720p"));
+        Files.write(root.resolve("title/720p/seg_00001.ts"), SEGMENT);
+        Files.writeString(root.resolve("secret.txt"), "not media");
+
+        fileCache = new MediaFileCache(16, Duration.ofMinutes(1));
+        controller = new MediaController(new MediaSegmentService(fileCache, root.toString(), "ts,m4s"));
+        ReflectionTestUtils.setField(controller, "cacheControl", "public, max-age=86400");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileCache.close();
+    }
+
+    @Test
+    void wholeSegmentIsServedWithoutARange() throws Exception {
+        MockHttpServletResponse response = get(request());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getContentType()).isEqualTo("video/mp2t");
+        assertThat(response.getContentAsByteArray()).isEqualTo(SEGMENT);
+    }
+
+    @Test
+    void singleRangeIsServedAsPartialContent() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-199");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/1000");
+        assertThat(response.getContentLengthLong()).isEqualTo(100);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(SEGMENT, 100, 200));
+    }
+
+    @Test
+    void suffixAndOpenEndedRangesAreClampedToTheFile() throws Exception {
+        MockHttpServletRequest suffix = request();
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-10");
+        assertThat(get(suffix).getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 990-999/1000");
+
+        MockHttpServletRequest openEnded = request();
+        openEnded.addHeader(HttpHeaders.RANGE, "bytes=900-5000");
+        assertThat(get(openEnded).getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 900-999/1000");
+    }
+
+    @Test
+    void rangePastTheEndIsNotSatisfiable() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-1100");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void malformedRangeIsIgnored() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader(HttpHeaders.RANGE, "bytes=abc");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(SEGMENT);
+    }
+
+    @Test
+    void multipleRangesAndStaleIfRangeGetTheWholeSegment() throws Exception {
+        MockHttpServletRequest multiple = request();
+        multiple.addHeader(HttpHeaders.RANGE, "bytes=0-9,20-29");
+        assertThat(get(multiple).getContentAsByteArray()).isEqualTo(SEGMENT);
+
+        MockHttpServletRequest stale = request();
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"stale-etag\"");
+        MockHttpServletResponse response = get(stale);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(SEGMENT);
+    }
+
+    @Test
+    void tomcatSendfileIsHandedTheRangeInsteadOfCopying() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+
+        MockHttpServletResponse response = get(request);
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(10L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(20L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void pathsOutsideTheRootOrOfOtherTypesAreNotFound() {
+        assertThatThrownBy(() -> controller.segment("/../outside.ts", request(), new MockHttpServletResponse()))
+            .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> controller.segment("/secret.txt", request(), new MockHttpServletResponse()))
+            .isInstanceOf(ResponseStatusException.class);
+    }
+
+    @Test
+    void symbolicLinksOutOfTheRootAreNotFound(@TempDir Path elsewhere) throws Exception {
+        Files.write(elsewhere.resolve("private.ts"), SEGMENT);
+        Files.createSymbolicLink(root.resolve("title/720p/link.ts"), elsewhere.resolve("private.ts"));
+        Files.createSymbolicLink(root.resolve("escape"), elsewhere);
+
+        assertThatThrownBy(() -> controller.segment("/title/720p/link.ts", request(), new MockHttpServletResponse()))
+            .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> controller.segment("/escape/private.ts", request(), new MockHttpServletResponse()))
+            .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private MockHttpServletResponse get(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.segment("/title/720p/seg_00001.ts", request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/media/title/720p/seg_00001.ts");
+    }
+}
@@ -0,0 +1,123 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ActiveSessionRegistryTest {
+
+    private static final long CONTENT_ID = 7L;
+
+    private final SessionStateWriter writer = mock(SessionStateWriter.class);
+    private final AtomicLong ids = new AtomicLong();
+    private ActiveSessionRegistry registry =
+            new ActiveSessionRegistry(writer, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void registeringASessionTwiceCountsOneViewer() {
+        StreamingSession session = session();
+
+        ActiveSession first = registry.register(session);
+        ActiveSession second = registry.register(session);
+
+        assertThat(second).isSameAs(first);
+        assertThat(registry.watching(CONTENT_ID)).isEqualTo(1);
+        assertThat(registry.activeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void endingASessionStopsCountingItOnce() {
+        StreamingSession session = session();
+        registry.register(session);
+
+        assertThat(registry.end(session.getId())).isNotNull();
+        assertThat(registry.end(session.getId())).isNull();
+
+        assertThat(registry.watching(CONTENT_ID)).isZero();
+        assertThat(registry.activeCount()).isZero();
+        verify(writer).forget(session.getId());
+    }
+
+    @Test
+    void heartbeatOfAnUnknownSessionReturnsNull() {
+        assertThat(registry.heartbeat(42L, 10)).isNull();
+    }
+
+    @Test
+    void concurrentRegistrationsAndEndsNeverLoseAViewer() throws Exception {
+        // The count keeps dropping to zero, so registrations race with the removal of the entry
+        int threads = 8;
+        int rounds = 5_000;
+        AtomicLong unseen = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < rounds; i++) {
+                        StreamingSession session = session();
+                        registry.register(session);
+                        if (registry.watching(CONTENT_ID) < 1) {
+                            unseen.incrementAndGet();
+                        }
+                        registry.end(session.getId());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unseen).hasValue(0);
+        assertThat(registry.watching(CONTENT_ID)).isZero();
+        assertThat(registry.activeCount()).isZero();
+    }
+
+    @Test
+    void sessionWithoutHeartbeatsIsHandedToTheWriterAsExpired() {
+        registry.shutdown();
+        registry = new ActiveSessionRegistry(writer, new SimpleMeterRegistry(), Duration.ofMillis(500));
+        StreamingSession session = session();
+        registry.register(session);
+
+        verify(writer, timeout(5_000)).expired(argThat(expired -> expired.getId().equals(session.getId())));
+        assertThat(registry.get(session.getId())).isNull();
+        assertThat(registry.watching(CONTENT_ID)).isZero();
+    }
+
+    private StreamingSession session() {
+        StreamingSession session = new StreamingSession();
+        session.setId(ids.incrementAndGet());
+        session.setUserId(1L);
+        session.setContentId(CONTENT_ID);
+        return session;
+    }
+}
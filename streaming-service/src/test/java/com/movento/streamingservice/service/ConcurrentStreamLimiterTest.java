@@ -0,0 +1,49 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.exception.StreamLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ConcurrentStreamLimiterTest {
+
+    private static final Duration TTL = Duration.ofMinutes(2);
+
+    private final StreamLeaseStore leaseStore = mock(StreamLeaseStore.class);
+    private final PlanLimitService planLimitService = mock(PlanLimitService.class);
+    private final ConcurrentStreamLimiter limiter =
+            new ConcurrentStreamLimiter(leaseStore, planLimitService, new SimpleMeterRegistry(), TTL);
+
+    @Test
+    void sessionWithinThePlanLimitIsAdmitted() {
+        when(planLimitService.maxStreams(1L)).thenReturn(4);
+        when(leaseStore.acquire(new StreamLeaseStore.Lease(1L, 10L), 4, TTL)).thenReturn(true);
+
+        assertThatCode(() -> limiter.admit(1L, 10L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sessionOverThePlanLimitIsRejected() {
+        when(planLimitService.maxStreams(1L)).thenReturn(1);
+        when(leaseStore.acquire(any(), eq(1), eq(TTL))).thenReturn(false);
+
+        assertThatThrownBy(() -> limiter.admit(1L, 10L)).isInstanceOf(StreamLimitExceededException.class);
+    }
+
+    @Test
+    void unavailableLeaseStoreAdmitsTheSession() {
+        when(planLimitService.maxStreams(1L)).thenReturn(1);
+        when(leaseStore.acquire(any(), anyInt(), any())).thenThrow(new IllegalStateException("redis down"));
+
+        assertThatCode(() -> limiter.admit(1L, 10L)).doesNotThrowAnyException();
+    }
+}
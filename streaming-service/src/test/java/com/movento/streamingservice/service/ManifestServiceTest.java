@@ -0,0 +1,135 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.MediaRendition;
+import com.movento.streamingservice.repository.MediaRenditionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ManifestServiceTest {
+
+    private final MediaRenditionRepository repository = mock(MediaRenditionRepository.class);
+    private final ManifestService service =
+        new ManifestService(repository, new SimpleMeterRegistry(), "/media", 1_000_000, Duration.ofMinutes(1));
+
+    @Test
+    void masterPlaylistListsRenditionsWithTheVersionedMediaUri() {
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null))
+            .thenReturn(List.of(rendition("480p", 800_000, null, 3), rendition("720p", 2_000_000, null, 7)));
+
+        String master = text(service.hlsMaster(1L, null));
+        String version = service.version(1L, null);
+
+        assertThat(master).startsWith("#EXTM3U\n#EXT-X-VERSION:3\n")
+            .contains("#EXT-X-STREAM-INF:BANDWIDTH=800000,RESOLUTION=1280x720,CODECS=\"avc1.64001f\"\n480p.m3u8?v="
+                + version + "\n")
+            .contains("#EXT-X-STREAM-INF:BANDWIDTH=2000000,RESOLUTION=1280x720,CODECS=\"avc1.64001f\"\n720p.m3u8?v="
+                + version + "\n");
+    }
+
+    @Test
+    void versionChangesWhenARenditionIsRemovedOrRepackagedAtALowerVersion() {
+        MediaRendition low = rendition("480p", 800_000, null, 3);
+        MediaRendition high = rendition("720p", 2_000_000, null, 7);
+
+        String both = version(List.of(low, high));
+        String reordered = version(List.of(high, low));
+        String withoutLow = version(List.of(high));
+        MediaRendition repackaged = rendition("720p", 2_000_000, null, 5);
+        String lowerVersion = version(List.of(low, repackaged));
+
+        assertThat(reordered).isEqualTo(both);
+        assertThat(withoutLow).isNotEqualTo(both);
+        assertThat(lowerVersion).isNotEqualTo(both).isNotEqualTo(withoutLow);
+    }
+
+    @Test
+    void mediaPlaylistNumbersSegmentsFromTheStartNumber() {
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, 2L))
+            .thenReturn(List.of(rendition("720p", 2_000_000, "init.mp4", 1)));
+
+        String media = text(service.hlsMedia(1L, 2L, "720p"));
+
+        assertThat(media).contains("#EXT-X-VERSION:6\n")
+            .contains("#EXT-X-TARGETDURATION:4\n")
+            .contains("#EXT-X-MEDIA-SEQUENCE:1\n")
+            .contains("#EXT-X-MAP:URI=\"/media/title/720p/init.mp4\"\n")
+            .contains("#EXTINF:4.000,\n/media/title/720p/seg_00001.m4s\n")
+            .contains("#EXTINF:2.500,\n/media/title/720p/seg_00004.m4s\n")
+            .endsWith("#EXT-X-ENDLIST\n");
+    }
+
+    @Test
+    void dashTimelineCollapsesRepeatedDurations() {
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null))
+            .thenReturn(List.of(rendition("ts", 500_000, null, 1), rendition("720p", 2_000_000, "init.mp4", 1)));
+
+        String mpd = text(service.dash(1L, null));
+
+        assertThat(mpd).contains("mediaPresentationDuration=\"PT14.500S\"")
+            .contains("media=\"/media/title/720p/seg_$Number%05d$.m4s\"")
+            .contains("<S d=\"4000\" r=\"2\"/>\n            <S d=\"2500\"/>\n")
+            .doesNotContain("id=\"ts\"");
+    }
+
+    @Test
+    void renderedManifestsAreServedFromCache() {
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null))
+            .thenReturn(List.of(rendition("720p", 2_000_000, null, 1)));
+
+        byte[] first = service.hlsMaster(1L, null);
+        byte[] second = service.hlsMaster(1L, null);
+
+        assertThat(second).isSameAs(first);
+        verify(repository, times(1)).findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null);
+    }
+
+    @Test
+    void missingTitlesRenditionsAndDashSupportAreNotFound() {
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null))
+            .thenReturn(List.of(rendition("720p", 2_000_000, null, 1)));
+
+        assertThatThrownBy(() -> service.hlsMaster(9L, null)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.hlsMedia(1L, null, "1080p")).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> service.dash(1L, null)).isInstanceOf(ResponseStatusException.class);
+    }
+
+    // A fresh service each time, as the rendition set is cached for the metadata TTL
+    private String version(List<MediaRendition> renditions) {
+        MediaRenditionRepository repository = mock(MediaRenditionRepository.class);
+        when(repository.findByContentIdAndEpisodeIdOrderByBandwidthAsc(1L, null)).thenReturn(renditions);
+        return new ManifestService(repository, new SimpleMeterRegistry(), "/media", 1_000_000, Duration.ofMinutes(1))
+            .version(1L, null);
+    }
+
+    private static MediaRendition rendition(String name, int bandwidth, String initSegment, long version) {
+        MediaRendition rendition = new MediaRendition();
+        rendition.setId((long) name.hashCode());
+        rendition.setName(name);
+        rendition.setBandwidth(bandwidth);
+        rendition.setWidth(1280);
+        rendition.setHeight(720);
+        rendition.setCodecs("avc1.64001f");
+        rendition.setBasePath("title/" + name);
+        rendition.setSegmentPattern(initSegment != null ? "seg_%05d.m4s" : "seg_%05d.ts");
+        rendition.setInitSegment(initSegment);
+        rendition.setSegmentDurationsMs("4000,4000,4000,2500");
+        rendition.setVersion(version);
+        return rendition;
+    }
+
+    private static String text(byte[] manifest) {
+        return new String(manifest, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,105 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.service.StreamLeaseStore.Lease;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class RedisStreamLeaseStoreTest {
+
+    private static final Duration TTL = Duration.ofMinutes(2);
+    private static final String KEY = "streaming.leases.{1}";
+
+    @Container
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RedisStreamLeaseStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+        store = new RedisStreamLeaseStore(redisTemplate);
+    }
+
+    @Test
+    void admitsUpToThePlanLimit() {
+        assertThat(store.acquire(lease(1L, 10L), 2, TTL)).isTrue();
+        assertThat(store.acquire(lease(1L, 11L), 2, TTL)).isTrue();
+
+        assertThat(store.acquire(lease(1L, 12L), 2, TTL)).isFalse();
+        assertThat(store.acquire(lease(2L, 20L), 2, TTL)).isTrue();
+    }
+
+    @Test
+    void sessionHoldingALeaseIsReadmittedAtTheLimit() {
+        store.acquire(lease(1L, 10L), 1, TTL);
+
+        assertThat(store.acquire(lease(1L, 10L), 1, TTL)).isTrue();
+        assertThat(redisTemplate.opsForZSet().zCard(KEY)).isEqualTo(1);
+    }
+
+    @Test
+    void releaseFreesASlot() {
+        store.acquire(lease(1L, 10L), 1, TTL);
+
+        store.release(List.of(lease(1L, 10L)));
+
+        assertThat(store.acquire(lease(1L, 11L), 1, TTL)).isTrue();
+    }
+
+    @Test
+    void lapsedLeasesStopCounting() throws InterruptedException {
+        store.acquire(lease(1L, 10L), 1, Duration.ofMillis(50));
+        Thread.sleep(100);
+
+        assertThat(store.acquire(lease(1L, 11L), 1, TTL)).isTrue();
+        assertThat(redisTemplate.opsForZSet().score(KEY, "10")).isNull();
+    }
+
+    @Test
+    void renewExtendsHeldLeasesWithoutRevivingReleasedOnes() {
+        store.acquire(lease(1L, 10L), 2, Duration.ofSeconds(1));
+        Double before = redisTemplate.opsForZSet().score(KEY, "10");
+
+        store.renew(List.of(lease(1L, 10L), lease(1L, 11L)), TTL);
+
+        assertThat(redisTemplate.opsForZSet().score(KEY, "10")).isGreaterThan(before);
+        assertThat(redisTemplate.opsForZSet().score(KEY, "11")).isNull();
+        assertThat(redisTemplate.getExpire(KEY)).isGreaterThan(1);
+    }
+
+    private static Lease lease(Long userId, Long sessionId) {
+        return new Lease(userId, sessionId);
+    }
+}
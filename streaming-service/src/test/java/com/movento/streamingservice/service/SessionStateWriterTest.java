@@ -0,0 +1,183 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.model.StreamingSession;
+import com.movento.streamingservice.repository.StreamingSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SessionStateWriterTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = StreamingSession.class)
+    @EnableJpaRepositories(basePackageClasses = StreamingSessionRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private StreamingSessionRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final StreamLeaseStore leaseStore = mock(StreamLeaseStore.class);
+    private final List<ActiveSessionRegistry> registries = new ArrayList<>();
+    private ConcurrentStreamLimiter streamLimiter;
+    private StreamingSession session;
+
+    @BeforeEach
+    void setUp() {
+        PlanLimitService planLimitService = mock(PlanLimitService.class);
+        when(planLimitService.maxStreams(any())).thenReturn(4);
+        when(leaseStore.acquire(any(), anyInt(), any())).thenReturn(true);
+        streamLimiter = new ConcurrentStreamLimiter(leaseStore, planLimitService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(2));
+
+        session = new StreamingSession();
+        session.setUserId(1L);
+        session.setContentId(7L);
+        session = repository.saveAndFlush(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registries.forEach(ActiveSessionRegistry::shutdown);
+    }
+
+    @Test
+    void flushPersistsTheLatestPositionOnce() {
+        SessionStateWriter writer = writer();
+        ActiveSessionRegistry registry = registry(writer, Duration.ofMinutes(1));
+        registry.register(session);
+        registry.heartbeat(session.getId(), 10);
+        registry.heartbeat(session.getId(), 20);
+
+        writer.flush();
+
+        assertThat(row()).containsEntry("status", "ACTIVE").containsEntry("position_seconds", 20L);
+        verify(leaseStore).renew(List.of(new StreamLeaseStore.Lease(1L, session.getId())), Duration.ofMinutes(2));
+    }
+
+    @Test
+    void expiredSessionIsEndedAtItsLastHeartbeatAndAnnounced() throws Exception {
+        SessionStateWriter writer = spy(writer());
+        CountDownLatch expired = expiry(writer);
+        ActiveSessionRegistry registry = registry(writer, Duration.ofMillis(500));
+        registry.register(session);
+        registry.heartbeat(session.getId(), 30);
+        writer.flush();
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.flush();
+
+        assertThat(row()).containsEntry("status", "ENDED").containsEntry("position_seconds", 30L);
+        verify(leaseStore).release(List.of(new StreamLeaseStore.Lease(1L, session.getId())));
+        verify(rabbitTemplate).convertAndSend(eq("streaming.events"), eq("streaming"),
+                eq("STREAMING_SESSION_ENDED:" + session.getId() + ":1:7"));
+    }
+
+    @Test
+    void sessionThatMovedToAnotherInstanceIsNotEndedByTheOldOne() throws Exception {
+        // Both instances share the database; the client's heartbeats now reach the second one
+        SessionStateWriter oldWriter = spy(writer());
+        CountDownLatch expired = expiry(oldWriter);
+        ActiveSessionRegistry oldInstance = registry(oldWriter, Duration.ofMillis(500));
+        oldInstance.register(session);
+        oldWriter.flush();
+
+        Thread.sleep(10);
+        SessionStateWriter newWriter = writer();
+        ActiveSessionRegistry newInstance = registry(newWriter, Duration.ofMinutes(1));
+        newInstance.register(session);
+        newInstance.heartbeat(session.getId(), 45);
+        newWriter.flush();
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        oldWriter.flush();
+
+        assertThat(row()).containsEntry("status", "ACTIVE").containsEntry("position_seconds", 45L);
+        verify(leaseStore, never()).release(anyList());
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        assertThat(newInstance.get(session.getId())).isNotNull();
+    }
+
+    private SessionStateWriter writer() {
+        return new SessionStateWriter(jdbcTemplate, repository, rabbitTemplate, new ConcurrentMapCacheManager(),
+                streamLimiter, "streaming.events", "streaming", Duration.ofMinutes(10));
+    }
+
+    // Mockito records the call before the real method has queued the session, so verify() alone
+    // could let the test flush too early
+    private static CountDownLatch expiry(SessionStateWriter writer) {
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            latch.countDown();
+            return null;
+        }).when(writer).expired(any());
+        return latch;
+    }
+
+    private ActiveSessionRegistry registry(SessionStateWriter writer, Duration idleTimeout) {
+        ActiveSessionRegistry registry = new ActiveSessionRegistry(writer, new SimpleMeterRegistry(), idleTimeout);
+        registries.add(registry);
+        return registry;
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("SELECT status, position_seconds FROM streaming_sessions WHERE id = ?",
+                session.getId());
+    }
+}
@@ -0,0 +1,83 @@
+package com.movento.streamingservice.service;
+
+import com.movento.streamingservice.dto.StreamingSessionRequest;
+import com.movento.streamingservice.model.StreamingSession;
+import com.movento.streamingservice.repository.StreamingSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StreamingSessionServiceTest {
+
+    private final StreamingSessionRepository repository = mock(StreamingSessionRepository.class);
+    private final ConcurrentStreamLimiter streamLimiter = mock(ConcurrentStreamLimiter.class);
+    private final ActiveSessionRegistry registry =
+            new ActiveSessionRegistry(mock(SessionStateWriter.class), new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    private final StreamingSessionService service =
+            new StreamingSessionService(repository, mock(RabbitTemplate.class), registry, streamLimiter);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "exchange", "streaming.events");
+        ReflectionTestUtils.setField(service, "routingKey", "streaming.session");
+        when(repository.save(any())).thenAnswer(invocation -> {
+            StreamingSession session = invocation.getArgument(0);
+            session.setId(10L);
+            return session;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+        registry.shutdown();
+    }
+
+    @Test
+    void rolledBackCreationReleasesTheLeaseAndStopsTrackingTheSession() {
+        service.createSession(request());
+        assertThat(registry.get(10L)).isNotNull();
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(streamLimiter).admit(1L, 10L);
+        verify(streamLimiter).release(1L, 10L);
+        assertThat(registry.get(10L)).isNull();
+        assertThat(registry.watching(7L)).isZero();
+    }
+
+    @Test
+    void committedCreationKeepsTheLease() {
+        service.createSession(request());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(streamLimiter, never()).release(any(), any());
+        assertThat(registry.get(10L)).isNotNull();
+    }
+
+    private static StreamingSessionRequest request() {
+        StreamingSessionRequest request = new StreamingSessionRequest();
+        request.setUserId(1L);
+        request.setContentId(7L);
+        return request;
+    }
+}
@@ -2,8 +2,10 @@ package com.movento.userservice.config;
 
 import com.movento.userservice.security.JwtAuthenticationEntryPoint;
 import com.movento.userservice.security.JwtAuthenticationFilter;
+import com.movento.userservice.security.ServiceTokenAuthenticationFilter;
 import com.movento.userservice.security.UserDetailsServiceImpl;
-import com.movento.userservice.config.JwtUtils;
+import com.movento.userservice.security.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,19 +27,27 @@ public class SecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
-    private final JwtUtils jwtUtils;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final String serviceToken;
 
     public SecurityConfig(UserDetailsServiceImpl userDetailsService, 
                      JwtAuthenticationEntryPoint unauthorizedHandler,
-                     JwtUtils jwtUtils) {
+                     VerifiedTokenCache verifiedTokenCache,
+                     @Value("${app.security.service-token}") String serviceToken) {
         this.userDetailsService = userDetailsService;
         this.unauthorizedHandler = unauthorizedHandler;
-        this.jwtUtils = jwtUtils;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.serviceToken = serviceToken;
     }
 
     @Bean
     public JwtAuthenticationFilter authenticationJwtTokenFilter() {
-        return new JwtAuthenticationFilter(jwtUtils, userDetailsService);
+        return new JwtAuthenticationFilter(verifiedTokenCache);
+    }
+
+    @Bean
+    public ServiceTokenAuthenticationFilter serviceTokenFilter() {
+        return new ServiceTokenAuthenticationFilter(serviceToken);
     }
 
     @Bean
@@ -71,6 +81,7 @@ public class SecurityConfig {
             );
 
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(serviceTokenFilter(), JwtAuthenticationFilter.class);
         http.authenticationProvider(authenticationProvider());
         
         return http.build();
@@ -11,6 +11,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/users")
@@ -39,7 +41,7 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SERVICE')")
     public ResponseEntity<UserProfileDto> getUserById(@PathVariable Long id) {
         User user = userService.getUserById(id);
         UserProfileDto profile = new UserProfileDto(
@@ -53,4 +55,22 @@ public class UserController {
         
         return ResponseEntity.ok(profile);
     }
+
+    /**
+     * Keyset-paged list of user ids, used by other services to seed their local existence filters.
+     */
+    @GetMapping("/ids")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SERVICE')")
+    public ResponseEntity<List<Long>> getUserIds(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(userService.getUserIds(afterId, Math.min(limit, 10000)));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+        userService.deleteUser(id);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,24 @@
+package com.movento.userservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEvent {
+    public static final String CREATED = "CREATED";
+    public static final String DELETED = "DELETED";
+
+    private String type;
+    private Long userId;
+    private LocalDateTime timestamp = LocalDateTime.now();
+
+    public UserEvent(String type, Long userId) {
+        this.type = type;
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.movento.userservice.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.Assert;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates calls other services make on their own behalf. A request carrying the shared
+ * service token gets {@code ROLE_SERVICE}, which only the internal lookup endpoints accept.
+ */
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    private final byte[] serviceToken;
+
+    public ServiceTokenAuthenticationFilter(String serviceToken) {
+        // A blank token must stop startup rather than leave the internal endpoints unreachable
+        Assert.hasText(serviceToken, "app.security.service-token must be set");
+        this.serviceToken = serviceToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(SERVICE_TOKEN_HEADER);
+        if (presented != null
+                && MessageDigest.isEqual(serviceToken, presented.getBytes(StandardCharsets.UTF_8))) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    "service", null, List.of(new SimpleGrantedAuthority("ROLE_SERVICE")));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,109 @@
+package com.movento.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.movento.userservice.config.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resolves bearer tokens to principals. Each token is verified once and the resulting principal
+ * is kept until the token expires or the TTL runs out, whichever comes first; roles and the user id
+ * are read from the token, so authenticated requests do not touch the database.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private final JwtUtils jwtUtils;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils,
+                              UserDetailsServiceImpl userDetailsService,
+                              @Value("${app.security.token-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.token-cache.ttl:5m}") Duration ttl) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new TokenExpiry(ttl.toNanos()))
+            .build();
+    }
+
+    /**
+     * @return the principal the token was issued to, or {@code null} if the token is not valid
+     */
+    public UserDetailsImpl resolve(String token) {
+        VerifiedToken verified = cache.getIfPresent(token);
+        if (verified != null && verified.expiresAtMillis > System.currentTimeMillis()) {
+            return verified.principal;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+
+        UserDetailsImpl principal = toPrincipal(claims);
+        cache.put(token, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        return principal;
+    }
+
+    private UserDetailsImpl toPrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtils.USER_ID_CLAIM, Long.class);
+        List<?> roles = claims.get(JwtUtils.ROLES_CLAIM, List.class);
+        if (userId == null || roles == null) {
+            // Issued before roles were embedded; resolve once from the database
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            return (UserDetailsImpl) userDetails;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+            .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+            .toList();
+        return new UserDetailsImpl(userId, claims.getSubject(), null, authorities);
+    }
+
+    private record VerifiedToken(UserDetailsImpl principal, long expiresAtMillis) {
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+        private final long ttlNanos;
+
+        private TokenExpiry(long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+            long untilExpiry = Duration.ofMillis(verified.expiresAtMillis - System.currentTimeMillis()).toNanos();
+            return Math.max(0, Math.min(ttlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verified, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.movento.userservice.service;
+
+import com.movento.userservice.event.UserEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Slf4j
+@Service
+public class UserEventPublisher {
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${app.messaging.user-exchange}")
+    private String userExchange;
+
+    public UserEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void publishUserCreated(Long userId) {
+        publishAfterCommit("user.created", new UserEvent(UserEvent.CREATED, userId));
+    }
+
+    public void publishUserDeleted(Long userId) {
+        publishAfterCommit("user.deleted", new UserEvent(UserEvent.DELETED, userId));
+    }
+
+    // Consumers look the user up when they see the event, so it must not overtake the commit
+    private void publishAfterCommit(String routingKey, UserEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(routingKey, event);
+                }
+            });
+        } else {
+            publish(routingKey, event);
+        }
+    }
+
+    // Consumers fall back to their periodic sync if an event is lost, so a broker
+    // outage must not fail the user operation itself
+    private void publish(String routingKey, UserEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(userExchange, routingKey, event);
+        } catch (Exception e) {
+            log.warn("Failed to publish {} event for user {}: {}", event.getType(), event.getUserId(), e.getMessage());
+        }
+    }
+}
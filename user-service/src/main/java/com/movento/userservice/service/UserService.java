@@ -2,7 +2,11 @@ package com.movento.userservice.service;
 
 import com.movento.userservice.model.User;
 
+import java.util.List;
+
 public interface UserService {
     User getUserById(Long id);
+    List<Long> getUserIds(Long afterId, int limit);
+    void deleteUser(Long id);
     // Add other user-related methods as needed
 }
@@ -3,18 +3,23 @@ package com.movento.userservice.service;
 import com.movento.userservice.model.User;
 import com.movento.userservice.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @Transactional
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserEventPublisher userEventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, UserEventPublisher userEventPublisher) {
         this.userRepository = userRepository;
+        this.userEventPublisher = userEventPublisher;
     }
 
     @Override
@@ -23,5 +28,19 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> getUserIds(Long afterId, int limit) {
+        return userRepository.findIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        User user = getUserById(id);
+        userRepository.delete(user);
+        userRepository.flush();
+        userEventPublisher.publishUserDeleted(id);
+    }
+
     // Implement other methods from UserService interface as needed
 }